@@ -0,0 +1,33 @@
+package org.jzy3d.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of <code>target/benchmarks.jar</code>.
+ * 
+ * Accepts the regular JMH command line (e.g. <code>java -jar target/benchmarks.jar Ordering -p
+ * polygons=200000</code>) and always enables the {@link GCProfiler} so that each benchmark reports
+ * <code>gc.alloc.rate.norm</code>, i.e. the number of bytes allocated per frame, besides the ns per
+ * frame.
+ * 
+ * Benchmarks run headless : no window is ever opened.
+ */
+public class BenchmarkRunner {
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    System.setProperty("java.awt.headless", "true");
+
+    Options options = new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .addProfiler(GCProfiler.class)
+        .jvmArgsAppend("-Djava.awt.headless=true")
+        .build();
+
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,100 @@
+package org.jzy3d.benchmarks;
+
+import org.jzy3d.chart.Chart;
+import org.jzy3d.chart.factories.EmulGLChartFactory;
+import org.jzy3d.colors.Color;
+import org.jzy3d.colors.ColorMapper;
+import org.jzy3d.colors.colormaps.ColorMapRainbow;
+import org.jzy3d.maths.Range;
+import org.jzy3d.plot3d.builder.Mapper;
+import org.jzy3d.plot3d.builder.SurfaceBuilder;
+import org.jzy3d.plot3d.builder.concrete.OrthonormalGrid;
+import org.jzy3d.plot3d.primitives.Shape;
+import org.jzy3d.plot3d.rendering.canvas.EmulGLCanvas;
+import org.jzy3d.plot3d.rendering.canvas.Quality;
+
+/**
+ * Scene fixtures shared by all benchmarks so that suites measure the same content.
+ * 
+ * Charts are built with an {@link EmulGLChartFactory} configured offscreen : the
+ * {@link EmulGLCanvas} is never added to a window hence has no AWT peer, which let the benchmarks
+ * run headless (<code>-Djava.awt.headless=true</code>).
+ */
+public class BenchmarkScenes {
+  public static final Range RANGE = new Range(-3, 3);
+
+  public static final Mapper MAPPER = new Mapper() {
+    @Override
+    public double f(double x, double y) {
+      return x * Math.sin(x * y);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+      return true;
+    }
+  };
+
+  /**
+   * Return the number of grid steps required by an {@link OrthonormalGrid} to produce a surface
+   * made of (at least) the given number of polygons.
+   */
+  public static int steps(int polygons) {
+    return (int) Math.ceil(Math.sqrt(polygons)) + 1;
+  }
+
+  public static OrthonormalGrid grid(int polygons) {
+    return new OrthonormalGrid(RANGE, steps(polygons));
+  }
+
+  /** Build a translucent surface made of the given number of polygons. */
+  public static Shape surface(int polygons) {
+    Shape surface = new SurfaceBuilder().orthonormal(grid(polygons), MAPPER);
+    surface.setColorMapper(new ColorMapper(new ColorMapRainbow(), surface.getBounds().getZmin(),
+        surface.getBounds().getZmax(), new Color(1, 1, 1, .5f)));
+    surface.setFaceDisplayed(true);
+    surface.setWireframeDisplayed(true);
+    surface.setWireframeColor(Color.BLACK);
+    return surface;
+  }
+
+  /** Return a {@link Quality} preset out of its name, e.g. "Advanced". */
+  public static Quality quality(String name) {
+    switch (name) {
+      case "Fastest":
+        return Quality.Fastest();
+      case "Intermediate":
+        return Quality.Intermediate();
+      case "Advanced":
+        return Quality.Advanced();
+      case "Nicest":
+        return Quality.Nicest();
+      default:
+        throw new IllegalArgumentException("Unknown quality : " + name);
+    }
+  }
+
+  /** Parse a canvas size given as "WIDTHxHEIGHT". */
+  public static int[] size(String size) {
+    String[] wh = size.toLowerCase().split("x");
+    if (wh.length != 2)
+      throw new IllegalArgumentException("Expect WIDTHxHEIGHT, got : " + size);
+    return new int[] {Integer.parseInt(wh[0].trim()), Integer.parseInt(wh[1].trim())};
+  }
+
+  /**
+   * Build an offscreen EmulGL chart of the given size, which canvas will never get an AWT peer.
+   */
+  public static Chart emulGLChart(int width, int height, Quality quality) {
+    EmulGLChartFactory factory = new EmulGLChartFactory();
+    factory.getPainterFactory().setOffscreen(width, height);
+
+    Chart chart = factory.newChart(quality);
+
+    EmulGLCanvas canvas = (EmulGLCanvas) chart.getCanvas();
+    canvas.setSize(width, height);
+    return chart;
+  }
+
+  private BenchmarkScenes() {}
+}
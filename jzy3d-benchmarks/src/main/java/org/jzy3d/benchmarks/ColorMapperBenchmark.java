@@ -0,0 +1,76 @@
+package org.jzy3d.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.colors.Color;
+import org.jzy3d.colors.ColorMapper;
+import org.jzy3d.colors.colormaps.ColorMapLookupTable;
+import org.jzy3d.colors.colormaps.ColorMapRainbow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measure the cost of coloring values, one {@link Color} at a time or in batch through a
+ * {@link ColorMapLookupTable}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ColorMapperBenchmark {
+  @Param({"10000", "1000000"})
+  public int values;
+
+  protected float[] input;
+  protected float[] rgba;
+  protected int[] argb;
+  protected ColorMapper rainbow;
+  protected ColorMapper lookup;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random r = new Random(0);
+    input = new float[values];
+    for (int i = 0; i < values; i++)
+      input[i] = r.nextFloat();
+
+    rgba = new float[values * 4];
+    argb = new int[values];
+    rainbow = new ColorMapper(new ColorMapRainbow(), 0, 1);
+    lookup = new ColorMapper(new ColorMapLookupTable(new ColorMapRainbow()), 0, 1);
+  }
+
+  /** {@link ColorMapper#getColor(double)} for each value. */
+  @Benchmark
+  public void getColor(Blackhole bh) {
+    for (int i = 0; i < input.length; i++)
+      bh.consume(rainbow.getColor(input[i]));
+  }
+
+  /** {@link ColorMapper#getColors(float[], int, int, float[])} with a lookup table. */
+  @Benchmark
+  public float[] getColorsLookup() {
+    lookup.getColors(input, 0, input.length, rgba);
+    return rgba;
+  }
+
+  /** {@link ColorMapper#getPackedColors(float[], int, int, int[])} with a lookup table. */
+  @Benchmark
+  public int[] getPackedColorsLookup() {
+    lookup.getPackedColors(input, 0, input.length, argb);
+    return argb;
+  }
+}
@@ -0,0 +1,71 @@
+package org.jzy3d.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.plot3d.builder.contour.MarchingSquaresContourBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the cost of extracting contour polylines from a square height grid with marching squares,
+ * on the common pool or on the calling thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ContourBenchmark {
+  @Param({"1024", "4096"})
+  public int steps;
+
+  @Param({"50"})
+  public int levels;
+
+  @Param({"true", "false"})
+  public boolean parallel;
+
+  protected float[] x;
+  protected float[] y;
+  protected float[] z;
+  protected double[] contourLevels;
+  protected MarchingSquaresContourBuilder builder;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    x = new float[steps];
+    y = new float[steps];
+    for (int i = 0; i < steps; i++) {
+      x[i] = -3 + 6f * i / (steps - 1);
+      y[i] = -3 + 6f * i / (steps - 1);
+    }
+
+    z = new float[steps * steps];
+    for (int xi = 0; xi < steps; xi++)
+      for (int yi = 0; yi < steps; yi++)
+        z[xi * steps + yi] = (float) (Math.sin(x[xi] * 2) * Math.cos(y[yi] * 3)
+            + 0.1 * (x[xi] * x[xi] + y[yi] * y[yi]));
+
+    contourLevels = MarchingSquaresContourBuilder.levels(-1, 2.8, levels);
+
+    builder = new MarchingSquaresContourBuilder();
+    if (!parallel)
+      builder.setPool(null);
+  }
+
+  /** {@link MarchingSquaresContourBuilder#polylines(float[], float[], float[], double[])} */
+  @Benchmark
+  public float[][][] polylines() {
+    return builder.polylines(x, y, z, contourLevels);
+  }
+}
@@ -0,0 +1,64 @@
+package org.jzy3d.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.plot2d.primitives.MinMaxPyramid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the cost of downsampling a long signal to the pixel columns of a chart, while zooming on
+ * a tenth of it, against reading all samples of the zoomed range as a line strip does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DownsamplingBenchmark {
+  @Param({"1000000", "10000000"})
+  public int samples;
+
+  @Param({"1920"})
+  public int columns;
+
+  protected MinMaxPyramid pyramid;
+  protected float[] xy;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random r = new Random(0);
+    pyramid = new MinMaxPyramid(samples);
+    for (int i = 0; i < samples; i++)
+      pyramid.add(i, (float) Math.sin(i * 0.0001) + r.nextFloat());
+    xy = new float[MinMaxPyramid.maxDownsampledPoints(columns) * 2];
+  }
+
+  /** {@link MinMaxPyramid#downsample(double, double, int, float[])} */
+  @Benchmark
+  public int downsample() {
+    return pyramid.downsample(samples * 0.45, samples * 0.55, columns, xy);
+  }
+
+  /** Read every sample of the range, the lower bound of drawing them all. */
+  @Benchmark
+  public float scanRange() {
+    float sum = 0;
+    int from = pyramid.indexOf(samples * 0.45);
+    int to = pyramid.indexOf(samples * 0.55);
+    for (int i = from; i < to; i++)
+      sum += pyramid.getY(i);
+    return sum;
+  }
+}
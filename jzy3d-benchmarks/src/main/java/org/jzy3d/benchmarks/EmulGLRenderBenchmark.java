@@ -0,0 +1,78 @@
+package org.jzy3d.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.chart.Chart;
+import org.jzy3d.maths.Coord2d;
+import org.jzy3d.plot3d.rendering.canvas.EmulGLCanvas;
+import org.jzy3d.plot3d.rendering.canvas.Quality;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure a complete EmulGL frame as produced by {@link EmulGLCanvas#doRender()} : view clear,
+ * camera, axis box, scene graph decomposition and sorting, jGL rasterization and glFlush.
+ * 
+ * The canvas is never shown, which means it has no AWT peer and can run headless.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EmulGLRenderBenchmark {
+  @Param({"10000", "200000"})
+  public int polygons;
+
+  @Param({"500x500", "1920x1080"})
+  public String canvasSize;
+
+  @Param({"Fastest", "Advanced", "Nicest"})
+  public String quality;
+
+  protected Chart chart;
+  protected EmulGLCanvas canvas;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    int[] size = BenchmarkScenes.size(canvasSize);
+    Quality q = BenchmarkScenes.quality(quality);
+
+    chart = BenchmarkScenes.emulGLChart(size[0], size[1], q);
+    chart.add(BenchmarkScenes.surface(polygons));
+
+    canvas = (EmulGLCanvas) chart.getCanvas();
+    canvas.doRender();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    chart.dispose();
+  }
+
+  /** A frame rendered with an unchanged viewpoint. */
+  @Benchmark
+  public EmulGLCanvas frame() {
+    canvas.doRender();
+    return canvas;
+  }
+
+  /** A frame rendered after a small rotation, as when the user drags the mouse. */
+  @Benchmark
+  public EmulGLCanvas frameRotating() {
+    chart.getView().rotate(new Coord2d(0.01, 0), false);
+    canvas.doRender();
+    return canvas;
+  }
+}
@@ -0,0 +1,76 @@
+package org.jzy3d.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.chart.Chart;
+import org.jzy3d.maths.Coord2d;
+import org.jzy3d.painters.IPainter;
+import org.jzy3d.plot3d.primitives.Drawable;
+import org.jzy3d.plot3d.rendering.scene.Decomposition;
+import org.jzy3d.plot3d.rendering.scene.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the scene graph work performed at each frame : decomposition of composites into
+ * monotypes, and {@link Graph#drawDecomposition(IPainter)} which decompose, sort and submit all
+ * monotypes to the EmulGL painter.
+ *
+ * {@link #decomposition()} measures a full decomposition of the graph content, i.e. the work the
+ * graph performs when its cached decomposition is invalidated. It does not call
+ * {@link Graph#getDecomposition()}, which would measure a copy of the cached list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GraphBenchmark {
+  @Param({"10000", "200000"})
+  public int polygons;
+
+  protected Chart chart;
+  protected Graph graph;
+  protected IPainter painter;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    chart = BenchmarkScenes.emulGLChart(500, 500, BenchmarkScenes.quality("Advanced"));
+    chart.add(BenchmarkScenes.surface(polygons));
+
+    graph = chart.getScene().getGraph();
+    painter = chart.getPainter();
+
+    // render once to get a camera and a transform set
+    chart.render();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    chart.dispose();
+  }
+
+  @Benchmark
+  public List<Drawable> decomposition() {
+    return Decomposition.getDecomposition(graph.getAll());
+  }
+
+  @Benchmark
+  public Graph drawDecomposition() {
+    chart.getView().rotate(new Coord2d(0.01, 0), false);
+    graph.drawDecomposition(painter);
+    return graph;
+  }
+}
@@ -0,0 +1,136 @@
+package org.jzy3d.benchmarks;
+
+import java.awt.Canvas;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import jgl.GL;
+
+/**
+ * Measure jGL alone, without any Jzy3d object in the loop : a grid of depth tested quads is
+ * submitted in immediate mode, which exercises the geometry stage, clipping and the
+ * <code>gl_render</code>/<code>gl_smooth</code>/<code>gl_depth</code> rasterizers.
+ * 
+ * The {@link Canvas} given to jGL has no AWT peer, which let this benchmark run headless.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JGLRasterBenchmark {
+  @Param({"10000", "200000"})
+  public int polygons;
+
+  @Param({"500x500", "1920x1080", "3840x2160"})
+  public String canvasSize;
+
+  @Param({"true", "false"})
+  public boolean smooth;
+
+  @Param({"true", "false"})
+  public boolean blend;
+
+  /** Number of threads rasterizing by tiles, 1 for the single threaded rasterizer. */
+  @Param({"1", "4"})
+  public int threads;
+
+  /** Let glFlush expose the color buffer as an image instead of copying it. */
+  @Param({"false", "true"})
+  public boolean zeroCopyFlush;
+
+  protected jgl.wt.awt.GL gl;
+  protected int steps;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    int[] size = BenchmarkScenes.size(canvasSize);
+
+    Canvas canvas = new Canvas();
+    canvas.setSize(size[0], size[1]);
+
+    gl = new jgl.wt.awt.GL();
+    gl.setAutoAdaptToHiDPI(false);
+    gl.setZeroCopyFlush(zeroCopyFlush);
+    gl.glXMakeCurrent(canvas, 0, 0);
+    gl.glViewport(0, 0, size[0], size[1]);
+    gl.setTiledRenderingThreads(threads);
+
+    gl.glMatrixMode(GL.GL_PROJECTION);
+    gl.glLoadIdentity();
+    gl.glOrtho(-1, 1, -1, 1, -10, 10);
+    gl.glMatrixMode(GL.GL_MODELVIEW);
+    gl.glLoadIdentity();
+    gl.glRotatef(30, 1, 0, 0);
+    gl.glRotatef(30, 0, 0, 1);
+
+    gl.glEnable(GL.GL_DEPTH_TEST);
+    gl.glShadeModel(smooth ? GL.GL_SMOOTH : GL.GL_FLAT);
+
+    if (blend) {
+      gl.glEnable(GL.GL_BLEND);
+      gl.glBlendFunc(GL.GL_SRC_ALPHA, GL.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    steps = BenchmarkScenes.steps(polygons) - 1;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    gl.setTiledRenderingThreads(1);
+  }
+
+  /** Rasterize a frame into the color and depth buffers. */
+  @Benchmark
+  public jgl.wt.awt.GL render() {
+    gl.glClear(GL.GL_COLOR_BUFFER_BIT | GL.GL_DEPTH_BUFFER_BIT);
+    drawGrid();
+    gl.getPointer().gl_flush_tiles();
+    return gl;
+  }
+
+  /** Rasterize a frame and flush it to an image, as done by the EmulGL canvas. */
+  @Benchmark
+  public jgl.wt.awt.GL renderAndFlush() {
+    gl.glClear(GL.GL_COLOR_BUFFER_BIT | GL.GL_DEPTH_BUFFER_BIT);
+    drawGrid();
+    gl.glFlush();
+    return gl;
+  }
+
+  protected void drawGrid() {
+    float cell = 1.6f / steps;
+
+    gl.glBegin(GL.GL_QUADS);
+    for (int i = 0; i < steps; i++) {
+      for (int j = 0; j < steps; j++) {
+        float x = -0.8f + i * cell;
+        float y = -0.8f + j * cell;
+
+        vertex(x, y);
+        vertex(x + cell, y);
+        vertex(x + cell, y + cell);
+        vertex(x, y + cell);
+      }
+    }
+    gl.glEnd();
+  }
+
+  protected void vertex(float x, float y) {
+    float z = (float) (0.3 * Math.sin(4 * x) * Math.cos(4 * y));
+    gl.glColor4f(0.5f + x / 2, 0.5f + y / 2, 0.5f + z, 0.5f);
+    gl.glVertex3f(x, y, z);
+  }
+}
@@ -0,0 +1,102 @@
+package org.jzy3d.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.io.IMeshHandler;
+import org.jzy3d.io.MeshArrays;
+import org.jzy3d.io.obj.OBJFile;
+import org.jzy3d.io.obj.ObjParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the cost of parsing an OBJ surface held in memory, so that parsing is compared to the
+ * cost of merely reading its bytes rather than to disk throughput.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MeshParserBenchmark {
+  @Param({"10000", "1000000"})
+  public int polygons;
+
+  protected byte[] obj;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    int steps = BenchmarkScenes.steps(polygons / 2);
+    StringBuilder text = new StringBuilder();
+
+    for (int i = 0; i < steps; i++)
+      for (int j = 0; j < steps; j++) {
+        float x = i / (float) steps;
+        float y = j / (float) steps;
+        text.append("v ").append(x).append(' ').append(y).append(' ')
+            .append((float) BenchmarkScenes.MAPPER.f(x, y)).append('\n');
+      }
+
+    for (int i = 0; i < steps - 1; i++)
+      for (int j = 0; j < steps - 1; j++) {
+        int a = i * steps + j + 1;
+        text.append("f ").append(a).append(' ').append(a + steps).append(' ')
+            .append(a + steps + 1).append(' ').append(a + 1).append('\n');
+      }
+    obj = text.toString().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /** Baseline : touch each byte once. */
+  @Benchmark
+  public int readBytes() {
+    int lines = 0;
+    for (byte b : obj)
+      if (b == '\n')
+        lines++;
+    return lines;
+  }
+
+  /** {@link OBJFile#loadModelFromStream(java.io.InputStream)}, filling boxed lists. */
+  @Benchmark
+  public OBJFile objFile() {
+    OBJFile file = new OBJFile();
+    file.loadModelFromStream(new ByteArrayInputStream(obj));
+    return file;
+  }
+
+  /** {@link ObjParser#parse(ByteBuffer, IMeshHandler)} to a handler counting vertices. */
+  @Benchmark
+  public int parseStreaming() throws IOException {
+    int[] count = new int[1];
+    new ObjParser().parse(ByteBuffer.wrap(obj), new IMeshHandler() {
+      @Override
+      public void vertex(float x, float y, float z) {
+        count[0]++;
+      }
+
+      @Override
+      public void face(int[] vertices, int[] normals, int count) {}
+    });
+    return count[0];
+  }
+
+  /** {@link ObjParser#read(ByteBuffer)}, parsing chunks on the common pool. */
+  @Benchmark
+  public MeshArrays readParallel() throws IOException {
+    return new ObjParser().read(ByteBuffer.wrap(obj));
+  }
+}
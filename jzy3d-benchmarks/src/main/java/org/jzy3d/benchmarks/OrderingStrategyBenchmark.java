@@ -0,0 +1,93 @@
+package org.jzy3d.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.plot3d.primitives.Drawable;
+import org.jzy3d.plot3d.primitives.Shape;
+import org.jzy3d.plot3d.rendering.ordering.AbstractOrderingStrategy;
+import org.jzy3d.plot3d.rendering.ordering.BarycentreOrderingStrategy;
+import org.jzy3d.plot3d.rendering.ordering.SortMode;
+import org.jzy3d.plot3d.rendering.view.Camera;
+import org.jzy3d.plot3d.rendering.scene.Decomposition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measure {@link AbstractOrderingStrategy#sort(List, Camera)} as invoked by the graph at each
+ * frame.
+ * 
+ * The camera eye slightly rotates around the scene between two invocations, which reproduces what
+ * happens while a user rotates a chart with the mouse : the list to sort is the one sorted at the
+ * previous frame.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderingStrategyBenchmark {
+  @Param({"10000", "200000"})
+  public int polygons;
+
+  /** Angle step of the camera between two frames, in radians. */
+  @Param({"0.01"})
+  public double rotationStep;
+
+  @Param({"COMPARATOR", "PRECOMPUTED_SCORES", "INCREMENTAL"})
+  public SortMode sortMode;
+
+  protected List<Drawable> monotypes;
+  protected AbstractOrderingStrategy strategy;
+  protected Camera camera;
+  protected double angle = 0;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Shape surface = BenchmarkScenes.surface(polygons);
+
+    List<Drawable> drawables = new ArrayList<>();
+    drawables.add(surface);
+    monotypes = Decomposition.getDecomposition(drawables);
+
+    camera = new Camera(surface.getBounds().getCenter());
+    strategy = new BarycentreOrderingStrategy();
+    strategy.setSortMode(sortMode);
+    moveCamera();
+  }
+
+  @Benchmark
+  public List<Drawable> sort() {
+    moveCamera();
+    strategy.sort(monotypes, camera);
+    return monotypes;
+  }
+
+  @Benchmark
+  public void score(Blackhole blackhole) {
+    moveCamera();
+    strategy.setCamera(camera);
+    for (Drawable d : monotypes) {
+      blackhole.consume(strategy.score(d));
+    }
+  }
+
+  protected void moveCamera() {
+    angle += rotationStep;
+    float radius = 20;
+    camera.setEye(new Coord3d(radius * Math.cos(angle), radius * Math.sin(angle), radius / 2));
+  }
+}
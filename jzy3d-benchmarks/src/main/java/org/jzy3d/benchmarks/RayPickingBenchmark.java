@@ -0,0 +1,66 @@
+package org.jzy3d.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.chart.controllers.mouse.picking.PickingRay;
+import org.jzy3d.chart.controllers.mouse.picking.RayPickingSupport;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.plot3d.primitives.pickable.Pickable;
+import org.jzy3d.plot3d.primitives.pickable.PickablePoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the cost of picking the vertices of a 2d graph under the mouse with
+ * {@link RayPickingSupport}, excluding the unprojection of the mouse position.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RayPickingBenchmark {
+  @Param({"10000", "100000"})
+  public int vertices;
+
+  /** Compare all bounds with the hierarchy before picking, or rely on notified moves. */
+  @Param({"true", "false"})
+  public boolean refreshBeforePick;
+
+  protected RayPickingSupport picking;
+  protected PickingRay ray;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random r = new Random(0);
+    picking = new RayPickingSupport();
+    picking.setRefreshBeforePick(refreshBeforePick);
+
+    for (int i = 0; i < vertices; i++) {
+      Coord3d c = new Coord3d(r.nextFloat(), r.nextFloat(), 0);
+      picking.registerPickableObject(new PickablePoint(c), i);
+    }
+
+    // a view from the top, picking a brush of about 1/200 of the graph width
+    ray = new PickingRay(new Coord3d(0.5, 0.5, 10), new Coord3d(0.5, 0.5, -10), 0.0025, 0.0025,
+        new Coord3d(1, 1, 1));
+  }
+
+  /** {@link RayPickingSupport#pick(PickingRay)} */
+  @Benchmark
+  public List<Pickable> pick() {
+    return picking.pick(ray);
+  }
+}
@@ -0,0 +1,81 @@
+package org.jzy3d.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.plot3d.rendering.view.ScreenProjection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the cost of projecting a scatter to screen, as done for a rectangle selection : one
+ * gluProject and one {@link Coord3d} per point against a {@link ScreenProjection} writing to a
+ * reused array.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ScreenProjectionBenchmark {
+  @Param({"100000", "5000000"})
+  public int points;
+
+  /** Project on the common pool, or on the benchmark thread. */
+  @Param({"true", "false"})
+  public boolean parallel;
+
+  protected float[] modelView =
+      {0.8f, 0.1f, -0.5f, 0, -0.2f, 0.9f, 0.3f, 0, 0.5f, -0.3f, 0.8f, 0, 0.5f, -1.5f, -12, 1};
+  protected float[] projection =
+      {1.5f, 0, 0, 0, 0, 2, 0, 0, 0, 0, -1.0202f, -1, 0, 0, -2.0202f, 0};
+  protected int[] viewport = {0, 0, 1600, 1200};
+
+  protected Coord3d[] coordinates;
+  protected float[] screen;
+  protected ScreenProjection screenProjection;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random r = new Random(0);
+    coordinates = new Coord3d[points];
+    for (int i = 0; i < points; i++)
+      coordinates[i] = new Coord3d(r.nextFloat(), r.nextFloat(), r.nextFloat());
+
+    screen = new float[points * 3];
+    screenProjection = new ScreenProjection(modelView, projection, viewport);
+    screenProjection.setPool(parallel ? ForkJoinPool.commonPool() : null);
+  }
+
+  /** The former Camera.modelToScreen(painter, Coord3d[]) loop, a painter call per point. */
+  @Benchmark
+  public Coord3d[] gluProjectPerPoint() {
+    Coord3d[] out = new Coord3d[coordinates.length];
+    float[] win = new float[3];
+    for (int i = 0; i < coordinates.length; i++) {
+      Coord3d c = coordinates[i];
+      ScreenProjection.gluProject(c.x, c.y, c.z, modelView, 0, projection, 0, viewport, 0, win, 0);
+      out[i] = new Coord3d(win[0], win[1], win[2]);
+    }
+    return out;
+  }
+
+  /** {@link ScreenProjection#project(Coord3d[], float[])} */
+  @Benchmark
+  public float[] batched() {
+    screenProjection.project(coordinates, screen);
+    return screen;
+  }
+}
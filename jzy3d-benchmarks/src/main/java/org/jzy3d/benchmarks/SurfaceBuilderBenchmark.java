@@ -0,0 +1,77 @@
+package org.jzy3d.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Coordinates;
+import org.jzy3d.plot3d.builder.SurfaceBuilder;
+import org.jzy3d.plot3d.builder.concrete.OrthonormalGrid;
+import org.jzy3d.plot3d.builder.concrete.OrthonormalTessellator;
+import org.jzy3d.plot3d.primitives.Composite;
+import org.jzy3d.plot3d.primitives.Shape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the cost of building a surface : evaluating the mapper on the grid, then tessellating
+ * the grid into polygons.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SurfaceBuilderBenchmark {
+  @Param({"10000", "200000"})
+  public int polygons;
+
+  /** Evaluate the mapper on the common pool, or on the benchmark thread. */
+  @Param({"true", "false"})
+  public boolean parallel;
+
+  protected OrthonormalGrid grid;
+  protected List<Coord3d> coordinates;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    grid = BenchmarkScenes.grid(polygons);
+    grid.setPool(parallel ? ForkJoinPool.commonPool() : null);
+    coordinates = grid.apply(BenchmarkScenes.MAPPER);
+  }
+
+  /** {@link SurfaceBuilder#orthonormal(OrthonormalGrid, org.jzy3d.plot3d.builder.Mapper)} */
+  @Benchmark
+  public Shape orthonormal() {
+    return new SurfaceBuilder().orthonormal(grid, BenchmarkScenes.MAPPER);
+  }
+
+  /** Grid evaluation only. */
+  @Benchmark
+  public List<Coord3d> gridApply() {
+    return grid.apply(BenchmarkScenes.MAPPER);
+  }
+
+  /** Grid evaluation only, without building a {@link Coord3d} per point. */
+  @Benchmark
+  public Coordinates gridApplyAsCoordinates() {
+    return grid.applyAsCoordinates(BenchmarkScenes.MAPPER);
+  }
+
+  /** Tessellation only. */
+  @Benchmark
+  public Composite tessellate() {
+    return new OrthonormalTessellator().build(coordinates);
+  }
+}
@@ -0,0 +1,110 @@
+package org.jzy3d.benchmarks;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.colors.ColorMapper;
+import org.jzy3d.colors.colormaps.ColorMapRainbow;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.plot3d.primitives.volume.VolumeRayMarcher;
+import org.jzy3d.plot3d.primitives.volume.VoxelGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the cost of ray marching a sparse volume seen in perspective to a 512x512 image, with or
+ * without skipping the transparent bricks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class VolumeRayMarchingBenchmark {
+  @Param({"128", "256"})
+  public int size;
+
+  @Param({"true", "false"})
+  public boolean skipEmptySpace;
+
+  public int width = 512;
+  public int height = 512;
+
+  protected VolumeRayMarcher marcher;
+  protected double[] mvp;
+  protected int[] image;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    // a few spheres fading from their center in an otherwise empty volume
+    FloatBuffer values = FloatBuffer.allocate(size * size * size);
+    double[][] centers = {{0.3, 0.3, 0.3}, {0.7, 0.4, 0.6}, {0.5, 0.7, 0.4}};
+    double radius = 0.15 * size;
+    for (int z = 0; z < size; z++) {
+      for (int y = 0; y < size; y++) {
+        for (int x = 0; x < size; x++) {
+          float v = 0;
+          for (double[] c : centers) {
+            double dx = x - c[0] * size;
+            double dy = y - c[1] * size;
+            double dz = z - c[2] * size;
+            v = Math.max(v, (float) (1 - Math.sqrt(dx * dx + dy * dy + dz * dz) / radius));
+          }
+          values.put((z * size + y) * size + x, v);
+        }
+      }
+    }
+
+    ColorMapper mapper = new ColorMapper(new ColorMapRainbow(), 0, 1);
+    BoundingBox3d bounds = new BoundingBox3d(-1, 1, -1, 1, -1, 1);
+    marcher = new VolumeRayMarcher(new VoxelGrid(values, new int[] {size, size, size}), mapper,
+        bounds);
+    marcher.setSkipEmptySpace(skipEmptySpace);
+
+    mvp = perspective(30, 3);
+    image = new int[width * height];
+  }
+
+  /**
+   * A column major projection of the volume rotated around Y then X, seen from a distance with a
+   * vertical field of view of 60 degrees.
+   */
+  protected static double[] perspective(double degrees, double distance) {
+    double a = Math.toRadians(degrees);
+    double ca = Math.cos(a);
+    double sa = Math.sin(a);
+    double near = 1;
+    double far = 5;
+    double f = 1 / Math.tan(Math.toRadians(30));
+
+    // view = translate(0,0,-distance) * rotateX(a) * rotateY(a), row major
+    double[][] view = {{ca, 0, sa, 0}, {sa * sa, ca, -sa * ca, 0}, {-ca * sa, sa, ca * ca, -distance},
+        {0, 0, 0, 1}};
+    double[][] projection = {{f, 0, 0, 0}, {0, f, 0, 0},
+        {0, 0, (far + near) / (near - far), 2 * far * near / (near - far)}, {0, 0, -1, 0}};
+
+    double[] mvp = new double[16];
+    for (int row = 0; row < 4; row++)
+      for (int col = 0; col < 4; col++)
+        for (int k = 0; k < 4; k++)
+          mvp[col * 4 + row] += projection[row][k] * view[k][col];
+    return mvp;
+  }
+
+  /** {@link VolumeRayMarcher#render(double[], int, int, float[], int[])} */
+  @Benchmark
+  public int[] render() {
+    marcher.render(mvp, width, height, null, image);
+    return image;
+  }
+}
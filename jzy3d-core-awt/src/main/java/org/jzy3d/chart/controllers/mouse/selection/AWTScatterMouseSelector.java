@@ -3,7 +3,6 @@ package org.jzy3d.chart.controllers.mouse.selection;
 import java.awt.Graphics2D;
 import org.jzy3d.chart.Chart;
 import org.jzy3d.maths.Coord2d;
-import org.jzy3d.maths.Coord3d;
 import org.jzy3d.maths.IntegerCoord2d;
 import org.jzy3d.plot3d.primitives.selectable.SelectableScatter;
 import org.jzy3d.plot3d.rendering.scene.Scene;
@@ -27,14 +26,16 @@ public class AWTScatterMouseSelector extends AWTAbstractMouseSelector {
   @Override
   protected void processSelection(Scene scene, View view, int width, int height) {
     view.project();
-    Coord3d[] projection = scatter.getProjection();
+    float[] projection = scatter.getProjectionArray();
+    if (projection == null)
+      return;
     
     Coord2d pixScale = getPixelScale();
     IntegerCoord2d from = in.mul(pixScale);
     IntegerCoord2d to = out.mul(pixScale);
     
-    for (int i = 0; i < projection.length; i++)
-      if (matchRectangleSelection(from, to, projection[i], width, height))
+    for (int i = 0, k = 0; k < projection.length; i++, k += 3)
+      if (matchRectangleSelection(from, to, projection[k], projection[k + 1], width, height))
         scatter.setHighlighted(i, true);
   }
 
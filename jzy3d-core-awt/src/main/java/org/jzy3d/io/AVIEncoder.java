@@ -0,0 +1,240 @@
+package org.jzy3d.io;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Write frames in an uncompressed AVI file (24 bits RGB), readable by most video players and
+ * editors without any codec.
+ *
+ * The video has the size of the first frame. Next frames of a different size are cropped or padded
+ * with black. Alpha is ignored.
+ *
+ * The file follows the AVI 1.0 format, whose sizes and index offsets are unsigned 32 bits integers :
+ * {@link #encode(BufferedImage, int)} throws an {@link IOException} for a frame that would make the
+ * file exceed 4 GB. The frames encoded before remain readable once the encoder is closed.
+ *
+ * Frames must be encoded in order, hence this encoder is not thread safe.
+ */
+public class AVIEncoder implements AWTFrameEncoder {
+  protected static final int AVIF_HASINDEX = 0x10;
+  protected static final int AVIIF_KEYFRAME = 0x10;
+
+  // header offsets patched when closing
+  protected static final int RIFF_SIZE = 4;
+  protected static final int AVIH_TOTAL_FRAMES = 48;
+  protected static final int STRH_LENGTH = 140;
+  protected static final int MOVI_SIZE = 216;
+  protected static final int MOVI_START = 220;
+
+  /** Largest size of the RIFF chunk of an AVI 1.0 file. */
+  protected static final long MAX_RIFF_SIZE = 0xFFFFFFFFL;
+
+  protected File file;
+  protected int framesPerSecond;
+
+  protected FileChannel channel;
+  protected int width;
+  protected int height;
+  protected int frameSize;
+  protected ByteBuffer frameBuffer;
+  protected int[] row;
+
+  protected int frames = 0;
+  protected int[] index = new int[256];
+  protected long maxRiffSize = MAX_RIFF_SIZE;
+
+  public AVIEncoder(File file, int framesPerSecond) {
+    if (framesPerSecond < 1)
+      throw new IllegalArgumentException("Frame rate must be positive : " + framesPerSecond);
+
+    this.file = file;
+    this.framesPerSecond = framesPerSecond;
+  }
+
+  @Override
+  public void encode(BufferedImage image, int frame) throws IOException {
+    if (channel == null)
+      open(image.getWidth(), image.getHeight());
+
+    // the file must still hold the frame and the index once closed
+    long riffSize = channel.position() + 8 + frameSize + 8 + (frames + 1) * 16L - 8;
+    if (riffSize > maxRiffSize)
+      throw new IOException("Frame " + frame + " would exceed the AVI 1.0 size limit after "
+          + frames + " frames : " + file);
+
+    int w = Math.min(width, image.getWidth());
+    int rowSize = rowSize(width);
+
+    frameBuffer.clear();
+    putFourCC(frameBuffer, "00db");
+    frameBuffer.putInt(frameSize);
+
+    // DIB rows are stored bottom up, as BGR triplets padded to 4 bytes
+    for (int y = height - 1; y >= 0; y--) {
+      int start = frameBuffer.position();
+
+      if (y < image.getHeight()) {
+        image.getRGB(0, y, w, 1, row, 0, width);
+        for (int x = 0; x < w; x++) {
+          int argb = row[x];
+          frameBuffer.put((byte) argb);
+          frameBuffer.put((byte) (argb >> 8));
+          frameBuffer.put((byte) (argb >> 16));
+        }
+      }
+      // pad cropped rows with black
+      while (frameBuffer.position() < start + rowSize)
+        frameBuffer.put((byte) 0);
+    }
+    frameBuffer.flip();
+
+    long offset = channel.position() - MOVI_START;
+    while (frameBuffer.hasRemaining())
+      channel.write(frameBuffer);
+
+    if (frames * 2 + 2 > index.length)
+      index = Arrays.copyOf(index, index.length * 2);
+    // offsets and sizes are unsigned 32 bits integers
+    index[frames * 2] = (int) offset;
+    index[frames * 2 + 1] = frameSize;
+    frames++;
+  }
+
+  protected void open(int width, int height) throws IOException {
+    this.width = width;
+    this.height = height;
+    this.frameSize = rowSize(width) * height;
+    this.frameBuffer = ByteBuffer.allocate(frameSize + 8).order(ByteOrder.LITTLE_ENDIAN);
+    this.row = new int[width];
+
+    channel = new RandomAccessFile(file, "rw").getChannel();
+    channel.truncate(0);
+
+    ByteBuffer header = ByteBuffer.allocate(MOVI_START + 4).order(ByteOrder.LITTLE_ENDIAN);
+    putFourCC(header, "RIFF");
+    header.putInt(0); // patched at close
+    putFourCC(header, "AVI ");
+
+    putFourCC(header, "LIST");
+    header.putInt(192);
+    putFourCC(header, "hdrl");
+
+    putFourCC(header, "avih");
+    header.putInt(56);
+    header.putInt(1000000 / framesPerSecond);
+    header.putInt(frameSize * framesPerSecond);
+    header.putInt(0);
+    header.putInt(AVIF_HASINDEX);
+    header.putInt(0); // total frames, patched at close
+    header.putInt(0);
+    header.putInt(1);
+    header.putInt(frameSize + 8);
+    header.putInt(width);
+    header.putInt(height);
+    header.putInt(0).putInt(0).putInt(0).putInt(0);
+
+    putFourCC(header, "LIST");
+    header.putInt(116);
+    putFourCC(header, "strl");
+
+    putFourCC(header, "strh");
+    header.putInt(56);
+    putFourCC(header, "vids");
+    putFourCC(header, "DIB ");
+    header.putInt(0);
+    header.putShort((short) 0).putShort((short) 0);
+    header.putInt(0);
+    header.putInt(1);
+    header.putInt(framesPerSecond);
+    header.putInt(0);
+    header.putInt(0); // length, patched at close
+    header.putInt(frameSize + 8);
+    header.putInt(-1);
+    header.putInt(0);
+    header.putShort((short) 0).putShort((short) 0);
+    header.putShort((short) width).putShort((short) height);
+
+    putFourCC(header, "strf");
+    header.putInt(40);
+    header.putInt(40);
+    header.putInt(width);
+    header.putInt(height);
+    header.putShort((short) 1);
+    header.putShort((short) 24);
+    header.putInt(0);
+    header.putInt(frameSize);
+    header.putInt(0).putInt(0).putInt(0).putInt(0);
+
+    putFourCC(header, "LIST");
+    header.putInt(0); // patched at close
+    putFourCC(header, "movi");
+
+    header.flip();
+    channel.write(header, 0);
+    channel.position(MOVI_START + 4);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (channel == null)
+      return;
+
+    try {
+      long moviEnd = channel.position();
+
+      ByteBuffer idx = ByteBuffer.allocate(8 + frames * 16).order(ByteOrder.LITTLE_ENDIAN);
+      putFourCC(idx, "idx1");
+      idx.putInt(frames * 16);
+      for (int i = 0; i < frames; i++) {
+        putFourCC(idx, "00db");
+        idx.putInt(AVIIF_KEYFRAME);
+        idx.putInt(index[i * 2]);
+        idx.putInt(index[i * 2 + 1]);
+      }
+      idx.flip();
+      while (idx.hasRemaining())
+        channel.write(idx);
+
+      long end = channel.position();
+      patch(RIFF_SIZE, (int) (end - 8));
+      patch(AVIH_TOTAL_FRAMES, frames);
+      patch(STRH_LENGTH, frames);
+      patch(MOVI_SIZE, (int) (moviEnd - MOVI_START));
+    } finally {
+      channel.close();
+      channel = null;
+    }
+  }
+
+  protected void patch(int position, int value) throws IOException {
+    ByteBuffer b = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+    b.putInt(value).flip();
+    channel.write(b, position);
+  }
+
+  protected static int rowSize(int width) {
+    return (width * 3 + 3) & ~3;
+  }
+
+  protected static void putFourCC(ByteBuffer buffer, String fourcc) {
+    buffer.put(fourcc.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /** Return the number of encoded frames. */
+  public int getFrameCount() {
+    return frames;
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return false;
+  }
+}
@@ -0,0 +1,26 @@
+package org.jzy3d.io;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Write the frames given by an {@link AsyncImageExporter}.
+ */
+public interface AWTFrameEncoder {
+  /**
+   * Encode the given frame. The image belongs to the caller and may be overwritten once this method
+   * returns.
+   *
+   * @param frame the index of the frame, starting at 0, incremented by one for each exported frame.
+   */
+  public void encode(BufferedImage image, int frame) throws IOException;
+
+  /** Called once all frames have been encoded. */
+  public void close() throws IOException;
+
+  /**
+   * Return true if frames can be encoded concurrently by several threads. If false, frames are
+   * encoded one at a time in their export order.
+   */
+  public boolean isThreadSafe();
+}
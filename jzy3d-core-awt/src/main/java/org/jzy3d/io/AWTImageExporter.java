@@ -6,4 +6,12 @@ import java.util.concurrent.TimeUnit;
 public interface AWTImageExporter {
   public void export(BufferedImage image);
   public void terminate(long timeout, TimeUnit unit);
+
+  /**
+   * Return true if {@link #export(BufferedImage)} copies the image before returning, in which case
+   * the canvas gives its rendered image without taking a snapshot of it first.
+   */
+  public default boolean isCopyingOnExport() {
+    return false;
+  }
 }
@@ -0,0 +1,314 @@
+package org.jzy3d.io;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Export rendered frames without encoding them on the rendering thread.
+ *
+ * {@link #export(BufferedImage)} copies the frame into a buffer taken from a pool and queues it.
+ * Worker threads take the queued frames and give them to an {@link AWTFrameEncoder}, e.g. a
+ * {@link PNGSequenceEncoder} or an {@link AVIEncoder}, then give the buffer back to the pool.
+ *
+ * When the queue is full, frames are either dropped or the rendering thread waits for a free slot,
+ * according to the {@link OverflowPolicy}. {@link #terminate(long, TimeUnit)} encodes the queued
+ * frames before closing the encoder.
+ *
+ * <pre>
+ * <code>
+ * canvas.setExporter(new AsyncImageExporter(new PNGSequenceEncoder(new File("target/frames"))));
+ * // ...
+ * canvas.getExporter().terminate(10, TimeUnit.SECONDS);
+ * </code>
+ * </pre>
+ */
+public class AsyncImageExporter implements AWTImageExporter {
+  /** What {@link AsyncImageExporter#export(BufferedImage)} does when the queue is full. */
+  public enum OverflowPolicy {
+    /** The frame is not exported, and counted in {@link AsyncImageExporter#getDroppedFrames()}. */
+    DROP,
+    /** The caller waits until a queued frame is taken by a worker. */
+    BLOCK
+  }
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+  /** Time a worker waits for a frame before checking if the exporter is terminated. */
+  protected static final long POLL_MILLIS = 50;
+
+  protected AWTFrameEncoder encoder;
+  protected OverflowPolicy policy;
+  protected BlockingQueue<Frame> queue;
+  protected BlockingQueue<BufferedImage> pool;
+  protected ExecutorService workers;
+
+  protected volatile boolean terminated = false;
+  protected int nextFrame = 0;
+  protected AtomicLong droppedFrames = new AtomicLong();
+  protected AtomicLong encodedFrames = new AtomicLong();
+  protected AtomicLong failedFrames = new AtomicLong();
+  protected volatile IOException lastError;
+
+  public AsyncImageExporter(AWTFrameEncoder encoder) {
+    this(encoder, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.DROP, 1);
+  }
+
+  /**
+   * @param queueCapacity the number of frames that can wait for being encoded.
+   * @param workers the number of threads encoding frames, reduced to 1 if the encoder is not
+   *        {@link AWTFrameEncoder#isThreadSafe()}.
+   */
+  public AsyncImageExporter(AWTFrameEncoder encoder, int queueCapacity, OverflowPolicy policy,
+      int workers) {
+    if (queueCapacity < 1)
+      throw new IllegalArgumentException("Queue capacity must be positive : " + queueCapacity);
+    if (workers < 1)
+      throw new IllegalArgumentException("Worker count must be positive : " + workers);
+
+    if (!encoder.isThreadSafe())
+      workers = 1;
+
+    this.encoder = encoder;
+    this.policy = policy;
+    this.queue = new ArrayBlockingQueue<Frame>(queueCapacity);
+    this.pool = new ArrayBlockingQueue<BufferedImage>(queueCapacity + workers);
+
+    AtomicInteger threads = new AtomicInteger();
+    this.workers = Executors.newFixedThreadPool(workers, r -> {
+      Thread t = new Thread(r, "AsyncImageExporter-" + threads.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    for (int i = 0; i < workers; i++)
+      this.workers.execute(this::encodeQueuedFrames);
+  }
+
+  /**
+   * Copy the image and queue it for encoding. The image can be modified by the caller as soon as
+   * this method returns.
+   */
+  @Override
+  public synchronized void export(BufferedImage image) {
+    if (terminated) {
+      droppedFrames.incrementAndGet();
+      return;
+    }
+
+    Frame frame = new Frame(copy(image), nextFrame);
+    boolean queued;
+
+    if (policy == OverflowPolicy.BLOCK) {
+      try {
+        queue.put(frame);
+        queued = true;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        queued = false;
+      }
+    } else {
+      queued = queue.offer(frame);
+    }
+
+    if (queued) {
+      nextFrame++;
+    } else {
+      droppedFrames.incrementAndGet();
+      recycle(frame.image);
+    }
+  }
+
+  /** The image is copied into a pooled buffer before being queued. */
+  @Override
+  public boolean isCopyingOnExport() {
+    return true;
+  }
+
+  /**
+   * Stop accepting frames, wait for the queued frames to be encoded, then close the encoder. After
+   * the timeout, workers are interrupted : frames that are still queued or whose encoding is
+   * interrupted are dropped.
+   */
+  @Override
+  public void terminate(long timeout, TimeUnit unit) {
+    // wait for a pending export, so that no frame is queued once terminated
+    synchronized (this) {
+      terminated = true;
+    }
+    workers.shutdown();
+
+    try {
+      if (!workers.awaitTermination(timeout, unit)) {
+        workers.shutdownNow();
+        // let interrupted workers count the frame they were encoding
+        workers.awaitTermination(timeout, unit);
+      }
+    } catch (InterruptedException e) {
+      workers.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+
+    List<Frame> remaining = new ArrayList<>();
+    queue.drainTo(remaining);
+    droppedFrames.addAndGet(remaining.size());
+
+    try {
+      encoder.close();
+    } catch (IOException e) {
+      lastError = e;
+    }
+  }
+
+  protected void encodeQueuedFrames() {
+    while (!Thread.currentThread().isInterrupted()) {
+      Frame frame;
+      try {
+        frame = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        return;
+      }
+
+      if (frame == null) {
+        if (terminated)
+          return;
+        continue;
+      }
+
+      boolean counted = false;
+      try {
+        encoder.encode(frame.image, frame.index);
+        encodedFrames.incrementAndGet();
+        counted = true;
+      } catch (IOException e) {
+        if (isInterruption(e)) {
+          // stop taking frames, the flag being possibly cleared by the encoder
+          Thread.currentThread().interrupt();
+        } else {
+          failedFrames.incrementAndGet();
+          lastError = e;
+          counted = true;
+        }
+      } catch (RuntimeException e) {
+        // keep draining the queue, otherwise a blocked export() would wait forever
+        failedFrames.incrementAndGet();
+        lastError = new IOException("Failed encoding frame " + frame.index, e);
+        counted = true;
+      } finally {
+        // a frame whose encoding was interrupted by terminate() is dropped
+        if (!counted)
+          droppedFrames.incrementAndGet();
+        recycle(frame.image);
+      }
+    }
+  }
+
+  /** Return true if the error results from the interruption of the worker. */
+  protected boolean isInterruption(IOException e) {
+    return e instanceof InterruptedIOException || e instanceof ClosedByInterruptException
+        || Thread.currentThread().isInterrupted();
+  }
+
+  /** Copy the image into a buffer of the pool, or a new buffer if none has the image size. */
+  protected BufferedImage copy(BufferedImage image) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+
+    BufferedImage buffer = pool.poll();
+    if (buffer == null || buffer.getWidth() != width || buffer.getHeight() != height)
+      buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+    if (isPackedARGB(image)) {
+      int[] source = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+      int[] target = ((DataBufferInt) buffer.getRaster().getDataBuffer()).getData();
+      System.arraycopy(source, 0, target, 0, width * height);
+    } else {
+      Graphics2D g = buffer.createGraphics();
+      g.setComposite(AlphaComposite.Src);
+      g.drawImage(image, 0, 0, null);
+      g.dispose();
+    }
+    return buffer;
+  }
+
+  /** Return true if the image pixels are a single array of ARGB integers without padding. */
+  protected boolean isPackedARGB(BufferedImage image) {
+    return image.getType() == BufferedImage.TYPE_INT_ARGB
+        && image.getRaster().getDataBuffer() instanceof DataBufferInt
+        && image.getRaster().getDataBuffer().getOffset() == 0
+        && image.getRaster().getParent() == null
+        && image.getSampleModel() instanceof SinglePixelPackedSampleModel
+        && ((SinglePixelPackedSampleModel) image.getSampleModel()).getScanlineStride() == image
+            .getWidth();
+  }
+
+  protected void recycle(BufferedImage image) {
+    pool.offer(image);
+  }
+
+  /* */
+
+  /** Return the number of frames waiting for being encoded. */
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  /**
+   * Return the number of frames that were not encoded because the queue was full or closed, or
+   * because their encoding was interrupted by {@link #terminate(long, TimeUnit)}.
+   */
+  public long getDroppedFrames() {
+    return droppedFrames.get();
+  }
+
+  /** Return the number of frames successfully encoded. */
+  public long getEncodedFrames() {
+    return encodedFrames.get();
+  }
+
+  /** Return the number of frames that the encoder failed to write. */
+  public long getFailedFrames() {
+    return failedFrames.get();
+  }
+
+  /**
+   * Return the last error thrown by the encoder, or null. A {@link RuntimeException} thrown by the
+   * encoder is reported as the cause of an {@link IOException}.
+   */
+  public IOException getLastError() {
+    return lastError;
+  }
+
+  public AWTFrameEncoder getEncoder() {
+    return encoder;
+  }
+
+  public OverflowPolicy getPolicy() {
+    return policy;
+  }
+
+  /* */
+
+  protected static class Frame {
+    protected final BufferedImage image;
+    protected final int index;
+
+    public Frame(BufferedImage image, int index) {
+      this.image = image;
+      this.index = index;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package org.jzy3d.io;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+
+/**
+ * Write each frame in a PNG file named after the frame index, e.g. <code>frame-000042.png</code>.
+ * Frames are encoded concurrently if the {@link AsyncImageExporter} has several workers.
+ */
+public class PNGSequenceEncoder implements AWTFrameEncoder {
+  protected File directory;
+  protected String prefix;
+
+  public PNGSequenceEncoder(File directory) {
+    this(directory, "frame-");
+  }
+
+  public PNGSequenceEncoder(File directory, String prefix) {
+    this.directory = directory;
+    this.prefix = prefix;
+    directory.mkdirs();
+  }
+
+  @Override
+  public void encode(BufferedImage image, int frame) throws IOException {
+    ImageIO.write(image, "png", getFile(frame));
+  }
+
+  public File getFile(int frame) {
+    return new File(directory, String.format("%s%06d.png", prefix, frame));
+  }
+
+  @Override
+  public void close() {}
+
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+}
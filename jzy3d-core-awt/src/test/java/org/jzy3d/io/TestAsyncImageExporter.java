@@ -0,0 +1,259 @@
+package org.jzy3d.io;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.io.AsyncImageExporter.OverflowPolicy;
+
+public class TestAsyncImageExporter {
+  @Test
+  public void whenExportingPNGSequence_ThenAllFramesAreWrittenOffRenderThread() throws IOException {
+    File dir = Files.createTempDirectory("jzy3d-frames").toFile();
+    PNGSequenceEncoder encoder = new PNGSequenceEncoder(dir);
+    AsyncImageExporter exporter = new AsyncImageExporter(encoder, 4, OverflowPolicy.BLOCK, 2);
+
+    // the same image is modified after each export, as a render loop would do
+    BufferedImage image = new BufferedImage(8, 6, BufferedImage.TYPE_INT_ARGB);
+    for (int i = 0; i < 20; i++) {
+      fill(image, 0xFF000000 | i);
+      exporter.export(image);
+    }
+    exporter.terminate(10, TimeUnit.SECONDS);
+
+    Assert.assertEquals(20, exporter.getEncodedFrames());
+    Assert.assertEquals(0, exporter.getDroppedFrames());
+    Assert.assertEquals(0, exporter.getQueueDepth());
+
+    for (int i = 0; i < 20; i++) {
+      File file = encoder.getFile(i);
+      Assert.assertEquals(0xFF000000 | i, ImageIO.read(file).getRGB(3, 3));
+      file.delete();
+    }
+    dir.delete();
+  }
+
+  @Test
+  public void whenQueueIsFull_ThenFramesAreDropped() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    AWTFrameEncoder slow = new AWTFrameEncoder() {
+      @Override
+      public void encode(BufferedImage image, int frame) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+
+      @Override
+      public void close() {}
+
+      @Override
+      public boolean isThreadSafe() {
+        return false;
+      }
+    };
+
+    AsyncImageExporter exporter = new AsyncImageExporter(slow, 3, OverflowPolicy.DROP, 4);
+    BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+
+    for (int i = 0; i < 10; i++)
+      exporter.export(image);
+
+    // one frame is being encoded by the single worker, three are queued
+    Assert.assertTrue(exporter.getQueueDepth() <= 3);
+    Assert.assertTrue(exporter.getDroppedFrames() >= 6);
+
+    release.countDown();
+    exporter.terminate(10, TimeUnit.SECONDS);
+
+    Assert.assertEquals(10, exporter.getEncodedFrames() + exporter.getDroppedFrames());
+
+    // frames exported after termination are dropped
+    exporter.export(image);
+    Assert.assertEquals(11, exporter.getEncodedFrames() + exporter.getDroppedFrames());
+  }
+
+  @Test
+  public void whenExportingAVI_ThenFileHoldsUncompressedFrames() throws IOException {
+    File file = File.createTempFile("jzy3d-video", ".avi");
+    AVIEncoder encoder = new AVIEncoder(file, 25);
+    AsyncImageExporter exporter = new AsyncImageExporter(encoder, 8, OverflowPolicy.BLOCK, 4);
+
+    // odd width requires row padding
+    BufferedImage image = new BufferedImage(5, 3, BufferedImage.TYPE_INT_ARGB);
+    for (int i = 0; i < 3; i++) {
+      fill(image, 0xFF102030 + i);
+      exporter.export(image);
+    }
+    exporter.terminate(10, TimeUnit.SECONDS);
+
+    Assert.assertEquals(3, encoder.getFrameCount());
+
+    ByteBuffer avi = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+    int rowSize = 16;
+    int frameSize = rowSize * 3;
+
+    Assert.assertEquals(220 + 4 + 3 * (8 + frameSize) + 8 + 3 * 16, avi.capacity());
+    Assert.assertEquals(avi.capacity() - 8, avi.getInt(4));
+    Assert.assertEquals(3, avi.getInt(48));
+    Assert.assertEquals(5, avi.getInt(64));
+    Assert.assertEquals(3, avi.getInt(68));
+
+    // last frame, first pixel in BGR order
+    int lastFrame = 224 + 2 * (8 + frameSize) + 8;
+    Assert.assertEquals(0x32, avi.get(lastFrame) & 0xFF);
+    Assert.assertEquals(0x20, avi.get(lastFrame + 1) & 0xFF);
+    Assert.assertEquals(0x10, avi.get(lastFrame + 2) & 0xFF);
+
+    file.delete();
+  }
+
+  @Test
+  public void whenTerminatingWhileExporting_ThenEachFrameIsEncodedOrDropped()
+      throws InterruptedException {
+    AWTFrameEncoder encoder = new AWTFrameEncoder() {
+      @Override
+      public void encode(BufferedImage image, int frame) {}
+
+      @Override
+      public void close() {}
+
+      @Override
+      public boolean isThreadSafe() {
+        return true;
+      }
+    };
+    AsyncImageExporter exporter = new AsyncImageExporter(encoder, 2, OverflowPolicy.DROP, 2);
+    BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+
+    int frames = 5000;
+    Thread producer = new Thread(() -> {
+      for (int i = 0; i < frames; i++)
+        exporter.export(image);
+    });
+    producer.start();
+    exporter.terminate(10, TimeUnit.SECONDS);
+    producer.join();
+
+    Assert.assertEquals(frames, exporter.getEncodedFrames() + exporter.getDroppedFrames());
+    Assert.assertEquals(0, exporter.getQueueDepth());
+  }
+
+  @Test
+  public void whenEncodingIsInterruptedByTermination_ThenFrameIsDropped()
+      throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch never = new CountDownLatch(1);
+    AWTFrameEncoder blocking = new AWTFrameEncoder() {
+      @Override
+      public void encode(BufferedImage image, int frame) throws IOException {
+        started.countDown();
+        try {
+          never.await();
+        } catch (InterruptedException e) {
+          throw new InterruptedIOException("interrupted while encoding frame " + frame);
+        }
+      }
+
+      @Override
+      public void close() {}
+
+      @Override
+      public boolean isThreadSafe() {
+        return false;
+      }
+    };
+
+    AsyncImageExporter exporter = new AsyncImageExporter(blocking, 4, OverflowPolicy.BLOCK, 1);
+    BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+
+    for (int i = 0; i < 3; i++)
+      exporter.export(image);
+    started.await();
+
+    // When the timeout elapses while a frame is being encoded
+    exporter.terminate(100, TimeUnit.MILLISECONDS);
+
+    // Then the interrupted frame is dropped as the queued ones
+    Assert.assertEquals(0, exporter.getEncodedFrames());
+    Assert.assertEquals(0, exporter.getFailedFrames());
+    Assert.assertEquals(3, exporter.getDroppedFrames());
+    Assert.assertNull(exporter.getLastError());
+  }
+
+  @Test
+  public void whenAVIWouldExceedSizeLimit_ThenEncodingFailsAndFileRemainsValid()
+      throws IOException {
+    File file = File.createTempFile("jzy3d-video", ".avi");
+    AVIEncoder encoder = new AVIEncoder(file, 25);
+    BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+    int frameSize = 12 * 4;
+
+    // room for two frames and their index
+    encoder.maxRiffSize = 220 + 4 + 2 * (8 + frameSize) + 8 + 2 * 16 - 8;
+    encoder.encode(image, 0);
+    encoder.encode(image, 1);
+    try {
+      encoder.encode(image, 2);
+      Assert.fail("expected the size limit to be reached");
+    } catch (IOException e) {
+      // expected
+    }
+    encoder.close();
+
+    Assert.assertEquals(2, encoder.getFrameCount());
+    ByteBuffer avi = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+    Assert.assertEquals(encoder.maxRiffSize, avi.getInt(4));
+    Assert.assertEquals(avi.capacity() - 8, avi.getInt(4));
+
+    file.delete();
+  }
+
+  @Test
+  public void whenEncoderThrowsRuntimeException_ThenFrameFailsAndQueueIsStillDrained() {
+    AWTFrameEncoder failing = new AWTFrameEncoder() {
+      @Override
+      public void encode(BufferedImage image, int frame) {
+        if (frame % 2 == 0)
+          throw new IllegalStateException("bad frame " + frame);
+      }
+
+      @Override
+      public void close() {}
+
+      @Override
+      public boolean isThreadSafe() {
+        return false;
+      }
+    };
+
+    // a queue smaller than the frame count requires the worker to keep draining
+    AsyncImageExporter exporter = new AsyncImageExporter(failing, 1, OverflowPolicy.BLOCK, 1);
+    BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+
+    for (int i = 0; i < 10; i++)
+      exporter.export(image);
+    exporter.terminate(10, TimeUnit.SECONDS);
+
+    Assert.assertEquals(5, exporter.getEncodedFrames());
+    Assert.assertEquals(5, exporter.getFailedFrames());
+    Assert.assertEquals(0, exporter.getDroppedFrames());
+    Assert.assertTrue(exporter.getLastError().getCause() instanceof IllegalStateException);
+  }
+
+  protected void fill(BufferedImage image, int argb) {
+    for (int x = 0; x < image.getWidth(); x++)
+      for (int y = 0; y < image.getHeight(); y++)
+        image.setRGB(x, y, argb);
+  }
+}
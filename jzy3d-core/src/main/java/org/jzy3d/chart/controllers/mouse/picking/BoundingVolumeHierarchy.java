@@ -0,0 +1,348 @@
+package org.jzy3d.chart.controllers.mouse.picking;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.jzy3d.maths.BoundingBox3d;
+
+/**
+ * A dynamic bounding volume hierarchy : a binary tree of axis aligned boxes where each leaf holds
+ * an item and each node bounds its children.
+ *
+ * Items are inserted, moved and removed one by one in O(log n) : an inserted leaf is paired with
+ * the sibling that least increases the surface of the boxes, and nodes are rotated on the way back
+ * to the root to keep the tree balanced. Moving an item whose new bounds still fit in its leaf does
+ * not modify the tree.
+ *
+ * A query visits the items whose box passes a {@link BoxTest}, skipping whole subtrees whose box
+ * does not.
+ *
+ * Items are identified by reference and not with {@link Object#equals(Object)}, since the hash code
+ * of items like polygons follows their content, which may change while they are in the tree.
+ *
+ * This class is not thread safe.
+ *
+ * @author Martin Pernollet
+ */
+public class BoundingVolumeHierarchy<T> {
+  /** Tests a box given by its bounds, e.g. against a ray. */
+  public interface BoxTest {
+    boolean intersects(float xmin, float xmax, float ymin, float ymax, float zmin, float zmax);
+  }
+
+  protected static class Node<T> {
+    float xmin, xmax, ymin, ymax, zmin, zmax;
+    Node<T> parent;
+    Node<T> left;
+    Node<T> right;
+    T item;
+    int height;
+
+    boolean isLeaf() {
+      return left == null;
+    }
+
+    void set(BoundingBox3d b) {
+      xmin = b.getXmin();
+      xmax = b.getXmax();
+      ymin = b.getYmin();
+      ymax = b.getYmax();
+      zmin = b.getZmin();
+      zmax = b.getZmax();
+    }
+
+    void union(Node<T> a, Node<T> b) {
+      xmin = Math.min(a.xmin, b.xmin);
+      xmax = Math.max(a.xmax, b.xmax);
+      ymin = Math.min(a.ymin, b.ymin);
+      ymax = Math.max(a.ymax, b.ymax);
+      zmin = Math.min(a.zmin, b.zmin);
+      zmax = Math.max(a.zmax, b.zmax);
+    }
+
+    boolean contains(BoundingBox3d b) {
+      return xmin <= b.getXmin() && b.getXmax() <= xmax && ymin <= b.getYmin()
+          && b.getYmax() <= ymax && zmin <= b.getZmin() && b.getZmax() <= zmax;
+    }
+
+    double area() {
+      return area(xmax - xmin, ymax - ymin, zmax - zmin);
+    }
+
+    double unionArea(Node<T> o) {
+      return area(Math.max(xmax, o.xmax) - Math.min(xmin, o.xmin),
+          Math.max(ymax, o.ymax) - Math.min(ymin, o.ymin),
+          Math.max(zmax, o.zmax) - Math.min(zmin, o.zmin));
+    }
+
+    static double area(double dx, double dy, double dz) {
+      return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+  }
+
+  protected Node<T> root;
+  protected Map<T, Node<T>> leaves = new IdentityHashMap<>();
+
+  /**
+   * Add an item bounded by the given box, which is copied.
+   *
+   * @throws IllegalArgumentException if the item is already in the tree or if the bounds are reset.
+   */
+  public void insert(T item, BoundingBox3d bounds) {
+    if (leaves.containsKey(item))
+      throw new IllegalArgumentException("Item already inserted : " + item);
+    checkBounds(bounds);
+
+    Node<T> leaf = new Node<>();
+    leaf.item = item;
+    leaf.set(bounds);
+    leaves.put(item, leaf);
+    insertLeaf(leaf);
+  }
+
+  /** Remove an item, and return false if it was not in the tree. */
+  public boolean remove(T item) {
+    Node<T> leaf = leaves.remove(item);
+    if (leaf == null)
+      return false;
+    removeLeaf(leaf);
+    return true;
+  }
+
+  /**
+   * Update the bounds of an item that moved, or insert it if it was not in the tree.
+   *
+   * @return true if the tree was modified.
+   */
+  public boolean update(T item, BoundingBox3d bounds) {
+    Node<T> leaf = leaves.get(item);
+    if (leaf == null) {
+      insert(item, bounds);
+      return true;
+    }
+    if (leaf.contains(bounds))
+      return false;
+    checkBounds(bounds);
+
+    removeLeaf(leaf);
+    leaf.set(bounds);
+    insertLeaf(leaf);
+    return true;
+  }
+
+  /** True if the item is in the tree and the given bounds fit in its leaf. */
+  public boolean isUpToDate(T item, BoundingBox3d bounds) {
+    Node<T> leaf = leaves.get(item);
+    return leaf != null && leaf.contains(bounds);
+  }
+
+  public void clear() {
+    root = null;
+    leaves.clear();
+  }
+
+  /** Give each item whose leaf box passes the test to the visitor. */
+  public void query(BoxTest test, Consumer<T> visitor) {
+    if (root == null)
+      return;
+
+    ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+    stack.push(root);
+
+    while (!stack.isEmpty()) {
+      Node<T> node = stack.pop();
+
+      if (!test.intersects(node.xmin, node.xmax, node.ymin, node.ymax, node.zmin, node.zmax))
+        continue;
+
+      if (node.isLeaf()) {
+        visitor.accept(node.item);
+      } else {
+        stack.push(node.right);
+        stack.push(node.left);
+      }
+    }
+  }
+
+  /* */
+
+  protected void checkBounds(BoundingBox3d bounds) {
+    if (bounds == null || !bounds.valid())
+      throw new IllegalArgumentException("Invalid bounds : " + bounds);
+  }
+
+  protected void insertLeaf(Node<T> leaf) {
+    if (root == null) {
+      root = leaf;
+      leaf.parent = null;
+      return;
+    }
+
+    // Find the sibling that least increases the surface of the tree
+    Node<T> sibling = root;
+    while (!sibling.isLeaf()) {
+      double area = sibling.area();
+      double combinedArea = sibling.unionArea(leaf);
+
+      // cost of creating a new parent for this node and the leaf
+      double cost = 2 * combinedArea;
+      // minimum cost of pushing the leaf further down the tree
+      double inheritanceCost = 2 * (combinedArea - area);
+
+      double costLeft = descendCost(sibling.left, leaf) + inheritanceCost;
+      double costRight = descendCost(sibling.right, leaf) + inheritanceCost;
+
+      if (cost < costLeft && cost < costRight)
+        break;
+
+      sibling = costLeft < costRight ? sibling.left : sibling.right;
+    }
+
+    // Create a new parent
+    Node<T> oldParent = sibling.parent;
+    Node<T> newParent = new Node<>();
+    newParent.parent = oldParent;
+    newParent.union(sibling, leaf);
+    newParent.height = sibling.height + 1;
+    newParent.left = sibling;
+    newParent.right = leaf;
+    sibling.parent = newParent;
+    leaf.parent = newParent;
+
+    if (oldParent == null) {
+      root = newParent;
+    } else if (oldParent.left == sibling) {
+      oldParent.left = newParent;
+    } else {
+      oldParent.right = newParent;
+    }
+
+    refit(leaf.parent);
+  }
+
+  protected double descendCost(Node<T> child, Node<T> leaf) {
+    if (child.isLeaf())
+      return child.unionArea(leaf);
+    else
+      return child.unionArea(leaf) - child.area();
+  }
+
+  protected void removeLeaf(Node<T> leaf) {
+    if (leaf == root) {
+      root = null;
+      return;
+    }
+
+    Node<T> parent = leaf.parent;
+    Node<T> grandParent = parent.parent;
+    Node<T> sibling = parent.left == leaf ? parent.right : parent.left;
+    leaf.parent = null;
+
+    if (grandParent == null) {
+      root = sibling;
+      sibling.parent = null;
+      return;
+    }
+
+    if (grandParent.left == parent)
+      grandParent.left = sibling;
+    else
+      grandParent.right = sibling;
+    sibling.parent = grandParent;
+
+    refit(grandParent);
+  }
+
+  /** Balance and update the boxes and heights from the given node to the root. */
+  protected void refit(Node<T> node) {
+    while (node != null) {
+      node = balance(node);
+      node.height = 1 + Math.max(node.left.height, node.right.height);
+      node.union(node.left, node.right);
+      node = node.parent;
+    }
+  }
+
+  /**
+   * Rotate the taller child of a node up if its children heights differ by more than 1, and return
+   * the node now standing at the position of the given one.
+   */
+  protected Node<T> balance(Node<T> a) {
+    if (a.isLeaf() || a.height < 2)
+      return a;
+
+    Node<T> b = a.left;
+    Node<T> c = a.right;
+    int balance = c.height - b.height;
+
+    if (balance > 1)
+      return rotateUp(a, c, false);
+    if (balance < -1)
+      return rotateUp(a, b, true);
+    return a;
+  }
+
+  /**
+   * Replace node a by its child up, which takes a as child. The other child of a stays. The taller
+   * grand child remains a child of up, the shorter one replaces up as child of a.
+   */
+  protected Node<T> rotateUp(Node<T> a, Node<T> up, boolean upIsLeft) {
+    Node<T> f = up.left;
+    Node<T> g = up.right;
+
+    up.left = a;
+    up.parent = a.parent;
+    a.parent = up;
+
+    if (up.parent == null)
+      root = up;
+    else if (up.parent.left == a)
+      up.parent.left = up;
+    else
+      up.parent.right = up;
+
+    Node<T> taller = f.height > g.height ? f : g;
+    Node<T> shorter = taller == f ? g : f;
+
+    up.right = taller;
+    if (upIsLeft)
+      a.left = shorter;
+    else
+      a.right = shorter;
+    shorter.parent = a;
+
+    a.union(a.left, a.right);
+    a.height = 1 + Math.max(a.left.height, a.right.height);
+    up.union(a, taller);
+    up.height = 1 + Math.max(a.height, taller.height);
+    return up;
+  }
+
+  /* */
+
+  public int size() {
+    return leaves.size();
+  }
+
+  public boolean contains(T item) {
+    return leaves.containsKey(item);
+  }
+
+  public Collection<T> getItems() {
+    return leaves.keySet();
+  }
+
+  /** The height of the tree, 0 for a single item, or -1 if empty. */
+  public int getHeight() {
+    return root == null ? -1 : root.height;
+  }
+
+  /** The bounds of all items, or null if empty. */
+  public BoundingBox3d getBounds() {
+    if (root == null)
+      return null;
+    return new BoundingBox3d(root.xmin, root.xmax, root.ymin, root.ymax, root.zmin, root.zmax);
+  }
+}
@@ -0,0 +1,241 @@
+package org.jzy3d.chart.controllers.mouse.picking;
+
+import java.util.List;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.plot3d.primitives.Point;
+
+/**
+ * The volume picked by a mouse click : a ray going from the near to the far clipping plane,
+ * widened by a radius that grows linearly from the near to the far plane, so that it covers a
+ * constant number of pixels around the mouse as the brush of {@link PickingSupport} does.
+ *
+ * The ray lives in the scaled space of the view, where the camera stands, while the tested
+ * geometries are given in data coordinates and multiplied by the view scaling.
+ *
+ * The intersection methods return the position of the hit along the ray, from 0 at the near plane
+ * to 1 at the far plane, or {@link Double#NaN} if the geometry is missed. They are not thread safe.
+ *
+ * @author Martin Pernollet
+ */
+public class PickingRay implements BoundingVolumeHierarchy.BoxTest {
+  protected final double ox, oy, oz;
+  protected final double dx, dy, dz;
+  protected final double nearRadius;
+  protected final double farRadius;
+  protected final double sx, sy, sz;
+  /** Range of positions written by the slab tests, hence a ray is not thread safe */
+  protected final double[] range = new double[2];
+
+  /**
+   * @param near the point picked on the near plane, in scaled space.
+   * @param far the point picked on the far plane, in scaled space.
+   * @param nearRadius the pick radius on the near plane.
+   * @param farRadius the pick radius on the far plane.
+   * @param scaling the view scaling, to convert data coordinates to scaled space.
+   */
+  public PickingRay(Coord3d near, Coord3d far, double nearRadius, double farRadius,
+      Coord3d scaling) {
+    if (nearRadius < 0 || farRadius < 0)
+      throw new IllegalArgumentException(
+          "Radius must be positive : " + nearRadius + ", " + farRadius);
+    this.ox = near.x;
+    this.oy = near.y;
+    this.oz = near.z;
+    this.dx = far.x - near.x;
+    this.dy = far.y - near.y;
+    this.dz = far.z - near.z;
+    this.nearRadius = nearRadius;
+    this.farRadius = farRadius;
+    this.sx = scaling.x;
+    this.sy = scaling.y;
+    this.sz = scaling.z;
+  }
+
+  /** The pick radius at position t of the ray. */
+  public double radius(double t) {
+    return nearRadius + (farRadius - nearRadius) * t;
+  }
+
+  /** True if the box, in data coordinates, may contain geometries within the pick radius. */
+  @Override
+  public boolean intersects(float xmin, float xmax, float ymin, float ymax, float zmin,
+      float zmax) {
+    return !Double.isNaN(intersectBox(xmin, xmax, ymin, ymax, zmin, zmax));
+  }
+
+  /**
+   * Return the first position of the ray lying within the pick radius of the box, or NaN.
+   *
+   * The box is first tested inflated by the largest radius, which gives the range of positions
+   * where the ray may meet it, then tested inflated by the largest radius over that range only.
+   */
+  public double intersectBox(float xmin, float xmax, float ymin, float ymax, float zmin,
+      float zmax) {
+    double maxRadius = Math.max(nearRadius, farRadius);
+    if (!slabs(xmin, xmax, ymin, ymax, zmin, zmax, maxRadius, range))
+      return Double.NaN;
+
+    double radius = Math.max(radius(range[0]), radius(range[1]));
+    if (!slabs(xmin, xmax, ymin, ymax, zmin, zmax, radius, range))
+      return Double.NaN;
+    return range[0];
+  }
+
+  public double intersectBox(BoundingBox3d box) {
+    return intersectBox(box.getXmin(), box.getXmax(), box.getYmin(), box.getYmax(),
+        box.getZmin(), box.getZmax());
+  }
+
+  /** Return the position of the ray closest to the point if within the pick radius, or NaN. */
+  public double intersectPoint(Coord3d point) {
+    return intersectSphere(point.x * sx, point.y * sy, point.z * sz, 0);
+  }
+
+  /**
+   * Return the position of the ray closest to the center of the sphere if the sphere stands within
+   * the pick radius, or NaN. A view scaling that is not uniform is handled as if the sphere was
+   * scaled by the largest factor.
+   */
+  public double intersectSphere(Coord3d center, float radius) {
+    double scale = Math.max(Math.abs(sx), Math.max(Math.abs(sy), Math.abs(sz)));
+    return intersectSphere(center.x * sx, center.y * sy, center.z * sz, radius * scale);
+  }
+
+  /** Center is in scaled space. */
+  protected double intersectSphere(double cx, double cy, double cz, double radius) {
+    double t = closest(cx, cy, cz);
+    if (t < 0 || t > 1)
+      return Double.NaN;
+
+    double ex = ox + dx * t - cx;
+    double ey = oy + dy * t - cy;
+    double ez = oz + dz * t - cz;
+    double max = radius + radius(t);
+
+    if (ex * ex + ey * ey + ez * ez <= max * max)
+      return t;
+    return Double.NaN;
+  }
+
+  /**
+   * Return the first position of the ray crossing the polygon, considered as a fan of triangles, or
+   * passing within the pick radius of one of its vertices, or NaN.
+   */
+  public double intersectPolygon(List<Point> points) {
+    double hit = Double.NaN;
+    int n = points.size();
+    if (n == 0)
+      return hit;
+
+    Coord3d a = points.get(0).getCoord();
+    for (int i = 1; i < n - 1; i++) {
+      double t = intersectTriangle(a, points.get(i).getCoord(), points.get(i + 1).getCoord());
+      hit = nearest(hit, t);
+    }
+    for (Point p : points)
+      hit = nearest(hit, intersectPoint(p.getCoord()));
+    return hit;
+  }
+
+  /** Möller-Trumbore ray-triangle intersection, vertices in data coordinates. */
+  protected double intersectTriangle(Coord3d a, Coord3d b, Coord3d c) {
+    double ax = a.x * sx, ay = a.y * sy, az = a.z * sz;
+    double e1x = b.x * sx - ax, e1y = b.y * sy - ay, e1z = b.z * sz - az;
+    double e2x = c.x * sx - ax, e2y = c.y * sy - ay, e2z = c.z * sz - az;
+
+    double px = dy * e2z - dz * e2y;
+    double py = dz * e2x - dx * e2z;
+    double pz = dx * e2y - dy * e2x;
+    double det = e1x * px + e1y * py + e1z * pz;
+    if (det == 0)
+      return Double.NaN;
+    double inv = 1 / det;
+
+    double tx = ox - ax, ty = oy - ay, tz = oz - az;
+    double u = (tx * px + ty * py + tz * pz) * inv;
+    if (u < 0 || u > 1)
+      return Double.NaN;
+
+    double qx = ty * e1z - tz * e1y;
+    double qy = tz * e1x - tx * e1z;
+    double qz = tx * e1y - ty * e1x;
+    double v = (dx * qx + dy * qy + dz * qz) * inv;
+    if (v < 0 || u + v > 1)
+      return Double.NaN;
+
+    double t = (e2x * qx + e2y * qy + e2z * qz) * inv;
+    if (t < 0 || t > 1)
+      return Double.NaN;
+    return t;
+  }
+
+  /** Position of the ray closest to a point in scaled space. */
+  protected double closest(double x, double y, double z) {
+    double length2 = dx * dx + dy * dy + dz * dz;
+    if (length2 == 0)
+      return 0;
+    return ((x - ox) * dx + (y - oy) * dy + (z - oz) * dz) / length2;
+  }
+
+  /**
+   * Slab test of the ray in [0,1] against the box inflated by the radius, writing the range of
+   * positions inside the box.
+   */
+  protected boolean slabs(float xmin, float xmax, float ymin, float ymax, float zmin, float zmax,
+      double radius, double[] range) {
+    range[0] = 0;
+    range[1] = 1;
+    return slab(ox, dx, xmin * sx, xmax * sx, radius, range)
+        && slab(oy, dy, ymin * sy, ymax * sy, radius, range)
+        && slab(oz, dz, zmin * sz, zmax * sz, radius, range);
+  }
+
+  protected boolean slab(double o, double d, double min, double max, double radius,
+      double[] range) {
+    double lo = Math.min(min, max) - radius;
+    double hi = Math.max(min, max) + radius;
+
+    if (d == 0)
+      return lo <= o && o <= hi;
+
+    double t1 = (lo - o) / d;
+    double t2 = (hi - o) / d;
+    if (t1 > t2) {
+      double swap = t1;
+      t1 = t2;
+      t2 = swap;
+    }
+    range[0] = Math.max(range[0], t1);
+    range[1] = Math.min(range[1], t2);
+    return range[0] <= range[1];
+  }
+
+  protected static double nearest(double t1, double t2) {
+    if (Double.isNaN(t1))
+      return t2;
+    if (Double.isNaN(t2))
+      return t1;
+    return Math.min(t1, t2);
+  }
+
+  /* */
+
+  /** The picked point of the near plane, in scaled space. */
+  public Coord3d getNear() {
+    return new Coord3d(ox, oy, oz);
+  }
+
+  /** The picked point of the far plane, in scaled space. */
+  public Coord3d getFar() {
+    return new Coord3d(ox + dx, oy + dy, oz + dz);
+  }
+
+  public double getNearRadius() {
+    return nearRadius;
+  }
+
+  public double getFarRadius() {
+    return farRadius;
+  }
+}
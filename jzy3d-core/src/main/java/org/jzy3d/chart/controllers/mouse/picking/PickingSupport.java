@@ -81,6 +81,15 @@ public class PickingSupport {
     pickableTargets.put(pickable, model);
   }
 
+  /** Remove a pickable, and return false if it was not registered. */
+  public synchronized boolean unRegisterPickableObject(Pickable pickable) {
+    if (pickables.get(pickable.getPickingId()) != pickable)
+      return false;
+    pickables.remove(pickable.getPickingId());
+    pickableTargets.remove(pickable);
+    return true;
+  }
+
   public synchronized void getPickableObject(int id) {
     pickables.get(id);
   }
@@ -89,10 +98,18 @@ public class PickingSupport {
 
   protected TicToc perf = new TicToc();
 
+  /** Selection buffers, kept from one pick to the next */
+  protected IntBuffer selectBuffer;
+  protected int[] selectBuf;
+
   public void pickObjects(IPainter painter, View view, Graph graph, IntegerCoord2d pickPoint) {
     perf.tic();
 
-    IntBuffer selectBuffer = newDirectIntBuffer(bufferSize);
+    if (selectBuffer == null || selectBuffer.capacity() != bufferSize) {
+      selectBuffer = newDirectIntBuffer(bufferSize);
+      selectBuf = new int[bufferSize];
+    }
+    selectBuffer.clear();
 
     // Prepare selection data
     int[] viewport = painter.getViewPortAsInt();
@@ -149,7 +166,7 @@ public class PickingSupport {
     // Process hits
     int hits = painter.glRenderMode(RenderMode.RENDER);
     
-    int[] selectBuf = new int[bufferSize]; 
+    selectBuffer.rewind();
     selectBuffer.get(selectBuf);
     List<Pickable> picked = processHits(hits, selectBuf);
 
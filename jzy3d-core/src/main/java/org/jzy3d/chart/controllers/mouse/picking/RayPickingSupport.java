@@ -0,0 +1,250 @@
+package org.jzy3d.chart.controllers.mouse.picking;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.IntegerCoord2d;
+import org.jzy3d.painters.IPainter;
+import org.jzy3d.plot3d.primitives.Drawable;
+import org.jzy3d.plot3d.primitives.Point;
+import org.jzy3d.plot3d.primitives.Polygon;
+import org.jzy3d.plot3d.primitives.pickable.Pickable;
+import org.jzy3d.plot3d.primitives.pickable.PickablePoint;
+import org.jzy3d.plot3d.primitives.pickable.PickablePolygon;
+import org.jzy3d.plot3d.primitives.pickable.PickableSphere;
+import org.jzy3d.plot3d.rendering.scene.Graph;
+import org.jzy3d.plot3d.rendering.view.Camera;
+import org.jzy3d.plot3d.rendering.view.View;
+
+/**
+ * A {@link PickingSupport} intersecting the mouse ray with the registered pickables on the CPU,
+ * instead of rendering them in GL selection mode.
+ *
+ * The bounds of pickables are kept in a {@link BoundingVolumeHierarchy}, updated as pickables are
+ * registered, unregistered or moved. A pick unprojects the mouse position on the near and far
+ * planes with {@link Camera#screenToModel(IPainter, Coord3d)}, which gives a {@link PickingRay},
+ * then only tests the pickables whose bounds are crossed by the ray :
+ * <ul>
+ * <li>{@link PickablePoint}s and {@link PickableSphere}s are picked when the ray passes within the
+ * brush of them.
+ * <li>{@link PickablePolygon}s are picked when the ray crosses one of their triangles or passes
+ * within the brush of one of their vertices.
+ * <li>Other pickables are picked when the ray passes within the brush of their bounds.
+ * </ul>
+ * Picked objects are given to listeners from the nearest to the farthest, and the number of hits is
+ * not limited by a buffer size. Picking costs no rendering, so that it can follow mouse moves on
+ * large scenes.
+ *
+ * Drawables may move without notifying the picking support, e.g. graph vertices are moved to their
+ * layout position while drawn. Bounds of all pickables are hence compared with the hierarchy before
+ * each pick, which only reinserts the moved ones. Disable this with
+ * {@link #setRefreshBeforePick(boolean)} and notify moves with {@link #pickableMoved(Pickable)} to
+ * make a pick independent of the number of pickables.
+ *
+ * <pre>
+ * <code>
+ * mouse.setPickingSupport(new RayPickingSupport());
+ * </code>
+ * </pre>
+ *
+ * @author Martin Pernollet
+ */
+public class RayPickingSupport extends PickingSupport {
+  protected BoundingVolumeHierarchy<Pickable> hierarchy = new BoundingVolumeHierarchy<>();
+  protected boolean refreshBeforePick = true;
+
+  public RayPickingSupport() {
+    super();
+  }
+
+  public RayPickingSupport(int brushSize) {
+    super(brushSize);
+  }
+
+  /*************************/
+
+  @Override
+  public synchronized void registerPickableObject(Pickable pickable, Object model) {
+    super.registerPickableObject(pickable, model);
+    pickableMoved(pickable);
+  }
+
+  @Override
+  public synchronized boolean unRegisterPickableObject(Pickable pickable) {
+    if (!super.unRegisterPickableObject(pickable))
+      return false;
+    hierarchy.remove(pickable);
+    return true;
+  }
+
+  @Override
+  public synchronized void unRegisterAllPickableObjects() {
+    super.unRegisterAllPickableObjects();
+    hierarchy.clear();
+  }
+
+  /**
+   * Update the bounds of a registered pickable in the hierarchy. Pickables that are not
+   * {@link Drawable}s or having empty bounds can not be picked.
+   */
+  public synchronized void pickableMoved(Pickable pickable) {
+    BoundingBox3d bounds = getBounds(pickable);
+    if (bounds == null)
+      hierarchy.remove(pickable);
+    else
+      hierarchy.update(pickable, bounds);
+  }
+
+  /** Update the bounds of the pickables that moved since the last refresh. */
+  public synchronized void refresh() {
+    for (Pickable pickable : pickables.values()) {
+      BoundingBox3d bounds = getBounds(pickable);
+      if (bounds == null)
+        hierarchy.remove(pickable);
+      else if (!hierarchy.isUpToDate(pickable, bounds))
+        hierarchy.update(pickable, bounds);
+    }
+  }
+
+  protected BoundingBox3d getBounds(Pickable pickable) {
+    if (!(pickable instanceof Drawable))
+      return null;
+    BoundingBox3d bounds = ((Drawable) pickable).getBounds();
+    if (bounds == null || !bounds.valid())
+      return null;
+    return bounds;
+  }
+
+  /*************************/
+
+  @Override
+  public void pickObjects(IPainter painter, View view, Graph graph, IntegerCoord2d pickPoint) {
+    perf.tic();
+
+    List<Pickable> picked = pick(painter, view, pickPoint);
+
+    List<Object> pickedObjects = new ArrayList<>(picked.size());
+    synchronized (this) {
+      for (Pickable pickable : picked) {
+        pickedObjects.add(pickableTargets.get(pickable));
+      }
+    }
+    perf.toc();
+
+    fireObjectPicked(pickedObjects);
+  }
+
+  /**
+   * Return the pickables under the given screen coordinates, from the nearest to the farthest,
+   * without notifying listeners.
+   */
+  public List<Pickable> pick(IPainter painter, View view, IntegerCoord2d pickPoint) {
+    return pick(getRay(painter, view, pickPoint));
+  }
+
+  /** Return the pickables intersected by the ray, from the nearest to the farthest. */
+  public synchronized List<Pickable> pick(PickingRay ray) {
+    if (refreshBeforePick)
+      refresh();
+
+    List<Hit> hits = new ArrayList<>();
+
+    hierarchy.query(ray, pickable -> {
+      double t = intersect(ray, pickable);
+      if (!Double.isNaN(t))
+        hits.add(new Hit(pickable, t));
+    });
+
+    hits.sort((h1, h2) -> Double.compare(h1.t, h2.t));
+
+    List<Pickable> picked = new ArrayList<>(hits.size());
+    for (Hit hit : hits)
+      picked.add(hit.pickable);
+    return picked;
+  }
+
+  /**
+   * Return the position of the hit of the pickable along the ray, or NaN if the ray does not hit
+   * it. Override to support other geometries than points, spheres and polygons.
+   */
+  protected double intersect(PickingRay ray, Pickable pickable) {
+    if (pickable instanceof PickablePoint) {
+      return ray.intersectPoint(((Point) pickable).getCoord());
+    } else if (pickable instanceof PickableSphere) {
+      BoundingBox3d bounds = ((Drawable) pickable).getBounds();
+      return ray.intersectSphere(bounds.getCenter(), (bounds.getXmax() - bounds.getXmin()) / 2);
+    } else if (pickable instanceof PickablePolygon) {
+      return ray.intersectPolygon(((Polygon) pickable).getPoints());
+    } else {
+      return ray.intersectBox(((Drawable) pickable).getBounds());
+    }
+  }
+
+  /**
+   * Build the ray going through the pick point from the near to the far plane, with a radius of
+   * half the brush size. The camera projection is applied as for rendering, with an identity
+   * modelview so that the ray is given in the scaled space of the view.
+   */
+  public PickingRay getRay(IPainter painter, View view, IntegerCoord2d pickPoint) {
+    Camera camera = view.getCamera();
+    float x = pickPoint.x;
+    float y = pickPoint.y;
+    float side = x + brushSize / 2f;
+
+    painter.acquireGL();
+    try {
+      painter.glMatrixMode_ModelView();
+      painter.glPushMatrix();
+      painter.glLoadIdentity();
+
+      painter.glMatrixMode_Projection();
+      painter.glPushMatrix();
+      painter.glLoadIdentity();
+      camera.doShoot(painter, view.getCameraMode());
+
+      Coord3d near = camera.screenToModel(painter, new Coord3d(x, y, 0));
+      Coord3d far = camera.screenToModel(painter, new Coord3d(x, y, 1));
+      Coord3d nearSide = camera.screenToModel(painter, new Coord3d(side, y, 0));
+      Coord3d farSide = camera.screenToModel(painter, new Coord3d(side, y, 1));
+
+      painter.glMatrixMode_Projection();
+      painter.glPopMatrix();
+      painter.glMatrixMode_ModelView();
+      painter.glPopMatrix();
+
+      return new PickingRay(near, far, near.distance(nearSide), far.distance(farSide),
+          view.getLastViewScaling());
+    } finally {
+      painter.releaseGL();
+    }
+  }
+
+  protected static class Hit {
+    Pickable pickable;
+    double t;
+
+    Hit(Pickable pickable, double t) {
+      this.pickable = pickable;
+      this.t = t;
+    }
+  }
+
+  /*************************/
+
+  public BoundingVolumeHierarchy<Pickable> getHierarchy() {
+    return hierarchy;
+  }
+
+  public boolean isRefreshBeforePick() {
+    return refreshBeforePick;
+  }
+
+  /**
+   * If true, the default, compare the bounds of all pickables with the hierarchy before each pick.
+   * If false, moves must be notified with {@link #pickableMoved(Pickable)}.
+   */
+  public void setRefreshBeforePick(boolean refreshBeforePick) {
+    this.refreshBeforePick = refreshBeforePick;
+  }
+}
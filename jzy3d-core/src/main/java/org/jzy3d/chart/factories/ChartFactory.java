@@ -10,6 +10,7 @@ import org.jzy3d.chart.controllers.thread.camera.CameraThreadControllerWithTime;
 import org.jzy3d.maths.BoundingBox3d;
 import org.jzy3d.maths.Coord3d;
 import org.jzy3d.maths.IBoundingPolicy;
+import org.jzy3d.plot2d.primitives.DownsampledLineSerie2d;
 import org.jzy3d.plot2d.primitives.LineSerie2d;
 import org.jzy3d.plot2d.primitives.LineSerie2dSplitted;
 import org.jzy3d.plot2d.primitives.ScatterPointSerie2d;
@@ -124,6 +125,8 @@ public class ChartFactory implements IChartFactory {
       return new LineSerie2d(name);
     else if (Serie2d.Type.LINE_ON_OFF.equals(type))
       return new LineSerie2dSplitted(name);
+    else if (Serie2d.Type.LINE_DOWNSAMPLED.equals(type))
+      return new DownsampledLineSerie2d(name);
     else if (Serie2d.Type.SCATTER.equals(type))
       return new ScatterSerie2d(name);
     else if (Serie2d.Type.SCATTER_POINTS.equals(type))
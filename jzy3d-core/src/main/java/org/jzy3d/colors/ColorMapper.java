@@ -1,5 +1,6 @@
 package org.jzy3d.colors;
 
+import org.jzy3d.colors.colormaps.ColorMapLookupTable;
 import org.jzy3d.colors.colormaps.IColorMap;
 import org.jzy3d.maths.Coord3d;
 import org.jzy3d.maths.Range;
@@ -18,6 +19,11 @@ import org.jzy3d.plot3d.primitives.Drawable;
  * }
  * </code>
  * 
+ * Colors of many values can be processed at once with
+ * {@link #getColors(float[], int, int, float[])} and
+ * {@link #getPackedColors(float[], int, int, int[])}, which do not create any {@link Color} when
+ * the colormap is a {@link ColorMapLookupTable}.
+ * 
  * @author Martin Pernollet
  */
 public class ColorMapper implements IColorMappable {
@@ -84,6 +90,119 @@ public class ColorMapper implements IColorMappable {
     return out;
   }
 
+  /**
+   * Process the colors of values[from] to values[to-1] and write their r,g,b,a components in rgba,
+   * starting at rgba[from*4].
+   * 
+   * If the colormap is a {@link ColorMapLookupTable}, the colors are read from its table with the
+   * factor already applied, otherwise each color is processed with {@link #getColor(double)}.
+   */
+  public void getColors(float[] values, int from, int to, float[] rgba) {
+    checkBatch(values, from, to, rgba.length / 4);
+
+    if (colormap instanceof ColorMapLookupTable) {
+      ColorMapLookupTable lookup = (ColorMapLookupTable) colormap;
+      float[] table = getLookupTable(lookup);
+
+      for (int i = from; i < to; i++) {
+        int level = lookup.indexOf(values[i], min, max) * 4;
+        int j = i * 4;
+        rgba[j] = table[level];
+        rgba[j + 1] = table[level + 1];
+        rgba[j + 2] = table[level + 2];
+        rgba[j + 3] = table[level + 3];
+      }
+    } else {
+      for (int i = from; i < to; i++) {
+        Color c = getColor(values[i]);
+        int j = i * 4;
+        rgba[j] = c.r;
+        rgba[j + 1] = c.g;
+        rgba[j + 2] = c.b;
+        rgba[j + 3] = c.a;
+      }
+    }
+  }
+
+  /**
+   * Process the colors of values[from] to values[to-1] and write them in argb[from] to argb[to-1]
+   * as integers packing alpha, red, green and blue bytes from the highest to the lowest byte, which
+   * is the layout of {@link java.awt.image.BufferedImage#TYPE_INT_ARGB}.
+   * 
+   * @see #getColors(float[], int, int, float[])
+   */
+  public void getPackedColors(float[] values, int from, int to, int[] argb) {
+    checkBatch(values, from, to, argb.length);
+
+    if (colormap instanceof ColorMapLookupTable) {
+      ColorMapLookupTable lookup = (ColorMapLookupTable) colormap;
+      getLookupTable(lookup);
+      int[] table = packedTable;
+
+      for (int i = from; i < to; i++) {
+        argb[i] = table[lookup.indexOf(values[i], min, max)];
+      }
+    } else {
+      for (int i = from; i < to; i++) {
+        Color c = getColor(values[i]);
+        argb[i] = pack(c.r, c.g, c.b, c.a);
+      }
+    }
+  }
+
+  protected void checkBatch(float[] values, int from, int to, int outputLength) {
+    if (from < 0 || to < from || to > values.length || to > outputLength)
+      throw new IllegalArgumentException("Invalid range [" + from + ";" + to + "[ for "
+          + values.length + " values and an output of " + outputLength + " colors");
+  }
+
+  /**
+   * Return the table of the given colormap with the factor applied, which is built again only if
+   * the colormap table or the factor changed since the previous call. The table holds relative
+   * values, hence changing the range of this mapper does not require to build it again.
+   */
+  protected synchronized float[] getLookupTable(ColorMapLookupTable lookup) {
+    float[] source = lookup.getTable();
+
+    if (lookupSource != source || !sameFactor()) {
+      float[] table = source.clone();
+      int[] packed = new int[table.length / 4];
+
+      for (int i = 0; i < packed.length; i++) {
+        int j = i * 4;
+        if (factor != null) {
+          table[j] *= factor.r;
+          table[j + 1] *= factor.g;
+          table[j + 2] *= factor.b;
+          table[j + 3] *= factor.a;
+        }
+        packed[i] = pack(table[j], table[j + 1], table[j + 2], table[j + 3]);
+      }
+
+      lookupTable = table;
+      packedTable = packed;
+      lookupSource = source;
+      lookupFactor = factor == null ? null : factor.clone();
+    }
+    return lookupTable;
+  }
+
+  private boolean sameFactor() {
+    if (factor == null || lookupFactor == null)
+      return factor == lookupFactor;
+    return factor.r == lookupFactor.r && factor.g == lookupFactor.g && factor.b == lookupFactor.b
+        && factor.a == lookupFactor.a;
+  }
+
+  protected static int pack(float r, float g, float b, float a) {
+    return (toByte(a) << 24) | (toByte(r) << 16) | (toByte(g) << 8) | toByte(b);
+  }
+
+  private static int toByte(float component) {
+    int v = (int) (component * 255 + 0.5f);
+    return v < 0 ? 0 : (v > 255 ? 255 : v);
+  }
+
   /* */
 
   /**
@@ -155,4 +274,9 @@ public class ColorMapper implements IColorMappable {
   protected IColorMap colormap;
   protected Color factor = null;
 
+  protected float[] lookupSource;
+  protected float[] lookupTable;
+  protected int[] packedTable;
+  protected Color lookupFactor;
+
 }
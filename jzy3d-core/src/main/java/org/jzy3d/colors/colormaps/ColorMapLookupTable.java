@@ -0,0 +1,137 @@
+package org.jzy3d.colors.colormaps;
+
+import org.jzy3d.colors.Color;
+import org.jzy3d.colors.ColorMapper;
+
+/**
+ * A colormap sampling another colormap in a table of colors, so that processing a color only
+ * requires normalizing the input value and reading the table, instead of evaluating the color
+ * component functions of the sampled colormap.
+ *
+ * <pre>
+ * <code>
+ * new ColorMapper(new ColorMapLookupTable(new ColorMapRainbow()), zmin, zmax);
+ * </code>
+ * </pre>
+ *
+ * The table holds {@link #getResolution()} colors sampled for relative values regularly spaced in
+ * [0;1], hence it does not depend on the Z range of the {@link ColorMapper} and is only built again
+ * when the direction of the sampled colormap changes. A value is given the color of the nearest
+ * sample. NaN values are given the color that the sampled colormap gives to NaN.
+ *
+ * Only colormaps depending on the Z value can be sampled, which is the case of all colormaps of
+ * this package.
+ *
+ * {@link ColorMapper#getColors(float[], int, int, float[])} and
+ * {@link ColorMapper#getPackedColors(float[], int, int, int[])} read the table directly, which
+ * avoids creating a {@link Color} per value.
+ *
+ * @author Martin Pernollet
+ */
+public class ColorMapLookupTable extends AbstractColorMap implements IColorMap {
+  public static final int DEFAULT_RESOLUTION = 1024;
+
+  protected IColorMap colormap;
+  protected int resolution;
+
+  /** r,g,b,a of each sample, followed by the color of NaN values */
+  protected float[] table;
+  protected boolean tableDirection;
+
+  public ColorMapLookupTable(IColorMap colormap) {
+    this(colormap, DEFAULT_RESOLUTION);
+  }
+
+  public ColorMapLookupTable(IColorMap colormap, int resolution) {
+    super();
+    if (resolution < 2)
+      throw new IllegalArgumentException("Resolution must be at least 2 : " + resolution);
+
+    this.colormap = colormap;
+    this.resolution = resolution;
+  }
+
+  /** @inheritDoc */
+  @Override
+  public Color getColor(double x, double y, double z, double zMin, double zMax) {
+    float[] t = getTable();
+    int i = indexOf(z, zMin, zMax) * 4;
+    return new Color(t[i], t[i + 1], t[i + 2], t[i + 3]);
+  }
+
+  /**
+   * Return the index of the color of the given value in the table. Values out of the range are
+   * given the color of the range boundary, and NaN values the index {@link #getResolution()}.
+   */
+  public int indexOf(double z, double zMin, double zMax) {
+    double relative;
+
+    if (z < zMin)
+      relative = 0;
+    else if (z > zMax)
+      relative = 1;
+    else
+      relative = (z - zMin) / (zMax - zMin);
+
+    if (Double.isNaN(relative))
+      return resolution;
+
+    int i = (int) (relative * (resolution - 1) + 0.5);
+    return Math.min(Math.max(i, 0), resolution - 1);
+  }
+
+  /**
+   * Return the table, holding r,g,b,a components of the {@link #getResolution()} samples, followed
+   * by the components of the color of NaN values. The table is built again if the direction of the
+   * sampled colormap has changed, in which case a new array is returned.
+   */
+  public float[] getTable() {
+    float[] t = table;
+
+    if (t == null || tableDirection != colormap.getDirection()) {
+      t = buildTable();
+      table = t;
+    }
+    return t;
+  }
+
+  protected float[] buildTable() {
+    tableDirection = colormap.getDirection();
+
+    float[] t = new float[(resolution + 1) * 4];
+
+    for (int i = 0; i <= resolution; i++) {
+      double relative = i < resolution ? i / (double) (resolution - 1) : Double.NaN;
+      Color c = colormap.getColor(0, 0, relative, 0, 1);
+      t[i * 4] = c.r;
+      t[i * 4 + 1] = c.g;
+      t[i * 4 + 2] = c.b;
+      t[i * 4 + 3] = c.a;
+    }
+    return t;
+  }
+
+  public int getResolution() {
+    return resolution;
+  }
+
+  public IColorMap getColorMap() {
+    return colormap;
+  }
+
+  /** The direction is the one of the sampled colormap. */
+  @Override
+  public void setDirection(boolean isStandard) {
+    colormap.setDirection(isStandard);
+  }
+
+  @Override
+  public boolean getDirection() {
+    return colormap.getDirection();
+  }
+
+  @Override
+  public String toString() {
+    return "(ColorMapLookupTable)" + colormap + " resolution:" + resolution;
+  }
+}
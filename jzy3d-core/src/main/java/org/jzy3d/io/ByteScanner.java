@@ -0,0 +1,402 @@
+package org.jzy3d.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read numbers and words from bytes without creating a String per token, to parse large text or
+ * binary files.
+ *
+ * A scanner either reads a {@link ByteBuffer}, or a range of a file that it maps in memory by
+ * windows. Before reading a line or a binary record, parsers invoke {@link #ensure(int)} so that
+ * the bytes they are about to read are in the current window. Text lines are hence limited to
+ * {@link #MAX_LINE} bytes when reading a file.
+ *
+ * Numbers are parsed from their digits, and only numbers with more than 18 significant digits,
+ * large exponents, NaN or infinity are given to {@link Double#parseDouble(String)}.
+ */
+public class ByteScanner {
+  public static final int DEFAULT_WINDOW = 64 * 1024 * 1024;
+  public static final int MAX_LINE = 64 * 1024;
+
+  protected static final double[] POWERS_OF_TEN = new double[23];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++)
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+  }
+
+  protected FileChannel channel;
+  protected int window;
+  protected ByteOrder order = ByteOrder.LITTLE_ENDIAN;
+
+  protected ByteBuffer buffer;
+  protected long base; // offset of the buffer start in the source
+  protected int position; // position in the buffer
+  protected int limit; // limit in the buffer
+  protected long end; // end of the scanned range in the source
+
+  /** Scan the remaining bytes of the buffer. */
+  public ByteScanner(ByteBuffer buffer) {
+    this(buffer, buffer.position(), buffer.limit());
+  }
+
+  /** Scan the bytes of the buffer from start to end, whatever the buffer position. */
+  public ByteScanner(ByteBuffer buffer, int start, int end) {
+    this.buffer = buffer.duplicate().order(order);
+    this.base = 0;
+    this.position = start;
+    this.limit = end;
+    this.end = end;
+  }
+
+  /** Scan the file from start to end by windows of {@link #DEFAULT_WINDOW} bytes. */
+  public ByteScanner(FileChannel channel, long start, long end) throws IOException {
+    this(channel, start, end, DEFAULT_WINDOW);
+  }
+
+  public ByteScanner(FileChannel channel, long start, long end, int window) throws IOException {
+    if (window < MAX_LINE)
+      throw new IllegalArgumentException("Window must be at least " + MAX_LINE + " : " + window);
+
+    this.channel = channel;
+    this.window = window;
+    this.end = end;
+    map(start);
+  }
+
+  /** Return a scanner on another range of the same buffer or file. */
+  public ByteScanner range(long start, long end) throws IOException {
+    ByteScanner scanner;
+    if (channel != null)
+      scanner = new ByteScanner(channel, start, end, window);
+    else
+      scanner = new ByteScanner(buffer, (int) start, (int) end);
+    scanner.order(order);
+    return scanner;
+  }
+
+  /** Make sure the next bytes are readable, mapping the next window of the file if needed. */
+  public void ensure(int bytes) throws IOException {
+    if (limit - position < bytes && channel != null && base + limit < end)
+      map(base + position);
+  }
+
+  protected void map(long offset) throws IOException {
+    int size = (int) Math.min(window, end - offset);
+    buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size).order(order);
+    base = offset;
+    position = 0;
+    limit = size;
+  }
+
+  /* POSITION */
+
+  /** Return the offset of the next byte in the buffer or file. */
+  public long getPosition() {
+    return base + position;
+  }
+
+  public long getEnd() {
+    return end;
+  }
+
+  public boolean hasRemaining() {
+    return base + position < end;
+  }
+
+  /** Return the next byte without consuming it, or -1 at the end of the window. */
+  public int peek() {
+    return position < limit ? buffer.get(position) & 0xFF : -1;
+  }
+
+  /** Return the next byte, or -1 at the end of the window. */
+  public int get() {
+    return position < limit ? buffer.get(position++) & 0xFF : -1;
+  }
+
+  public void skip(int bytes) {
+    position += bytes;
+  }
+
+  /* TEXT */
+
+  /** Skip spaces, tabulations and carriage returns, but not line feeds. */
+  public void skipSpaces() {
+    while (position < limit) {
+      byte b = buffer.get(position);
+      if (b != ' ' && b != '\t' && b != '\r')
+        return;
+      position++;
+    }
+  }
+
+  /** Return true if only spaces remain before the end of the line. */
+  public boolean isEndOfLine() {
+    skipSpaces();
+    return position >= limit || buffer.get(position) == '\n';
+  }
+
+  /** Move after the next line feed, or to the end. */
+  public void skipLine() {
+    while (position < limit) {
+      if (buffer.get(position++) == '\n')
+        return;
+    }
+  }
+
+  /** Skip the current word, i.e. all bytes before the next space or line end. */
+  public void skipWord() {
+    while (position < limit) {
+      byte b = buffer.get(position);
+      if (b == ' ' || b == '\t' || b == '\r' || b == '\n')
+        return;
+      position++;
+    }
+  }
+
+  /** Return true and consume the given ASCII word if it is the next word of the line. */
+  public boolean nextWordIs(String word) {
+    skipSpaces();
+    int n = word.length();
+    if (position + n > limit)
+      return false;
+    for (int i = 0; i < n; i++)
+      if (buffer.get(position + i) != word.charAt(i))
+        return false;
+    if (position + n < limit) {
+      byte b = buffer.get(position + n);
+      if (b != ' ' && b != '\t' && b != '\r' && b != '\n')
+        return false;
+    }
+    position += n;
+    return true;
+  }
+
+  /** Return the next word of the line as a String, or null if the line has no more word. */
+  public String nextWord() {
+    if (isEndOfLine())
+      return null;
+    int start = position;
+    skipWord();
+    return new String(bytes(start, position), StandardCharsets.US_ASCII);
+  }
+
+  /** Return the rest of the line without its line feed, and move to the next line. */
+  public String nextLine() {
+    int start = position;
+    int stop = start;
+    while (position < limit) {
+      if (buffer.get(position++) == '\n')
+        break;
+      stop = position;
+    }
+    if (stop > start && buffer.get(stop - 1) == '\r')
+      stop--;
+    return new String(bytes(start, stop), StandardCharsets.US_ASCII);
+  }
+
+  /** Count the line feeds from the current position to the end, and move to the end. */
+  public long countLines() throws IOException {
+    long lines = 0;
+    while (hasRemaining()) {
+      ensure(MAX_LINE);
+      while (position < limit) {
+        if (buffer.get(position++) == '\n')
+          lines++;
+      }
+    }
+    return lines;
+  }
+
+  /* NUMBERS */
+
+  /**
+   * Parse the next integer of the line.
+   *
+   * @throws NumberFormatException if the next word does not start with an integer.
+   */
+  public int nextInt() {
+    skipSpaces();
+
+    boolean negative = false;
+    if (position < limit) {
+      byte b = buffer.get(position);
+      if (b == '-' || b == '+') {
+        negative = b == '-';
+        position++;
+      }
+    }
+
+    int start = position;
+    long value = 0;
+    while (position < limit) {
+      int digit = buffer.get(position) - '0';
+      if (digit < 0 || digit > 9)
+        break;
+      value = value * 10 + digit;
+      if (value > Integer.MAX_VALUE + 1L)
+        throw new NumberFormatException("Integer overflow at offset " + getPosition());
+      position++;
+    }
+    if (position == start)
+      throw new NumberFormatException("Expect an integer at offset " + getPosition());
+
+    return (int) (negative ? -value : value);
+  }
+
+  public float nextFloat() {
+    return (float) nextDouble();
+  }
+
+  /**
+   * Parse the next decimal number of the line, e.g. 12, -0.5, 1.2e-3, nan or inf.
+   *
+   * @throws NumberFormatException if the next word is not a number.
+   */
+  public double nextDouble() {
+    skipSpaces();
+    int start = position;
+
+    boolean negative = false;
+    if (position < limit) {
+      byte b = buffer.get(position);
+      if (b == '-' || b == '+') {
+        negative = b == '-';
+        position++;
+      }
+    }
+
+    long mantissa = 0;
+    int digits = 0;
+    int exponent = 0;
+    boolean any = false;
+
+    // integer part
+    while (position < limit) {
+      int digit = buffer.get(position) - '0';
+      if (digit < 0 || digit > 9)
+        break;
+      any = true;
+      if (digits < 18) {
+        mantissa = mantissa * 10 + digit;
+        if (mantissa != 0)
+          digits++;
+      } else {
+        exponent++;
+        digits++;
+      }
+      position++;
+    }
+
+    // fraction part
+    if (position < limit && buffer.get(position) == '.') {
+      position++;
+      while (position < limit) {
+        int digit = buffer.get(position) - '0';
+        if (digit < 0 || digit > 9)
+          break;
+        any = true;
+        if (digits < 18) {
+          mantissa = mantissa * 10 + digit;
+          exponent--;
+          if (mantissa != 0)
+            digits++;
+        } else {
+          digits++;
+        }
+        position++;
+      }
+    }
+
+    if (!any)
+      return parseSpecial(start);
+
+    // exponent part
+    if (position < limit && (buffer.get(position) | 0x20) == 'e') {
+      position++;
+      exponent += nextInt();
+    }
+
+    // mantissa and power of ten are exact doubles, hence the result is correctly rounded
+    if (digits > 18 || mantissa > (1L << 53) || exponent < -22 || exponent > 22)
+      return parseSlow(start);
+
+    double value = mantissa;
+    value = exponent < 0 ? value / POWERS_OF_TEN[-exponent] : value * POWERS_OF_TEN[exponent];
+
+    return negative ? -value : value;
+  }
+
+  protected double parseSpecial(int start) {
+    position = start;
+    skipWord();
+    if (position == start)
+      throw new NumberFormatException("Expect a number at offset " + getPosition());
+
+    String word = new String(bytes(start, position), StandardCharsets.US_ASCII).toLowerCase();
+    if (word.endsWith("nan"))
+      return Double.NaN;
+    if (word.endsWith("inf") || word.endsWith("infinity"))
+      return word.startsWith("-") ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    throw new NumberFormatException("Expect a number at offset " + (base + start) + " : " + word);
+  }
+
+  protected double parseSlow(int start) {
+    position = start;
+    skipWord();
+    return Double.parseDouble(new String(bytes(start, position), StandardCharsets.US_ASCII));
+  }
+
+  protected byte[] bytes(int start, int stop) {
+    byte[] bytes = new byte[stop - start];
+    for (int i = 0; i < bytes.length; i++)
+      bytes[i] = buffer.get(start + i);
+    return bytes;
+  }
+
+  /* BINARY */
+
+  /** Set the byte order of binary values. Little endian by default. */
+  public ByteScanner order(ByteOrder order) {
+    this.order = order;
+    this.buffer.order(order);
+    return this;
+  }
+
+  public ByteOrder order() {
+    return order;
+  }
+
+  public byte getByte() {
+    return buffer.get(position++);
+  }
+
+  public short getShort() {
+    short v = buffer.getShort(position);
+    position += 2;
+    return v;
+  }
+
+  public int getInt() {
+    int v = buffer.getInt(position);
+    position += 4;
+    return v;
+  }
+
+  public float getFloat() {
+    float v = buffer.getFloat(position);
+    position += 4;
+    return v;
+  }
+
+  public double getDouble() {
+    double v = buffer.getDouble(position);
+    position += 8;
+    return v;
+  }
+}
@@ -0,0 +1,54 @@
+package org.jzy3d.io;
+
+/**
+ * Receive the vertices and faces of a mesh file while it is parsed, in the order of the file.
+ *
+ * Handlers can store the mesh, like {@link MeshArrays}, or process it on the fly, e.g. to keep one
+ * vertex out of ten when loading a model too large for memory :
+ *
+ * <pre>
+ * <code>
+ * new PlyParser().parse(file, new IMeshHandler() {
+ *   int n = 0;
+ *   public void vertex(float x, float y, float z) {
+ *     if (n++ % 10 == 0)
+ *       decimated.add(x, y, z);
+ *   }
+ *   public void face(int[] vertices, int[] normals, int count) {}
+ * });
+ * </code>
+ * </pre>
+ *
+ * Arrays given to {@link #face(int[], int[], int)} are reused by the parser and must be copied if
+ * kept.
+ */
+public interface IMeshHandler {
+  /**
+   * Invoked before the first vertex with the number of vertices and faces announced by the file
+   * header, or -1 if the format does not announce them.
+   */
+  public default void begin(long vertices, long faces) {}
+
+  public void vertex(float x, float y, float z);
+
+  /** Color of the last vertex, as floats in [0;1]. */
+  public default void color(float r, float g, float b, float a) {}
+
+  /**
+   * A normal. PLY normals belong to the last vertex. OBJ normals are listed independently of
+   * vertices and referenced by face normal indices.
+   */
+  public default void normal(float x, float y, float z) {}
+
+  /**
+   * A face made of count vertices.
+   *
+   * @param vertices zero based indices of the vertices.
+   * @param normals zero based indices of the normals, or null if the face does not reference
+   *        normals.
+   */
+  public void face(int[] vertices, int[] normals, int count);
+
+  /** Invoked after the last element of the file. */
+  public default void end() {}
+}
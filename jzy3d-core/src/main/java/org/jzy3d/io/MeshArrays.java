@@ -0,0 +1,278 @@
+package org.jzy3d.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.jzy3d.io.binary.BinaryGeometryWriter;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.plot3d.primitives.ArrayMesh;
+
+/**
+ * Store a parsed mesh in primitive arrays that grow as vertices and faces are received.
+ *
+ * <ul>
+ * <li>positions are x,y,z triplets,
+ * <li>colors are r,g,b,a quadruplets, one per vertex, or null if the file has no color,
+ * <li>normals are x,y,z triplets, or null if the file has no normal,
+ * <li>faces are split in triangles as fans, and stored as three vertex indices per triangle,
+ * <li>normal indices follow the same layout, or are null if faces have no normal index.
+ * </ul>
+ *
+ * Arrays are trimmed to their exact length when parsing ends.
+ */
+public class MeshArrays implements IMeshHandler {
+  protected static final int INITIAL_CAPACITY = 1024;
+
+  protected float[] positions = new float[INITIAL_CAPACITY * 3];
+  protected float[] colors;
+  protected float[] normals;
+  protected int[] indices = new int[INITIAL_CAPACITY * 3];
+  protected int[] normalIndices;
+
+  protected int vertexCount = 0;
+  protected int normalCount = 0;
+  protected int triangleCount = 0;
+
+  @Override
+  public void begin(long vertices, long faces) {
+    if (vertices > 0 && vertices * 3 < Integer.MAX_VALUE)
+      positions = grow(positions, (int) vertices * 3);
+    if (faces > 0 && faces * 3 < Integer.MAX_VALUE)
+      indices = grow(indices, (int) faces * 3);
+  }
+
+  @Override
+  public void vertex(float x, float y, float z) {
+    int i = vertexCount * 3;
+    if (i + 3 > positions.length)
+      positions = grow(positions, i + 3);
+    positions[i] = x;
+    positions[i + 1] = y;
+    positions[i + 2] = z;
+    vertexCount++;
+  }
+
+  /** Set the color of the last vertex. Vertices without color are white. */
+  @Override
+  public void color(float r, float g, float b, float a) {
+    if (vertexCount == 0)
+      return;
+
+    int i = (vertexCount - 1) * 4;
+    if (colors == null || i + 4 > colors.length) {
+      int length = colors == null ? 0 : colors.length;
+      int capacity = Math.max(i + 4, positions.length / 3 * 4);
+      colors = grow(colors == null ? new float[0] : colors, capacity);
+      Arrays.fill(colors, length, colors.length, 1);
+    }
+    colors[i] = r;
+    colors[i + 1] = g;
+    colors[i + 2] = b;
+    colors[i + 3] = a;
+  }
+
+  @Override
+  public void normal(float x, float y, float z) {
+    int i = normalCount * 3;
+    if (normals == null)
+      normals = new float[Math.max(i + 3, positions.length)];
+    else if (i + 3 > normals.length)
+      normals = grow(normals, i + 3);
+    normals[i] = x;
+    normals[i + 1] = y;
+    normals[i + 2] = z;
+    normalCount++;
+  }
+
+  /** Append the face as a fan of triangles. Faces with less than 3 vertices are ignored. */
+  @Override
+  public void face(int[] vertices, int[] normals, int count) {
+    if (count < 3)
+      return;
+
+    int triangles = count - 2;
+    int i = triangleCount * 3;
+
+    if (i + triangles * 3 > indices.length)
+      indices = grow(indices, i + triangles * 3);
+
+    if (normals != null) {
+      if (normalIndices == null)
+        normalIndices = new int[indices.length];
+      else if (normalIndices.length < indices.length)
+        normalIndices = grow(normalIndices, indices.length);
+    }
+
+    for (int t = 0; t < triangles; t++) {
+      indices[i] = vertices[0];
+      indices[i + 1] = vertices[t + 1];
+      indices[i + 2] = vertices[t + 2];
+
+      if (normals != null) {
+        normalIndices[i] = normals[0];
+        normalIndices[i + 1] = normals[t + 1];
+        normalIndices[i + 2] = normals[t + 2];
+      }
+      i += 3;
+    }
+    triangleCount += triangles;
+  }
+
+  @Override
+  public void end() {
+    trim();
+  }
+
+  /** Shrink arrays to the number of values they hold. */
+  public void trim() {
+    if (positions.length != vertexCount * 3)
+      positions = Arrays.copyOf(positions, vertexCount * 3);
+    if (indices.length != triangleCount * 3)
+      indices = Arrays.copyOf(indices, triangleCount * 3);
+    if (colors != null && colors.length != vertexCount * 4)
+      colors = fill(colors, vertexCount * 4, 1);
+    if (normals != null && normals.length != normalCount * 3)
+      normals = Arrays.copyOf(normals, normalCount * 3);
+    if (normalIndices != null && normalIndices.length != triangleCount * 3)
+      normalIndices = Arrays.copyOf(normalIndices, triangleCount * 3);
+  }
+
+  protected static float[] grow(float[] array, int minLength) {
+    if (minLength <= array.length)
+      return array;
+    long length = Math.max(minLength, array.length + (array.length >> 1));
+    return Arrays.copyOf(array, (int) Math.min(length, Integer.MAX_VALUE - 8));
+  }
+
+  protected static int[] grow(int[] array, int minLength) {
+    if (minLength <= array.length)
+      return array;
+    long length = Math.max(minLength, array.length + (array.length >> 1));
+    return Arrays.copyOf(array, (int) Math.min(length, Integer.MAX_VALUE - 8));
+  }
+
+  /** Copy the array to the given length, filling new values with the given value. */
+  protected static float[] fill(float[] array, int length, float value) {
+    float[] copy = Arrays.copyOf(array, length);
+    if (length > array.length)
+      Arrays.fill(copy, array.length, length, value);
+    return copy;
+  }
+
+  /**
+   * Concatenate meshes parsed from consecutive parts of a file. Indices are kept as they are, since
+   * file formats index vertices from the start of the file.
+   */
+  public static MeshArrays concat(List<MeshArrays> parts) {
+    MeshArrays mesh = new MeshArrays();
+
+    int vertices = 0;
+    int normals = 0;
+    int triangles = 0;
+    boolean colors = false;
+    boolean normalIndices = false;
+
+    for (MeshArrays part : parts) {
+      vertices += part.vertexCount;
+      normals += part.normalCount;
+      triangles += part.triangleCount;
+      colors |= part.colors != null;
+      normalIndices |= part.normalIndices != null;
+    }
+
+    mesh.positions = new float[vertices * 3];
+    mesh.indices = new int[triangles * 3];
+    mesh.colors = colors ? new float[vertices * 4] : null;
+    mesh.normals = normals > 0 ? new float[normals * 3] : null;
+    mesh.normalIndices = normalIndices ? new int[triangles * 3] : null;
+
+    for (MeshArrays part : parts) {
+      int v = mesh.vertexCount;
+      int t = mesh.triangleCount;
+
+      System.arraycopy(part.positions, 0, mesh.positions, v * 3, part.vertexCount * 3);
+      System.arraycopy(part.indices, 0, mesh.indices, t * 3, part.triangleCount * 3);
+
+      if (colors) {
+        if (part.colors != null)
+          System.arraycopy(part.colors, 0, mesh.colors, v * 4,
+              Math.min(part.colors.length, part.vertexCount * 4));
+        int filled = part.colors == null ? 0 : Math.min(part.colors.length, part.vertexCount * 4);
+        Arrays.fill(mesh.colors, v * 4 + filled, (v + part.vertexCount) * 4, 1);
+      }
+      if (part.normals != null)
+        System.arraycopy(part.normals, 0, mesh.normals, mesh.normalCount * 3,
+            part.normalCount * 3);
+      if (part.normalIndices != null)
+        System.arraycopy(part.normalIndices, 0, mesh.normalIndices, t * 3,
+            part.triangleCount * 3);
+
+      mesh.vertexCount += part.vertexCount;
+      mesh.normalCount += part.normalCount;
+      mesh.triangleCount += part.triangleCount;
+    }
+    return mesh;
+  }
+
+  /* */
+
+  /**
+   * Build a drawable triangle mesh. Normals are computed by the mesh from its triangles rather than
+   * read from the file.
+   */
+  public ArrayMesh toArrayMesh() {
+    trim();
+    return new ArrayMesh(positions, colors, indices, 3);
+  }
+
+  /**
+   * Write the mesh in the binary format read by {@link org.jzy3d.io.binary.MappedGeometry}. Normals
+   * are written if there is one normal per vertex.
+   */
+  public void write(File file) throws IOException {
+    trim();
+    float[] vertexNormals = normals != null && normalCount == vertexCount ? normals : null;
+    BinaryGeometryWriter.write(file, positions, colors, 4, vertexNormals,
+        triangleCount > 0 ? indices : null, 3);
+  }
+
+  public BoundingBox3d getBounds() {
+    BoundingBox3d bounds = new BoundingBox3d();
+    for (int i = 0; i < vertexCount * 3; i += 3)
+      bounds.add(positions[i], positions[i + 1], positions[i + 2]);
+    return bounds;
+  }
+
+  public float[] getPositions() {
+    return positions;
+  }
+
+  public float[] getColors() {
+    return colors;
+  }
+
+  public float[] getNormals() {
+    return normals;
+  }
+
+  public int[] getIndices() {
+    return indices;
+  }
+
+  public int[] getNormalIndices() {
+    return normalIndices;
+  }
+
+  public int getVertexCount() {
+    return vertexCount;
+  }
+
+  public int getNormalCount() {
+    return normalCount;
+  }
+
+  public int getTriangleCount() {
+    return triangleCount;
+  }
+}
@@ -0,0 +1,109 @@
+package org.jzy3d.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Base class of the mesh parsers able to parse a file by chunks on a {@link ForkJoinPool}.
+ *
+ * A file is split in at most 4 chunks per thread of the pool, each being at least
+ * {@link #getChunkSize()} bytes long, so that small files are parsed by a single thread.
+ */
+public abstract class ParallelMeshParser {
+  public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+  protected ForkJoinPool pool = ForkJoinPool.commonPool();
+  protected int chunkSize = DEFAULT_CHUNK_SIZE;
+
+  /**
+   * Split the range in chunks ending after a line feed.
+   *
+   * @return the chunk bounds, i.e. the start of each chunk followed by the end of the range.
+   */
+  protected long[] splitLines(ByteScanner scanner, long start, long end) throws IOException {
+    long length = end - start;
+    int chunks = (int) Math.max(1, Math.min(pool.getParallelism() * 4L, length / chunkSize));
+
+    long[] bounds = new long[chunks + 1];
+    int n = 1;
+    bounds[0] = start;
+
+    for (int c = 1; c < chunks; c++) {
+      long nominal = start + length * c / chunks;
+      if (nominal <= bounds[n - 1])
+        continue;
+
+      ByteScanner line = scanner.range(nominal - 1, end);
+      line.ensure(ByteScanner.MAX_LINE);
+      line.skipLine();
+
+      long bound = line.getPosition();
+      if (bound > bounds[n - 1] && bound < end)
+        bounds[n++] = bound;
+    }
+    bounds[n++] = end;
+    return Arrays.copyOf(bounds, n);
+  }
+
+  /**
+   * Run a task on the pool, so that parallel streams of the task use the pool threads, and
+   * rethrow the {@link IOException} that the task may have wrapped.
+   */
+  protected <T> T execute(Supplier<T> task) throws IOException {
+    try {
+      return pool.submit(task::get).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while parsing", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UncheckedIOException)
+        throw ((UncheckedIOException) cause).getCause();
+      if (cause instanceof RuntimeException)
+        throw (RuntimeException) cause;
+      if (cause instanceof Error)
+        throw (Error) cause;
+      throw new IOException(cause);
+    }
+  }
+
+  /** Read the stream until its end in a heap buffer. */
+  protected static ByteBuffer readFully(InputStream input) throws IOException {
+    byte[] bytes = new byte[64 * 1024];
+    int length = 0;
+    int read;
+    while ((read = input.read(bytes, length, bytes.length - length)) >= 0) {
+      length += read;
+      if (length == bytes.length)
+        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+    }
+    return ByteBuffer.wrap(bytes, 0, length);
+  }
+
+  /* */
+
+  public ForkJoinPool getPool() {
+    return pool;
+  }
+
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /** Set the minimum number of bytes parsed by a thread. */
+  public void setChunkSize(int chunkSize) {
+    if (chunkSize < 1)
+      throw new IllegalArgumentException("Chunk size must be positive : " + chunkSize);
+    this.chunkSize = chunkSize;
+  }
+}
@@ -0,0 +1,269 @@
+package org.jzy3d.io.binary;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Write a point cloud or a mesh in the binary format read by {@link MappedGeometry}.
+ *
+ * The number of points and indices is declared when creating the writer, so that each section has
+ * a known place in the file. Sections can then be written in any order and in as many calls as
+ * needed, which allows converting clouds that do not fit in memory by chunks.
+ *
+ * <pre>
+ * <code>
+ * try (BinaryGeometryWriter writer = new BinaryGeometryWriter(file, n, 4, false, 0, 0)) {
+ *   for (...) {
+ *     writer.putPositions(xyz, 0, chunk * 3);
+ *     writer.putColors(rgba, 0, chunk * 4);
+ *   }
+ * }
+ * </code>
+ * </pre>
+ *
+ * Bounds of the positions are computed while writing and stored in the header. NaN coordinates are
+ * ignored when computing bounds.
+ */
+public class BinaryGeometryWriter implements Closeable {
+  protected static final int CHUNK_BYTES = 1 << 16;
+
+  protected File file;
+  protected FileChannel channel;
+  protected ByteBuffer chunk;
+
+  protected long pointCount;
+  protected long indexCount;
+  protected int colorChannels;
+  protected boolean normals;
+  protected int verticesPerElement;
+
+  // number of values written in each section
+  protected long positionsWritten = 0;
+  protected long colorsWritten = 0;
+  protected long normalsWritten = 0;
+  protected long indicesWritten = 0;
+
+  protected float[] bounds = {Float.MAX_VALUE, -Float.MAX_VALUE, Float.MAX_VALUE,
+      -Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE};
+
+  /**
+   * @param pointCount number of points that will be written.
+   * @param colorChannels 0 if no color will be written, 3 for RGB or 4 for RGBA colors.
+   * @param normals true if a normal will be written for each point.
+   * @param indexCount number of vertex indices that will be written, or 0 for a point cloud.
+   * @param verticesPerElement number of indices per element, e.g. 3 for triangles, or 0 for a point
+   *        cloud.
+   */
+  public BinaryGeometryWriter(File file, long pointCount, int colorChannels, boolean normals,
+      long indexCount, int verticesPerElement) throws IOException {
+    if (pointCount < 0)
+      throw new IllegalArgumentException("Point count must be positive : " + pointCount);
+    if (colorChannels != 0 && colorChannels != 3 && colorChannels != 4)
+      throw new IllegalArgumentException("Color channels must be 0, 3 or 4 : " + colorChannels);
+    if (indexCount < 0)
+      throw new IllegalArgumentException("Index count must be positive : " + indexCount);
+    if (indexCount > 0 && (verticesPerElement < 1 || indexCount % verticesPerElement != 0))
+      throw new IllegalArgumentException("Index count " + indexCount
+          + " is not a multiple of vertices per element " + verticesPerElement);
+
+    this.file = file;
+    this.pointCount = pointCount;
+    this.colorChannels = colorChannels;
+    this.normals = normals;
+    this.indexCount = indexCount;
+    this.verticesPerElement = verticesPerElement;
+
+    this.chunk = ByteBuffer.allocateDirect(CHUNK_BYTES).order(MappedGeometry.ORDER);
+    this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  /** Write a complete geometry at once. Colors, normals and indices may be null. */
+  public static void write(File file, float[] positions, float[] colors, int colorChannels,
+      float[] normals, int[] indices, int verticesPerElement) throws IOException {
+    long points = positions.length / 3;
+    try (BinaryGeometryWriter writer = new BinaryGeometryWriter(file, points,
+        colors == null ? 0 : colorChannels, normals != null,
+        indices == null ? 0 : indices.length, indices == null ? 0 : verticesPerElement)) {
+      writer.putPositions(positions, 0, positions.length);
+      if (colors != null)
+        writer.putColors(colors, 0, colors.length);
+      if (normals != null)
+        writer.putNormals(normals, 0, normals.length);
+      if (indices != null)
+        writer.putIndices(indices, 0, indices.length);
+    }
+  }
+
+  /* POSITIONS */
+
+  /** Append length position values, i.e. x,y,z triplets, read from the array. */
+  public void putPositions(float[] xyz, int from, int length) throws IOException {
+    putPositions(FloatBuffer.wrap(xyz, from, length));
+  }
+
+  /** Append the remaining position values of the buffer. */
+  public void putPositions(FloatBuffer xyz) throws IOException {
+    int length = xyz.remaining();
+    checkCapacity("positions", positionsWritten, length, pointCount * 3);
+
+    for (int i = 0; i < length; i++) {
+      float v = xyz.get(xyz.position() + i);
+      if (v == v) {
+        int d = (int) ((positionsWritten + i) % 3) * 2;
+        if (v < bounds[d])
+          bounds[d] = v;
+        if (v > bounds[d + 1])
+          bounds[d + 1] = v;
+      }
+    }
+
+    writeFloats(MappedGeometry.HEADER_SIZE + positionsWritten * 4, xyz);
+    positionsWritten += length;
+  }
+
+  /* COLORS */
+
+  /** Append length color values, i.e. one value per color channel per point. */
+  public void putColors(float[] colors, int from, int length) throws IOException {
+    putColors(FloatBuffer.wrap(colors, from, length));
+  }
+
+  public void putColors(FloatBuffer colors) throws IOException {
+    int length = colors.remaining();
+    checkCapacity("colors", colorsWritten, length, pointCount * colorChannels);
+
+    writeFloats(getColorOffset() + colorsWritten * 4, colors);
+    colorsWritten += length;
+  }
+
+  /* NORMALS */
+
+  /** Append length normal values, i.e. x,y,z triplets. */
+  public void putNormals(float[] normals, int from, int length) throws IOException {
+    putNormals(FloatBuffer.wrap(normals, from, length));
+  }
+
+  public void putNormals(FloatBuffer normals) throws IOException {
+    int length = normals.remaining();
+    checkCapacity("normals", normalsWritten, length, this.normals ? pointCount * 3 : 0);
+
+    writeFloats(getNormalOffset() + normalsWritten * 4, normals);
+    normalsWritten += length;
+  }
+
+  /* INDICES */
+
+  public void putIndices(int[] indices, int from, int length) throws IOException {
+    putIndices(IntBuffer.wrap(indices, from, length));
+  }
+
+  public void putIndices(IntBuffer indices) throws IOException {
+    int length = indices.remaining();
+    checkCapacity("indices", indicesWritten, length, indexCount);
+
+    long position = getIndexOffset() + indicesWritten * 4;
+    while (indices.hasRemaining()) {
+      int n = Math.min(indices.remaining(), CHUNK_BYTES / 4);
+      int limit = indices.limit();
+
+      chunk.clear();
+      indices.limit(indices.position() + n);
+      chunk.asIntBuffer().put(indices);
+      indices.limit(limit);
+
+      chunk.limit(n * 4);
+      position = writeChunk(position);
+    }
+    indicesWritten += length;
+  }
+
+  /* */
+
+  protected void writeFloats(long position, FloatBuffer values) throws IOException {
+    while (values.hasRemaining()) {
+      int n = Math.min(values.remaining(), CHUNK_BYTES / 4);
+      int limit = values.limit();
+
+      chunk.clear();
+      values.limit(values.position() + n);
+      chunk.asFloatBuffer().put(values);
+      values.limit(limit);
+
+      chunk.limit(n * 4);
+      position = writeChunk(position);
+    }
+  }
+
+  protected long writeChunk(long position) throws IOException {
+    while (chunk.hasRemaining())
+      position += channel.write(chunk, position);
+    return position;
+  }
+
+  protected void checkCapacity(String section, long written, int length, long capacity) {
+    if (written + length > capacity)
+      throw new IllegalArgumentException("Writing " + length + " " + section + " values after "
+          + written + " exceeds the " + capacity + " declared values");
+  }
+
+  protected long getColorOffset() {
+    return MappedGeometry.HEADER_SIZE + pointCount * 3 * 4;
+  }
+
+  protected long getNormalOffset() {
+    return getColorOffset() + pointCount * colorChannels * 4;
+  }
+
+  protected long getIndexOffset() {
+    return getNormalOffset() + (normals ? pointCount * 3 * 4 : 0);
+  }
+
+  /**
+   * Write the header and close the file.
+   *
+   * @throws IllegalStateException if a section was not completely written.
+   */
+  @Override
+  public void close() throws IOException {
+    if (channel == null)
+      return;
+
+    try {
+      checkComplete("positions", positionsWritten, pointCount * 3);
+      checkComplete("colors", colorsWritten, pointCount * colorChannels);
+      checkComplete("normals", normalsWritten, normals ? pointCount * 3 : 0);
+      checkComplete("indices", indicesWritten, indexCount);
+
+      chunk.clear();
+      chunk.putInt(MappedGeometry.MAGIC);
+      chunk.putInt(MappedGeometry.VERSION);
+      chunk.putInt(colorChannels);
+      chunk.putInt(normals ? 1 : 0);
+      chunk.putInt(verticesPerElement);
+      chunk.putInt(0);
+      chunk.putLong(pointCount);
+      chunk.putLong(indexCount);
+      for (float b : bounds)
+        chunk.putFloat(b);
+      chunk.flip();
+
+      writeChunk(0);
+    } finally {
+      channel.close();
+      channel = null;
+    }
+  }
+
+  protected void checkComplete(String section, long written, long expected) {
+    if (written != expected)
+      throw new IllegalStateException(
+          "Only " + written + " " + section + " values written out of " + expected + " declared");
+  }
+}
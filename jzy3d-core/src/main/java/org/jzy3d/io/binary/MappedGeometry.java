@@ -0,0 +1,254 @@
+package org.jzy3d.io.binary;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import org.jzy3d.maths.BoundingBox3d;
+
+/**
+ * Read a point cloud or a mesh written by {@link BinaryGeometryWriter} by mapping the file in
+ * memory.
+ *
+ * Opening a file only reads its header. Positions, colors, normals and indices are then given as
+ * {@link FloatBuffer} and {@link IntBuffer} views of the mapped file, so that they can be handed
+ * to a drawable or to the GPU without being parsed nor copied to the heap. Pages are loaded by the
+ * operating system when the buffers are read.
+ *
+ * <h2>Layout</h2>
+ *
+ * All values are little endian. A 64 bytes header
+ * <ul>
+ * <li>magic "JZ3G" and version, as two ints,
+ * <li>number of color channels (0, 3 or 4), 1 if normals are given or 0, vertices per element (0
+ * for a point cloud, 3 for triangles, etc), a reserved int,
+ * <li>number of points and number of indices, as two longs,
+ * <li>bounds as xmin, xmax, ymin, ymax, zmin, zmax floats,
+ * </ul>
+ * is followed by the positions (x,y,z floats), the colors (one float per channel), the normals
+ * (x,y,z floats) and the indices (ints), each section being absent if empty.
+ *
+ * <h2>Large files</h2>
+ *
+ * A single mapped buffer can not exceed 2GB, i.e. about 178 million positions. Larger sections are
+ * read by ranges with {@link #getPositions(long, int)} and similar methods, for example to build
+ * one drawable per range.
+ *
+ * Views are little endian, hence are in native order on the most common platforms, which lets
+ * OpenGL bindings use them directly.
+ */
+public class MappedGeometry implements Closeable {
+  protected static final int MAGIC = 0x47335A4A; // "JZ3G" read as a little endian int
+  protected static final int VERSION = 1;
+  protected static final int HEADER_SIZE = 64;
+  protected static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  protected File file;
+  protected FileChannel channel;
+
+  protected long pointCount;
+  protected long indexCount;
+  protected int colorChannels;
+  protected boolean normals;
+  protected int verticesPerElement;
+  protected BoundingBox3d bounds;
+
+  public MappedGeometry(File file) throws IOException {
+    this.file = file;
+    this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+    try {
+      readHeader();
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  protected void readHeader() throws IOException {
+    if (channel.size() < HEADER_SIZE)
+      throw new IOException("Not a binary geometry file : " + file);
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+    while (header.hasRemaining())
+      if (channel.read(header, header.position()) < 0)
+        break;
+    header.flip();
+
+    if (header.getInt() != MAGIC)
+      throw new IOException("Not a binary geometry file : " + file);
+
+    int version = header.getInt();
+    if (version != VERSION)
+      throw new IOException("Unsupported binary geometry version " + version + " : " + file);
+
+    colorChannels = header.getInt();
+    normals = header.getInt() != 0;
+    verticesPerElement = header.getInt();
+    header.getInt();
+    pointCount = header.getLong();
+    indexCount = header.getLong();
+
+    float xmin = header.getFloat();
+    float xmax = header.getFloat();
+    float ymin = header.getFloat();
+    float ymax = header.getFloat();
+    float zmin = header.getFloat();
+    float zmax = header.getFloat();
+    bounds = new BoundingBox3d(xmin, xmax, ymin, ymax, zmin, zmax);
+
+    if (getIndexOffset() + indexCount * 4 > channel.size())
+      throw new IOException("Truncated binary geometry file : " + file);
+  }
+
+  /* POSITIONS */
+
+  /** Return all positions as x,y,z triplets. */
+  public FloatBuffer getPositions() throws IOException {
+    return getPositions(0, checkedCount(pointCount, 3));
+  }
+
+  /** Return the positions of count points, starting at the given point. */
+  public FloatBuffer getPositions(long first, int count) throws IOException {
+    return mapFloats(getPositionOffset(), pointCount, 3, first, count);
+  }
+
+  /* COLORS */
+
+  /**
+   * Return all colors as {@link #getColorChannels()} floats per point, or null if the file has no
+   * colors.
+   */
+  public FloatBuffer getColors() throws IOException {
+    if (colorChannels == 0)
+      return null;
+    return getColors(0, checkedCount(pointCount, colorChannels));
+  }
+
+  public FloatBuffer getColors(long first, int count) throws IOException {
+    if (colorChannels == 0)
+      return null;
+    return mapFloats(getColorOffset(), pointCount, colorChannels, first, count);
+  }
+
+  /* NORMALS */
+
+  /** Return all normals as x,y,z triplets, or null if the file has no normals. */
+  public FloatBuffer getNormals() throws IOException {
+    if (!normals)
+      return null;
+    return getNormals(0, checkedCount(pointCount, 3));
+  }
+
+  public FloatBuffer getNormals(long first, int count) throws IOException {
+    if (!normals)
+      return null;
+    return mapFloats(getNormalOffset(), pointCount, 3, first, count);
+  }
+
+  /* INDICES */
+
+  /** Return all vertex indices, or null if the file has no indices. */
+  public IntBuffer getIndices() throws IOException {
+    if (indexCount == 0)
+      return null;
+    return getIndices(0, checkedCount(indexCount, 1));
+  }
+
+  public IntBuffer getIndices(long first, int count) throws IOException {
+    if (indexCount == 0)
+      return null;
+    checkRange(indexCount, first, count);
+    return map(getIndexOffset() + first * 4, count * 4L).asIntBuffer();
+  }
+
+  /* */
+
+  protected FloatBuffer mapFloats(long sectionOffset, long items, int floatsPerItem, long first,
+      int count) throws IOException {
+    checkRange(items, first, count);
+    long bytesPerItem = floatsPerItem * 4L;
+    return map(sectionOffset + first * bytesPerItem, count * bytesPerItem).asFloatBuffer();
+  }
+
+  protected ByteBuffer map(long offset, long size) throws IOException {
+    if (size > Integer.MAX_VALUE)
+      throw new IllegalArgumentException(
+          "Can not map more than 2GB at once, read the section by ranges : " + size + " bytes");
+    return channel.map(FileChannel.MapMode.READ_ONLY, offset, size).order(ORDER);
+  }
+
+  protected void checkRange(long items, long first, int count) {
+    if (first < 0 || count < 0 || first + count > items)
+      throw new IndexOutOfBoundsException(
+          "Range [" + first + ", " + (first + count) + "[ out of [0, " + items + "[");
+  }
+
+  /** Verify a whole section can be mapped at once and return its number of items. */
+  protected int checkedCount(long items, int valuesPerItem) {
+    if (items * valuesPerItem * 4 > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("Section of " + items
+          + " items exceeds 2GB and can not be mapped at once, read it by ranges");
+    return (int) items;
+  }
+
+  protected long getPositionOffset() {
+    return HEADER_SIZE;
+  }
+
+  protected long getColorOffset() {
+    return getPositionOffset() + pointCount * 3 * 4;
+  }
+
+  protected long getNormalOffset() {
+    return getColorOffset() + pointCount * colorChannels * 4;
+  }
+
+  protected long getIndexOffset() {
+    return getNormalOffset() + (normals ? pointCount * 3 * 4 : 0);
+  }
+
+  /** Release the file. Buffers already returned remain readable until they are garbage collected. */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /* */
+
+  public File getFile() {
+    return file;
+  }
+
+  public long getPointCount() {
+    return pointCount;
+  }
+
+  public long getIndexCount() {
+    return indexCount;
+  }
+
+  /** Return 0 if the file has no colors, 3 for RGB colors or 4 for RGBA colors. */
+  public int getColorChannels() {
+    return colorChannels;
+  }
+
+  public boolean hasNormals() {
+    return normals;
+  }
+
+  /** Return the number of indices per element, e.g. 3 for triangles, or 0 for a point cloud. */
+  public int getVerticesPerElement() {
+    return verticesPerElement;
+  }
+
+  /** Return the bounds of the positions, as computed when the file was written. */
+  public BoundingBox3d getBounds() {
+    return bounds.clone();
+  }
+}
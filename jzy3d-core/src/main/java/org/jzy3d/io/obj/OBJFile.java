@@ -1,13 +1,10 @@
 package org.jzy3d.io.obj;
 
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.FloatBuffer;
@@ -18,6 +15,7 @@ import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jzy3d.io.BufferUtil;
+import org.jzy3d.io.IMeshHandler;
 import org.jzy3d.maths.BoundingBox3d;
 
 /**
@@ -121,10 +119,14 @@ public class OBJFile {
 
   public boolean loadModelFromFile(File file) {
     try {
-      FileInputStream fis = new FileInputStream(file);
-      return loadModelFromStream(fis);
-    } catch (FileNotFoundException e) {
-      e.printStackTrace();
+      ModelHandler handler = new ModelHandler();
+      new ObjParser().parse(file, handler);
+      return true;
+    } catch (IOException e) {
+      logger.error("Problem reading the file " + file + " : IOException : " + e.getMessage());
+    } catch (NumberFormatException e) {
+      logger.error(
+          "Problem reading the file " + file + " : NumberFormatException : " + e.getMessage());
     }
     return false;
   }
@@ -135,55 +137,22 @@ public class OBJFile {
    * understands that file type, it attempts to parse and load the file into its raw data
    * structures. If the file type is recognized and successfully parsed, the function returns true,
    * otherwise it returns false.
+   * 
+   * The stream is parsed by {@link ObjParser}, which reads bytes without building a String per
+   * line.
    */
   public boolean loadModelFromStream(InputStream inputStream) {
-    BufferedReader input = null;
     try {
-
-      input = new BufferedReader(new InputStreamReader(inputStream));
-      String line = null;
-      float[] val = new float[4];
-      int[][] idx = new int[3][3];
-      boolean hasNormals = false;
-
-      while ((line = input.readLine()) != null) {
-        if (line.isEmpty()) {
-          continue;
-        }
-        switch (line.charAt(0)) {
-          case '#':
-            break;
-          case 'v':
-            parseObjVertex(line, val);
-            break;
-          case 'f':
-            hasNormals = parseObjFace(line, idx, hasNormals);
-            break;
-          default:
-            break;
-        };
-      }
-      // post-process data
-      // free anything that ended up being unused
-      if (!hasNormals) {
-        normals_.clear();
-        nIndex_.clear();
-      }
-
-      posSize_ = 3;
+      ModelHandler handler = new ModelHandler();
+      new ObjParser().parse(inputStream, handler);
       return true;
-
-    } catch (FileNotFoundException kFNF) {
-      logger.error("Unable to find the file : FileNotFoundException : " + kFNF.getMessage());
     } catch (IOException kIO) {
       logger.error("Problem reading the file : IOException : " + kIO.getMessage());
     } catch (NumberFormatException kIO) {
       logger.error("Problem reading the file : NumberFormatException : " + kIO.getMessage());
     } finally {
       try {
-        if (input != null) {
-          input.close();
-        }
+        inputStream.close();
       } catch (IOException closee) {
       }
     }
@@ -191,6 +160,52 @@ public class OBJFile {
     return false;
   }
 
+  /** Fill the model lists with the elements given by the parser. */
+  protected class ModelHandler implements IMeshHandler {
+    protected boolean hasNormals = false;
+
+    @Override
+    public void vertex(float x, float y, float z) {
+      positions_.add(x);
+      positions_.add(y);
+      positions_.add(z);
+    }
+
+    @Override
+    public void normal(float x, float y, float z) {
+      normals_.add(x);
+      normals_.add(y);
+      normals_.add(z);
+    }
+
+    @Override
+    public void face(int[] vertices, int[] normals, int count) {
+      // faces with more than 3 vertices are split as triangle fans
+      for (int i = 1; i < count - 1; i++) {
+        pIndex_.add(vertices[0]);
+        pIndex_.add(vertices[i]);
+        pIndex_.add(vertices[i + 1]);
+
+        if (normals != null) {
+          nIndex_.add(normals[0]);
+          nIndex_.add(normals[i]);
+          nIndex_.add(normals[i + 1]);
+        }
+      }
+      hasNormals |= normals != null;
+    }
+
+    @Override
+    public void end() {
+      // free anything that ended up being unused
+      if (!hasNormals) {
+        normals_.clear();
+        nIndex_.clear();
+      }
+      posSize_ = 3;
+    }
+  }
+
   /**
    * 
    * v 1.0 0.0 0.0
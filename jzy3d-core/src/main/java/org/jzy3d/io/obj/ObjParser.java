@@ -0,0 +1,221 @@
+package org.jzy3d.io.obj;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.jzy3d.io.ByteScanner;
+import org.jzy3d.io.IMeshHandler;
+import org.jzy3d.io.MeshArrays;
+import org.jzy3d.io.ParallelMeshParser;
+
+/**
+ * Parse OBJ files from bytes, without creating a String per line or token.
+ *
+ * Vertices "v x y z [r g b]", normals "vn x y z" and faces "f v v v ...", "f v//vn ...",
+ * "f v/vt ..." or "f v/vt/vn ..." are read. Texture coordinates, groups, materials and other
+ * statements are skipped. Negative indices refer to the last vertices, as defined by the format.
+ *
+ * {@link #parse(File, IMeshHandler)} streams the file to a handler, reading it by memory mapped
+ * windows, hence works with files of any size. {@link #read(File)} splits the file on line
+ * boundaries and parses the chunks in parallel into a {@link MeshArrays}.
+ */
+public class ObjParser extends ParallelMeshParser {
+  /* STREAMING */
+
+  /** Parse the file and give its elements to the handler in the file order. */
+  public void parse(File file, IMeshHandler handler) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      parse(new ByteScanner(channel, 0, channel.size()), handler);
+    }
+  }
+
+  /** Read the stream in memory, then parse it. */
+  public void parse(InputStream input, IMeshHandler handler) throws IOException {
+    parse(readFully(input), handler);
+  }
+
+  /** Parse the remaining bytes of the buffer and give its elements to the handler. */
+  public void parse(ByteBuffer buffer, IMeshHandler handler) throws IOException {
+    parse(new ByteScanner(buffer), handler);
+  }
+
+  public void parse(ByteScanner scanner, IMeshHandler handler) throws IOException {
+    handler.begin(-1, -1);
+    new Chunk(handler).parse(scanner);
+    handler.end();
+  }
+
+  /* PARALLEL */
+
+  /** Parse the file by chunks in parallel. */
+  public MeshArrays read(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      return read(new ByteScanner(channel, 0, channel.size()));
+    }
+  }
+
+  public MeshArrays read(InputStream input) throws IOException {
+    return read(readFully(input));
+  }
+
+  public MeshArrays read(ByteBuffer buffer) throws IOException {
+    return read(new ByteScanner(buffer));
+  }
+
+  /**
+   * Parse the scanned range by chunks in parallel. Chunks referencing vertices with negative
+   * indices are rare, and can only be resolved knowing the number of vertices of the previous
+   * chunks : the range is then parsed again sequentially.
+   */
+  public MeshArrays read(ByteScanner scanner) throws IOException {
+    long[] bounds = splitLines(scanner, scanner.getPosition(), scanner.getEnd());
+    int chunks = bounds.length - 1;
+
+    if (chunks == 1)
+      return readSequentially(scanner);
+
+    List<Chunk> parsed = execute(() -> IntStream.range(0, chunks).parallel().mapToObj(c -> {
+      MeshArrays mesh = new MeshArrays();
+      Chunk chunk = new Chunk(mesh);
+      parseUnchecked(chunk, scanner, bounds[c], bounds[c + 1]);
+      mesh.trim();
+      return chunk;
+    }).collect(Collectors.toList()));
+
+    for (int c = 1; c < chunks; c++)
+      if (parsed.get(c).relative)
+        return readSequentially(scanner.range(bounds[0], bounds[chunks]));
+
+    List<MeshArrays> meshes = new ArrayList<>(chunks);
+    for (Chunk chunk : parsed)
+      meshes.add((MeshArrays) chunk.handler);
+    return MeshArrays.concat(meshes);
+  }
+
+  protected MeshArrays readSequentially(ByteScanner scanner) throws IOException {
+    MeshArrays mesh = new MeshArrays();
+    parse(scanner, mesh);
+    return mesh;
+  }
+
+  protected void parseUnchecked(Chunk chunk, ByteScanner scanner, long start, long end) {
+    try {
+      chunk.parse(scanner.range(start, end));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /* */
+
+  /**
+   * Parse lines and keep the number of vertices and normals read so far to resolve negative
+   * indices.
+   */
+  protected static class Chunk {
+    protected final IMeshHandler handler;
+    protected int vertices = 0;
+    protected int normals = 0;
+    protected boolean relative = false;
+
+    protected int[] face = new int[16];
+    protected int[] faceNormals = new int[16];
+
+    public Chunk(IMeshHandler handler) {
+      this.handler = handler;
+    }
+
+    public void parse(ByteScanner s) throws IOException {
+      while (s.hasRemaining()) {
+        s.ensure(ByteScanner.MAX_LINE);
+        s.skipSpaces();
+
+        int c = s.peek();
+        if (c == 'v') {
+          s.skip(1);
+          int next = s.peek();
+          if (next == ' ' || next == '\t')
+            parseVertex(s);
+          else if (next == 'n' && s.nextWordIs("n"))
+            parseNormal(s);
+        } else if (c == 'f') {
+          s.skip(1);
+          int next = s.peek();
+          if (next == ' ' || next == '\t')
+            parseFace(s);
+        }
+        s.skipLine();
+      }
+    }
+
+    protected void parseVertex(ByteScanner s) {
+      float x = s.nextFloat();
+      float y = s.nextFloat();
+      float z = s.nextFloat();
+      handler.vertex(x, y, z);
+      vertices++;
+
+      // vertex colors extension
+      if (!s.isEndOfLine()) {
+        float r = s.nextFloat();
+        if (!s.isEndOfLine()) {
+          float g = s.nextFloat();
+          float b = s.nextFloat();
+          handler.color(r, g, b, 1);
+        }
+      }
+    }
+
+    protected void parseNormal(ByteScanner s) {
+      handler.normal(s.nextFloat(), s.nextFloat(), s.nextFloat());
+      normals++;
+    }
+
+    protected void parseFace(ByteScanner s) {
+      int count = 0;
+      boolean withNormals = true;
+
+      while (!s.isEndOfLine()) {
+        if (count == face.length) {
+          face = Arrays.copyOf(face, count * 2);
+          faceNormals = Arrays.copyOf(faceNormals, count * 2);
+        }
+
+        face[count] = resolve(s.nextInt(), vertices);
+
+        boolean normal = false;
+        if (s.peek() == '/') {
+          s.skip(1);
+          int p = s.peek();
+          if ((p >= '0' && p <= '9') || p == '-')
+            s.nextInt(); // texture
+          if (s.peek() == '/') {
+            s.skip(1);
+            faceNormals[count] = resolve(s.nextInt(), normals);
+            normal = true;
+          }
+        }
+        withNormals &= normal;
+        count++;
+      }
+      handler.face(face, withNormals && count > 0 ? faceNormals : null, count);
+    }
+
+    /** Convert a one based or negative index to a zero based index. */
+    protected int resolve(int index, int count) {
+      if (index > 0)
+        return index - 1;
+      relative = true;
+      return count + index;
+    }
+  }
+}
@@ -1,12 +1,13 @@
 package org.jzy3d.io.ply;
 
-import java.io.FileInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jzy3d.io.MeshArrays;
 import org.jzy3d.maths.Coord3d;
 import org.smurn.jply.Element;
 import org.smurn.jply.ElementReader;
@@ -15,14 +16,22 @@ import org.smurn.jply.PlyReaderFile;
 public class Ply {
   static Logger LOGGER = LogManager.getLogger(Ply.class);
 
+  /** Read vertices with {@link PlyParser}, which also supports faces and colors. */
   public static List<Coord3d> read(String filename) throws IOException {
-    return read(new FileInputStream(filename));
+    return coords(new PlyParser().read(new File(filename)));
   }
 
   public static List<Coord3d> read(InputStream is) throws IOException {
-    PlyReaderFile reader = new PlyReaderFile(is);
-    List<Coord3d> coords = read(reader);
-    reader.close();
+    try (InputStream input = is) {
+      return coords(new PlyParser().read(input));
+    }
+  }
+
+  protected static List<Coord3d> coords(MeshArrays mesh) {
+    float[] positions = mesh.getPositions();
+    List<Coord3d> coords = new ArrayList<>(mesh.getVertexCount());
+    for (int i = 0; i < mesh.getVertexCount() * 3; i += 3)
+      coords.add(new Coord3d(positions[i], positions[i + 1], positions[i + 2]));
     return coords;
   }
 
@@ -0,0 +1,601 @@
+package org.jzy3d.io.ply;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.jzy3d.io.ByteScanner;
+import org.jzy3d.io.IMeshHandler;
+import org.jzy3d.io.MeshArrays;
+import org.jzy3d.io.ParallelMeshParser;
+
+/**
+ * Parse PLY files in ASCII, binary little endian and binary big endian encodings, from bytes and
+ * without creating a String per value.
+ *
+ * The "vertex" element gives positions, and optionally normals (nx, ny, nz) and colors (red, green,
+ * blue, alpha). Integer colors are scaled to [0;1]. The "face" element gives vertex indices lists.
+ * Other elements are skipped.
+ *
+ * {@link #parse(File, IMeshHandler)} streams the file to a handler by memory mapped windows, hence
+ * works with files of any size. {@link #read(File)} parses in parallel into a {@link MeshArrays} :
+ * ASCII files are split on line boundaries, and binary files have their vertices split in ranges
+ * of records, provided vertex records have a fixed size.
+ */
+public class PlyParser extends ParallelMeshParser {
+  public enum Format {
+    ASCII, BINARY_LITTLE_ENDIAN, BINARY_BIG_ENDIAN
+  }
+
+  /* STREAMING */
+
+  /** Parse the file and give its vertices and faces to the handler in the file order. */
+  public void parse(File file, IMeshHandler handler) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      parse(new ByteScanner(channel, 0, channel.size()), handler);
+    }
+  }
+
+  /** Read the stream in memory, then parse it. */
+  public void parse(InputStream input, IMeshHandler handler) throws IOException {
+    parse(readFully(input), handler);
+  }
+
+  public void parse(ByteBuffer buffer, IMeshHandler handler) throws IOException {
+    parse(new ByteScanner(buffer), handler);
+  }
+
+  public void parse(ByteScanner scanner, IMeshHandler handler) throws IOException {
+    Header header = readHeader(scanner);
+    handler.begin(header.count("vertex"), header.count("face"));
+    new Reader(header, handler).parseElements(scanner, 0);
+    handler.end();
+  }
+
+  /* PARALLEL */
+
+  public MeshArrays read(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      return read(new ByteScanner(channel, 0, channel.size()));
+    }
+  }
+
+  public MeshArrays read(InputStream input) throws IOException {
+    return read(readFully(input));
+  }
+
+  public MeshArrays read(ByteBuffer buffer) throws IOException {
+    return read(new ByteScanner(buffer));
+  }
+
+  public MeshArrays read(ByteScanner scanner) throws IOException {
+    Header header = readHeader(scanner);
+    MeshArrays mesh;
+
+    if (header.format == Format.ASCII)
+      mesh = readAscii(scanner, header);
+    else
+      mesh = readBinary(scanner, header);
+
+    mesh.trim();
+    return mesh;
+  }
+
+  /**
+   * Count the lines of each chunk to know which element the first line of each chunk belongs to,
+   * then parse chunks.
+   */
+  protected MeshArrays readAscii(ByteScanner scanner, Header header) throws IOException {
+    long[] bounds = splitLines(scanner, header.bodyStart, scanner.getEnd());
+    int chunks = bounds.length - 1;
+
+    if (chunks == 1)
+      return readSequentially(scanner, header);
+
+    long[] lines = execute(() -> IntStream.range(0, chunks).parallel()
+        .mapToLong(c -> countLines(scanner, bounds[c], bounds[c + 1])).toArray());
+
+    long[] firstLines = new long[chunks];
+    for (int c = 1; c < chunks; c++)
+      firstLines[c] = firstLines[c - 1] + lines[c - 1];
+
+    List<MeshArrays> meshes = execute(() -> IntStream.range(0, chunks).parallel().mapToObj(c -> {
+      MeshArrays mesh = new MeshArrays();
+      try {
+        new Reader(header, mesh).parseLines(scanner.range(bounds[c], bounds[c + 1]),
+            firstLines[c]);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      mesh.trim();
+      return mesh;
+    }).collect(Collectors.toList()));
+
+    return MeshArrays.concat(meshes);
+  }
+
+  /**
+   * Parse vertex records by ranges in parallel if they have a fixed size, as well as records of the
+   * elements before vertices, then parse the next elements sequentially.
+   */
+  protected MeshArrays readBinary(ByteScanner scanner, Header header) throws IOException {
+    int v = header.indexOf("vertex");
+    long start = header.bodyStart;
+
+    for (int e = 0; e < v; e++) {
+      if (header.elements.get(e).recordSize < 0)
+        return readSequentially(scanner, header);
+      start += header.elements.get(e).count * header.elements.get(e).recordSize;
+    }
+
+    Element vertex = v < 0 ? null : header.elements.get(v);
+    if (vertex == null || vertex.recordSize < 0)
+      return readSequentially(scanner, header);
+
+    int recordSize = vertex.recordSize;
+    long count = vertex.count;
+    long vertexStart = start;
+    int chunks = (int) Math.max(1,
+        Math.min(pool.getParallelism() * 4L, count * recordSize / chunkSize));
+
+    List<MeshArrays> meshes = execute(() -> IntStream.range(0, chunks).parallel().mapToObj(c -> {
+      long first = count * c / chunks;
+      long last = count * (c + 1) / chunks;
+      MeshArrays mesh = new MeshArrays();
+      try {
+        ByteScanner records = scanner.range(vertexStart + first * recordSize,
+            vertexStart + last * recordSize);
+        Reader reader = new Reader(header, mesh);
+        for (long r = first; r < last; r++)
+          reader.parseRecord(records, vertex);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      mesh.trim();
+      return mesh;
+    }).collect(Collectors.toList()));
+
+    // elements after vertices
+    MeshArrays others = new MeshArrays();
+    long othersStart = vertexStart + count * recordSize;
+    new Reader(header, others).parseElements(scanner.range(othersStart, scanner.getEnd()), v + 1);
+    others.trim();
+
+    List<MeshArrays> parts = new ArrayList<>(meshes);
+    parts.add(others);
+    return MeshArrays.concat(parts);
+  }
+
+  protected MeshArrays readSequentially(ByteScanner scanner, Header header) throws IOException {
+    MeshArrays mesh = new MeshArrays();
+    new Reader(header, mesh).parseElements(scanner.range(header.bodyStart, scanner.getEnd()), 0);
+    return mesh;
+  }
+
+  protected long countLines(ByteScanner scanner, long start, long end) {
+    try {
+      return scanner.range(start, end).countLines();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /* HEADER */
+
+  /** Read the header and leave the scanner at the first byte of the body. */
+  public Header readHeader(ByteScanner s) throws IOException {
+    s.ensure(ByteScanner.MAX_LINE);
+    if (!"ply".equals(s.nextLine().trim()))
+      throw new IOException("Not a PLY file");
+
+    Header header = new Header();
+    Element element = null;
+
+    while (true) {
+      if (!s.hasRemaining())
+        throw new IOException("PLY header has no end_header");
+
+      s.ensure(ByteScanner.MAX_LINE);
+      String[] words = s.nextLine().trim().split("\\s+");
+
+      switch (words[0]) {
+        case "format":
+          header.format = parseFormat(words[1]);
+          break;
+        case "element":
+          element = new Element(words[1], Long.parseLong(words[2]));
+          header.elements.add(element);
+          break;
+        case "property":
+          if (element == null)
+            throw new IOException("PLY property declared before any element");
+          if ("list".equals(words[1]))
+            element.add(new Property(words[4], Type.parse(words[3]), Type.parse(words[2])));
+          else
+            element.add(new Property(words[2], Type.parse(words[1]), null));
+          break;
+        case "end_header":
+          header.bodyStart = s.getPosition();
+          for (Element e : header.elements)
+            e.bind();
+          s.order(header.format == Format.BINARY_BIG_ENDIAN ? ByteOrder.BIG_ENDIAN
+              : ByteOrder.LITTLE_ENDIAN);
+          return header;
+        default:
+          // comment, obj_info
+          break;
+      }
+    }
+  }
+
+  protected Format parseFormat(String format) throws IOException {
+    switch (format) {
+      case "ascii":
+        return Format.ASCII;
+      case "binary_little_endian":
+        return Format.BINARY_LITTLE_ENDIAN;
+      case "binary_big_endian":
+        return Format.BINARY_BIG_ENDIAN;
+      default:
+        throw new IOException("Unsupported PLY format : " + format);
+    }
+  }
+
+  /* */
+
+  /** Read element records and give vertices and faces to a handler. */
+  protected static class Reader {
+    protected final Header header;
+    protected final IMeshHandler handler;
+    protected final boolean ascii;
+
+    protected double[] values = new double[16];
+    protected int[] face = new int[16];
+
+    public Reader(Header header, IMeshHandler handler) {
+      this.header = header;
+      this.handler = handler;
+      this.ascii = header.format == Format.ASCII;
+    }
+
+    /** Parse all records of the elements from the given element to the last one. */
+    public void parseElements(ByteScanner s, int firstElement) throws IOException {
+      for (int e = firstElement; e < header.elements.size(); e++) {
+        Element element = header.elements.get(e);
+        for (long r = 0; r < element.count; r++)
+          parseRecord(s, element);
+      }
+    }
+
+    /** Parse the lines of an ASCII body, the first one being the given line of the body. */
+    public void parseLines(ByteScanner s, long firstLine) throws IOException {
+      List<Element> elements = header.elements;
+      int e = 0;
+      long elementEnd = elements.isEmpty() ? 0 : elements.get(0).count;
+
+      for (long line = firstLine; s.hasRemaining(); line++) {
+        while (e < elements.size() && line >= elementEnd) {
+          e++;
+          if (e < elements.size())
+            elementEnd += elements.get(e).count;
+        }
+        if (e == elements.size())
+          return;
+        parseRecord(s, elements.get(e));
+      }
+    }
+
+    public void parseRecord(ByteScanner s, Element element) throws IOException {
+      // records with lists have a variable size, and are made readable property by property
+      boolean variable = !ascii && element.recordSize < 0;
+      s.ensure(ascii ? ByteScanner.MAX_LINE : Math.max(element.recordSize, 0));
+
+      List<Property> properties = element.properties;
+      if (values.length < properties.size())
+        values = new double[properties.size()];
+
+      int faceCount = -1;
+
+      for (int p = 0; p < properties.size(); p++) {
+        Property property = properties.get(p);
+        if (variable)
+          s.ensure(8);
+
+        if (property.countType == null) {
+          values[p] = read(s, property.type);
+        } else {
+          int n = (int) read(s, property.countType);
+          if (variable)
+            s.ensure(n * property.type.size);
+
+          if (p == element.face) {
+            if (n > face.length)
+              face = new int[Math.max(n, face.length * 2)];
+            for (int i = 0; i < n; i++)
+              face[i] = (int) read(s, property.type);
+            faceCount = n;
+          } else if (ascii) {
+            for (int i = 0; i < n; i++)
+              s.nextDouble();
+          } else {
+            s.skip(n * property.type.size);
+          }
+        }
+      }
+
+      if (ascii)
+        s.skipLine();
+
+      if (element.isVertex()) {
+        handler.vertex((float) values[element.x], (float) values[element.y],
+            (float) values[element.z]);
+        if (element.nx >= 0)
+          handler.normal((float) values[element.nx], (float) values[element.ny],
+              (float) values[element.nz]);
+        if (element.red >= 0)
+          handler.color(color(element, element.red), color(element, element.green),
+              color(element, element.blue), element.alpha >= 0 ? color(element, element.alpha) : 1);
+      } else if (faceCount >= 0 && "face".equals(element.name)) {
+        handler.face(face, null, faceCount);
+      }
+    }
+
+    protected float color(Element element, int property) {
+      return (float) (values[property] * element.properties.get(property).type.colorScale);
+    }
+
+    protected double read(ByteScanner s, Type type) {
+      if (ascii)
+        return s.nextDouble();
+
+      switch (type) {
+        case CHAR:
+          return s.getByte();
+        case UCHAR:
+          return s.getByte() & 0xFF;
+        case SHORT:
+          return s.getShort();
+        case USHORT:
+          return s.getShort() & 0xFFFF;
+        case INT:
+          return s.getInt();
+        case UINT:
+          return s.getInt() & 0xFFFFFFFFL;
+        case FLOAT:
+          return s.getFloat();
+        default:
+          return s.getDouble();
+      }
+    }
+  }
+
+  /* HEADER MODEL */
+
+  public static class Header {
+    protected Format format = Format.ASCII;
+    protected List<Element> elements = new ArrayList<>();
+    protected long bodyStart;
+
+    public Format getFormat() {
+      return format;
+    }
+
+    public List<Element> getElements() {
+      return elements;
+    }
+
+    /** Return the index of the element, or -1 if it is not declared. */
+    public int indexOf(String element) {
+      for (int i = 0; i < elements.size(); i++)
+        if (elements.get(i).name.equals(element))
+          return i;
+      return -1;
+    }
+
+    /** Return the number of records of the element, or 0 if it is not declared. */
+    public long count(String element) {
+      int i = indexOf(element);
+      return i < 0 ? 0 : elements.get(i).count;
+    }
+  }
+
+  public static class Element {
+    protected final String name;
+    protected final long count;
+    protected final List<Property> properties = new ArrayList<>();
+
+    /** Size of a binary record, or -1 if the element has list properties. */
+    protected int recordSize = 0;
+
+    // index of the properties read as vertex attributes, or -1
+    protected int x = -1;
+    protected int y = -1;
+    protected int z = -1;
+    protected int nx = -1;
+    protected int ny = -1;
+    protected int nz = -1;
+    protected int red = -1;
+    protected int green = -1;
+    protected int blue = -1;
+    protected int alpha = -1;
+
+    // index of the list property read as face indices, or -1
+    protected int face = -1;
+
+    public Element(String name, long count) {
+      this.name = name;
+      this.count = count;
+    }
+
+    protected void add(Property property) {
+      properties.add(property);
+      if (property.countType != null || recordSize < 0)
+        recordSize = -1;
+      else
+        recordSize += property.type.size;
+    }
+
+    /** Find the properties holding vertex attributes and face indices. */
+    protected void bind() throws IOException {
+      for (int p = 0; p < properties.size(); p++) {
+        Property property = properties.get(p);
+        if (property.countType != null) {
+          if (face < 0 || property.name.equals("vertex_indices")
+              || property.name.equals("vertex_index"))
+            face = p;
+          continue;
+        }
+        switch (property.name) {
+          case "x":
+            x = p;
+            break;
+          case "y":
+            y = p;
+            break;
+          case "z":
+            z = p;
+            break;
+          case "nx":
+            nx = p;
+            break;
+          case "ny":
+            ny = p;
+            break;
+          case "nz":
+            nz = p;
+            break;
+          case "red":
+          case "r":
+          case "diffuse_red":
+            red = p;
+            break;
+          case "green":
+          case "g":
+          case "diffuse_green":
+            green = p;
+            break;
+          case "blue":
+          case "b":
+          case "diffuse_blue":
+            blue = p;
+            break;
+          case "alpha":
+          case "a":
+            alpha = p;
+            break;
+          default:
+            break;
+        }
+      }
+
+      if ("vertex".equals(name) && (x < 0 || y < 0 || z < 0))
+        throw new IOException("PLY vertex element has no x, y, z properties");
+      if (nx < 0 || ny < 0 || nz < 0)
+        nx = ny = nz = -1;
+      if (red < 0 || green < 0 || blue < 0)
+        red = green = blue = -1;
+    }
+
+    protected boolean isVertex() {
+      return "vertex".equals(name);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public List<Property> getProperties() {
+      return properties;
+    }
+
+    @Override
+    public String toString() {
+      return name + " " + count + " " + properties;
+    }
+  }
+
+  public static class Property {
+    protected final String name;
+    protected final Type type;
+    protected final Type countType;
+
+    /**
+     * @param type the type of the value, or of the list items.
+     * @param countType the type of the list size, or null if the property is not a list.
+     */
+    public Property(String name, Type type, Type countType) {
+      this.name = name;
+      this.type = type;
+      this.countType = countType;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public boolean isList() {
+      return countType != null;
+    }
+
+    @Override
+    public String toString() {
+      return (countType != null ? "list " + countType + " " : "") + type + " " + name;
+    }
+  }
+
+  public enum Type {
+    CHAR(1, 1 / 127.0), UCHAR(1, 1 / 255.0), SHORT(2, 1 / 32767.0), USHORT(2, 1 / 65535.0),
+    INT(4, 1), UINT(4, 1), FLOAT(4, 1), DOUBLE(8, 1);
+
+    protected final int size;
+    protected final double colorScale;
+
+    Type(int size, double colorScale) {
+      this.size = size;
+      this.colorScale = colorScale;
+    }
+
+    public static Type parse(String name) throws IOException {
+      switch (name) {
+        case "char":
+        case "int8":
+          return CHAR;
+        case "uchar":
+        case "uint8":
+          return UCHAR;
+        case "short":
+        case "int16":
+          return SHORT;
+        case "ushort":
+        case "uint16":
+          return USHORT;
+        case "int":
+        case "int32":
+          return INT;
+        case "uint":
+        case "uint32":
+          return UINT;
+        case "float":
+        case "float32":
+          return FLOAT;
+        case "double":
+        case "float64":
+          return DOUBLE;
+        default:
+          throw new IOException("Unsupported PLY type : " + name);
+      }
+    }
+  }
+}
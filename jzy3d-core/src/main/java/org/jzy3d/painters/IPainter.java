@@ -630,6 +630,30 @@ public interface IPainter {
   public void glMap2f(int target, float u1, float u2, int ustride, int uorder, float v1, float v2,
       int vstride, int vorder, FloatBuffer points);
 
+  // GL VERTEX ARRAYS
+
+  public void glEnableClientState(int array);
+
+  public void glDisableClientState(int array);
+
+  /**
+   * Define the array of vertices read by {@link #glDrawArrays(int, int, int)} and
+   * {@link #glDrawElements(int, int, int, IntBuffer)}, starting at the buffer position. Native
+   * painters copy non direct buffers to direct buffers at each call, hence prefer direct buffers
+   * with them.
+   */
+  public void glVertexPointer(int size, int type, int stride, FloatBuffer pointer);
+
+  /** Define the array of colors, starting at the buffer position. */
+  public void glColorPointer(int size, int type, int stride, FloatBuffer pointer);
+
+  /** Define the array of normals, starting at the buffer position. */
+  public void glNormalPointer(int type, int stride, FloatBuffer pointer);
+
+  public void glDrawArrays(int mode, int first, int count);
+
+  public void glDrawElements(int mode, int count, int type, IntBuffer indices);
+
   /* *********************************************************************** */
 
   /* ******************** SHORTCUTS TO GL CONSTANTS ************************ */
@@ -702,6 +726,42 @@ public interface IPainter {
   
   public void glDisable_Stencil();
 
+  public void glEnableClientState_VertexArray();
+
+  public void glDisableClientState_VertexArray();
+
+  public void glEnableClientState_ColorArray();
+
+  public void glDisableClientState_ColorArray();
+
+  public void glEnableClientState_NormalArray();
+
+  public void glDisableClientState_NormalArray();
+
+  /** Define an array of vertices made of size floats, with stride given in bytes. */
+  public void glVertexPointer_Float(int size, int stride, FloatBuffer pointer);
+
+  /** Define an array of colors made of size floats, with stride given in bytes. */
+  public void glColorPointer_Float(int size, int stride, FloatBuffer pointer);
+
+  /** Define an array of normals made of 3 floats, with stride given in bytes. */
+  public void glNormalPointer_Float(int stride, FloatBuffer pointer);
+
+  public void glDrawArrays_Triangles(int first, int count);
+
+  public void glDrawArrays_Quads(int first, int count);
+
+  public void glDrawArrays_Points(int first, int count);
+
+  /** Draw triangles which vertex indices are read from the buffer position. */
+  public void glDrawElements_Triangles(int count, IntBuffer indices);
+
+  /** Draw quads which vertex indices are read from the buffer position. */
+  public void glDrawElements_Quads(int count, IntBuffer indices);
+
+  /** Draw lines which vertex indices are read from the buffer position. */
+  public void glDrawElements_Lines(int count, IntBuffer indices);
+
   public boolean isJVMScaleLargerThanNativeScale(Coord2d scaleHardware, Coord2d scaleJVM);
   
   /** Verify if pixel scale of JVM is different than the one return by the canvas */
@@ -0,0 +1,93 @@
+package org.jzy3d.plot2d.primitives;
+
+import java.util.List;
+import org.jzy3d.colors.Color;
+import org.jzy3d.maths.Coord2d;
+
+/**
+ * A line serie for series holding much more samples than pixels, e.g. signals of millions of
+ * samples displayed on a time chart. Only the samples needed to render the displayed X range at
+ * the resolution of the viewport are drawn, see {@link DownsampledLineStrip}.
+ *
+ * Samples must be added with growing X values. The line has a single color : colors given with
+ * samples are ignored.
+ *
+ * @author Martin Pernollet
+ */
+public class DownsampledLineSerie2d implements Serie2d {
+  protected DownsampledLineStrip line;
+
+  protected String name;
+
+  public DownsampledLineSerie2d(String name) {
+    this.name = name;
+    this.line = new DownsampledLineStrip();
+  }
+
+  @Override
+  public void add(float x, float y) {
+    line.add(x, y);
+  }
+
+  @Override
+  public void add(double x, double y) {
+    line.add((float) x, (float) y);
+  }
+
+  @Override
+  public void add(Coord2d c) {
+    line.add(c.x, c.y);
+  }
+
+  @Override
+  public void add(Coord2d c, Color color) {
+    line.add(c.x, c.y);
+  }
+
+  @Override
+  public void add(float x, float y, Color color) {
+    line.add(x, y);
+  }
+
+  @Override
+  public void add(double x, double y, Color color) {
+    line.add((float) x, (float) y);
+  }
+
+  @Override
+  public void add(List<Coord2d> c) {
+    for (Coord2d c2 : c) {
+      line.add(c2.x, c2.y);
+    }
+  }
+
+  @Override
+  public void setColor(Color color) {
+    line.setWireframeColor(color);
+  }
+
+  @Override
+  public Color getColor() {
+    return line.getWireframeColor();
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public DownsampledLineStrip getDrawable() {
+    return line;
+  }
+
+  @Override
+  public void clear() {
+    line.clear();
+  }
+
+  @Override
+  public void setWidth(int width) {
+    line.setWireframeWidth(width);
+  }
+}
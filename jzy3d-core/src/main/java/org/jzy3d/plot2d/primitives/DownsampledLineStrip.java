@@ -0,0 +1,153 @@
+package org.jzy3d.plot2d.primitives;
+
+import org.apache.logging.log4j.LogManager;
+import org.jzy3d.colors.Color;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.painters.IPainter;
+import org.jzy3d.plot3d.primitives.Wireframeable;
+import org.jzy3d.plot3d.rendering.view.View;
+import org.jzy3d.plot3d.transform.Transform;
+
+/**
+ * A line strip in the XY plane that only draws the samples needed to render the X range currently
+ * displayed by the view at the resolution of the viewport.
+ *
+ * Samples are kept in a {@link MinMaxPyramid}, so that each frame only costs
+ * {@link MinMaxPyramid#downsample(double, double, int, float[])} over the pixel columns of the
+ * viewport, whatever the number of samples. The downsampled line is kept until the X range, the
+ * viewport width or the samples change, hence redrawing an unchanged chart does not touch the
+ * samples at all.
+ *
+ * Samples may be added by an acquisition thread while the chart renders : both synchronize on the
+ * samples, but rendering only holds the lock for the time of the downsampling.
+ *
+ * X values must grow, and are considered on a linear axis.
+ *
+ * @author Martin Pernollet
+ */
+public class DownsampledLineStrip extends Wireframeable {
+  protected final MinMaxPyramid samples;
+
+  /** Downsampling of the last frame, as interleaved x,y values */
+  protected float[] downsampled = new float[0];
+  protected int downsampledPoints;
+  protected double lastXmin = Double.NaN;
+  protected double lastXmax = Double.NaN;
+  protected int lastColumns;
+  protected int lastSize = -1;
+
+  public DownsampledLineStrip() {
+    this(new MinMaxPyramid());
+  }
+
+  public DownsampledLineStrip(MinMaxPyramid samples) {
+    this.samples = samples;
+    this.bbox = new BoundingBox3d();
+    setWireframeColor(Color.BLACK);
+  }
+
+  public void add(float x, float y) {
+    synchronized (samples) {
+      samples.add(x, y);
+      bbox.add(x, y, 0);
+    }
+  }
+
+  public void clear() {
+    synchronized (samples) {
+      samples.clear();
+      bbox.reset();
+      lastSize = -1;
+    }
+  }
+
+  @Override
+  public void draw(IPainter painter) {
+    doTransform(painter);
+
+    downsample(painter);
+
+    if (downsampledPoints == 0)
+      return;
+
+    painter.glLineWidth(wireframeWidth);
+    if (wireframeColor != null)
+      painter.color(wireframeColor);
+
+    if (downsampledPoints == 1)
+      painter.glBegin_Point();
+    else
+      painter.glBegin_LineStrip();
+
+    for (int i = 0; i < downsampledPoints; i++)
+      painter.vertex(downsampled[i * 2], downsampled[i * 2 + 1], 0, spaceTransformer);
+
+    painter.glEnd();
+  }
+
+  /** Downsample the X range of the view over the viewport width, unless already done. */
+  protected void downsample(IPainter painter) {
+    View view = painter.getView();
+    BoundingBox3d bounds = view != null ? view.getBounds() : null;
+    int columns = Math.max(1, painter.getViewPortAsInt()[2]);
+
+    synchronized (samples) {
+      double xmin = bounds != null ? bounds.getXmin() : bbox.getXmin();
+      double xmax = bounds != null ? bounds.getXmax() : bbox.getXmax();
+
+      if (xmin == lastXmin && xmax == lastXmax && columns == lastColumns
+          && samples.size() == lastSize)
+        return;
+
+      int length = MinMaxPyramid.maxDownsampledPoints(columns) * 2;
+      if (downsampled.length < length)
+        downsampled = new float[length];
+
+      downsampledPoints = samples.downsample(xmin, xmax, columns, downsampled);
+
+      lastXmin = xmin;
+      lastXmax = xmax;
+      lastColumns = columns;
+      lastSize = samples.size();
+    }
+  }
+
+  @Override
+  public void applyGeometryTransform(Transform transform) {
+    LogManager.getLogger(DownsampledLineStrip.class).warn("not implemented");
+  }
+
+  /** Read the bounds from the first and last samples and the summary, without scanning samples. */
+  @Override
+  public void updateBounds() {
+    synchronized (samples) {
+      bbox.reset();
+      int size = samples.size();
+      if (size == 0)
+        return;
+
+      int[] minmax = new int[2];
+      samples.minMax(0, size, minmax);
+      bbox.add(samples.getX(0), samples.getY(minmax[0]), 0);
+      bbox.add(samples.getX(size - 1), samples.getY(minmax[1]), 0);
+    }
+  }
+
+  /* */
+
+  /** The samples, to synchronize on while reading them from another thread than the writer. */
+  public MinMaxPyramid getSamples() {
+    return samples;
+  }
+
+  /** Number of points drawn at last frame. */
+  public int getDrawnPoints() {
+    return downsampledPoints;
+  }
+
+  public int size() {
+    synchronized (samples) {
+      return samples.size();
+    }
+  }
+}
@@ -0,0 +1,299 @@
+package org.jzy3d.plot2d.primitives;
+
+import java.util.Arrays;
+
+/**
+ * Stores the samples of a 2d serie having growing X values, with a multi resolution summary
+ * allowing to downsample any X range without scanning the raw samples.
+ *
+ * <h2>Summary</h2>
+ *
+ * Level k of the summary splits the samples in blocks of {@link #FANOUT}^(k+1) samples and keeps
+ * the index of the minimum and maximum Y value of each block. Appending a sample updates the last
+ * block of each level, and the minimum and maximum of any index range are obtained by combining at
+ * most 2 * {@link #FANOUT} blocks per level. The summary costs about 8 / ({@link #FANOUT} - 1)
+ * bytes per sample, in addition to the 8 bytes of the sample.
+ *
+ * <h2>Downsampling</h2>
+ *
+ * {@link #downsample(double, double, int, float[])} implements M4 : the X range is divided in
+ * columns, e.g. the pixel columns of a chart, and each column is reduced to its first, minimum,
+ * maximum and last samples. A line drawn through these 4 points per column rasterizes to the same
+ * pixels as the line drawn through all samples.
+ *
+ * This class is not thread safe.
+ *
+ * @author Martin Pernollet
+ */
+public class MinMaxPyramid {
+  /** Number of blocks of a level summarized by a block of the next level. */
+  public static final int FANOUT = 8;
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  protected float[] x;
+  protected float[] y;
+  protected int size;
+
+  /** Indices of the minimum and maximum of each block, per level */
+  protected int[][] mins = new int[0][];
+  protected int[][] maxs = new int[0][];
+  /** Number of blocks per level */
+  protected int[] blocks = new int[0];
+  /** Number of samples of a block, per level */
+  protected int[] blockSizes = new int[0];
+
+  public MinMaxPyramid() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public MinMaxPyramid(int capacity) {
+    if (capacity < 1)
+      throw new IllegalArgumentException("Capacity must be positive : " + capacity);
+    x = new float[capacity];
+    y = new float[capacity];
+  }
+
+  /**
+   * Append a sample.
+   *
+   * @throws IllegalArgumentException if X is lower than the X of the last sample, or NaN.
+   */
+  public void add(float xi, float yi) {
+    if (Float.isNaN(xi) || (size > 0 && xi < x[size - 1]))
+      throw new IllegalArgumentException(
+          "X values must grow : " + xi + " after " + (size > 0 ? x[size - 1] : "nothing"));
+
+    if (size == x.length) {
+      x = Arrays.copyOf(x, size * 2);
+      y = Arrays.copyOf(y, size * 2);
+    }
+    x[size] = xi;
+    y[size] = yi;
+    int index = size++;
+
+    for (int k = 0; k < blocks.length; k++)
+      summarize(k, index);
+
+    // add a level once the top one has more than a block
+    while (size > topBlockSize())
+      addLevel();
+  }
+
+  protected int topBlockSize() {
+    return blockSizes.length == 0 ? 1 : blockSizes[blockSizes.length - 1];
+  }
+
+  /** Update the block of the level containing the sample at index. */
+  protected void summarize(int level, int index) {
+    int b = index / blockSizes[level];
+
+    if (b == blocks[level]) {
+      if (b == mins[level].length) {
+        mins[level] = Arrays.copyOf(mins[level], Math.max(4, b * 2));
+        maxs[level] = Arrays.copyOf(maxs[level], Math.max(4, b * 2));
+      }
+      mins[level][b] = index;
+      maxs[level][b] = index;
+      blocks[level]++;
+    } else {
+      if (y[index] < y[mins[level][b]])
+        mins[level][b] = index;
+      if (y[index] > y[maxs[level][b]])
+        maxs[level][b] = index;
+    }
+  }
+
+  /** Build a new level on top of the existing ones, from the blocks of the top level. */
+  protected void addLevel() {
+    int level = blocks.length;
+    int blockSize = topBlockSize() * FANOUT;
+    int count = (size + blockSize - 1) / blockSize;
+
+    int[] levelMins = new int[Math.max(4, count * 2)];
+    int[] levelMaxs = new int[levelMins.length];
+    int[] minmax = new int[2];
+    for (int b = 0; b < count; b++) {
+      int from = b * blockSize;
+      minMax(from, Math.min(size, from + blockSize), minmax);
+      levelMins[b] = minmax[0];
+      levelMaxs[b] = minmax[1];
+    }
+
+    mins = Arrays.copyOf(mins, level + 1);
+    maxs = Arrays.copyOf(maxs, level + 1);
+    blocks = Arrays.copyOf(blocks, level + 1);
+    blockSizes = Arrays.copyOf(blockSizes, level + 1);
+    mins[level] = levelMins;
+    maxs[level] = levelMaxs;
+    blocks[level] = count;
+    blockSizes[level] = blockSize;
+  }
+
+  /**
+   * Write the indices of the minimum and maximum Y values of the samples in [from, to) in
+   * <code>minmax</code>, using the largest blocks of the summary that fit in the range.
+   */
+  public void minMax(int from, int to, int[] minmax) {
+    if (from < 0 || to > size || from >= to)
+      throw new IllegalArgumentException("Invalid range [" + from + ", " + to + ") of " + size);
+
+    int min = from;
+    int max = from;
+    int i = from;
+
+    while (i < to) {
+      int candidateMin = i;
+      int candidateMax = i;
+      int step = 1;
+
+      for (int k = blocks.length - 1; k >= 0; k--) {
+        int blockSize = blockSizes[k];
+        if (i % blockSize == 0 && i + blockSize <= to) {
+          candidateMin = mins[k][i / blockSize];
+          candidateMax = maxs[k][i / blockSize];
+          step = blockSize;
+          break;
+        }
+      }
+
+      if (y[candidateMin] < y[min])
+        min = candidateMin;
+      if (y[candidateMax] > y[max])
+        max = candidateMax;
+      i += step;
+    }
+
+    minmax[0] = min;
+    minmax[1] = max;
+  }
+
+  /** Return the index of the first sample having X greater or equal to the given value. */
+  public int indexOf(double xi) {
+    int lo = 0;
+    int hi = size;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (x[mid] < xi)
+        lo = mid + 1;
+      else
+        hi = mid;
+    }
+    return lo;
+  }
+
+  /** Number of points {@link #downsample(double, double, int, float[])} may write at most. */
+  public static int maxDownsampledPoints(int columns) {
+    return columns * 4 + 2;
+  }
+
+  /**
+   * Write a subset of the samples in [xmin, xmax] that draws the same line as all of them on the
+   * given number of columns, as interleaved x,y values, and return the number of points written.
+   *
+   * Ranges having less than 4 samples per column are returned entirely. Otherwise each column is
+   * reduced to its first, minimum, maximum and last samples, in the order of their X values. The
+   * samples right before and right after the range are added, so that the line reaches the borders
+   * of the range.
+   *
+   * @param xy the output, holding at least 2 * {@link #maxDownsampledPoints(int)} values.
+   */
+  public int downsample(double xmin, double xmax, int columns, float[] xy) {
+    if (columns < 1)
+      throw new IllegalArgumentException("Need at least one column : " + columns);
+    if (xy.length < maxDownsampledPoints(columns) * 2)
+      throw new IllegalArgumentException("Output too small for " + columns + " columns");
+    if (size == 0 || !(xmax >= xmin))
+      return 0;
+
+    int from = Math.max(0, indexOf(xmin) - 1);
+    int to = Math.min(size, upperIndexOf(xmax) + 1);
+    int n = 0;
+
+    if (to - from <= maxDownsampledPoints(columns)) {
+      for (int i = from; i < to; i++)
+        n = write(xy, n, i);
+      return n;
+    }
+
+    // the sample before the range
+    if (from < indexOf(xmin))
+      n = write(xy, n, from);
+
+    double width = (xmax - xmin) / columns;
+    int[] minmax = new int[2];
+    int start = indexOf(xmin);
+
+    for (int c = 0; c < columns; c++) {
+      int end = c == columns - 1 ? upperIndexOf(xmax) : indexOf(xmin + width * (c + 1));
+      if (end <= start)
+        continue;
+
+      int last = end - 1;
+      minMax(start, end, minmax);
+      int lo = Math.min(minmax[0], minmax[1]);
+      int hi = Math.max(minmax[0], minmax[1]);
+
+      n = write(xy, n, start);
+      if (lo != start)
+        n = write(xy, n, lo);
+      if (hi != lo && hi != last)
+        n = write(xy, n, hi);
+      if (last != start && last != lo)
+        n = write(xy, n, last);
+
+      start = end;
+    }
+
+    // the sample after the range
+    if (to > upperIndexOf(xmax))
+      n = write(xy, n, to - 1);
+    return n;
+  }
+
+  /** Return the index of the first sample having X strictly greater than the given value. */
+  protected int upperIndexOf(double xi) {
+    int lo = 0;
+    int hi = size;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (x[mid] <= xi)
+        lo = mid + 1;
+      else
+        hi = mid;
+    }
+    return lo;
+  }
+
+  protected int write(float[] xy, int n, int index) {
+    xy[n * 2] = x[index];
+    xy[n * 2 + 1] = y[index];
+    return n + 1;
+  }
+
+  public void clear() {
+    size = 0;
+    mins = new int[0][];
+    maxs = new int[0][];
+    blocks = new int[0];
+    blockSizes = new int[0];
+  }
+
+  /* */
+
+  public int size() {
+    return size;
+  }
+
+  public float getX(int index) {
+    return x[index];
+  }
+
+  public float getY(int index) {
+    return y[index];
+  }
+
+  /** Number of levels of the summary. */
+  public int getLevels() {
+    return blocks.length;
+  }
+}
@@ -33,6 +33,6 @@ public interface Serie2d {
   public Drawable getDrawable();
 
   public enum Type {
-    LINE, LINE_ON_OFF, SCATTER, SCATTER_POINTS
+    LINE, LINE_ON_OFF, SCATTER, SCATTER_POINTS, LINE_DOWNSAMPLED
   }
 }
@@ -2,6 +2,7 @@ package org.jzy3d.plot3d.builder;
 
 import java.util.List;
 import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Coordinates;
 import org.jzy3d.maths.Range;
 
 
@@ -22,6 +23,32 @@ public abstract class Grid {
 
   public abstract List<Coord3d> apply(Mapper mapper);
 
+  /**
+   * Apply the mapper to the grid and return the coordinates as flat arrays, that can be given to a
+   * {@link Tessellator} without building a {@link Coord3d} per grid point.
+   */
+  public Coordinates applyAsCoordinates(Mapper mapper) {
+    return new Coordinates(apply(mapper));
+  }
+
+  /************************************************/
+
+  public Range getXrange() {
+    return xrange;
+  }
+
+  public Range getYrange() {
+    return yrange;
+  }
+
+  public int getXsteps() {
+    return xsteps;
+  }
+
+  public int getYsteps() {
+    return ysteps;
+  }
+
   /************************************************/
 
   protected Range xrange;
@@ -10,6 +10,29 @@ import org.jzy3d.plot3d.primitives.Polygon;
 public abstract class Mapper {
   public abstract double f(double x, double y);
 
+  /**
+   * Evaluate the function on a batch of coordinates, by setting <code>z[i] = f(x[i], y[i])</code>
+   * for each index i in [from, to).
+   * 
+   * Grids invoke this method with tiles of their coordinates, possibly from several threads at the
+   * same time on distinct ranges of the same arrays. Mappers relying on an expensive model should
+   * override it to evaluate the whole tile at once.
+   */
+  public void f(double[] x, double[] y, float[] z, int from, int to) {
+    for (int i = from; i < to; i++)
+      z[i] = (float) f(x[i], y[i]);
+  }
+
+  /**
+   * Return true if {@link #f(double, double)} and {@link #f(double[], double[], float[], int, int)}
+   * can be invoked concurrently, which lets grids evaluate the mapper on several threads. Default
+   * to false : stateless mappers should override this method to return true to be evaluated in
+   * parallel.
+   */
+  public boolean isThreadSafe() {
+    return false;
+  }
+
   /**
    * Update the shape by remapping its polygon points' z coordinate according to f(x,y)
    */
@@ -6,11 +6,13 @@ import org.jzy3d.colors.ColorMapper;
 import org.jzy3d.colors.colormaps.ColorMapRainbow;
 import org.jzy3d.colors.colormaps.IColorMap;
 import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Coordinates;
 import org.jzy3d.maths.Range;
 import org.jzy3d.plot3d.builder.concrete.OrthonormalGrid;
 import org.jzy3d.plot3d.builder.concrete.OrthonormalTessellator;
 import org.jzy3d.plot3d.builder.concrete.RingTessellator;
 import org.jzy3d.plot3d.builder.delaunay.DelaunayTessellator;
+import org.jzy3d.plot3d.primitives.ArrayMesh;
 import org.jzy3d.plot3d.primitives.CompileableComposite;
 import org.jzy3d.plot3d.primitives.Shape;
 
@@ -27,7 +29,24 @@ public class SurfaceBuilder {
    */
   public Shape orthonormal(OrthonormalGrid grid, Mapper mapper) {
     OrthonormalTessellator tesselator = new OrthonormalTessellator();
-    return (Shape) tesselator.build(grid.apply(mapper));
+    return (Shape) tesselator.build(grid.applyAsCoordinates(mapper));
+  }
+
+  /**
+   * Apply a function to an orthonormal grid and return a surface storing its vertices in flat
+   * arrays, which is lighter than {@link #orthonormal(Mapper, Range, int)} for large grids.
+   */
+  public ArrayMesh orthonormalMesh(Mapper mapper, Range range, int steps) {
+    return orthonormalMesh(new OrthonormalGrid(range, steps, range, steps), mapper);
+  }
+
+  /**
+   * Apply a function to an orthonormal grid and return a surface storing its vertices in flat
+   * arrays, which is lighter than {@link #orthonormal(OrthonormalGrid, Mapper)} for large grids.
+   */
+  public ArrayMesh orthonormalMesh(OrthonormalGrid grid, Mapper mapper) {
+    OrthonormalTessellator tesselator = new OrthonormalTessellator();
+    return tesselator.buildMesh(grid.applyAsCoordinates(mapper));
   }
 
   /**
@@ -37,7 +56,7 @@ public class SurfaceBuilder {
   public Shape ring(OrthonormalGrid grid, Mapper mapper, float ringMin, float ringMax) {
     RingTessellator tesselator = new RingTessellator(ringMin, ringMax,
         new ColorMapper(new ColorMapRainbow(), 0, 1), Color.BLACK);
-    return (Shape) tesselator.build(grid.apply(mapper));
+    return (Shape) tesselator.build(grid.applyAsCoordinates(mapper));
   }
 
   /**
@@ -47,7 +66,7 @@ public class SurfaceBuilder {
   public Shape ring(OrthonormalGrid grid, Mapper mapper, float ringMin, float ringMax,
       ColorMapper cmap, Color factor) {
     RingTessellator tesselator = new RingTessellator(ringMin, ringMax, cmap, factor);
-    return (Shape) tesselator.build(grid.apply(mapper));
+    return (Shape) tesselator.build(grid.applyAsCoordinates(mapper));
   }
 
   /**
@@ -67,6 +86,15 @@ public class SurfaceBuilder {
     return (Shape) tesselator.build(coordinates);
   }
 
+  /**
+   * Build a surface out of an disordered point mesh with a Delaunay triangulation, storing its
+   * vertices in flat arrays, which is lighter than {@link #delaunay(List)} for large point sets.
+   */
+  public ArrayMesh delaunayMesh(Coordinates coordinates) {
+    DelaunayTessellator tesselator = new DelaunayTessellator();
+    return tesselator.buildMesh(coordinates);
+  }
+
   /* BIG SURFACE */
 
   /**
@@ -75,7 +103,7 @@ public class SurfaceBuilder {
    */
   public CompileableComposite orthonormalBig(OrthonormalGrid grid, Mapper mapper) {
     Tessellator tesselator = new OrthonormalTessellator();
-    Shape s1 = (Shape) tesselator.build(grid.apply(mapper));
+    Shape s1 = (Shape) tesselator.build(grid.applyAsCoordinates(mapper));
     return buildComposite(applyStyling(s1));
   }
 
@@ -10,8 +10,11 @@ public abstract class Tessellator {
   public Tessellator() {}
 
   public Composite build(List<Coord3d> coordinates) {
-    Coordinates coords = new Coordinates(coordinates);
-    return build(coords.getX(), coords.getY(), coords.getZ());
+    return build(new Coordinates(coordinates));
+  }
+
+  public Composite build(Coordinates coordinates) {
+    return build(coordinates.getX(), coordinates.getY(), coordinates.getZ());
   }
 
   public abstract Composite build(float[] x, float[] y, float[] z);
@@ -2,13 +2,29 @@ package org.jzy3d.plot3d.builder.concrete;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Coordinates;
 import org.jzy3d.maths.Range;
 import org.jzy3d.plot3d.builder.Grid;
 import org.jzy3d.plot3d.builder.Mapper;
 
 
+/**
+ * A grid made of regularly spaced X and Y values.
+ *
+ * The grid is split in tiles of {@link #getTileSize()} points that are evaluated in parallel on a
+ * {@link ForkJoinPool} with {@link Mapper#f(double[], double[], float[], int, int)} if the mapper
+ * is {@link Mapper#isThreadSafe()}. Other mappers are evaluated on the calling thread, with a
+ * single call for the whole grid.
+ */
 public class OrthonormalGrid extends Grid {
+  /** Number of grid points under which an evaluation task is not split anymore. */
+  public static final int DEFAULT_TILE_SIZE = 1024;
+
+  protected ForkJoinPool pool = ForkJoinPool.commonPool();
+  protected int tileSize = DEFAULT_TILE_SIZE;
 
   public OrthonormalGrid(Range xyrange, int xysteps) {
     super(xyrange, xysteps);
@@ -20,18 +36,118 @@ public class OrthonormalGrid extends Grid {
 
   @Override
   public List<Coord3d> apply(Mapper mapper) {
+    Coordinates coords = applyAsCoordinates(mapper);
+    float[] x = coords.getX();
+    float[] y = coords.getY();
+    float[] z = coords.getZ();
+
+    List<Coord3d> output = new ArrayList<Coord3d>(x.length);
+
+    for (int i = 0; i < x.length; i++)
+      output.add(new Coord3d(x[i], y[i], z[i]));
+    return output;
+  }
+
+  /**
+   * Evaluate the mapper on the grid, where the point (xi,yi) stands at index
+   * <code>xi * ysteps + yi</code> of the returned arrays.
+   */
+  @Override
+  public Coordinates applyAsCoordinates(Mapper mapper) {
+    int n = xsteps * ysteps;
+    float[] x = new float[n];
+    float[] y = new float[n];
+    float[] z = new float[n];
+
+    if (mapper.isThreadSafe() && pool != null && n > tileSize)
+      pool.invoke(new EvaluateTask(mapper, x, y, z, 0, n));
+    else
+      evaluate(mapper, x, y, z, 0, n);
+
+    return new Coordinates(x, y, z);
+  }
+
+  /** Fill the coordinates of the grid points in [from, to) and evaluate the mapper on them. */
+  protected void evaluate(Mapper mapper, float[] x, float[] y, float[] z, int from, int to) {
     double xstep = xrange.getRange() / (double) (xsteps - 1);
     double ystep = yrange.getRange() / (double) (ysteps - 1);
 
-    List<Coord3d> output = new ArrayList<Coord3d>(xsteps * ysteps);
+    // the mapper reads the coordinates in double precision, as with f(x,y)
+    int n = to - from;
+    double[] xd = new double[n];
+    double[] yd = new double[n];
+    float[] zf = new float[n];
+
+    for (int i = 0; i < n; i++) {
+      int xi = (from + i) / ysteps;
+      int yi = (from + i) % ysteps;
+      xd[i] = xrange.getMin() + xi * xstep;
+      yd[i] = yrange.getMin() + yi * ystep;
+      x[from + i] = (float) xd[i];
+      y[from + i] = (float) yd[i];
+    }
+
+    mapper.f(xd, yd, zf, 0, n);
+    System.arraycopy(zf, 0, z, from, n);
+  }
+
+  protected class EvaluateTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    protected Mapper mapper;
+    protected float[] x;
+    protected float[] y;
+    protected float[] z;
+    protected int from;
+    protected int to;
+
+    public EvaluateTask(Mapper mapper, float[] x, float[] y, float[] z, int from, int to) {
+      this.mapper = mapper;
+      this.x = x;
+      this.y = y;
+      this.z = z;
+      this.from = from;
+      this.to = to;
+    }
 
-    for (int xi = 0; xi < xsteps; xi++) {
-      for (int yi = 0; yi < ysteps; yi++) {
-        double x = xrange.getMin() + xi * xstep;
-        double y = yrange.getMin() + yi * ystep;
-        output.add(new Coord3d(x, y, mapper.f(x, y)));
+    @Override
+    protected void compute() {
+      if (to - from <= tileSize) {
+        evaluate(mapper, x, y, z, from, to);
+        return;
       }
+
+      int mid = (from + to) >>> 1;
+      invokeAll(new EvaluateTask(mapper, x, y, z, from, mid),
+          new EvaluateTask(mapper, x, y, z, mid, to));
     }
-    return output;
+  }
+
+  /* */
+
+  public ForkJoinPool getPool() {
+    return pool;
+  }
+
+  /**
+   * Set the pool evaluating the mapper, or null to evaluate it on the calling thread. Default to the
+   * common pool.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  public int getTileSize() {
+    return tileSize;
+  }
+
+  /**
+   * Set the number of grid points given to a single call to
+   * {@link Mapper#f(double[], double[], float[], int, int)}.
+   */
+  public void setTileSize(int tileSize) {
+    if (tileSize < 1)
+      throw new IllegalArgumentException("Tile size must be positive : " + tileSize);
+    this.tileSize = tileSize;
   }
 }
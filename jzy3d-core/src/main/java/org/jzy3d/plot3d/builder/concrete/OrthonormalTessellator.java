@@ -9,7 +9,9 @@ import org.jzy3d.colors.Color;
 import org.jzy3d.colors.ColorMapper;
 import org.jzy3d.maths.Array;
 import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Coordinates;
 import org.jzy3d.plot3d.builder.Tessellator;
+import org.jzy3d.plot3d.primitives.ArrayMesh;
 import org.jzy3d.plot3d.primitives.Composite;
 import org.jzy3d.plot3d.primitives.Drawable;
 import org.jzy3d.plot3d.primitives.Point;
@@ -58,6 +60,62 @@ public class OrthonormalTessellator extends Tessellator {
     return s;
   }
 
+  /**
+   * Build an {@link ArrayMesh} made of one quad per grid cell, which vertices are shared with
+   * neighbour cells. Cells having a NaN Z value on one of their corners are skipped.
+   * 
+   * The mesh stores the same quads than {@link #build(float[], float[], float[])}, but in flat
+   * arrays instead of one {@link Polygon} per cell, which is much lighter for large grids.
+   */
+  public ArrayMesh buildMesh(float[] x, float[] y, float[] z) {
+    setData(x, y, z);
+
+    int nx = this.x.length;
+    int ny = this.y.length;
+
+    // vertex of grid tick (xi,yi) is stored at index xi*ny+yi
+    float[] positions = new float[nx * ny * 3];
+    for (int xi = 0; xi < nx; xi++) {
+      for (int yi = 0; yi < ny; yi++) {
+        int v = (xi * ny + yi) * 3;
+        positions[v] = this.x[xi];
+        positions[v + 1] = this.y[yi];
+        positions[v + 2] = this.z[xi][yi];
+      }
+    }
+
+    int cells = Math.max(nx - 1, 0) * Math.max(ny - 1, 0);
+    int[] indices = new int[cells * 4];
+    int i = 0;
+
+    for (int xi = 0; xi < nx - 1; xi++) {
+      for (int yi = 0; yi < ny - 1; yi++) {
+        if (Float.isNaN(this.z[xi][yi]) || Float.isNaN(this.z[xi + 1][yi])
+            || Float.isNaN(this.z[xi + 1][yi + 1]) || Float.isNaN(this.z[xi][yi + 1]))
+          continue; // ignore non valid set of points
+
+        // same vertex order than getRealQuadStandingOnPoint
+        indices[i++] = xi * ny + yi;
+        indices[i++] = (xi + 1) * ny + yi;
+        indices[i++] = (xi + 1) * ny + yi + 1;
+        indices[i++] = xi * ny + yi + 1;
+      }
+    }
+
+    if (i < indices.length)
+      indices = Arrays.copyOf(indices, i);
+
+    return new ArrayMesh(positions, indices, 4);
+  }
+
+  public ArrayMesh buildMesh(List<Coord3d> coordinates) {
+    return buildMesh(new Coordinates(coordinates));
+  }
+
+  public ArrayMesh buildMesh(Coordinates coordinates) {
+    return buildMesh(coordinates.getX(), coordinates.getY(), coordinates.getZ());
+  }
+
   /************************************************************************************************/
 
   /**
@@ -158,7 +216,17 @@ public class OrthonormalTessellator extends Tessellator {
    * this case, xi and yj remain unchanged).
    */
   protected boolean find(float[] x, float[] y, float vx, float vy) {
-    int xi = -1, yj = -1;
+    // x and y are sorted by unique(), hence try a binary search before scanning them
+    int xi = Arrays.binarySearch(x, vx);
+    int yj = Arrays.binarySearch(y, vy);
+    if (xi >= 0 && yj >= 0) {
+      findxi = xi;
+      findyj = yj;
+      return true;
+    }
+
+    xi = -1;
+    yj = -1;
     for (int i = 0; i < x.length; i++) {
       if (x[i] == vx) {
         xi = i;
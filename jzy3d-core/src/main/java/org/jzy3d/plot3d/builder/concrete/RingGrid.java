@@ -3,6 +3,7 @@ package org.jzy3d.plot3d.builder.concrete;
 import java.util.ArrayList;
 import java.util.List;
 import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Coordinates;
 import org.jzy3d.maths.Range;
 import org.jzy3d.plot3d.builder.Mapper;
 
@@ -40,6 +41,12 @@ public class RingGrid extends OrthonormalGrid {
     return output;
   }
 
+  /** Points outside the ring are skipped, hence the ring keeps its own evaluation. */
+  @Override
+  public Coordinates applyAsCoordinates(Mapper mapper) {
+    return new Coordinates(apply(mapper));
+  }
+
   protected double sqradius;
 
   protected static final int ENLARGE_STEP = 3;
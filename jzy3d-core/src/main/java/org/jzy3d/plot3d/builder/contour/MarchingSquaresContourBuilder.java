@@ -0,0 +1,571 @@
+package org.jzy3d.plot3d.builder.contour;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.jzy3d.colors.Color;
+import org.jzy3d.colors.ColorMapper;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Coordinates;
+import org.jzy3d.plot3d.builder.Mapper;
+import org.jzy3d.plot3d.builder.concrete.OrthonormalGrid;
+import org.jzy3d.plot3d.primitives.LineStrip;
+import org.jzy3d.plot3d.primitives.Point;
+import org.jzy3d.plot3d.primitives.contour.ContourLevel;
+import org.jzy3d.plot3d.primitives.contour.ContourLevels;
+
+/**
+ * Computes the contour lines of a height grid with the marching squares algorithm, and returns them
+ * as connected polylines per level.
+ *
+ * The grid is given as primitive arrays : the X values of its columns, the Y values of its rows,
+ * and the heights where the point (xi,yi) stands at index <code>xi * y.length + yi</code>, as
+ * returned by {@link OrthonormalGrid#applyAsCoordinates(Mapper)}.
+ *
+ * <h2>Algorithm</h2>
+ *
+ * Each cell of the grid is visited once whatever the number of levels : the levels crossing the
+ * cell are found by a binary search of its minimum height, and each of them gives one or two
+ * segments joining the points of the cell edges where the height equals the level, interpolated
+ * linearly. Saddle cells are resolved with the average height of their corners.
+ *
+ * Segments are then stitched into polylines per level : the segments of two neighbour cells meet on
+ * their common edge, which is used as key to connect them. Closed contours end with their first
+ * point.
+ *
+ * <h2>Parallelism</h2>
+ *
+ * The grid is split in bands of {@link #getBandSize()} columns of cells whose segments are computed
+ * in parallel on a {@link ForkJoinPool}, then levels are stitched in parallel.
+ *
+ * @author Martin Pernollet
+ */
+public class MarchingSquaresContourBuilder {
+  /** Number of columns of cells under which a band is not split anymore. */
+  public static final int DEFAULT_BAND_SIZE = 32;
+
+  protected ForkJoinPool pool = ForkJoinPool.commonPool();
+  protected int bandSize = DEFAULT_BAND_SIZE;
+  protected ColorMapper colorMapper;
+  protected float lineWidth = 1;
+
+  public MarchingSquaresContourBuilder() {}
+
+  public MarchingSquaresContourBuilder(ColorMapper colorMapper) {
+    this.colorMapper = colorMapper;
+  }
+
+  /**
+   * Return n levels evenly spaced between the minimum and maximum heights, NaN heights being
+   * ignored. No level is returned if all heights are equal or NaN, as a flat surface has no
+   * contour.
+   */
+  public static double[] levels(float[] heights, int n) {
+    float min = Float.POSITIVE_INFINITY;
+    float max = Float.NEGATIVE_INFINITY;
+    for (float z : heights) {
+      if (z < min)
+        min = z;
+      if (z > max)
+        max = z;
+    }
+    return levels(min, max, n);
+  }
+
+  /**
+   * Return n levels evenly spaced between min and max, both excluded, as contours at the bounds of
+   * a surface are mostly reduced to points. No level is returned unless max is greater than min, as
+   * the levels would not increase.
+   */
+  public static double[] levels(double min, double max, int n) {
+    if (n < 1)
+      throw new IllegalArgumentException("Need at least one level : " + n);
+    if (!(max > min))
+      return new double[0];
+    double[] levels = new double[n];
+    double step = (max - min) / (n + 1);
+    for (int i = 0; i < n; i++)
+      levels[i] = min + step * (i + 1);
+    return levels;
+  }
+
+  /**
+   * Evaluate the mapper on the grid, and return the contours of the given levels.
+   *
+   * @see #build(float[], float[], float[], double[])
+   */
+  public ContourLevels build(OrthonormalGrid grid, Mapper mapper, double[] levels) {
+    Coordinates coords = grid.applyAsCoordinates(mapper);
+    int xsteps = grid.getXsteps();
+    int ysteps = grid.getYsteps();
+
+    float[] x = new float[xsteps];
+    float[] y = Arrays.copyOf(coords.getY(), ysteps);
+    for (int xi = 0; xi < xsteps; xi++)
+      x[xi] = coords.getX()[xi * ysteps];
+
+    return build(x, y, coords.getZ(), levels);
+  }
+
+  /**
+   * Return the contours of the given levels as a {@link ContourLevels} holding a {@link LineStrip}
+   * per polyline. The points of a level stand at Z equal to the level, use
+   * {@link ContourLevel#fixZ(float)} to draw them on a plane. Lines are colored by the color mapper
+   * if any.
+   */
+  public ContourLevels build(float[] x, float[] y, float[] heights, double[] levels) {
+    float[][][] polylines = polylines(x, y, heights, levels);
+
+    ContourLevels contours = new ContourLevels();
+    for (int k = 0; k < levels.length; k++) {
+      if (polylines[k].length == 0)
+        continue;
+
+      Color color = colorMapper != null ? colorMapper.getColor(levels[k]) : Color.BLACK;
+      List<LineStrip> strips = new ArrayList<>(polylines[k].length);
+
+      for (float[] polyline : polylines[k]) {
+        LineStrip strip = new LineStrip(polyline.length / 2);
+        for (int i = 0; i < polyline.length; i += 2) {
+          strip.add(new Point(new Coord3d(polyline[i], polyline[i + 1], levels[k]), color),
+              false);
+        }
+        strip.updateBounds();
+        strip.setWireframeColor(color);
+        strip.setWidth(lineWidth);
+        strips.add(strip);
+      }
+      contours.setContourLevel(levels[k], new ContourLevel(k, (float) levels[k], strips));
+    }
+    return contours;
+  }
+
+  /**
+   * Return the contours of the given levels as polylines of interleaved x,y values, indexed by
+   * level.
+   *
+   * @param x the X values of the grid columns.
+   * @param y the Y values of the grid rows.
+   * @param heights the height of point (xi,yi) at index <code>xi * y.length + yi</code>. NaN
+   *        heights are holes : the cells around them have no contour.
+   * @param levels the levels, in increasing order.
+   */
+  public float[][][] polylines(float[] x, float[] y, float[] heights, double[] levels) {
+    if (heights.length != x.length * y.length)
+      throw new IllegalArgumentException("Expect " + x.length + "x" + y.length + " heights, got "
+          + heights.length);
+    for (int k = 1; k < levels.length; k++)
+      if (!(levels[k - 1] < levels[k]))
+        throw new IllegalArgumentException("Levels must increase : " + levels[k] + " after "
+            + levels[k - 1]);
+
+    Grid grid = new Grid(x, y, heights);
+    int columns = Math.max(0, x.length - 1);
+    int bands = Math.max(1, (columns + bandSize - 1) / bandSize);
+    Segments[][] segments = new Segments[bands][levels.length];
+    float[][][] polylines = new float[levels.length][][];
+
+    if (pool != null && bands > 1) {
+      pool.invoke(new MarchTask(grid, levels, segments, 0, bands));
+      pool.invoke(new StitchTask(segments, polylines, 0, levels.length));
+    } else {
+      march(grid, levels, segments, 0, bands);
+      stitch(segments, polylines, 0, levels.length);
+    }
+    return polylines;
+  }
+
+  /* MARCH */
+
+  /** Compute the segments of the cells of the bands in [from, to). */
+  protected void march(Grid grid, double[] levels, Segments[][] segments, int from, int to) {
+    int columns = grid.x.length - 1;
+    for (int b = from; b < to; b++) {
+      int xfrom = b * bandSize;
+      march(grid, levels, segments[b], xfrom, Math.min(columns, xfrom + bandSize));
+    }
+  }
+
+  /** Compute the segments of the cells of the columns in [xfrom, xto), per level. */
+  protected void march(Grid grid, double[] levels, Segments[] segments, int xfrom, int xto) {
+    float[] z = grid.z;
+    int ysteps = grid.y.length;
+    long[] edges = new long[4];
+    float[] points = new float[8];
+
+    for (int xi = xfrom; xi < xto; xi++) {
+      for (int yi = 0; yi < ysteps - 1; yi++) {
+        int i = xi * ysteps + yi;
+        float v00 = z[i];
+        float v10 = z[i + ysteps];
+        float v11 = z[i + ysteps + 1];
+        float v01 = z[i + 1];
+
+        float min = Math.min(Math.min(v00, v10), Math.min(v11, v01));
+        float max = Math.max(Math.max(v00, v10), Math.max(v11, v01));
+        if (Float.isNaN(min) || Float.isNaN(max))
+          continue;
+
+        // levels crossing the cell have a corner above and a corner below or equal
+        for (int k = lowerBound(levels, min); k < levels.length && levels[k] < max; k++) {
+          if (segments[k] == null)
+            segments[k] = new Segments();
+          cell(grid, xi, yi, i, v00, v10, v11, v01, levels[k], edges, points, segments[k]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Add the segments of a cell crossed by a level. Crossed edges are stored in the order bottom,
+   * right, top, left, a bottom edge is identified by <code>2 * i</code> and a left edge by
+   * <code>2 * i + 1</code> where i is the index of its lowest corner.
+   */
+  protected void cell(Grid grid, int xi, int yi, int i, float v00, float v10, float v11,
+      float v01, double level, long[] edges, float[] points, Segments segments) {
+    boolean a00 = v00 > level;
+    boolean a10 = v10 > level;
+    boolean a11 = v11 > level;
+    boolean a01 = v01 > level;
+    int ysteps = grid.y.length;
+    float x0 = grid.x[xi];
+    float x1 = grid.x[xi + 1];
+    float y0 = grid.y[yi];
+    float y1 = grid.y[yi + 1];
+    int n = 0;
+
+    if (a00 != a10) { // bottom
+      edges[n] = 2L * i;
+      points[n * 2] = interpolate(x0, x1, v00, v10, level);
+      points[n * 2 + 1] = y0;
+      n++;
+    }
+    if (a10 != a11) { // right
+      edges[n] = 2L * (i + ysteps) + 1;
+      points[n * 2] = x1;
+      points[n * 2 + 1] = interpolate(y0, y1, v10, v11, level);
+      n++;
+    }
+    if (a01 != a11) { // top
+      edges[n] = 2L * (i + 1);
+      points[n * 2] = interpolate(x0, x1, v01, v11, level);
+      points[n * 2 + 1] = y1;
+      n++;
+    }
+    if (a00 != a01) { // left
+      edges[n] = 2L * i + 1;
+      points[n * 2] = x0;
+      points[n * 2 + 1] = interpolate(y0, y1, v00, v01, level);
+      n++;
+    }
+
+    if (n == 2) {
+      segments.add(edges, points, 0, 1);
+    } else if (n == 4) {
+      // saddle : corners above stand on a diagonal, joined if the center is above
+      boolean centerAbove = (v00 + v10 + v11 + v01) / 4 > level;
+      if (a00 == centerAbove) {
+        // isolate the bottom right and top left corners
+        segments.add(edges, points, 0, 1);
+        segments.add(edges, points, 3, 2);
+      } else {
+        // isolate the bottom left and top right corners
+        segments.add(edges, points, 3, 0);
+        segments.add(edges, points, 2, 1);
+      }
+    }
+  }
+
+  protected static float interpolate(float p0, float p1, float v0, float v1, double level) {
+    return (float) (p0 + (p1 - p0) * ((level - v0) / (v1 - v0)));
+  }
+
+  /** Index of the first level greater or equal to the value. */
+  protected static int lowerBound(double[] levels, double value) {
+    int lo = 0;
+    int hi = levels.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (levels[mid] < value)
+        lo = mid + 1;
+      else
+        hi = mid;
+    }
+    return lo;
+  }
+
+  /* STITCH */
+
+  /** Stitch the segments of the levels in [from, to) of all bands into polylines. */
+  protected void stitch(Segments[][] segments, float[][][] polylines, int from, int to) {
+    for (int k = from; k < to; k++) {
+      Segments level = new Segments();
+      for (Segments[] band : segments)
+        if (band[k] != null)
+          level.addAll(band[k]);
+      polylines[k] = stitch(level);
+    }
+  }
+
+  /**
+   * Chain the segments meeting on the same edges. An endpoint p = 2 * s + e designates end e of
+   * segment s. An edge is shared by two cells at most, hence by two endpoints at most, so that
+   * chains never branch.
+   */
+  protected float[][] stitch(Segments segments) {
+    int n = segments.size;
+    if (n == 0)
+      return new float[0][];
+
+    EdgeMap map = new EdgeMap(n * 2);
+    for (int p = 0; p < n * 2; p++)
+      map.put(segments.edges[p], p);
+
+    boolean[] visited = new boolean[n];
+    List<float[]> polylines = new ArrayList<>();
+    float[] buffer = new float[64];
+
+    for (int s = 0; s < n; s++) {
+      if (visited[s])
+        continue;
+
+      // walk backward to the start of the chain, unless it is closed
+      int current = s;
+      int entry = 0;
+      while (true) {
+        int other = map.other(segments.edges[current * 2 + entry], current * 2 + entry);
+        if (other < 0)
+          break;
+        if (other >> 1 == s) {
+          current = s;
+          entry = 0;
+          break;
+        }
+        current = other >> 1;
+        entry = 1 - (other & 1);
+      }
+
+      // walk forward, writing the points of the chain
+      int length = 0;
+      buffer = write(buffer, length++, segments.xy, current * 2 + entry);
+
+      while (true) {
+        visited[current] = true;
+        int end = current * 2 + 1 - entry;
+        buffer = write(buffer, length++, segments.xy, end);
+
+        int other = map.other(segments.edges[end], end);
+        if (other < 0 || visited[other >> 1])
+          break;
+        current = other >> 1;
+        entry = other & 1;
+      }
+      polylines.add(Arrays.copyOf(buffer, length * 2));
+    }
+    return polylines.toArray(new float[polylines.size()][]);
+  }
+
+  protected static float[] write(float[] buffer, int index, float[] xy, int point) {
+    if (buffer.length < (index + 1) * 2)
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    buffer[index * 2] = xy[point * 2];
+    buffer[index * 2 + 1] = xy[point * 2 + 1];
+    return buffer;
+  }
+
+  /* TASKS */
+
+  protected class MarchTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    protected Grid grid;
+    protected double[] levels;
+    protected Segments[][] segments;
+    protected int from;
+    protected int to;
+
+    public MarchTask(Grid grid, double[] levels, Segments[][] segments, int from, int to) {
+      this.grid = grid;
+      this.levels = levels;
+      this.segments = segments;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= 1) {
+        march(grid, levels, segments, from, to);
+        return;
+      }
+
+      int mid = (from + to) >>> 1;
+      invokeAll(new MarchTask(grid, levels, segments, from, mid),
+          new MarchTask(grid, levels, segments, mid, to));
+    }
+  }
+
+  protected class StitchTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    protected Segments[][] segments;
+    protected float[][][] polylines;
+    protected int from;
+    protected int to;
+
+    public StitchTask(Segments[][] segments, float[][][] polylines, int from, int to) {
+      this.segments = segments;
+      this.polylines = polylines;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= 1) {
+        stitch(segments, polylines, from, to);
+        return;
+      }
+
+      int mid = (from + to) >>> 1;
+      invokeAll(new StitchTask(segments, polylines, from, mid),
+          new StitchTask(segments, polylines, mid, to));
+    }
+  }
+
+  /* STRUCTURES */
+
+  protected static class Grid {
+    final float[] x;
+    final float[] y;
+    final float[] z;
+
+    Grid(float[] x, float[] y, float[] z) {
+      this.x = x;
+      this.y = y;
+      this.z = z;
+    }
+  }
+
+  /** Segments of a level, as the edge and the x,y position of each of their 2 endpoints. */
+  protected static class Segments {
+    long[] edges = new long[32];
+    float[] xy = new float[64];
+    int size;
+
+    void add(long[] cellEdges, float[] cellPoints, int from, int to) {
+      ensureCapacity(size + 1);
+      int p = size * 2;
+      edges[p] = cellEdges[from];
+      edges[p + 1] = cellEdges[to];
+      xy[p * 2] = cellPoints[from * 2];
+      xy[p * 2 + 1] = cellPoints[from * 2 + 1];
+      xy[p * 2 + 2] = cellPoints[to * 2];
+      xy[p * 2 + 3] = cellPoints[to * 2 + 1];
+      size++;
+    }
+
+    void addAll(Segments other) {
+      ensureCapacity(size + other.size);
+      System.arraycopy(other.edges, 0, edges, size * 2, other.size * 2);
+      System.arraycopy(other.xy, 0, xy, size * 4, other.size * 4);
+      size += other.size;
+    }
+
+    void ensureCapacity(int segments) {
+      if (edges.length < segments * 2) {
+        int capacity = Math.max(segments, size * 2);
+        edges = Arrays.copyOf(edges, capacity * 2);
+        xy = Arrays.copyOf(xy, capacity * 4);
+      }
+    }
+  }
+
+  /** An open addressing map from an edge to the two endpoints meeting on it. */
+  protected static class EdgeMap {
+    final long[] keys;
+    final int[] first;
+    final int[] second;
+    final int mask;
+
+    EdgeMap(int entries) {
+      int capacity = Integer.highestOneBit(Math.max(2, entries) * 2 - 1) << 1;
+      keys = new long[capacity];
+      first = new int[capacity];
+      second = new int[capacity];
+      mask = capacity - 1;
+      Arrays.fill(first, -1);
+      Arrays.fill(second, -1);
+    }
+
+    void put(long edge, int endpoint) {
+      int slot = slot(edge);
+      if (first[slot] < 0) {
+        keys[slot] = edge;
+        first[slot] = endpoint;
+      } else {
+        second[slot] = endpoint;
+      }
+    }
+
+    /** The endpoint meeting the given one on the edge, or -1. */
+    int other(long edge, int endpoint) {
+      int slot = slot(edge);
+      if (first[slot] < 0)
+        return -1;
+      return first[slot] == endpoint ? second[slot] : first[slot];
+    }
+
+    int slot(long edge) {
+      long h = edge * 0x9E3779B97F4A7C15L;
+      int slot = (int) (h ^ (h >>> 32)) & mask;
+      while (first[slot] >= 0 && keys[slot] != edge)
+        slot = (slot + 1) & mask;
+      return slot;
+    }
+  }
+
+  /* */
+
+  public ForkJoinPool getPool() {
+    return pool;
+  }
+
+  /**
+   * Set the pool computing contours, or null to compute them on the calling thread. Default to the
+   * common pool.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  public int getBandSize() {
+    return bandSize;
+  }
+
+  /** Set the number of columns of cells processed by a single task. */
+  public void setBandSize(int bandSize) {
+    if (bandSize < 1)
+      throw new IllegalArgumentException("Band size must be positive : " + bandSize);
+    this.bandSize = bandSize;
+  }
+
+  public ColorMapper getColorMapper() {
+    return colorMapper;
+  }
+
+  /** Set the mapper coloring each level, or null to draw contours in black. */
+  public void setColorMapper(ColorMapper colorMapper) {
+    this.colorMapper = colorMapper;
+  }
+
+  public float getLineWidth() {
+    return lineWidth;
+  }
+
+  public void setLineWidth(float lineWidth) {
+    this.lineWidth = lineWidth;
+  }
+}
@@ -1,17 +1,26 @@
 package org.jzy3d.plot3d.builder.delaunay;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Coordinates;
 import org.jzy3d.plot3d.builder.Tessellator;
+import org.jzy3d.plot3d.primitives.ArrayMesh;
 import org.jzy3d.plot3d.primitives.Composite;
+import org.jzy3d.plot3d.primitives.Point;
 import org.jzy3d.plot3d.primitives.Polygon;
 import org.jzy3d.plot3d.primitives.Shape;
-import il.ac.idc.jdt.DelaunayTriangulation;
-import il.ac.idc.jdt.Triangle;
+import il.ac.idc.jdt.IndexedDelaunayTriangulation;
 
+/**
+ * Triangulate points on their X,Y coordinates with {@link IndexedDelaunayTriangulation}.
+ *
+ * {@link #buildMesh(Coordinates)} returns a single {@link ArrayMesh} referencing the input points
+ * by index, which should be preferred to {@link #build(List)} for large point sets as it avoids
+ * building a {@link Polygon} per triangle.
+ */
 public class DelaunayTessellator extends Tessellator {
+  /** Build the polygons with {@link #computePolygons(List)}, which subclasses may override. */
   @Override
   public Composite build(List<Coord3d> coordinates) {
     Shape s = new Shape();
@@ -19,28 +28,62 @@ public class DelaunayTessellator extends Tessellator {
     return s;
   }
 
-  protected List<Polygon> computePolygons(List<Coord3d> coordinates) {
-    // Append all input Jzy3d coordinates in JDT triangulator
-    DelaunayTriangulation triangulator = new DelaunayTriangulation();
-    for (Coord3d coord : coordinates) {
-      triangulator.insertPoint(JDTConverter.toJdtPoint(coord));
-    }
+  @Override
+  public Composite build(float[] x, float[] y, float[] z) {
+    Shape s = new Shape();
+    s.add(computePolygons(x, y, z, triangulate(x, y)));
+    return s;
+  }
+
+  public ArrayMesh buildMesh(List<Coord3d> coordinates) {
+    return buildMesh(new Coordinates(coordinates));
+  }
+
+  public ArrayMesh buildMesh(Coordinates coordinates) {
+    return buildMesh(coordinates.getX(), coordinates.getY(), coordinates.getZ());
+  }
+
+  /** Triangulate the points and return a mesh which vertex i is the input point i. */
+  public ArrayMesh buildMesh(float[] x, float[] y, float[] z) {
+    int[] triangles = triangulate(x, y);
 
-    // Retrieve triangles computed by JDT
-    List<Polygon> polygons = new ArrayList<Polygon>(triangulator.trianglesSize());
-    Iterator<Triangle> it = triangulator.trianglesIterator();
-    while (it.hasNext()) {
-      Triangle triangle = it.next();
-      // isHalfplane indicates a degenerated triangle
-      if (triangle.isHalfplane())
-        continue;
-      polygons.add(JDTConverter.toJzyPolygon(triangle));
+    float[] positions = new float[x.length * 3];
+    for (int i = 0; i < x.length; i++) {
+      positions[i * 3] = x[i];
+      positions[i * 3 + 1] = y[i];
+      positions[i * 3 + 2] = z[i];
     }
-    return polygons;
+    return new ArrayMesh(positions, triangles, 3);
   }
 
-  @Override
-  public Composite build(float[] x, float[] y, float[] z) {
-    throw new RuntimeException("not called");
+  /** Return the triangles as triplets of point indices. */
+  protected int[] triangulate(float[] x, float[] y) {
+    return new IndexedDelaunayTriangulation(x, y).getTriangles();
+  }
+
+  /**
+   * Triangulate the coordinates and return a polygon per triangle.
+   *
+   * @deprecated kept for subclasses overriding it, which is invoked by {@link #build(List)}. Use
+   *             {@link #computePolygons(float[], float[], float[], int[])} instead.
+   */
+  @Deprecated
+  protected List<Polygon> computePolygons(List<Coord3d> coordinates) {
+    Coordinates c = new Coordinates(coordinates);
+    return computePolygons(c.getX(), c.getY(), c.getZ(), triangulate(c.getX(), c.getY()));
+  }
+
+  protected List<Polygon> computePolygons(float[] x, float[] y, float[] z, int[] triangles) {
+    List<Polygon> polygons = new ArrayList<Polygon>(triangles.length / 3);
+
+    for (int t = 0; t < triangles.length; t += 3) {
+      Polygon polygon = new Polygon();
+      for (int i = t; i < t + 3; i++) {
+        int v = triangles[i];
+        polygon.add(new Point(new Coord3d(x[v], y[v], z[v])));
+      }
+      polygons.add(polygon);
+    }
+    return polygons;
   }
 }
@@ -0,0 +1,748 @@
+package org.jzy3d.plot3d.primitives;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.jzy3d.colors.Color;
+import org.jzy3d.colors.ColorMapper;
+import org.jzy3d.colors.IMultiColorable;
+import org.jzy3d.colors.ISingleColorable;
+import org.jzy3d.colors.colormaps.IColorMap;
+import org.jzy3d.events.DrawableChangedEvent;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Utils;
+import org.jzy3d.painters.DepthFunc;
+import org.jzy3d.painters.IPainter;
+import org.jzy3d.plot3d.rendering.ordering.ScoreSorter;
+import org.jzy3d.plot3d.rendering.scene.Decomposition;
+import org.jzy3d.plot3d.rendering.view.Camera;
+import org.jzy3d.plot3d.rendering.view.View;
+import org.jzy3d.plot3d.transform.Transform;
+import org.jzy3d.plot3d.transform.space.SpaceTransform;
+import org.jzy3d.plot3d.transform.space.SpaceTransformer;
+
+/**
+ * An {@link ArrayMesh} is a surface made of quads or triangles which vertices are stored in flat
+ * arrays instead of one {@link Polygon} made of {@link Point}s per face.
+ *
+ * <ul>
+ * <li>positions are stored as x,y,z triplets,
+ * <li>colors are optional and stored as r,g,b,a quadruplets, one per vertex,
+ * <li>faces are given by an index array holding {@link #getFaceSize()} vertex indices per face.
+ * </ul>
+ *
+ * A 1000x1000 surface hence holds a few arrays instead of millions of small objects, and is drawn
+ * with a single glDrawElements call.
+ *
+ * Faces are sorted by decreasing distance to the camera at each rendering to allow transparency,
+ * which can be disabled with {@link #setFaceOrdering(boolean)} for opaque surfaces. When the mesh
+ * stands in a scene made of other transparent objects, {@link #setDecomposable(boolean)} lets the
+ * scene graph {@link Decomposition} process it as a list of {@link Polygon}s, which restores the
+ * ordering of faces with other drawables at the cost of the memory saved by this class.
+ *
+ * @author Martin Pernollet
+ */
+public class ArrayMesh extends Wireframeable implements ISingleColorable, IMultiColorable {
+  protected float[] positions;
+  protected float[] colors;
+  protected int[] indices;
+  protected int faceSize;
+
+  protected Color color;
+  protected ColorMapper mapper;
+  protected PolygonMode polygonMode = PolygonMode.FRONT_AND_BACK;
+
+  protected boolean faceOrdering = true;
+  protected boolean decomposable = false;
+
+  // caches computed from the data
+  protected float[] normals;
+  protected float[] mappedColors;
+  protected float[] transformedPositions;
+  protected int[] sortedIndices;
+  protected int[] wireframeIndices;
+  protected ScoreSorter sorter = new ScoreSorter();
+
+  // direct copies of the drawn arrays, only refilled when the array they copy changes
+  protected FloatBuffer positionBuffer;
+  protected FloatBuffer colorBuffer;
+  protected FloatBuffer normalBuffer;
+  protected IntBuffer faceBuffer;
+  protected IntBuffer wireframeBuffer;
+  protected float[] bufferedPositions;
+  protected float[] bufferedColors;
+  protected float[] bufferedNormals;
+  protected int[] bufferedFaces;
+  protected int[] bufferedWireframe;
+
+  // state of the space transformer when positions were transformed
+  protected SpaceTransformer transformedWith;
+  protected SpaceTransform transformedX;
+  protected SpaceTransform transformedY;
+  protected SpaceTransform transformedZ;
+
+  // eye and positions when faces were sorted
+  protected Coord3d sortedEye;
+  protected float[] sortedPositions;
+
+  // state of the mapper when mapped colors were computed
+  protected ColorMapper mappedWith;
+  protected IColorMap mappedColormap;
+  protected double mappedMin;
+  protected double mappedMax;
+
+  /**
+   * Build a mesh with a single color.
+   *
+   * @param positions x,y,z triplets of each vertex.
+   * @param indices vertex indices of each face.
+   * @param faceSize 3 for triangles, 4 for quads.
+   */
+  public ArrayMesh(float[] positions, int[] indices, int faceSize) {
+    this(positions, null, indices, faceSize);
+  }
+
+  /**
+   * Build a mesh with a color per vertex.
+   *
+   * @param positions x,y,z triplets of each vertex.
+   * @param colors r,g,b,a quadruplets of each vertex, or null to use a single color.
+   * @param indices vertex indices of each face.
+   * @param faceSize 3 for triangles, 4 for quads.
+   */
+  public ArrayMesh(float[] positions, float[] colors, int[] indices, int faceSize) {
+    super();
+    bbox = new BoundingBox3d();
+    color = Color.WHITE.clone();
+    setData(positions, colors, indices, faceSize);
+  }
+
+  /* DATA */
+
+  /**
+   * Replace the content of this mesh. The arrays are not copied, hence they should not be modified
+   * afterward without invoking {@link #setData(float[], float[], int[], int)} again.
+   *
+   * @throws IllegalArgumentException if arrays are inconsistent.
+   */
+  public void setData(float[] positions, float[] colors, int[] indices, int faceSize) {
+    if (faceSize != 3 && faceSize != 4)
+      throw new IllegalArgumentException("Face size must be 3 or 4 : " + faceSize);
+    if (positions == null || positions.length % 3 != 0)
+      throw new IllegalArgumentException("Positions must be x,y,z triplets");
+    if (indices == null || indices.length % faceSize != 0)
+      throw new IllegalArgumentException(
+          "Indices must hold " + faceSize + " vertex indices per face : " + indices);
+
+    int vertices = positions.length / 3;
+
+    if (colors != null && colors.length != vertices * 4)
+      throw new IllegalArgumentException("Must have as many colors than vertices. Vertices : "
+          + vertices + " - Colors : " + (colors.length / 4));
+
+    for (int i = 0; i < indices.length; i++)
+      if (indices[i] < 0 || indices[i] >= vertices)
+        throw new IllegalArgumentException(
+            "Index " + indices[i] + " at " + i + " does not point to one of the " + vertices
+                + " vertices");
+
+    this.positions = positions;
+    this.colors = colors;
+    this.indices = indices;
+    this.faceSize = faceSize;
+
+    invalidate();
+    updateBounds();
+
+    fireDrawableChanged(DrawableChangedEvent.FIELD_DATA);
+  }
+
+  /** Drop all data derived from positions and indices. */
+  protected void invalidate() {
+    normals = null;
+    mappedWith = null;
+    transformedPositions = null;
+    transformedWith = null;
+    sortedIndices = null;
+    sortedEye = null;
+    wireframeIndices = null;
+
+    bufferedPositions = null;
+    bufferedColors = null;
+    bufferedNormals = null;
+    bufferedFaces = null;
+    bufferedWireframe = null;
+  }
+
+  public float[] getPositions() {
+    return positions;
+  }
+
+  /** Return the per vertex colors, or null if the mesh has a single color. */
+  public float[] getColors() {
+    return colors;
+  }
+
+  public int[] getIndices() {
+    return indices;
+  }
+
+  /** Return the number of vertices per face, 3 for triangles, 4 for quads. */
+  public int getFaceSize() {
+    return faceSize;
+  }
+
+  public int getVertexCount() {
+    return positions.length / 3;
+  }
+
+  public int getFaceCount() {
+    return indices.length / faceSize;
+  }
+
+  public Coord3d getVertex(int vertex) {
+    return new Coord3d(positions[vertex * 3], positions[vertex * 3 + 1],
+        positions[vertex * 3 + 2]);
+  }
+
+  @Override
+  public void applyGeometryTransform(Transform transform) {
+    Coord3d c = new Coord3d();
+
+    for (int i = 0; i < positions.length; i += 3) {
+      c.set(positions[i], positions[i + 1], positions[i + 2]);
+      Coord3d t = transform.compute(c);
+      positions[i] = t.x;
+      positions[i + 1] = t.y;
+      positions[i + 2] = t.z;
+    }
+
+    invalidate();
+    updateBounds();
+  }
+
+  /** Update bounds, ignoring vertices having a NaN coordinate. */
+  @Override
+  public void updateBounds() {
+    bbox.reset();
+
+    for (int i = 0; i < positions.length; i += 3) {
+      float x = positions[i];
+      float y = positions[i + 1];
+      float z = positions[i + 2];
+
+      if (!Float.isNaN(x) && !Float.isNaN(y) && !Float.isNaN(z))
+        bbox.add(x, y, z);
+    }
+  }
+
+  /* DRAWING */
+
+  @Override
+  public void draw(IPainter painter) {
+    doTransform(painter);
+
+    if (mapper != null)
+      mapper.preDraw(this);
+
+    if (isReflectLight()) {
+      applyMaterial(painter);
+    }
+
+    float[] drawnPositions = getDrawnPositions();
+    float[] drawnColors = getDrawnColors();
+
+    painter.glEnableClientState_VertexArray();
+    painter.glVertexPointer_Float(3, 0, getPositionBuffer(drawnPositions));
+
+    if (depthFunctionChangeForWireframe)
+      painter.glDepthFunc(DepthFunc.GL_LESS);
+
+    drawFace(painter, drawnPositions, drawnColors);
+
+    // drawing order is important for EmulGL to cleanly render polygon edges
+    if (depthFunctionChangeForWireframe)
+      painter.glDepthFunc(DepthFunc.GL_LEQUAL);
+
+    drawWireframe(painter, drawnColors);
+
+    if (depthFunctionChangeForWireframe)
+      painter.glDepthFunc(DepthFunc.GL_LESS);
+
+    painter.glDisableClientState_VertexArray();
+
+    if (mapper != null)
+      mapper.postDraw(this);
+
+    doDrawBoundsIfDisplayed(painter);
+  }
+
+  protected void drawFace(IPainter painter, float[] drawnPositions, float[] drawnColors) {
+    if (!faceDisplayed || indices.length == 0)
+      return;
+
+    painter.glPolygonMode(polygonMode, PolygonFill.FILL);
+
+    if (wireframeDisplayed && polygonWireframeDepthTrick)
+      applyDepthRangeForUnderlying(painter);
+
+    if (wireframeDisplayed && polygonOffsetFillEnable)
+      polygonOffsetFillEnable(painter);
+
+    if (drawnColors != null) {
+      painter.glEnableClientState_ColorArray();
+      painter.glColorPointer_Float(4, 0, getColorBuffer(drawnColors));
+    } else {
+      painter.color(color);
+    }
+
+    if (isReflectLight()) {
+      painter.glEnableClientState_NormalArray();
+      painter.glNormalPointer_Float(0, getNormalBuffer());
+    }
+
+    int[] faces = faceOrdering ? getSortedIndices(painter, drawnPositions) : indices;
+
+    if (faceSize == 4)
+      painter.glDrawElements_Quads(faces.length, getFaceBuffer(faces));
+    else
+      painter.glDrawElements_Triangles(faces.length, getFaceBuffer(faces));
+
+    if (isReflectLight())
+      painter.glDisableClientState_NormalArray();
+
+    if (drawnColors != null)
+      painter.glDisableClientState_ColorArray();
+
+    if (wireframeDisplayed && polygonOffsetFillEnable)
+      polygonOffsetFillDisable(painter);
+
+    if (wireframeDisplayed && polygonWireframeDepthTrick)
+      applyDepthRangeDefault(painter);
+  }
+
+  protected void drawWireframe(IPainter painter, float[] drawnColors) {
+    if (!wireframeDisplayed || indices.length == 0)
+      return;
+
+    if (polygonWireframeDepthTrick)
+      applyDepthRangeForOverlying(painter);
+
+    if (polygonOffsetFillEnable)
+      polygonOffsetFillEnable(painter);
+
+    boolean colorFromPoints = isWireframeColorFromPolygonPoints() && drawnColors != null;
+
+    if (colorFromPoints) {
+      painter.glEnableClientState_ColorArray();
+      painter.glColorPointer_Float(4, 0, getColorBuffer(drawnColors));
+    } else if (isWireframeColorFromPolygonPoints()) {
+      painter.color(color);
+    } else {
+      painter.color(wireframeColor);
+    }
+
+    painter.glLineWidth(getWireframeWidth());
+
+    int[] edges = getWireframeIndices();
+    painter.glDrawElements_Lines(edges.length, getWireframeBuffer(edges));
+
+    if (colorFromPoints)
+      painter.glDisableClientState_ColorArray();
+
+    if (polygonOffsetFillEnable)
+      polygonOffsetFillDisable(painter);
+
+    if (polygonWireframeDepthTrick)
+      applyDepthRangeDefault(painter);
+  }
+
+  /**
+   * Return positions processed by the space transformer, if any. Transformed positions are only
+   * computed again when the data, the space transformer or one of its axis transforms change.
+   */
+  protected float[] getDrawnPositions() {
+    if (spaceTransformer == null)
+      return positions;
+
+    if (transformedPositions != null && transformedWith == spaceTransformer
+        && transformedX == spaceTransformer.getX() && transformedY == spaceTransformer.getY()
+        && transformedZ == spaceTransformer.getZ())
+      return transformedPositions;
+
+    if (transformedPositions == null || transformedPositions.length != positions.length)
+      transformedPositions = new float[positions.length];
+
+    for (int i = 0; i < positions.length; i += 3) {
+      transformedPositions[i] = spaceTransformer.getX().compute(positions[i]);
+      transformedPositions[i + 1] = spaceTransformer.getY().compute(positions[i + 1]);
+      transformedPositions[i + 2] = spaceTransformer.getZ().compute(positions[i + 2]);
+    }
+
+    // the array is refilled in place, hence its buffer and face order are outdated
+    bufferedPositions = null;
+    sortedEye = null;
+
+    transformedWith = spaceTransformer;
+    transformedX = spaceTransformer.getX();
+    transformedY = spaceTransformer.getY();
+    transformedZ = spaceTransformer.getZ();
+    return transformedPositions;
+  }
+
+  /** Return the colors given by the mapper if any, otherwise the per vertex colors or null. */
+  protected float[] getDrawnColors() {
+    if (mapper == null)
+      return colors;
+
+    if (mappedWith != mapper || mappedColormap != mapper.getColorMap()
+        || mappedMin != mapper.getMin() || mappedMax != mapper.getMax()) {
+      updateColors();
+    }
+    return mappedColors;
+  }
+
+  /**
+   * Evaluate the {@link ColorMapper} on all vertices. This is done automatically when the mapper,
+   * its colormap or its range change, and should be invoked explicitly if the mapper is modified
+   * otherwise.
+   */
+  public void updateColors() {
+    if (mapper == null)
+      return;
+
+    int vertices = getVertexCount();
+
+    if (mappedColors == null || mappedColors.length != vertices * 4)
+      mappedColors = new float[vertices * 4];
+
+    Coord3d c = new Coord3d();
+
+    for (int v = 0; v < vertices; v++) {
+      c.set(positions[v * 3], positions[v * 3 + 1], positions[v * 3 + 2]);
+      Color rgb = mapper.getColor(c);
+      mappedColors[v * 4] = rgb.r;
+      mappedColors[v * 4 + 1] = rgb.g;
+      mappedColors[v * 4 + 2] = rgb.b;
+      mappedColors[v * 4 + 3] = rgb.a;
+    }
+
+    bufferedColors = null;
+
+    mappedWith = mapper;
+    mappedColormap = mapper.getColorMap();
+    mappedMin = mapper.getMin();
+    mappedMax = mapper.getMax();
+  }
+
+  /**
+   * Return the face indices sorted by decreasing distance of the face centers to the camera eye, so
+   * that the farthest faces are drawn first.
+   *
+   * The order only depends on the eye expressed in the mesh coordinates, i.e. the camera eye
+   * divided by the view scaling. Faces are hence not sorted again while the eye, the scaling and
+   * the positions remain unchanged.
+   */
+  protected int[] getSortedIndices(IPainter painter, float[] drawnPositions) {
+    Camera camera = painter.getCamera();
+
+    if (camera == null)
+      return indices;
+
+    Coord3d eye = camera.getEye();
+    View view = painter.getView();
+    if (view != null && view.getLastViewScaling() != null)
+      eye = eye.div(view.getLastViewScaling());
+
+    return getSortedIndices(drawnPositions, eye);
+  }
+
+  /** Return the faces sorted for the given eye, reusing the last order if nothing changed. */
+  protected int[] getSortedIndices(float[] drawnPositions, Coord3d eye) {
+    if (sortedIndices != null && sortedPositions == drawnPositions && eye.equals(sortedEye))
+      return sortedIndices;
+
+    return sortFaces(drawnPositions, eye);
+  }
+
+  /** Sort faces by decreasing distance of their centers to the given eye position. */
+  protected int[] sortFaces(float[] drawnPositions, Coord3d eye) {
+    int n = getFaceCount();
+    float[] scores = sorter.getScores(n);
+
+    for (int f = 0; f < n; f++) {
+      float cx = 0, cy = 0, cz = 0;
+
+      for (int k = f * faceSize; k < (f + 1) * faceSize; k++) {
+        int v = indices[k] * 3;
+        cx += drawnPositions[v];
+        cy += drawnPositions[v + 1];
+        cz += drawnPositions[v + 2];
+      }
+
+      float dx = cx / faceSize - eye.x;
+      float dy = cy / faceSize - eye.y;
+      float dz = cz / faceSize - eye.z;
+      scores[f] = dx * dx + dy * dy + dz * dz;
+    }
+
+    int[] order = sorter.sortDescending();
+
+    if (sortedIndices == null || sortedIndices.length != indices.length)
+      sortedIndices = new int[indices.length];
+
+    for (int f = 0; f < n; f++)
+      System.arraycopy(indices, order[f] * faceSize, sortedIndices, f * faceSize, faceSize);
+    bufferedFaces = null;
+
+    sortedEye = eye.clone();
+    sortedPositions = drawnPositions;
+
+    return sortedIndices;
+  }
+
+  /** Return the pairs of vertex indices making the edges of all faces. */
+  protected int[] getWireframeIndices() {
+    if (wireframeIndices == null) {
+      wireframeIndices = new int[indices.length * 2];
+
+      int e = 0;
+      for (int f = 0; f < indices.length; f += faceSize) {
+        for (int k = 0; k < faceSize; k++) {
+          wireframeIndices[e++] = indices[f + k];
+          wireframeIndices[e++] = indices[f + (k + 1) % faceSize];
+        }
+      }
+    }
+    return wireframeIndices;
+  }
+
+  /* BUFFERS */
+
+  protected FloatBuffer getPositionBuffer(float[] drawnPositions) {
+    if (bufferedPositions != drawnPositions) {
+      positionBuffer = toDirect(drawnPositions, positionBuffer);
+      bufferedPositions = drawnPositions;
+    }
+    return positionBuffer;
+  }
+
+  protected FloatBuffer getColorBuffer(float[] drawnColors) {
+    if (bufferedColors != drawnColors) {
+      colorBuffer = toDirect(drawnColors, colorBuffer);
+      bufferedColors = drawnColors;
+    }
+    return colorBuffer;
+  }
+
+  protected FloatBuffer getNormalBuffer() {
+    float[] normals = getNormals();
+    if (bufferedNormals != normals) {
+      normalBuffer = toDirect(normals, normalBuffer);
+      bufferedNormals = normals;
+    }
+    return normalBuffer;
+  }
+
+  protected IntBuffer getFaceBuffer(int[] faces) {
+    if (bufferedFaces != faces) {
+      faceBuffer = toDirect(faces, faceBuffer);
+      bufferedFaces = faces;
+    }
+    return faceBuffer;
+  }
+
+  protected IntBuffer getWireframeBuffer(int[] edges) {
+    if (bufferedWireframe != edges) {
+      wireframeBuffer = toDirect(edges, wireframeBuffer);
+      bufferedWireframe = edges;
+    }
+    return wireframeBuffer;
+  }
+
+  /** Copy values to a direct buffer in native order, only reallocated if too small. */
+  protected static FloatBuffer toDirect(float[] values, FloatBuffer buffer) {
+    if (buffer == null || buffer.capacity() < values.length)
+      buffer = ByteBuffer.allocateDirect(values.length * 4).order(ByteOrder.nativeOrder())
+          .asFloatBuffer();
+    buffer.clear();
+    buffer.put(values);
+    buffer.flip();
+    return buffer;
+  }
+
+  protected static IntBuffer toDirect(int[] values, IntBuffer buffer) {
+    if (buffer == null || buffer.capacity() < values.length)
+      buffer = ByteBuffer.allocateDirect(values.length * 4).order(ByteOrder.nativeOrder())
+          .asIntBuffer();
+    buffer.clear();
+    buffer.put(values);
+    buffer.flip();
+    return buffer;
+  }
+
+  /* NORMALS */
+
+  /**
+   * Return the normal of each vertex, processed as the normalized sum of the normals of the faces
+   * sharing the vertex.
+   */
+  public float[] getNormals() {
+    if (normals == null) {
+      normals = new float[positions.length];
+
+      for (int f = 0; f < indices.length; f += faceSize) {
+        int a = indices[f] * 3;
+        int b = indices[f + 1] * 3;
+        int c = indices[f + faceSize - 1] * 3;
+
+        float ux = positions[b] - positions[a];
+        float uy = positions[b + 1] - positions[a + 1];
+        float uz = positions[b + 2] - positions[a + 2];
+        float vx = positions[c] - positions[a];
+        float vy = positions[c + 1] - positions[a + 1];
+        float vz = positions[c + 2] - positions[a + 2];
+
+        float nx = uy * vz - uz * vy;
+        float ny = uz * vx - ux * vz;
+        float nz = ux * vy - uy * vx;
+
+        if (Float.isNaN(nx) || Float.isNaN(ny) || Float.isNaN(nz))
+          continue;
+
+        for (int k = f; k < f + faceSize; k++) {
+          int v = indices[k] * 3;
+          normals[v] += nx;
+          normals[v + 1] += ny;
+          normals[v + 2] += nz;
+        }
+      }
+
+      for (int v = 0; v < normals.length; v += 3) {
+        float norm = (float) Math.sqrt(normals[v] * normals[v] + normals[v + 1] * normals[v + 1]
+            + normals[v + 2] * normals[v + 2]);
+        if (norm > 0) {
+          normals[v] /= norm;
+          normals[v + 1] /= norm;
+          normals[v + 2] /= norm;
+        }
+      }
+    }
+    return normals;
+  }
+
+  /* DECOMPOSITION */
+
+  public boolean isDecomposable() {
+    return decomposable;
+  }
+
+  /**
+   * If true, {@link Decomposition} will expand this mesh into one {@link Polygon} per face so that
+   * the scene graph can sort them with other drawables. This is only required when rendering
+   * transparent faces of this mesh intersecting other transparent drawables.
+   */
+  public void setDecomposable(boolean decomposable) {
+    this.decomposable = decomposable;
+
+    fireDrawableChanged(DrawableChangedEvent.FIELD_DATA);
+  }
+
+  /**
+   * Return one {@link Polygon} per face, sharing the settings of this mesh. Polygons are a snapshot
+   * of the mesh : when the mesh is part of a scene graph, later changes of its settings are only
+   * visible once the graph decomposition is rebuilt.
+   */
+  public List<Drawable> getDecomposition() {
+    float[] faceColors = getDrawnColors();
+    List<Drawable> polygons = new ArrayList<>(getFaceCount());
+
+    for (int f = 0; f < indices.length; f += faceSize) {
+      Polygon polygon = new Polygon();
+
+      for (int k = f; k < f + faceSize; k++) {
+        int v = indices[k];
+        Color c = faceColors != null
+            ? new Color(faceColors[v * 4], faceColors[v * 4 + 1], faceColors[v * 4 + 2],
+                faceColors[v * 4 + 3])
+            : color.clone();
+        polygon.add(new Point(getVertex(v), c), false);
+      }
+      polygon.updateBounds();
+
+      polygon.setFaceDisplayed(faceDisplayed);
+      polygon.setWireframeDisplayed(wireframeDisplayed);
+      polygon.setWireframeColor(wireframeColor);
+      polygon.setWireframeWidth(wireframeWidth);
+      polygon.setWireframeColorFromPolygonPoints(wireframeColorFromPolygonPoints);
+      polygon.setPolygonMode(polygonMode);
+      polygon.setPolygonOffsetFillEnable(polygonOffsetFillEnable);
+      polygon.setPolygonWireframeDepthTrick(polygonWireframeDepthTrick);
+      polygon.setReflectLight(reflectLight);
+      polygon.setSpaceTransformer(spaceTransformer);
+      polygons.add(polygon);
+    }
+    return polygons;
+  }
+
+  /* SETTINGS */
+
+  public boolean isFaceOrdering() {
+    return faceOrdering;
+  }
+
+  /**
+   * Sort faces by decreasing distance to the camera before drawing them, which is required to
+   * render transparent faces properly. Opaque meshes may disable it to save the sorting time.
+   */
+  public void setFaceOrdering(boolean faceOrdering) {
+    this.faceOrdering = faceOrdering;
+  }
+
+  public PolygonMode getPolygonMode() {
+    return polygonMode;
+  }
+
+  public void setPolygonMode(PolygonMode polygonMode) {
+    this.polygonMode = polygonMode;
+  }
+
+  /* COLOR */
+
+  @Override
+  public void setColorMapper(ColorMapper mapper) {
+    this.mapper = mapper;
+    this.mappedWith = null;
+
+    fireDrawableChanged(new DrawableChangedEvent(this, DrawableChangedEvent.FIELD_COLOR));
+  }
+
+  @Override
+  public ColorMapper getColorMapper() {
+    return mapper;
+  }
+
+  /** Set a single color to all vertices, dropping per vertex colors. */
+  @Override
+  public void setColor(Color color) {
+    this.color = color;
+    this.colors = null;
+
+    fireDrawableChanged(new DrawableChangedEvent(this, DrawableChangedEvent.FIELD_COLOR));
+  }
+
+  @Override
+  public Color getColor() {
+    return color;
+  }
+
+  @Override
+  public String toString(int depth) {
+    return (Utils.blanks(depth) + "(" + this.getClass().getSimpleName() + ") #vertices:"
+        + getVertexCount() + " #faces:" + getFaceCount());
+  }
+}
@@ -0,0 +1,209 @@
+package org.jzy3d.plot3d.primitives;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import org.apache.logging.log4j.LogManager;
+import org.jzy3d.colors.Color;
+import org.jzy3d.colors.ISingleColorable;
+import org.jzy3d.events.DrawableChangedEvent;
+import org.jzy3d.io.binary.MappedGeometry;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.maths.Utils;
+import org.jzy3d.painters.IPainter;
+import org.jzy3d.plot3d.transform.Transform;
+
+/**
+ * A scatter which points are read from float buffers, e.g. buffers mapped from a file by
+ * {@link MappedGeometry}, without building a {@link org.jzy3d.maths.Coord3d} per point.
+ *
+ * Positions are x,y,z triplets and colors are optional RGB or RGBA values, one per point. Both are
+ * read from their position to their limit and are not modified, hence read only buffers are
+ * supported. Points are drawn with vertex arrays, which native painters read straight from direct
+ * buffers.
+ *
+ * @author Martin Pernollet
+ */
+public class BufferScatter extends Drawable implements ISingleColorable {
+  protected FloatBuffer positions;
+  protected FloatBuffer colors;
+  protected int colorChannels;
+  protected Color color = Color.BLACK.clone();
+  protected float width = 1;
+
+  public BufferScatter(FloatBuffer positions) {
+    this(positions, null, 0, null);
+  }
+
+  /**
+   * @param colors per point colors, or null to use a single color.
+   * @param colorChannels 3 or 4, ignored if colors are null.
+   * @param bounds bounds of the positions, or null to let them be computed by reading the buffer.
+   */
+  public BufferScatter(FloatBuffer positions, FloatBuffer colors, int colorChannels,
+      BoundingBox3d bounds) {
+    setData(positions, colors, colorChannels, bounds);
+  }
+
+  /** Build a scatter reading all points of the mapped geometry. */
+  public BufferScatter(MappedGeometry geometry) throws IOException {
+    this(geometry.getPositions(), geometry.getColors(), geometry.getColorChannels(),
+        geometry.getBounds());
+  }
+
+  public void setData(FloatBuffer positions, FloatBuffer colors, int colorChannels,
+      BoundingBox3d bounds) {
+    if (positions.remaining() % 3 != 0)
+      throw new IllegalArgumentException(
+          "Positions must hold x,y,z triplets : " + positions.remaining() + " values");
+    if (colors != null) {
+      if (colorChannels != 3 && colorChannels != 4)
+        throw new IllegalArgumentException("Color channels must be 3 or 4 : " + colorChannels);
+      if (colors.remaining() != positions.remaining() / 3 * colorChannels)
+        throw new IllegalArgumentException("Expect " + positions.remaining() / 3 * colorChannels
+            + " color values, got " + colors.remaining());
+    }
+
+    this.positions = positions;
+    this.colors = colors;
+    this.colorChannels = colors == null ? 0 : colorChannels;
+
+    if (bounds != null) {
+      this.bbox = bounds.clone();
+    } else {
+      updateBounds();
+    }
+  }
+
+  @Override
+  public void draw(IPainter painter) {
+    doTransform(painter);
+    doDrawPoints(painter);
+    doDrawBoundsIfDisplayed(painter);
+  }
+
+  protected void doDrawPoints(IPainter painter) {
+    int count = size();
+
+    if (count == 0)
+      return;
+
+    painter.glPointSize(width);
+
+    if (spaceTransformer != null) {
+      doDrawPointsTransformed(painter, count);
+      return;
+    }
+
+    if (colors == null)
+      painter.color(color);
+
+    painter.glEnableClientState_VertexArray();
+    painter.glVertexPointer_Float(3, 0, positions);
+
+    if (colors != null) {
+      painter.glEnableClientState_ColorArray();
+      painter.glColorPointer_Float(colorChannels, 0, colors);
+    }
+
+    painter.glDrawArrays_Points(0, count);
+
+    if (colors != null)
+      painter.glDisableClientState_ColorArray();
+
+    painter.glDisableClientState_VertexArray();
+  }
+
+  /** Vertex arrays can not be transformed by the painter, hence points are sent one by one. */
+  protected void doDrawPointsTransformed(IPainter painter, int count) {
+    int p = positions.position();
+    int c = colors == null ? 0 : colors.position();
+    Color pointColor = color.clone();
+
+    if (colors == null)
+      painter.color(color);
+
+    painter.glBegin_Point();
+    for (int i = 0; i < count; i++) {
+      if (colors != null) {
+        int k = c + i * colorChannels;
+        pointColor.r = colors.get(k);
+        pointColor.g = colors.get(k + 1);
+        pointColor.b = colors.get(k + 2);
+        pointColor.a = colorChannels > 3 ? colors.get(k + 3) : 1;
+        painter.color(pointColor);
+      }
+      int k = p + i * 3;
+      painter.vertex(positions.get(k), positions.get(k + 1), positions.get(k + 2),
+          spaceTransformer);
+    }
+    painter.glEnd();
+  }
+
+  /** Compute bounds by reading all positions. NaN coordinates are ignored. */
+  @Override
+  public void updateBounds() {
+    BoundingBox3d bounds = new BoundingBox3d();
+    int start = positions.position();
+    int end = positions.limit();
+
+    for (int i = start; i < end; i += 3) {
+      float x = positions.get(i);
+      float y = positions.get(i + 1);
+      float z = positions.get(i + 2);
+      if (x == x && y == y && z == z)
+        bounds.add(x, y, z);
+    }
+    bbox = bounds;
+  }
+
+  /** Not supported as buffers may be read only. */
+  @Override
+  public void applyGeometryTransform(Transform transform) {
+    LogManager.getLogger(BufferScatter.class).warn("not implemented");
+  }
+
+  /* */
+
+  /** Return the number of points. */
+  public int size() {
+    return positions.remaining() / 3;
+  }
+
+  public FloatBuffer getPositions() {
+    return positions;
+  }
+
+  public FloatBuffer getColors() {
+    return colors;
+  }
+
+  public int getColorChannels() {
+    return colorChannels;
+  }
+
+  public float getWidth() {
+    return width;
+  }
+
+  public void setWidth(float width) {
+    this.width = width;
+  }
+
+  /** Color of all points, used if no color buffer is given. */
+  @Override
+  public void setColor(Color color) {
+    this.color = color;
+
+    fireDrawableChanged(new DrawableChangedEvent(this, DrawableChangedEvent.FIELD_COLOR));
+  }
+
+  @Override
+  public Color getColor() {
+    return color;
+  }
+
+  @Override
+  public String toString(int depth) {
+    return Utils.blanks(depth) + "(" + this.getClass().getSimpleName() + ") #points:" + size();
+  }
+}
@@ -47,6 +47,7 @@ public class Composite extends Wireframeable implements ISingleColorable, IMulti
     synchronized (components) {
       components.addAll(drawables);
     }
+    fireDrawableChanged(DrawableChangedEvent.FIELD_DATA);
   }
 
   /** Clear the list of Drawables from this composite. */
@@ -54,6 +55,7 @@ public class Composite extends Wireframeable implements ISingleColorable, IMulti
     synchronized (components) {
       components.clear();
     }
+    fireDrawableChanged(DrawableChangedEvent.FIELD_DATA);
   }
 
   /** Add a Drawable to this composite. */
@@ -61,6 +63,7 @@ public class Composite extends Wireframeable implements ISingleColorable, IMulti
     synchronized (components) {
       components.add(drawable);
     }
+    fireDrawableChanged(DrawableChangedEvent.FIELD_DATA);
   }
 
   /** Remove a Drawable from this composite. */
@@ -68,6 +71,7 @@ public class Composite extends Wireframeable implements ISingleColorable, IMulti
     synchronized (components) {
       components.remove(drawable);
     }
+    fireDrawableChanged(DrawableChangedEvent.FIELD_DATA);
   }
 
   /** Get a Drawable stored by this composite. */
@@ -264,6 +268,9 @@ public class Composite extends Wireframeable implements ISingleColorable, IMulti
         }
       }
     }
+
+    // decomposability depends on face status
+    fireDrawableChanged(DrawableChangedEvent.FIELD_DISPLAYED);
   }
 
   @Override
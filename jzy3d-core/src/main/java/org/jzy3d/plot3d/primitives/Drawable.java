@@ -1,7 +1,7 @@
 package org.jzy3d.plot3d.primitives;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.jzy3d.colors.Color;
 import org.jzy3d.events.DrawableChangedEvent;
 import org.jzy3d.events.IDrawableListener;
@@ -231,8 +231,9 @@ public abstract class Drawable implements IGLRenderer, ISortableDraw {
   /* */
 
   public void addDrawableListener(IDrawableListener listener) {
+    // listeners may be added by a rendering thread while another thread fires a change
     if (listeners == null)
-      listeners = new ArrayList<IDrawableListener>();
+      listeners = new CopyOnWriteArrayList<IDrawableListener>();
     listeners.add(listener);
     hasListeners = true;
   }
@@ -0,0 +1,181 @@
+package org.jzy3d.plot3d.primitives;
+
+import java.util.Collections;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.painters.IPainter;
+import org.jzy3d.plot3d.rendering.view.Camera;
+import org.jzy3d.plot3d.rendering.view.lod.GeometricLODSetting;
+import org.jzy3d.plot3d.rendering.view.lod.HeightField;
+import org.jzy3d.plot3d.rendering.view.lod.LODQuadtree;
+import org.jzy3d.plot3d.rendering.view.lod.LODQuadtree.Tessellation;
+import org.jzy3d.plot3d.rendering.view.lod.LODQuadtree.Tile;
+import org.jzy3d.plot3d.transform.Transform;
+
+/**
+ * A surface drawing a {@link HeightField} with a resolution adapted to the screen : before each
+ * rendering, the tiles of a {@link LODQuadtree} are projected with
+ * {@link Camera#modelToScreen(IPainter, Coord3d[])} and refined until their cells are smaller than
+ * {@link #getTolerance()} pixels, or until {@link #getMaxFaces()} quads are reached.
+ *
+ * The memory used for drawing is hence bounded by the number of faces rather than by the size of
+ * the field, which allows rotating 8192x8192 grids. Quads are rebuilt only when the selected tiles
+ * change, and drawn as an {@link ArrayMesh}, which let them be colored with a
+ * {@link org.jzy3d.colors.ColorMapper}.
+ *
+ * The tolerance can be driven by the rendering performance with {@link GeometricLODSetting}.
+ *
+ * <pre>
+ * <code>
+ * HeightField field = HeightField.of(mapper, new Range(-3, 3), 8192, new Range(-3, 3), 8192);
+ * LODSurface surface = new LODSurface(field);
+ * surface.setColorMapper(new ColorMapper(new ColorMapRainbow(), surface));
+ * chart.add(surface, GeometricLODSetting.candidates(1, 2, 4, 8, 16));
+ * </code>
+ * </pre>
+ *
+ * @author Martin Pernollet
+ */
+public class LODSurface extends ArrayMesh {
+  public static final double DEFAULT_TOLERANCE = 4;
+  public static final int DEFAULT_MAX_FACES = 500000;
+
+  protected LODQuadtree quadtree;
+  protected double tolerance = DEFAULT_TOLERANCE;
+  protected int maxFaces = DEFAULT_MAX_FACES;
+  protected List<Tile> selection = Collections.emptyList();
+
+  public LODSurface(HeightField field) {
+    this(new LODQuadtree(field));
+  }
+
+  public LODSurface(LODQuadtree quadtree) {
+    super(new float[0], new int[0], 4);
+    this.quadtree = quadtree;
+    setFaceOrdering(false);
+    updateBounds();
+  }
+
+  @Override
+  public void draw(IPainter painter) {
+    doTransform(painter);
+    update(painter);
+    super.draw(painter);
+  }
+
+  /**
+   * Select the tiles to draw according to the current projection of the painter and rebuild the
+   * quads if the selection changed. Invoked by {@link #draw(IPainter)} after the drawable
+   * transform is applied.
+   */
+  public void update(IPainter painter) {
+    Camera camera = painter.getCamera();
+
+    if (camera == null) {
+      if (selection.isEmpty())
+        setSelection(quadtree.select(box -> -1, tolerance, maxFaces));
+      return;
+    }
+
+    int[] viewport = painter.getViewPortAsInt();
+    setSelection(
+        quadtree.select(box -> pixels(painter, camera, viewport, box), tolerance, maxFaces));
+  }
+
+  /** Rebuild the quads if the tiles differ from the drawn ones. */
+  public void setSelection(List<Tile> tiles) {
+    if (tiles.equals(selection))
+      return;
+
+    Tessellation tessellation = quadtree.tessellate(tiles);
+    selection = tiles;
+    positions = tessellation.getPositions();
+    indices = tessellation.getIndices();
+    colors = null;
+    invalidate();
+  }
+
+  /**
+   * Return the largest side of the screen rectangle covering the box, or -1 if the box is out of
+   * the viewport. A box crossing the near plane of the camera is considered infinitely large.
+   */
+  protected double pixels(IPainter painter, Camera camera, int[] viewport, BoundingBox3d box) {
+    Coord3d[] corners = box.getVertices().toArray(new Coord3d[8]);
+
+    if (spaceTransformer != null)
+      for (int i = 0; i < corners.length; i++)
+        corners[i] = spaceTransformer.compute(corners[i]);
+
+    Coord3d[] screen = camera.modelToScreen(painter, corners);
+
+    float xmin = Float.POSITIVE_INFINITY, xmax = Float.NEGATIVE_INFINITY;
+    float ymin = Float.POSITIVE_INFINITY, ymax = Float.NEGATIVE_INFINITY;
+
+    for (Coord3d s : screen) {
+      if (s.z < 0 || s.z > 1)
+        return Double.POSITIVE_INFINITY;
+      xmin = Math.min(xmin, s.x);
+      xmax = Math.max(xmax, s.x);
+      ymin = Math.min(ymin, s.y);
+      ymax = Math.max(ymax, s.y);
+    }
+
+    if (xmax < viewport[0] || xmin > viewport[0] + viewport[2] || ymax < viewport[1]
+        || ymin > viewport[1] + viewport[3])
+      return -1;
+
+    return Math.max(xmax - xmin, ymax - ymin);
+  }
+
+  /** Bounds of the whole field, whatever the drawn tiles. */
+  @Override
+  public void updateBounds() {
+    if (quadtree == null)
+      super.updateBounds();
+    else
+      bbox = quadtree.getBounds();
+  }
+
+  @Override
+  public void applyGeometryTransform(Transform transform) {
+    LogManager.getLogger(LODSurface.class).warn("not implemented");
+  }
+
+  /* */
+
+  public LODQuadtree getQuadtree() {
+    return quadtree;
+  }
+
+  /** The tiles drawn by the last rendering. */
+  public List<Tile> getSelection() {
+    return selection;
+  }
+
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  /**
+   * Set the largest screen size of a cell, in pixels, under which tiles are not refined anymore.
+   * The lower, the more detailed.
+   */
+  public void setTolerance(double tolerance) {
+    if (tolerance <= 0)
+      throw new IllegalArgumentException("Tolerance must be positive : " + tolerance);
+    this.tolerance = tolerance;
+  }
+
+  public int getMaxFaces() {
+    return maxFaces;
+  }
+
+  /** Set the maximum number of quads drawn, whatever the tolerance. */
+  public void setMaxFaces(int maxFaces) {
+    if (maxFaces < 1)
+      throw new IllegalArgumentException("Max faces must be positive : " + maxFaces);
+    this.maxFaces = maxFaces;
+  }
+}
@@ -0,0 +1,465 @@
+package org.jzy3d.plot3d.primitives;
+
+import java.nio.FloatBuffer;
+import org.apache.logging.log4j.LogManager;
+import org.jzy3d.colors.Color;
+import org.jzy3d.colors.ColorMapper;
+import org.jzy3d.colors.IMultiColorable;
+import org.jzy3d.colors.ISingleColorable;
+import org.jzy3d.events.DrawableChangedEvent;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Utils;
+import org.jzy3d.painters.IPainter;
+import org.jzy3d.plot3d.transform.Transform;
+
+/**
+ * A scatter made to plot live feeds, where a producer thread appends samples while the rendering
+ * thread draws them.
+ *
+ * Samples are stored in a fixed capacity ring buffer made of primitive arrays. Appending a sample
+ * with {@link #add(float, float, float, long)} does not lock and does not allocate : the producer
+ * writes the sample in the ring, then publishes it by incrementing a volatile counter. When the
+ * ring is full, the oldest samples are overwritten. Samples older than
+ * {@link #setTimeWindow(long)} are evicted as well.
+ *
+ * The rendering thread copies the samples published since the previous frame to its own arrays,
+ * and discards the ones that the producer may have overwritten while copying. Bounds and the
+ * {@link ColorMapper} range are then updated incrementally with sliding window minimum and maximum
+ * queues, so that each sample is processed once and not at each frame.
+ *
+ * This class supports a single producer thread. Several producers must synchronize their calls to
+ * add.
+ *
+ * @author Martin Pernollet
+ */
+public class StreamingScatter extends Drawable implements ISingleColorable, IMultiColorable {
+  protected int capacity;
+
+  // ring written by the producer, one more slot than the capacity to let the consumer ignore
+  // the slot being written
+  protected int slots;
+  protected float[] producerXYZ;
+  protected long[] producerTime;
+  protected volatile long published = 0;
+
+  // mirror read by the consumer, using the same slots
+  protected float[] xyz;
+  protected float[] z;
+  protected long[] time;
+  protected float[] rgba;
+
+  // window of samples to draw, as absolute sample indices
+  protected long start = 0;
+  protected long end = 0;
+  protected long cleared = 0;
+
+  protected long timeWindow = 0;
+
+  // sliding window extrema for each dimension
+  protected WindowExtremum[] minimums = new WindowExtremum[3];
+  protected WindowExtremum[] maximums = new WindowExtremum[3];
+
+  protected ColorMapper mapper;
+  protected boolean colorMapperRangeUpdated = true;
+  protected boolean colorsDirty = false;
+  protected Color rgb = Color.BLACK.clone();
+  protected float width = 1;
+
+  protected Color workColor = new Color(0, 0, 0);
+
+  /**
+   * Create a scatter keeping the given number of samples at most.
+   */
+  public StreamingScatter(int capacity) {
+    if (capacity < 1)
+      throw new IllegalArgumentException("Capacity must be positive : " + capacity);
+
+    this.capacity = capacity;
+    this.slots = capacity + 1;
+    this.producerXYZ = new float[slots * 3];
+    this.producerTime = new long[slots];
+    this.xyz = new float[slots * 3];
+    this.z = new float[slots];
+    this.time = new long[slots];
+
+    for (int d = 0; d < 3; d++) {
+      minimums[d] = new WindowExtremum(d, true);
+      maximums[d] = new WindowExtremum(d, false);
+    }
+
+    bbox = new BoundingBox3d();
+  }
+
+  public StreamingScatter(int capacity, ColorMapper mapper) {
+    this(capacity);
+    setColorMapper(mapper);
+  }
+
+  /* PRODUCER */
+
+  /** Append a sample stamped with the current time in milliseconds. */
+  public void add(float x, float y, float z) {
+    add(x, y, z, System.currentTimeMillis());
+  }
+
+  /**
+   * Append a sample without locking. Timestamps are expected to be given in increasing order, in
+   * the same unit than {@link #setTimeWindow(long)}.
+   */
+  public void add(float x, float y, float z, long timestamp) {
+    long index = published;
+    int slot = (int) (index % slots);
+
+    producerXYZ[slot * 3] = x;
+    producerXYZ[slot * 3 + 1] = y;
+    producerXYZ[slot * 3 + 2] = z;
+    producerTime[slot] = timestamp;
+
+    // volatile write, publishing the sample to the consumer
+    published = index + 1;
+  }
+
+  public void add(Coord3d c) {
+    add(c.x, c.y, c.z);
+  }
+
+  /** Return the number of samples appended since the creation of this scatter. */
+  public long getPublishedCount() {
+    return published;
+  }
+
+  /* CONSUMER */
+
+  /**
+   * Collect the samples published since the last update, evict the samples that went out of the
+   * ring or of the time window, and update bounds and colors accordingly. This is invoked before
+   * drawing and when reading bounds.
+   */
+  public synchronized void update() {
+    long available = published;
+    long from = Math.max(end, available - capacity);
+
+    // copy the samples published since the last update
+    for (long i = from; i < available; i++) {
+      int slot = (int) (i % slots);
+      xyz[slot * 3] = producerXYZ[slot * 3];
+      xyz[slot * 3 + 1] = producerXYZ[slot * 3 + 1];
+      xyz[slot * 3 + 2] = producerXYZ[slot * 3 + 2];
+      z[slot] = xyz[slot * 3 + 2];
+      time[slot] = producerTime[slot];
+    }
+
+    // the producer may have overwritten the oldest samples while they were copied : the sample
+    // it is writing now goes to the slot of sample (published - slots), hence only samples
+    // after this one are known to be intact
+    long overwritten = published - capacity;
+
+    long newStart = Math.max(Math.max(start, cleared), overwritten);
+
+    if (available > 0 && timeWindow > 0) {
+      long oldest = time[(int) ((available - 1) % slots)] - timeWindow;
+      long first = newStart;
+      while (first < available && time[(int) (first % slots)] < oldest)
+        first++;
+      newStart = first;
+    }
+
+    from = Math.max(from, newStart);
+    end = available;
+    start = Math.min(newStart, end);
+
+    for (int d = 0; d < 3; d++) {
+      minimums[d].evictBefore(start);
+      maximums[d].evictBefore(start);
+
+      for (long i = from; i < end; i++) {
+        minimums[d].push(i);
+        maximums[d].push(i);
+      }
+    }
+
+    updateBoundsFromExtremums();
+    updateColors(from);
+  }
+
+  protected void updateBoundsFromExtremums() {
+    bbox.reset();
+
+    if (!minimums[0].isEmpty() && !minimums[1].isEmpty() && !minimums[2].isEmpty()) {
+      bbox.add(minimums[0].value(), minimums[1].value(), minimums[2].value());
+      bbox.add(maximums[0].value(), maximums[1].value(), maximums[2].value());
+    }
+  }
+
+  /**
+   * Compute colors of the samples starting at the given index, or of all samples if the mapper
+   * range has changed. Colors are given by {@link ColorMapper#getColors(float[], int, int, float[])}
+   * according to the Z value of the samples.
+   */
+  protected void updateColors(long from) {
+    if (mapper == null)
+      return;
+
+    if (rgba == null)
+      rgba = new float[slots * 4];
+
+    if (colorsDirty) {
+      from = start;
+      colorsDirty = false;
+    }
+
+    if (colorMapperRangeUpdated && !minimums[2].isEmpty()) {
+      double min = minimums[2].value();
+      double max = maximums[2].value();
+
+      if (min != mapper.getMin() || max != mapper.getMax()) {
+        mapper.setMin(min);
+        mapper.setMax(max);
+        from = start;
+      }
+    }
+
+    if (from >= end)
+      return;
+
+    // the samples may wrap around the end of the ring
+    int first = (int) (from % slots);
+    int count = (int) (end - from);
+    int firstCount = Math.min(count, slots - first);
+
+    mapper.getColors(z, first, first + firstCount, rgba);
+
+    if (firstCount < count)
+      mapper.getColors(z, 0, count - firstCount, rgba);
+  }
+
+  /** Return the number of samples that will be drawn, as of the last {@link #update()}. */
+  public synchronized int size() {
+    return (int) (end - start);
+  }
+
+  /** Return a sample drawn at the last update, the oldest sample having index 0. */
+  public synchronized Coord3d get(int i) {
+    int slot = (int) ((start + i) % slots);
+    return new Coord3d(xyz[slot * 3], xyz[slot * 3 + 1], xyz[slot * 3 + 2]);
+  }
+
+  /** Evict all samples published until now. */
+  public synchronized void clear() {
+    cleared = published;
+    update();
+  }
+
+  /* DRAWING */
+
+  @Override
+  public void draw(IPainter painter) {
+    doTransform(painter);
+
+    synchronized (this) {
+      update();
+      doDrawPoints(painter);
+    }
+
+    doDrawBoundsIfDisplayed(painter);
+  }
+
+  protected void doDrawPoints(IPainter painter) {
+    int count = (int) (end - start);
+
+    if (count == 0)
+      return;
+
+    painter.glPointSize(width);
+
+    if (mapper == null)
+      painter.color(rgb);
+
+    if (spaceTransformer != null) {
+      painter.glBegin_Point();
+      for (long i = start; i < end; i++) {
+        int slot = (int) (i % slots);
+        if (mapper != null) {
+          workColor.r = rgba[slot * 4];
+          workColor.g = rgba[slot * 4 + 1];
+          workColor.b = rgba[slot * 4 + 2];
+          workColor.a = rgba[slot * 4 + 3];
+          painter.color(workColor);
+        }
+        painter.vertex(xyz[slot * 3], xyz[slot * 3 + 1], xyz[slot * 3 + 2], spaceTransformer);
+      }
+      painter.glEnd();
+      return;
+    }
+
+    painter.glEnableClientState_VertexArray();
+    painter.glVertexPointer_Float(3, 0, FloatBuffer.wrap(xyz));
+
+    if (mapper != null) {
+      painter.glEnableClientState_ColorArray();
+      painter.glColorPointer_Float(4, 0, FloatBuffer.wrap(rgba));
+    }
+
+    // the window may wrap around the end of the ring
+    int first = (int) (start % slots);
+    int firstCount = Math.min(count, slots - first);
+
+    painter.glDrawArrays_Points(first, firstCount);
+
+    if (firstCount < count)
+      painter.glDrawArrays_Points(0, count - firstCount);
+
+    if (mapper != null)
+      painter.glDisableClientState_ColorArray();
+
+    painter.glDisableClientState_VertexArray();
+  }
+
+  /* BOUNDS */
+
+  /** Return a copy of the bounds, as they are modified by the rendering thread. */
+  @Override
+  public synchronized BoundingBox3d getBounds() {
+    update();
+    return bbox.clone();
+  }
+
+  @Override
+  public void updateBounds() {
+    update();
+  }
+
+  /** Not supported as samples are owned by the producer. */
+  @Override
+  public void applyGeometryTransform(Transform transform) {
+    LogManager.getLogger(StreamingScatter.class).warn("not implemented");
+  }
+
+  /* SETTINGS */
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getTimeWindow() {
+    return timeWindow;
+  }
+
+  /**
+   * Evict samples which timestamp is older than the timestamp of the last sample minus the given
+   * duration. A value of 0 disables time based eviction, in which case only the capacity limits
+   * the number of samples.
+   */
+  public synchronized void setTimeWindow(long timeWindow) {
+    this.timeWindow = timeWindow;
+  }
+
+  public boolean isColorMapperRangeUpdated() {
+    return colorMapperRangeUpdated;
+  }
+
+  /**
+   * If true, the minimum and maximum of the {@link ColorMapper} follow the Z range of the samples
+   * currently displayed. Otherwise the mapper range is left unchanged.
+   */
+  public void setColorMapperRangeUpdated(boolean colorMapperRangeUpdated) {
+    this.colorMapperRangeUpdated = colorMapperRangeUpdated;
+  }
+
+  public float getWidth() {
+    return width;
+  }
+
+  public void setWidth(float width) {
+    this.width = width;
+  }
+
+  @Override
+  public synchronized void setColorMapper(ColorMapper mapper) {
+    this.mapper = mapper;
+
+    // colors of all displayed samples must be computed again
+    this.colorsDirty = true;
+
+    fireDrawableChanged(new DrawableChangedEvent(this, DrawableChangedEvent.FIELD_COLOR));
+  }
+
+  @Override
+  public ColorMapper getColorMapper() {
+    return mapper;
+  }
+
+  @Override
+  public void setColor(Color color) {
+    this.rgb = color;
+
+    fireDrawableChanged(new DrawableChangedEvent(this, DrawableChangedEvent.FIELD_COLOR));
+  }
+
+  @Override
+  public Color getColor() {
+    return rgb;
+  }
+
+  @Override
+  public String toString(int depth) {
+    return Utils.blanks(depth) + "(" + this.getClass().getSimpleName() + ") #samples:" + size()
+        + "/" + capacity;
+  }
+
+  /* */
+
+  /**
+   * Keep the minimum or maximum of a dimension over a sliding window of samples, with a monotonic
+   * queue of sample indices. Each sample enters and leaves the queue once, hence the extremum is
+   * maintained in amortized constant time per sample. NaN values are ignored.
+   */
+  protected class WindowExtremum {
+    protected int dimension;
+    protected boolean minimum;
+    protected long[] queue = new long[slots];
+    protected long head = 0;
+    protected long tail = 0;
+
+    public WindowExtremum(int dimension, boolean minimum) {
+      this.dimension = dimension;
+      this.minimum = minimum;
+    }
+
+    public void push(long index) {
+      float v = valueAt(index);
+
+      if (Float.isNaN(v))
+        return;
+
+      // remove samples that can not be an extremum anymore
+      while (tail > head) {
+        float last = valueAt(queue[(int) ((tail - 1) % slots)]);
+        if (minimum ? last >= v : last <= v)
+          tail--;
+        else
+          break;
+      }
+      queue[(int) (tail % slots)] = index;
+      tail++;
+    }
+
+    public void evictBefore(long index) {
+      while (tail > head && queue[(int) (head % slots)] < index)
+        head++;
+    }
+
+    public boolean isEmpty() {
+      return tail == head;
+    }
+
+    public float value() {
+      return valueAt(queue[(int) (head % slots)]);
+    }
+
+    protected float valueAt(long index) {
+      return xyz[(int) (index % slots) * 3 + dimension];
+    }
+  }
+}
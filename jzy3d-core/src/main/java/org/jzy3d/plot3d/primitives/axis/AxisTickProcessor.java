@@ -1,5 +1,6 @@
 package org.jzy3d.plot3d.primitives.axis;
 
+import java.util.Arrays;
 import org.jzy3d.colors.Color;
 import org.jzy3d.maths.BoundingBox3d;
 import org.jzy3d.maths.Coord2d;
@@ -7,6 +8,7 @@ import org.jzy3d.maths.Coord3d;
 import org.jzy3d.painters.IPainter;
 import org.jzy3d.plot3d.primitives.axis.layout.IAxisLayout;
 import org.jzy3d.plot3d.primitives.axis.layout.LabelOrientation;
+import org.jzy3d.plot3d.primitives.axis.layout.renderers.ITickRenderer;
 import org.jzy3d.plot3d.rendering.view.Camera;
 import org.jzy3d.plot3d.text.align.Horizontal;
 import org.jzy3d.plot3d.text.align.Vertical;
@@ -22,6 +24,9 @@ public class AxisTickProcessor {
   protected IAxisLayout layout;
   protected AxisLabelProcessor labels;
 
+  /** Formatted tick labels of each dimension, kept until the ticks or their renderer change. */
+  protected TickLabels[] tickLabels = new TickLabels[3];
+
   public AxisTickProcessor(AxisBox axis) {
     this.axis = axis;
     this.layout = axis.getLayout();
@@ -154,7 +159,7 @@ public class AxisTickProcessor {
           zlab = (axis.zrange / tickLength) * zdir + zpos;
 
           // Tick label
-          tickLabel = layout.getXTickRenderer().format(ticks[t]);
+          tickLabel = tickLabel(dimension, layout.getXTickRenderer(), ticks, t);
 
         } else if (axis.isY(dimension)) {
 
@@ -165,7 +170,7 @@ public class AxisTickProcessor {
           zlab = (axis.zrange / tickLength) * zdir + zpos;
 
           // Tick label
-          tickLabel = layout.getYTickRenderer().format(ticks[t]);
+          tickLabel = tickLabel(dimension, layout.getYTickRenderer(), ticks, t);
 
         } else { // (axis==AXE_Z)
 
@@ -176,7 +181,7 @@ public class AxisTickProcessor {
           zlab = zpos;
 
           // Tick label
-          tickLabel = layout.getZTickRenderer().format(ticks[t]);
+          tickLabel = tickLabel(dimension, layout.getZTickRenderer(), ticks, t);
         }
       } else {
         // use space transform shift if we have a space transformer
@@ -189,7 +194,7 @@ public class AxisTickProcessor {
           zlab = Math.signum(tickLength * ydir)
               * (axis.zrange / axis.spaceTransformer.getZ().compute(Math.abs(tickLength)))
               * axis.spaceTransformer.getZ().compute(Math.abs(zdir)) + zpos;
-          tickLabel = layout.getXTickRenderer().format(ticks[t]);
+          tickLabel = tickLabel(dimension, layout.getXTickRenderer(), ticks, t);
         } else if (axis.isY(dimension)) {
           ypos = axis.spaceTransformer.getY().compute((float) ticks[t]);
           xlab = Math.signum(tickLength * xdir)
@@ -199,7 +204,7 @@ public class AxisTickProcessor {
           zlab = Math.signum(tickLength * zdir)
               * (axis.zrange / axis.spaceTransformer.getZ().compute(Math.abs(tickLength)))
               * axis.spaceTransformer.getZ().compute(Math.abs(zdir)) + zpos;
-          tickLabel = layout.getYTickRenderer().format(ticks[t]);
+          tickLabel = tickLabel(dimension, layout.getYTickRenderer(), ticks, t);
         } else { // (axis==AXE_Z)
           zpos = axis.spaceTransformer.getZ().compute((float) ticks[t]);
           xlab = Math.signum(tickLength * xdir)
@@ -209,7 +214,7 @@ public class AxisTickProcessor {
               * (axis.yrange / axis.spaceTransformer.getY().compute(Math.abs(tickLength)))
               * axis.spaceTransformer.getY().compute(Math.abs(ydir)) + ypos;
           zlab = zpos;
-          tickLabel = layout.getZTickRenderer().format(ticks[t]);
+          tickLabel = tickLabel(dimension, layout.getZTickRenderer(), ticks, t);
         }
       }
       Coord3d tickLabelPosition = new Coord3d(xlab, ylab, zlab);
@@ -243,6 +248,47 @@ public class AxisTickProcessor {
     return info;
   }
 
+  /**
+   * Return the label of the tick t, formatted by the renderer only if the ticks or the renderer of
+   * this dimension changed since the labels were last formatted.
+   */
+  protected String tickLabel(int dimension, ITickRenderer renderer, double[] ticks, int t) {
+    TickLabels labels = tickLabels[dimension];
+
+    if (labels == null || !labels.isFormatOf(renderer, ticks)) {
+      labels = new TickLabels(renderer, ticks);
+      tickLabels[dimension] = labels;
+    }
+    return labels.labels[t];
+  }
+
+  /**
+   * Format tick labels again at next rendering, which is required if a tick renderer changes its
+   * format without being replaced in the layout.
+   */
+  public void clearTickLabels() {
+    Arrays.fill(tickLabels, null);
+  }
+
+  protected static class TickLabels {
+    protected final ITickRenderer renderer;
+    protected final double[] ticks;
+    protected final String[] labels;
+
+    public TickLabels(ITickRenderer renderer, double[] ticks) {
+      this.renderer = renderer;
+      this.ticks = ticks.clone();
+      this.labels = new String[ticks.length];
+
+      for (int t = 0; t < ticks.length; t++)
+        labels[t] = renderer.format(ticks[t]);
+    }
+
+    public boolean isFormatOf(ITickRenderer renderer, double[] ticks) {
+      return this.renderer == renderer && Arrays.equals(this.ticks, ticks);
+    }
+  }
+
   public void drawAxisTickNumericLabel(IPainter painter, int direction, Color color,
       Horizontal hAlign, Vertical vAlign, BoundingBox3d ticksTxtBounds, String tickLabel,
       Coord3d tickPosition) {
@@ -2,7 +2,6 @@ package org.jzy3d.plot3d.primitives.contour;
 
 import java.util.ArrayList;
 import java.util.List;
-import org.jzy3d.contour.MapperContourPictureGenerator;
 import org.jzy3d.plot3d.primitives.Composite;
 import org.jzy3d.plot3d.primitives.Drawable;
 import org.jzy3d.plot3d.primitives.LineStrip;
@@ -48,6 +47,15 @@ public class ContourLevel extends Composite {
     return lines;
   }
 
+  public ILineStripMergePolicy getMergePolicy() {
+    return policy;
+  }
+
+  /** Set the policy deciding which existing strip {@link #appendLine(LineStrip)} merges with. */
+  public void setMergePolicy(ILineStripMergePolicy policy) {
+    this.policy = policy;
+  }
+
   public void appendLine(LineStrip strip) {
     LineStrip friend = policy.mostMergeableIfAny(strip, lines);
     if (friend != null) {
@@ -75,8 +83,11 @@ public class ContourLevel extends Composite {
       components.add(strip);
   }
 
+  /** Default distance under which {@link #appendLine(LineStrip)} merges a strip with another. */
+  public static final int DEFAULT_MERGE_STRIP_DIST = 1;
+
   protected ILineStripMergePolicy policy =
-      new DefaultLineStripMergePolicy(MapperContourPictureGenerator.MERGE_STRIP_DIST);
+      new DefaultLineStripMergePolicy(DEFAULT_MERGE_STRIP_DIST);
 
   protected int id;
   protected float value;
@@ -14,10 +14,16 @@ public class ContourLevels {
 
   public void setLevelLine(double level, LineStrip strip) {
     ContourLevel line = new ContourLevel((float) level);
+    line.setMergePolicy(new DefaultLineStripMergePolicy(mergeStripDistance));
     line.appendLine(strip);
     lines.put(level, line);
   }
 
+  /** Set the lines of a level at once, replacing existing ones without merging them. */
+  public void setContourLevel(double level, ContourLevel contourLevel) {
+    lines.put(level, contourLevel);
+  }
+
   public void appendLevelLine(double level, LineStrip strip) {
     ContourLevel line = lines.get(level);
     if (line != null)
@@ -37,5 +43,19 @@ public class ContourLevels {
     return lines.values();
   }
 
+  public int getMergeStripDistance() {
+    return mergeStripDistance;
+  }
+
+  /**
+   * Set the distance under which a strip appended to a level is merged with an existing strip of
+   * this level. Applies to the levels created afterward.
+   */
+  public void setMergeStripDistance(int mergeStripDistance) {
+    this.mergeStripDistance = mergeStripDistance;
+  }
+
+  protected int mergeStripDistance = ContourLevel.DEFAULT_MERGE_STRIP_DIST;
+
   Map<Double, ContourLevel> lines = new HashMap<Double, ContourLevel>();
 }
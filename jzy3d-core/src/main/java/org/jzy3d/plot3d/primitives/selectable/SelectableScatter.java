@@ -48,15 +48,43 @@ public class SelectableScatter extends Scatter implements ISingleColorable, Sele
 
   }
 
+  /**
+   * Project all points at once in {@link #getProjectionArray()}, which is reused by the next
+   * projections as long as the number of points does not change.
+   */
   @Override
   public void project(IPainter painter, Camera cam) {
-    projection = cam.modelToScreen(painter, getData());
+    int length = coordinates.length * 3;
+    if (projectionArray == null || projectionArray.length != length)
+      projectionArray = new float[length];
+
+    cam.modelToScreen(painter, coordinates, projectionArray);
+    projection = null;
   }
 
+  /**
+   * Return the last projection as coordinates, built from {@link #getProjectionArray()} at first
+   * call after a projection. Prefer {@link #getProjectionArray()} for large scatters.
+   */
   public Coord3d[] getProjection() {
+    if (projection == null && projectionArray != null) {
+      Coord3d[] coords = new Coord3d[projectionArray.length / 3];
+      for (int i = 0; i < coords.length; i++)
+        coords[i] = new Coord3d(projectionArray[i * 3], projectionArray[i * 3 + 1],
+            projectionArray[i * 3 + 2]);
+      projection = coords;
+    }
     return projection;
   }
 
+  /**
+   * Return the last projection as interleaved x,y,z screen coordinates, or null if the scatter was
+   * not projected yet. Do not edit.
+   */
+  public float[] getProjectionArray() {
+    return projectionArray;
+  }
+
   public Color getHighlightColor() {
     return highlightColor;
   }
@@ -115,5 +143,6 @@ public class SelectableScatter extends Scatter implements ISingleColorable, Sele
   protected Color highlightColor = Color.RED.clone();
 
   protected Coord3d[] projection;
+  protected float[] projectionArray;
 
 }
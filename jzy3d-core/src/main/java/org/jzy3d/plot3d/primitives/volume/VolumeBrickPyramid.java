@@ -0,0 +1,203 @@
+package org.jzy3d.plot3d.primitives.volume;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The minimum and maximum values of the bricks of a {@link VoxelGrid} at several resolutions, to
+ * skip the parts of a volume that a transfer function renders transparent.
+ *
+ * Level 0 splits the grid in bricks of {@link #BRICK_SIZE} voxels along each axis, and each level
+ * merges 2x2x2 bricks of the previous one, up to a single brick. The brick (bx,by,bz) of a level
+ * having bricks of size s bounds the values sampled at positions in [bx*s, (bx+1)*s) along X, and
+ * so on for Y and Z : its minimum and maximum include the voxels of the next brick that a trilinear
+ * interpolation reads.
+ *
+ * @author Martin Pernollet
+ */
+public class VolumeBrickPyramid {
+  /** Number of voxels along each axis of a brick of level 0. */
+  public static final int BRICK_SIZE = 8;
+
+  protected final VoxelGrid voxels;
+  /** Minimum and maximum of each brick, per level */
+  protected float[][] mins;
+  protected float[][] maxs;
+  /** Number of bricks along X, Y and Z, per level */
+  protected int[][] bricks;
+
+  /** Build the pyramid, computing the bricks of level 0 on the common pool. */
+  public VolumeBrickPyramid(VoxelGrid voxels) {
+    this(voxels, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param pool the pool computing the bricks of level 0, or null to compute them on the calling
+   *        thread.
+   */
+  public VolumeBrickPyramid(VoxelGrid voxels, ForkJoinPool pool) {
+    this.voxels = voxels;
+
+    int bx = bricks(voxels.getWidth(), BRICK_SIZE);
+    int by = bricks(voxels.getHeight(), BRICK_SIZE);
+    int bz = bricks(voxels.getDepth(), BRICK_SIZE);
+
+    int levels = 1;
+    for (int n = Math.max(bx, Math.max(by, bz)); n > 1; n = (n + 1) / 2)
+      levels++;
+
+    mins = new float[levels][];
+    maxs = new float[levels][];
+    bricks = new int[levels][];
+
+    bricks[0] = new int[] {bx, by, bz};
+    mins[0] = new float[bx * by * bz];
+    maxs[0] = new float[bx * by * bz];
+
+    if (pool != null && bz > 1)
+      pool.invoke(new BrickTask(0, bz));
+    else
+      computeBricks(0, bz);
+
+    for (int level = 1; level < levels; level++)
+      merge(level);
+  }
+
+  protected static int bricks(int voxels, int size) {
+    return Math.max(1, (voxels - 1 + size - 1) / size);
+  }
+
+  /** Compute the bricks of level 0 having a Z index in [from, to). */
+  protected void computeBricks(int from, int to) {
+    int nx = voxels.getWidth();
+    int ny = voxels.getHeight();
+    int nz = voxels.getDepth();
+    int bx = bricks[0][0];
+    int by = bricks[0][1];
+
+    for (int k = from; k < to; k++) {
+      for (int j = 0; j < by; j++) {
+        for (int i = 0; i < bx; i++) {
+          float min = Float.POSITIVE_INFINITY;
+          float max = Float.NEGATIVE_INFINITY;
+
+          int zTo = Math.min(nz - 1, (k + 1) * BRICK_SIZE);
+          int yTo = Math.min(ny - 1, (j + 1) * BRICK_SIZE);
+          int xTo = Math.min(nx - 1, (i + 1) * BRICK_SIZE);
+
+          for (int z = k * BRICK_SIZE; z <= zTo; z++) {
+            for (int y = j * BRICK_SIZE; y <= yTo; y++) {
+              int index = voxels.index(i * BRICK_SIZE, y, z);
+              for (int x = i * BRICK_SIZE; x <= xTo; x++, index++) {
+                float v = voxels.get(index);
+                if (v < min)
+                  min = v;
+                if (v > max)
+                  max = v;
+              }
+            }
+          }
+          int b = (k * by + j) * bx + i;
+          mins[0][b] = min;
+          maxs[0][b] = max;
+        }
+      }
+    }
+  }
+
+  /** Compute a level from the previous one. */
+  protected void merge(int level) {
+    int[] child = bricks[level - 1];
+    int bx = (child[0] + 1) / 2;
+    int by = (child[1] + 1) / 2;
+    int bz = (child[2] + 1) / 2;
+    bricks[level] = new int[] {bx, by, bz};
+    mins[level] = new float[bx * by * bz];
+    maxs[level] = new float[bx * by * bz];
+
+    for (int k = 0; k < bz; k++) {
+      for (int j = 0; j < by; j++) {
+        for (int i = 0; i < bx; i++) {
+          float min = Float.POSITIVE_INFINITY;
+          float max = Float.NEGATIVE_INFINITY;
+
+          for (int ck = k * 2; ck < Math.min(child[2], k * 2 + 2); ck++) {
+            for (int cj = j * 2; cj < Math.min(child[1], j * 2 + 2); cj++) {
+              for (int ci = i * 2; ci < Math.min(child[0], i * 2 + 2); ci++) {
+                int c = (ck * child[1] + cj) * child[0] + ci;
+                min = Math.min(min, mins[level - 1][c]);
+                max = Math.max(max, maxs[level - 1][c]);
+              }
+            }
+          }
+          int b = (k * by + j) * bx + i;
+          mins[level][b] = min;
+          maxs[level][b] = max;
+        }
+      }
+    }
+  }
+
+  protected class BrickTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    protected int from;
+    protected int to;
+
+    public BrickTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= 1) {
+        computeBricks(from, to);
+        return;
+      }
+
+      int mid = (from + to) >>> 1;
+      invokeAll(new BrickTask(from, mid), new BrickTask(mid, to));
+    }
+  }
+
+  /* */
+
+  /**
+   * Index of the brick of a level holding a voxel, whose coordinates are clamped to the grid.
+   */
+  public int brick(int level, int x, int y, int z) {
+    int shift = level;
+    int bx = Math.min(Math.max(x, 0) / BRICK_SIZE, bricks[0][0] - 1) >> shift;
+    int by = Math.min(Math.max(y, 0) / BRICK_SIZE, bricks[0][1] - 1) >> shift;
+    int bz = Math.min(Math.max(z, 0) / BRICK_SIZE, bricks[0][2] - 1) >> shift;
+    int[] n = bricks[level];
+    return (bz * n[1] + by) * n[0] + bx;
+  }
+
+  public float getMin(int level, int brick) {
+    return mins[level][brick];
+  }
+
+  public float getMax(int level, int brick) {
+    return maxs[level][brick];
+  }
+
+  /** Number of voxels along each axis of the bricks of a level. */
+  public int getBrickSize(int level) {
+    return BRICK_SIZE << level;
+  }
+
+  /** Number of bricks along X, Y and Z at a level. */
+  public int[] getBricks(int level) {
+    return bricks[level].clone();
+  }
+
+  public int getLevels() {
+    return bricks.length;
+  }
+
+  public VoxelGrid getVoxels() {
+    return voxels;
+  }
+}
@@ -0,0 +1,586 @@
+package org.jzy3d.plot3d.primitives.volume;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.jzy3d.colors.Color;
+import org.jzy3d.colors.ColorMapper;
+import org.jzy3d.maths.BoundingBox3d;
+
+/**
+ * Renders a {@link VoxelGrid} in software by casting a ray per pixel, for renderers having no 3D
+ * texture such as EmulGL.
+ *
+ * <h2>Transfer function</h2>
+ *
+ * As for the native <code>Texture3D</code> shader, a voxel value is normalized in [min, max] then
+ * gets the color of the {@link ColorMapper} and an opacity equal to the square of the normalized
+ * value. Colors are read from a table of {@link #TRANSFER_SIZE} entries, rebuilt when the mapper,
+ * the range or the step change. The opacity is the one of a voxel thick layer, corrected for the
+ * sampling step.
+ *
+ * <h2>Rays</h2>
+ *
+ * Each ray is clipped to the bounds of the volume and sampled every {@link #getStep()} voxels with
+ * trilinear interpolation, from the front to the back. A ray stops when its opacity reaches
+ * {@link #getOpacityThreshold()}, or at the depth of the geometries already rendered for this
+ * pixel.
+ *
+ * Bricks of the volume whose maximum value is transparent are skipped in a single step, using the
+ * coarsest level of the {@link VolumeBrickPyramid} that is transparent around the ray.
+ *
+ * Rows of the image are rendered in parallel on a {@link ForkJoinPool}. The transfer table and the
+ * settings of the rays are read once per frame, so that a setter called while a frame is rendering
+ * only applies to the next one.
+ *
+ * @author Martin Pernollet
+ */
+public class VolumeRayMarcher {
+  public static final int TRANSFER_SIZE = 256;
+  /** Number of image rows under which a rendering task is not split anymore. */
+  public static final int DEFAULT_TILE_SIZE = 8;
+
+  protected VoxelGrid voxels;
+  protected VolumeBrickPyramid bricks;
+  protected BoundingBox3d bounds;
+  protected ColorMapper mapper;
+  protected float min;
+  protected float max;
+
+  protected float step = 1;
+  protected float opacityThreshold = 0.99f;
+  protected boolean skipEmptySpace = true;
+
+  protected ForkJoinPool pool = ForkJoinPool.commonPool();
+  protected int tileSize = DEFAULT_TILE_SIZE;
+
+  /** Premultiplied RGB and corrected alpha of each entry of the transfer table */
+  protected float[] transfer;
+  /** Values lower than this one are transparent */
+  protected float transparentBelow;
+
+  /**
+   * @param voxels the volume values.
+   * @param min the value mapped to the first color, and transparent.
+   * @param max the value mapped to the last color, and opaque.
+   * @param mapper the colors of the values.
+   * @param bounds the box of the volume in data coordinates.
+   */
+  public VolumeRayMarcher(VoxelGrid voxels, float min, float max, ColorMapper mapper,
+      BoundingBox3d bounds) {
+    this.voxels = voxels;
+    this.bricks = new VolumeBrickPyramid(voxels);
+    this.bounds = bounds;
+    this.mapper = mapper;
+    setRange(min, max);
+  }
+
+  /** A volume whose value range is the one of the color mapper. */
+  public VolumeRayMarcher(VoxelGrid voxels, ColorMapper mapper, BoundingBox3d bounds) {
+    this(voxels, (float) mapper.getMin(), (float) mapper.getMax(), mapper, bounds);
+  }
+
+  /**
+   * Render the volume as premultiplied ARGB pixels.
+   *
+   * Pixel (i,j) of the image, rows going from the top, is the one at normalized device coordinates
+   * (2i/(width-1) - 1, 1 - 2j/(height-1)), as rasterized in a viewport of the image size.
+   *
+   * @param modelViewProjection the projection matrix multiplied by the modelview matrix, in column
+   *        major order.
+   * @param depth the window depth in [0,1] of each pixel where rays stop, or null to march rays up
+   *        to the far plane.
+   * @param argb the output, where pixels not covered by the volume are transparent.
+   */
+  public void render(double[] modelViewProjection, int width, int height, float[] depth,
+      int[] argb) {
+    if (argb.length < width * height)
+      throw new IllegalArgumentException("Need " + width * height + " pixels, got " + argb.length);
+    Arrays.fill(argb, 0, width * height, 0);
+
+    double[] inverse = new double[16];
+    if (!invert(modelViewProjection, inverse))
+      return;
+
+    Frame frame = new Frame(voxelTransform(inverse), width, height, depth, argb);
+    if (!screenBounds(modelViewProjection, frame))
+      return;
+
+    synchronized (this) {
+      if (transfer == null)
+        updateTransfer();
+      frame.transfer = transfer;
+      frame.transparentBelow = transparentBelow;
+      frame.min = min;
+      frame.scale = max > min ? (TRANSFER_SIZE - 1) / (max - min) : 0;
+      frame.step = step;
+      frame.opacityThreshold = opacityThreshold;
+      frame.skipEmptySpace = skipEmptySpace;
+    }
+
+    int rows = frame.y1 - frame.y0 + 1;
+    if (pool != null && rows > tileSize)
+      pool.invoke(new RenderTask(frame, frame.y0, frame.y1 + 1));
+    else
+      render(frame, frame.y0, frame.y1 + 1);
+  }
+
+  /** The state of a rendering, shared by all rows. */
+  protected static class Frame {
+    /** From normalized device coordinates to voxel coordinates */
+    final double[] ndcToVoxel;
+    final int width;
+    final int height;
+    final float[] depth;
+    final int[] argb;
+    /** Pixel range covered by the volume */
+    int x0, x1, y0, y1;
+
+    /** Transfer function and ray settings read when the frame started */
+    float[] transfer;
+    float transparentBelow;
+    float min;
+    float scale;
+    float step;
+    float opacityThreshold;
+    boolean skipEmptySpace;
+
+    Frame(double[] ndcToVoxel, int width, int height, float[] depth, int[] argb) {
+      this.ndcToVoxel = ndcToVoxel;
+      this.width = width;
+      this.height = height;
+      this.depth = depth;
+      this.argb = argb;
+    }
+  }
+
+  /** Render the rows in [from, to) of the frame. */
+  protected void render(Frame frame, int from, int to) {
+    double[] m = frame.ndcToVoxel;
+    double[] near = new double[3];
+    double[] far = new double[3];
+
+    for (int j = from; j < to; j++) {
+      double ndcY = frame.height > 1 ? 1 - 2.0 * j / (frame.height - 1) : 0;
+
+      for (int i = frame.x0; i <= frame.x1; i++) {
+        double ndcX = frame.width > 1 ? 2.0 * i / (frame.width - 1) - 1 : 0;
+        int pixel = j * frame.width + i;
+        double ndcZ = frame.depth != null ? frame.depth[pixel] * 2 - 1 : 1;
+
+        if (!transform(m, ndcX, ndcY, -1, near) || !transform(m, ndcX, ndcY, ndcZ, far))
+          continue;
+
+        frame.argb[pixel] = march(frame, near[0], near[1], near[2], far[0] - near[0], far[1] - near[1],
+            far[2] - near[2]);
+      }
+    }
+  }
+
+  /**
+   * March the ray going from o to o+d in voxel coordinates, and return its premultiplied ARGB
+   * color. The transfer function and ray settings are the ones of the frame.
+   */
+  protected int march(Frame frame, double ox, double oy, double oz, double dx, double dy, double dz) {
+    int nx = voxels.getWidth();
+    int ny = voxels.getHeight();
+    int nz = voxels.getDepth();
+
+    // clip the ray to the volume, voxels being centered on integer coordinates
+    double[] range = {0, 1};
+    if (!clip(ox, dx, -0.5, nx - 0.5, range) || !clip(oy, dy, -0.5, ny - 0.5, range)
+        || !clip(oz, dz, -0.5, nz - 0.5, range))
+      return 0;
+
+    double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+    if (length == 0)
+      return 0;
+
+    double dt = frame.step / length;
+    double t0 = range[0];
+    double t1 = range[1];
+    float[] transfer = frame.transfer;
+    float min = frame.min;
+    float scale = frame.scale;
+    float opacityThreshold = frame.opacityThreshold;
+
+    float r = 0, g = 0, b = 0, a = 0;
+    long k = 0;
+
+    while (true) {
+      double t = t0 + dt * (k + 0.5);
+      if (t > t1)
+        break;
+
+      double x = ox + dx * t;
+      double y = oy + dy * t;
+      double z = oz + dz * t;
+
+      if (frame.skipEmptySpace) {
+        int level = transparentLevel(frame.transparentBelow, x, y, z);
+        if (level >= 0) {
+          double exit = brickExit(level, x, y, z, ox, oy, oz, dx, dy, dz);
+          k = Math.max(k + 1, (long) Math.ceil((exit - t0) / dt - 0.5));
+          continue;
+        }
+      }
+
+      float v = voxels.sample(x, y, z);
+      int entry = Math.round((v - min) * scale);
+      entry = entry < 0 ? 0 : entry >= TRANSFER_SIZE ? TRANSFER_SIZE - 1 : entry;
+
+      float alpha = transfer[entry * 4 + 3];
+      if (alpha > 0) {
+        float w = 1 - a;
+        r += w * transfer[entry * 4];
+        g += w * transfer[entry * 4 + 1];
+        b += w * transfer[entry * 4 + 2];
+        a += w * alpha;
+
+        if (a >= opacityThreshold)
+          break;
+      }
+      k++;
+    }
+
+    return toARGB(r, g, b, a);
+  }
+
+  /**
+   * Return the coarsest level of the pyramid whose brick holding the position only has values
+   * below transparentBelow, or -1 if the brick of level 0 has not.
+   */
+  protected int transparentLevel(float transparentBelow, double x, double y, double z) {
+    int vx = (int) Math.floor(x);
+    int vy = (int) Math.floor(y);
+    int vz = (int) Math.floor(z);
+
+    if (!(bricks.getMax(0, bricks.brick(0, vx, vy, vz)) < transparentBelow))
+      return -1;
+
+    int level = 0;
+    while (level + 1 < bricks.getLevels()
+        && bricks.getMax(level + 1, bricks.brick(level + 1, vx, vy, vz)) < transparentBelow)
+      level++;
+    return level;
+  }
+
+  /** Position where the ray leaves the brick of the given level holding the position. */
+  protected double brickExit(int level, double x, double y, double z, double ox, double oy,
+      double oz, double dx, double dy, double dz) {
+    int size = bricks.getBrickSize(level);
+    return Math.min(axisExit(x, ox, dx, size, voxels.getWidth()),
+        Math.min(axisExit(y, oy, dy, size, voxels.getHeight()),
+            axisExit(z, oz, dz, size, voxels.getDepth())));
+  }
+
+  protected double axisExit(double p, double o, double d, int size, int voxels) {
+    if (d == 0)
+      return Double.POSITIVE_INFINITY;
+
+    int last = Math.max(0, (voxels - 2) / VolumeBrickPyramid.BRICK_SIZE);
+    int brick = Math.min(Math.max((int) Math.floor(p), 0) / VolumeBrickPyramid.BRICK_SIZE, last);
+    int first = (brick / (size / VolumeBrickPyramid.BRICK_SIZE)) * size;
+    double boundary = d > 0 ? first + size : first;
+    return (boundary - o) / d;
+  }
+
+  /** Narrow the range of the ray within [lo, hi] along an axis. */
+  protected static boolean clip(double o, double d, double lo, double hi, double[] range) {
+    if (d == 0)
+      return lo <= o && o <= hi;
+
+    double t1 = (lo - o) / d;
+    double t2 = (hi - o) / d;
+    if (t1 > t2) {
+      double swap = t1;
+      t1 = t2;
+      t2 = swap;
+    }
+    range[0] = Math.max(range[0], t1);
+    range[1] = Math.min(range[1], t2);
+    return range[0] <= range[1];
+  }
+
+  protected static int toARGB(float r, float g, float b, float a) {
+    return channel(a) << 24 | channel(r) << 16 | channel(g) << 8 | channel(b);
+  }
+
+  protected static int channel(float v) {
+    int c = (int) (v * 255 + 0.5f);
+    return c < 0 ? 0 : c > 255 ? 255 : c;
+  }
+
+  /* TRANSFER */
+
+  /** Build the transfer table from the mapper, the range and the step. */
+  protected void updateTransfer() {
+    float[] table = new float[TRANSFER_SIZE * 4];
+    int transparent = -1;
+
+    for (int i = 0; i < TRANSFER_SIZE; i++) {
+      float value = (float) i / (TRANSFER_SIZE - 1);
+      Color c = mapper.getColor(min + (max - min) * value);
+
+      // opacity of a voxel thick layer, corrected for the step
+      float alpha = (float) (1 - Math.pow(1 - value * value, step));
+
+      table[i * 4] = c.r * alpha;
+      table[i * 4 + 1] = c.g * alpha;
+      table[i * 4 + 2] = c.b * alpha;
+      table[i * 4 + 3] = alpha;
+
+      if (alpha == 0 && transparent == i - 1)
+        transparent = i;
+    }
+
+    // values rounded to a transparent entry are transparent
+    transparentBelow = transparent < 0 ? Float.NEGATIVE_INFINITY
+        : max > min ? min + (max - min) * (transparent + 0.5f) / (TRANSFER_SIZE - 1) : min;
+    transfer = table;
+  }
+
+  /* GEOMETRY */
+
+  /** The matrix from normalized device coordinates to voxel coordinates. */
+  protected double[] voxelTransform(double[] inverse) {
+    double[] scale = {voxels.getWidth() / (double) (bounds.getXmax() - bounds.getXmin()),
+        voxels.getHeight() / (double) (bounds.getYmax() - bounds.getYmin()),
+        voxels.getDepth() / (double) (bounds.getZmax() - bounds.getZmin())};
+    double[] offset = {-bounds.getXmin() * scale[0] - 0.5, -bounds.getYmin() * scale[1] - 0.5,
+        -bounds.getZmin() * scale[2] - 0.5};
+
+    // voxel = scale * model + offset, applied to the rows of the inverse
+    double[] m = new double[16];
+    for (int col = 0; col < 4; col++) {
+      double w = inverse[col * 4 + 3];
+      for (int row = 0; row < 3; row++)
+        m[col * 4 + row] = inverse[col * 4 + row] * scale[row] + w * offset[row];
+      m[col * 4 + 3] = w;
+    }
+    return m;
+  }
+
+  /** Transform a point with a column major matrix, and divide by w. */
+  protected static boolean transform(double[] m, double x, double y, double z, double[] out) {
+    double w = m[3] * x + m[7] * y + m[11] * z + m[15];
+    if (w == 0)
+      return false;
+    out[0] = (m[0] * x + m[4] * y + m[8] * z + m[12]) / w;
+    out[1] = (m[1] * x + m[5] * y + m[9] * z + m[13]) / w;
+    out[2] = (m[2] * x + m[6] * y + m[10] * z + m[14]) / w;
+    return true;
+  }
+
+  /**
+   * Set the pixel range of the frame to the projection of the volume bounds, or to the whole image
+   * if a corner stands behind the camera. Return false if the volume is out of the image.
+   */
+  protected boolean screenBounds(double[] m, Frame frame) {
+    double xmin = Double.POSITIVE_INFINITY, xmax = Double.NEGATIVE_INFINITY;
+    double ymin = Double.POSITIVE_INFINITY, ymax = Double.NEGATIVE_INFINITY;
+    boolean behind = false;
+
+    for (int c = 0; c < 8; c++) {
+      double x = (c & 1) == 0 ? bounds.getXmin() : bounds.getXmax();
+      double y = (c & 2) == 0 ? bounds.getYmin() : bounds.getYmax();
+      double z = (c & 4) == 0 ? bounds.getZmin() : bounds.getZmax();
+      double w = m[3] * x + m[7] * y + m[11] * z + m[15];
+      if (w <= 0) {
+        behind = true;
+        break;
+      }
+      double px = (m[0] * x + m[4] * y + m[8] * z + m[12]) / w;
+      double py = (m[1] * x + m[5] * y + m[9] * z + m[13]) / w;
+      xmin = Math.min(xmin, px);
+      xmax = Math.max(xmax, px);
+      ymin = Math.min(ymin, py);
+      ymax = Math.max(ymax, py);
+    }
+
+    if (behind) {
+      frame.x0 = 0;
+      frame.x1 = frame.width - 1;
+      frame.y0 = 0;
+      frame.y1 = frame.height - 1;
+      return true;
+    }
+
+    double sx = (frame.width - 1) / 2.0;
+    double sy = (frame.height - 1) / 2.0;
+    frame.x0 = Math.max(0, (int) Math.floor((xmin + 1) * sx));
+    frame.x1 = Math.min(frame.width - 1, (int) Math.ceil((xmax + 1) * sx));
+    frame.y0 = Math.max(0, (int) Math.floor((1 - ymax) * sy));
+    frame.y1 = Math.min(frame.height - 1, (int) Math.ceil((1 - ymin) * sy));
+    return frame.x0 <= frame.x1 && frame.y0 <= frame.y1;
+  }
+
+  /** Invert a column major 4x4 matrix, and return false if it is singular. */
+  protected static boolean invert(double[] m, double[] inv) {
+    inv[0] = m[5] * m[10] * m[15] - m[5] * m[11] * m[14] - m[9] * m[6] * m[15]
+        + m[9] * m[7] * m[14] + m[13] * m[6] * m[11] - m[13] * m[7] * m[10];
+    inv[4] = -m[4] * m[10] * m[15] + m[4] * m[11] * m[14] + m[8] * m[6] * m[15]
+        - m[8] * m[7] * m[14] - m[12] * m[6] * m[11] + m[12] * m[7] * m[10];
+    inv[8] = m[4] * m[9] * m[15] - m[4] * m[11] * m[13] - m[8] * m[5] * m[15]
+        + m[8] * m[7] * m[13] + m[12] * m[5] * m[11] - m[12] * m[7] * m[9];
+    inv[12] = -m[4] * m[9] * m[14] + m[4] * m[10] * m[13] + m[8] * m[5] * m[14]
+        - m[8] * m[6] * m[13] - m[12] * m[5] * m[10] + m[12] * m[6] * m[9];
+    inv[1] = -m[1] * m[10] * m[15] + m[1] * m[11] * m[14] + m[9] * m[2] * m[15]
+        - m[9] * m[3] * m[14] - m[13] * m[2] * m[11] + m[13] * m[3] * m[10];
+    inv[5] = m[0] * m[10] * m[15] - m[0] * m[11] * m[14] - m[8] * m[2] * m[15]
+        + m[8] * m[3] * m[14] + m[12] * m[2] * m[11] - m[12] * m[3] * m[10];
+    inv[9] = -m[0] * m[9] * m[15] + m[0] * m[11] * m[13] + m[8] * m[1] * m[15]
+        - m[8] * m[3] * m[13] - m[12] * m[1] * m[11] + m[12] * m[3] * m[9];
+    inv[13] = m[0] * m[9] * m[14] - m[0] * m[10] * m[13] - m[8] * m[1] * m[14]
+        + m[8] * m[2] * m[13] + m[12] * m[1] * m[10] - m[12] * m[2] * m[9];
+    inv[2] = m[1] * m[6] * m[15] - m[1] * m[7] * m[14] - m[5] * m[2] * m[15]
+        + m[5] * m[3] * m[14] + m[13] * m[2] * m[7] - m[13] * m[3] * m[6];
+    inv[6] = -m[0] * m[6] * m[15] + m[0] * m[7] * m[14] + m[4] * m[2] * m[15]
+        - m[4] * m[3] * m[14] - m[12] * m[2] * m[7] + m[12] * m[3] * m[6];
+    inv[10] = m[0] * m[5] * m[15] - m[0] * m[7] * m[13] - m[4] * m[1] * m[15]
+        + m[4] * m[3] * m[13] + m[12] * m[1] * m[7] - m[12] * m[3] * m[5];
+    inv[14] = -m[0] * m[5] * m[14] + m[0] * m[6] * m[13] + m[4] * m[1] * m[14]
+        - m[4] * m[2] * m[13] - m[12] * m[1] * m[6] + m[12] * m[2] * m[5];
+    inv[3] = -m[1] * m[6] * m[11] + m[1] * m[7] * m[10] + m[5] * m[2] * m[11]
+        - m[5] * m[3] * m[10] - m[9] * m[2] * m[7] + m[9] * m[3] * m[6];
+    inv[7] = m[0] * m[6] * m[11] - m[0] * m[7] * m[10] - m[4] * m[2] * m[11]
+        + m[4] * m[3] * m[10] + m[8] * m[2] * m[7] - m[8] * m[3] * m[6];
+    inv[11] = -m[0] * m[5] * m[11] + m[0] * m[7] * m[9] + m[4] * m[1] * m[11]
+        - m[4] * m[3] * m[9] - m[8] * m[1] * m[7] + m[8] * m[3] * m[5];
+    inv[15] = m[0] * m[5] * m[10] - m[0] * m[6] * m[9] - m[4] * m[1] * m[10]
+        + m[4] * m[2] * m[9] + m[8] * m[1] * m[6] - m[8] * m[2] * m[5];
+
+    double det = m[0] * inv[0] + m[1] * inv[4] + m[2] * inv[8] + m[3] * inv[12];
+    if (det == 0)
+      return false;
+
+    for (int i = 0; i < 16; i++)
+      inv[i] /= det;
+    return true;
+  }
+
+  protected class RenderTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    protected Frame frame;
+    protected int from;
+    protected int to;
+
+    public RenderTask(Frame frame, int from, int to) {
+      this.frame = frame;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= tileSize) {
+        render(frame, from, to);
+        return;
+      }
+
+      int mid = (from + to) >>> 1;
+      invokeAll(new RenderTask(frame, from, mid), new RenderTask(frame, mid, to));
+    }
+  }
+
+  /* */
+
+  public VoxelGrid getVoxels() {
+    return voxels;
+  }
+
+  public VolumeBrickPyramid getBricks() {
+    return bricks;
+  }
+
+  public BoundingBox3d getBounds() {
+    return bounds;
+  }
+
+  public void setBounds(BoundingBox3d bounds) {
+    this.bounds = bounds;
+  }
+
+  public ColorMapper getColorMapper() {
+    return mapper;
+  }
+
+  public synchronized void setColorMapper(ColorMapper mapper) {
+    this.mapper = mapper;
+    this.transfer = null;
+  }
+
+  public float getMin() {
+    return min;
+  }
+
+  public float getMax() {
+    return max;
+  }
+
+  /** Set the values mapped to the first and last colors of the transfer function. */
+  public synchronized void setRange(float min, float max) {
+    if (!(max >= min))
+      throw new IllegalArgumentException("Invalid range [" + min + ", " + max + "]");
+    this.min = min;
+    this.max = max;
+    this.transfer = null;
+  }
+
+  public float getStep() {
+    return step;
+  }
+
+  /** Set the distance between two samples of a ray, in voxels. Default to 1. */
+  public synchronized void setStep(float step) {
+    if (!(step > 0))
+      throw new IllegalArgumentException("Step must be positive : " + step);
+    this.step = step;
+    this.transfer = null;
+  }
+
+  public float getOpacityThreshold() {
+    return opacityThreshold;
+  }
+
+  /** Set the opacity at which a ray stops. Default to 0.99. */
+  public void setOpacityThreshold(float opacityThreshold) {
+    if (!(opacityThreshold > 0 && opacityThreshold <= 1))
+      throw new IllegalArgumentException(
+          "Opacity threshold must be in (0,1] : " + opacityThreshold);
+    this.opacityThreshold = opacityThreshold;
+  }
+
+  public boolean isSkipEmptySpace() {
+    return skipEmptySpace;
+  }
+
+  /** If true, the default, skip transparent bricks instead of sampling them. */
+  public void setSkipEmptySpace(boolean skipEmptySpace) {
+    this.skipEmptySpace = skipEmptySpace;
+  }
+
+  public ForkJoinPool getPool() {
+    return pool;
+  }
+
+  /**
+   * Set the pool rendering rows, or null to render them on the calling thread. Default to the
+   * common pool.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  public int getTileSize() {
+    return tileSize;
+  }
+
+  /** Set the number of rows rendered by a single task. */
+  public void setTileSize(int tileSize) {
+    if (tileSize < 1)
+      throw new IllegalArgumentException("Tile size must be positive : " + tileSize);
+    this.tileSize = tileSize;
+  }
+}
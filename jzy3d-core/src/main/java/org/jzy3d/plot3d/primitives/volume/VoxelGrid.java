@@ -0,0 +1,126 @@
+package org.jzy3d.plot3d.primitives.volume;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * A read only grid of voxel values, backed by a {@link FloatBuffer} or by a {@link ByteBuffer} of
+ * unsigned 8 bit values, as produced by CT scanners.
+ *
+ * The shape gives the number of voxels along Z, Y and X, in this order as for the native
+ * <code>Texture3D</code> : X varies the fastest, so that voxel (x,y,z) stands at index
+ * <code>(z * ny + y) * nx + x</code> of the buffer, from the buffer start whatever its position.
+ *
+ * Float values stored in a {@link ByteBuffer} should be given as {@link ByteBuffer#asFloatBuffer()}.
+ *
+ * @author Martin Pernollet
+ */
+public class VoxelGrid {
+  protected final FloatBuffer floats;
+  protected final ByteBuffer bytes;
+  protected final int nx;
+  protected final int ny;
+  protected final int nz;
+
+  /**
+   * @param buffer a {@link FloatBuffer} or a {@link ByteBuffer} of unsigned bytes.
+   * @param shape the number of voxels along Z, Y and X.
+   */
+  public VoxelGrid(Buffer buffer, int[] shape) {
+    if (shape.length != 3 || shape[0] < 1 || shape[1] < 1 || shape[2] < 1)
+      throw new IllegalArgumentException("Expect 3 positive dimensions");
+
+    this.nz = shape[0];
+    this.ny = shape[1];
+    this.nx = shape[2];
+
+    long size = (long) nx * ny * nz;
+    if (buffer.capacity() < size)
+      throw new IllegalArgumentException(
+          "Buffer holds " + buffer.capacity() + " values, shape needs " + size);
+
+    if (buffer instanceof FloatBuffer) {
+      this.floats = (FloatBuffer) buffer;
+      this.bytes = null;
+    } else if (buffer instanceof ByteBuffer) {
+      this.floats = null;
+      this.bytes = (ByteBuffer) buffer;
+    } else {
+      throw new IllegalArgumentException("Unsupported buffer : " + buffer.getClass().getName());
+    }
+  }
+
+  /** Value of the voxel at the given index of the buffer. */
+  public float get(int index) {
+    if (floats != null)
+      return floats.get(index);
+    else
+      return bytes.get(index) & 0xff;
+  }
+
+  public float get(int x, int y, int z) {
+    return get(index(x, y, z));
+  }
+
+  public int index(int x, int y, int z) {
+    return (z * ny + y) * nx + x;
+  }
+
+  /**
+   * Trilinear interpolation of the voxels around a position given in voxel units, where voxel
+   * (x,y,z) is centered on (x,y,z). Positions out of the grid read the nearest border.
+   */
+  public float sample(double x, double y, double z) {
+    double cx = Math.min(Math.max(x, 0), nx - 1);
+    double cy = Math.min(Math.max(y, 0), ny - 1);
+    double cz = Math.min(Math.max(z, 0), nz - 1);
+
+    int x0 = (int) cx;
+    int y0 = (int) cy;
+    int z0 = (int) cz;
+    int dx = x0 < nx - 1 ? 1 : 0;
+    int dy = y0 < ny - 1 ? nx : 0;
+    int dz = z0 < nz - 1 ? nx * ny : 0;
+    float fx = (float) (cx - x0);
+    float fy = (float) (cy - y0);
+    float fz = (float) (cz - z0);
+
+    int i = index(x0, y0, z0);
+    float v000 = get(i);
+    float v100 = get(i + dx);
+    float v010 = get(i + dy);
+    float v110 = get(i + dy + dx);
+    float v001 = get(i + dz);
+    float v101 = get(i + dz + dx);
+    float v011 = get(i + dz + dy);
+    float v111 = get(i + dz + dy + dx);
+
+    float v00 = v000 + (v100 - v000) * fx;
+    float v10 = v010 + (v110 - v010) * fx;
+    float v01 = v001 + (v101 - v001) * fx;
+    float v11 = v011 + (v111 - v011) * fx;
+    float v0 = v00 + (v10 - v00) * fy;
+    float v1 = v01 + (v11 - v01) * fy;
+    return v0 + (v1 - v0) * fz;
+  }
+
+  /* */
+
+  public int getWidth() {
+    return nx;
+  }
+
+  public int getHeight() {
+    return ny;
+  }
+
+  public int getDepth() {
+    return nz;
+  }
+
+  /** The shape, as given to the constructor. */
+  public int[] getShape() {
+    return new int[] {nz, ny, nx};
+  }
+}
@@ -2,4 +2,12 @@ package org.jzy3d.plot3d.rendering.canvas;
 
 public interface ICanvasListener {
   public void pixelScaleChanged(double pixelScaleX, double pixelScaleY);
+
+  /**
+   * Invoked after each frame by canvases measuring their rendering time, such as the EmulGL canvas,
+   * whatever triggered the frame : mouse, animation or data update.
+   *
+   * @param mili the rendering time, as returned by {@link ICanvas#getLastRenderingTimeMs()}
+   */
+  public default void frameRendered(double mili) {}
 }
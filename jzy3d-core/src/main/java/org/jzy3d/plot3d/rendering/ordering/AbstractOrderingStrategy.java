@@ -3,6 +3,7 @@ package org.jzy3d.plot3d.rendering.ordering;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.RandomAccess;
 import org.jzy3d.maths.Coord3d;
 import org.jzy3d.plot3d.primitives.Drawable;
 import org.jzy3d.plot3d.rendering.view.Camera;
@@ -14,6 +15,21 @@ import org.jzy3d.plot3d.transform.Transform;
 /**
  * An ordering strategy is a {@link Comparator} for {@link Drawable}s that may compute the priority
  * between {@link Drawable}s d1 and d2.
+ * 
+ * Sorting may either rely on {@link Collections#sort(List, Comparator)} with this strategy as
+ * comparator, or compute the {@link #score(Drawable)} of each drawable once and sort these scores
+ * in a primitive array, according to the {@link SortMode} of the strategy. Sorting by precomputed
+ * scores is faster for large scenes and won't fail on inconsistent comparisons, but it ignores any
+ * custom {@link #compare(Drawable, Drawable)} implementation : scores are sorted by decreasing
+ * value, so that the highest score is drawn first.
+ * 
+ * With {@link SortMode#INCREMENTAL}, the strategy assumes the list it sorts is the one it sorted at
+ * the previous frame (e.g. the decomposition cached by the scene graph) and repairs the previous
+ * order instead of sorting from scratch, which runs in nearly linear time while the camera rotates
+ * slowly. A full sort is performed when the list changes or when the {@link View#getViewPoint()}
+ * moved more than {@link #getIncrementalViewPointThreshold()} since the previous sort.
+ * {@link #getLastMovedCount()}, {@link #getIncrementalSortCount()} and
+ * {@link #getFullSortCount()} allow monitoring how the incremental mode behaves.
  *
  * @author Martin Pernollet
  *
@@ -27,14 +43,135 @@ public abstract class AbstractOrderingStrategy implements Comparator<Drawable> {
 
   /**
    * @throws java.lang.IllegalArgumentException: "Comparison method violates its general contract!"
-   *         on some JVM. Fix with System.setProperty("java.util.Arrays.useLegacyMergeSort",
-   *         "true");
+   *         on some JVM when using {@link SortMode#COMPARATOR}. Fix with
+   *         System.setProperty("java.util.Arrays.useLegacyMergeSort", "true"); or use
+   *         {@link SortMode#PRECOMPUTED_SCORES}.
    * @param monotypes
    * @param cam
    */
   public void sort(List<Drawable> monotypes, Camera cam) {
     setCamera(cam);
-    Collections.sort(monotypes, this);
+
+    if (SortMode.INCREMENTAL.equals(sortMode))
+      sortIncremental(monotypes);
+    else if (SortMode.PRECOMPUTED_SCORES.equals(sortMode))
+      sortByScores(monotypes);
+    else
+      Collections.sort(monotypes, this);
+  }
+
+  /**
+   * Compute the score of each drawable once and reorder the list by decreasing score. Does not
+   * allocate memory once the internal buffers have grown to the size of the list.
+   */
+  protected void sortByScores(List<Drawable> monotypes) {
+    if (monotypes.size() < 2)
+      return;
+
+    float[] scores = sorter.getScores(monotypes.size());
+    computeScores(monotypes, scores);
+    sorter.sortDescending(monotypes);
+  }
+
+  /**
+   * Compute the score of each drawable once and repair the order of the previous frame, or perform
+   * a full sort if the previous order can not be reused or is too far from the new one.
+   */
+  protected void sortIncremental(List<Drawable> monotypes) {
+    int n = monotypes.size();
+
+    if (n < 2) {
+      lastMovedCount = 0;
+      rememberSortedState(monotypes);
+      return;
+    }
+
+    float[] scores = sorter.getScores(n);
+    computeScores(monotypes, scores);
+
+    int[] order = null;
+
+    if (canRepairPreviousOrder(monotypes))
+      order = sorter.repairDescending(n * incrementalMaxShiftsPerItem);
+
+    if (order != null) {
+      incrementalSortCount++;
+    } else {
+      order = sorter.sortDescending();
+      fullSortCount++;
+    }
+
+    lastMovedCount = sorter.countMoved();
+    if (lastMovedCount > 0)
+      sorter.reorder(monotypes, order);
+
+    rememberSortedState(monotypes);
+  }
+
+  /**
+   * Return true if the list is the one sorted at previous call and the viewpoint did not move
+   * beyond the threshold since then.
+   */
+  protected boolean canRepairPreviousOrder(List<Drawable> monotypes) {
+    if (monotypes != previousSorted || monotypes.size() != previousSize)
+      return false;
+
+    if (view != null && view.getViewPoint() != null) {
+      Coord3d viewpoint = view.getViewPoint();
+
+      if (Math.abs(viewpoint.x - previousAzimuth) > incrementalViewPointThreshold)
+        return false;
+      if (Math.abs(viewpoint.y - previousElevation) > incrementalViewPointThreshold)
+        return false;
+
+      float range = Math.max(Math.abs(previousRange), Float.MIN_NORMAL);
+      if (Math.abs(viewpoint.z - previousRange) / range > incrementalViewPointThreshold)
+        return false;
+    }
+    return true;
+  }
+
+  protected void rememberSortedState(List<Drawable> monotypes) {
+    previousSorted = monotypes;
+    previousSize = monotypes.size();
+
+    if (view != null && view.getViewPoint() != null) {
+      Coord3d viewpoint = view.getViewPoint();
+      previousAzimuth = viewpoint.x;
+      previousElevation = viewpoint.y;
+      previousRange = viewpoint.z;
+    }
+  }
+
+  /** Forget the previous order so that the next {@link SortMode#INCREMENTAL} sort is a full sort. */
+  public void resetIncrementalState() {
+    previousSorted = null;
+    previousSize = 0;
+  }
+
+  /** Fill the score array with the score of each drawable of the list. */
+  protected void computeScores(List<Drawable> monotypes, float[] scores) {
+    if (monotypes instanceof RandomAccess) {
+      computeScores(monotypes, scores, 0, monotypes.size());
+    } else {
+      int i = 0;
+      for (Drawable d : monotypes) {
+        scores[i++] = (float) score(d);
+      }
+    }
+  }
+
+  /**
+   * Fill the score array with the score of the drawables standing in the [from;to[ range of the
+   * list. Override to hoist the computations that do not depend on the drawable out of the loop.
+   * 
+   * May be invoked concurrently on distinct ranges once the camera is set, hence implementations
+   * should not modify the state of the strategy.
+   */
+  public void computeScores(List<Drawable> monotypes, float[] scores, int from, int to) {
+    for (int i = from; i < to; i++) {
+      scores[i] = (float) score(monotypes.get(i));
+    }
   }
 
   /**
@@ -73,6 +210,57 @@ public abstract class AbstractOrderingStrategy implements Comparator<Drawable> {
     this.transform = transform;
   }
 
+  public SortMode getSortMode() {
+    return sortMode;
+  }
+
+  /**
+   * Define how drawables are sorted. Default is {@link SortMode#COMPARATOR} so that a custom
+   * {@link #compare(Drawable, Drawable)} is honored.
+   */
+  public void setSortMode(SortMode sortMode) {
+    this.sortMode = sortMode;
+  }
+
+  public float getIncrementalViewPointThreshold() {
+    return incrementalViewPointThreshold;
+  }
+
+  /**
+   * Maximum change of azimuth or elevation (in radians), or relative change of distance of the
+   * {@link View#getViewPoint()} between two frames that still allows an incremental sort.
+   */
+  public void setIncrementalViewPointThreshold(float incrementalViewPointThreshold) {
+    this.incrementalViewPointThreshold = incrementalViewPointThreshold;
+  }
+
+  public int getIncrementalMaxShiftsPerItem() {
+    return incrementalMaxShiftsPerItem;
+  }
+
+  /**
+   * Average number of shifts per item allowed to the incremental sort before giving up and
+   * performing a full sort.
+   */
+  public void setIncrementalMaxShiftsPerItem(int incrementalMaxShiftsPerItem) {
+    this.incrementalMaxShiftsPerItem = incrementalMaxShiftsPerItem;
+  }
+
+  /** Number of drawables that changed position during the last {@link SortMode#INCREMENTAL} sort. */
+  public int getLastMovedCount() {
+    return lastMovedCount;
+  }
+
+  /** Number of {@link SortMode#INCREMENTAL} sorts that could repair the previous order. */
+  public long getIncrementalSortCount() {
+    return incrementalSortCount;
+  }
+
+  /** Number of {@link SortMode#INCREMENTAL} sorts that had to sort from scratch. */
+  public long getFullSortCount() {
+    return fullSortCount;
+  }
+
   public View getView() {
     return view;
   }
@@ -87,4 +275,17 @@ public abstract class AbstractOrderingStrategy implements Comparator<Drawable> {
   protected View view;
   protected Camera camera;
   protected Transform transform;
+  protected SortMode sortMode = SortMode.COMPARATOR;
+  protected ScoreSorter sorter = new ScoreSorter();
+
+  protected float incrementalViewPointThreshold = 0.2f;
+  protected int incrementalMaxShiftsPerItem = 8;
+  protected List<Drawable> previousSorted;
+  protected int previousSize;
+  protected float previousAzimuth;
+  protected float previousElevation;
+  protected float previousRange;
+  protected int lastMovedCount;
+  protected long incrementalSortCount;
+  protected long fullSortCount;
 }
@@ -1,5 +1,6 @@
 package org.jzy3d.plot3d.rendering.ordering;
 
+import java.util.List;
 import org.jzy3d.maths.Coord3d;
 import org.jzy3d.plot3d.primitives.Drawable;
 import org.jzy3d.plot3d.rendering.view.Camera;
@@ -10,6 +11,10 @@ import org.jzy3d.plot3d.rendering.view.View;
  * The {@link BarycentreOrderingStrategy} compare two {@link Drawable}s by computing their
  * respective distances to the {@link Camera}, which must be referenced prior to any comparison.
  * 
+ * As the comparison only relies on the score, this strategy can be sorted faster with
+ * {@link SortMode#PRECOMPUTED_SCORES}. It is not the default since scores are then compared as
+ * floats instead of doubles, which may change the order of drawables at almost equal distances.
+ * 
  * @author Martin Pernollet
  */
 public class BarycentreOrderingStrategy extends AbstractOrderingStrategy {
@@ -49,4 +54,21 @@ public class BarycentreOrderingStrategy extends AbstractOrderingStrategy {
     else
       return camera.getDistance(coord);
   }
+
+  /**
+   * Compute the scaled eye once for all drawables instead of once per distance evaluation.
+   */
+  @Override
+  public void computeScores(List<Drawable> monotypes, float[] scores, int from, int to) {
+    Coord3d eye = camera.getEye();
+    if (view != null)
+      eye = eye.div(view.getLastViewScaling());
+
+    boolean squared = camera.isUseSquaredDistance();
+
+    for (int i = from; i < to; i++) {
+      Coord3d barycentre = monotypes.get(i).getBarycentre();
+      scores[i] = (float) (squared ? barycentre.distanceSq(eye) : barycentre.distance(eye));
+    }
+  }
 }
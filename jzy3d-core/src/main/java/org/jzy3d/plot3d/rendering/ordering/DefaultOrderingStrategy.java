@@ -1,13 +1,21 @@
 package org.jzy3d.plot3d.rendering.ordering;
 
+import java.util.List;
 import org.jzy3d.maths.Coord3d;
 import org.jzy3d.plot3d.primitives.Drawable;
+import org.jzy3d.plot3d.rendering.view.Camera;
 
 /**
  * The default ordering strategy let drawables be displayed in their original order and as thus no
  * computation cost.
  */
 public class DefaultOrderingStrategy extends AbstractOrderingStrategy {
+  /** Keep the original order without scoring drawables. */
+  @Override
+  public void sort(List<Drawable> monotypes, Camera cam) {
+    setCamera(cam);
+  }
+
   @Override
   public int compare(Drawable o1, Drawable o2) {
     return 0;
@@ -7,12 +7,38 @@ import org.jzy3d.maths.Coord3d;
 import org.jzy3d.plot3d.rendering.view.Camera;
 
 
+/**
+ * Sort points from the farthest to the closest to the camera eye.
+ * 
+ * Sorting by {@link SortMode#PRECOMPUTED_SCORES} computes the distance of each point once before
+ * sorting instead of twice per comparison, but compares distances as floats, which may change the
+ * order of points at almost equal distances. Default is {@link SortMode#COMPARATOR}.
+ */
 public class PointOrderingStrategy implements Comparator<Coord3d> {
   protected Camera camera;
+  protected SortMode sortMode = SortMode.COMPARATOR;
+  protected ScoreSorter sorter = new ScoreSorter();
 
   public void sort(List<Coord3d> points, Camera cam) {
     this.camera = cam;
-    Collections.sort(points, this);
+
+    if (SortMode.PRECOMPUTED_SCORES.equals(sortMode))
+      sortByScores(points);
+    else
+      Collections.sort(points, this);
+  }
+
+  protected void sortByScores(List<Coord3d> points) {
+    if (points.size() < 2)
+      return;
+
+    Coord3d eye = camera.getEye();
+    float[] scores = sorter.getScores(points.size());
+    int i = 0;
+    for (Coord3d point : points) {
+      scores[i++] = (float) eye.distanceSq(point);
+    }
+    sorter.sortDescending(points);
   }
 
   @Override
@@ -24,10 +50,18 @@ public class PointOrderingStrategy implements Comparator<Coord3d> {
       double d2 = camera.getEye().distance(o2);
       if (d1 < d2)
         return 1;
-      else if (d2 > d1)
+      else if (d1 > d2)
         return -1;
       else
         return 0;
     }
   }
+
+  public SortMode getSortMode() {
+    return sortMode;
+  }
+
+  public void setSortMode(SortMode sortMode) {
+    this.sortMode = sortMode;
+  }
 }
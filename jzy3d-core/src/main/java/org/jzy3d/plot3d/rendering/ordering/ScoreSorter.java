@@ -0,0 +1,286 @@
+package org.jzy3d.plot3d.rendering.ordering;
+
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+
+/**
+ * Sort items according to scores that are computed once per item and stored in a primitive
+ * array, as opposed to a {@link java.util.Comparator} that computes scores at each comparison.
+ * 
+ * Scores are sorted with a stable LSD radix sort over the bits of the float scores, which runs in
+ * linear time and can not fail on a "Comparison method violates its general contract!" error. The
+ * sorter keeps its working arrays from one call to the other, so that sorting a list of the same
+ * size at each frame does not allocate memory.
+ * 
+ * Usage :
+ * 
+ * <pre>
+ * <code>
+ * float[] scores = sorter.getScores(items.size());
+ * // fill scores[i] for each item i
+ * sorter.sortDescending(items);
+ * </code>
+ * </pre>
+ * 
+ * NaN scores are considered greater than any other score.
+ * 
+ * When scores are almost sorted, {@link #repairDescending(int)} processes them with an adaptive
+ * insertion sort that runs in nearly linear time.
+ * 
+ * @author Martin Pernollet
+ */
+public class ScoreSorter {
+  protected static final int RADIX_BITS = 8;
+  protected static final int RADIX = 1 << RADIX_BITS;
+  protected static final int RADIX_MASK = RADIX - 1;
+
+  protected float[] scores = new float[0];
+  protected int[] keys = new int[0];
+  protected int[] keysBuffer = new int[0];
+  protected int[] order = new int[0];
+  protected int[] orderBuffer = new int[0];
+  protected Object[] items = new Object[0];
+  protected int[] histogram = new int[RADIX];
+
+  protected int size = 0;
+
+  /**
+   * Return an array of at least the given size that the caller should fill with the score of each
+   * item before invoking one of the sort methods.
+   */
+  public float[] getScores(int size) {
+    ensureCapacity(size);
+    this.size = size;
+    return scores;
+  }
+
+  /** Return the number of scores that will be processed by the next sort. */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Sort the scores by decreasing value and return the permutation, where
+   * <code>order[i]</code> is the index of the item that should appear at position i. Only the
+   * first {@link #getSize()} elements of the returned array are relevant.
+   */
+  public int[] sortDescending() {
+    return sort(true);
+  }
+
+  /**
+   * Sort the scores by increasing value and return the permutation, where <code>order[i]</code> is
+   * the index of the item that should appear at position i. Only the first {@link #getSize()}
+   * elements of the returned array are relevant.
+   */
+  public int[] sortAscending() {
+    return sort(false);
+  }
+
+  /**
+   * Sort the scores by decreasing value with an insertion sort, which is faster than
+   * {@link #sortDescending()} when the scores are almost sorted already, e.g. when they are the
+   * scores of a list that was sorted at the previous frame by a camera that only moved slightly.
+   * 
+   * @param maxShifts the maximum number of element shifts allowed before giving up.
+   * @return the permutation, or null if the scores were too far from being sorted, in which case
+   *         the caller should invoke {@link #sortDescending()}.
+   */
+  public int[] repairDescending(int maxShifts) {
+    int n = size;
+
+    for (int i = 0; i < n; i++) {
+      keys[i] = toSortableKey(scores[i], true);
+      order[i] = i;
+    }
+
+    int shifts = 0;
+
+    for (int i = 1; i < n; i++) {
+      int key = keys[i];
+
+      if (Integer.compareUnsigned(keys[i - 1], key) <= 0)
+        continue;
+
+      int j = i - 1;
+      while (j >= 0 && Integer.compareUnsigned(keys[j], key) > 0) {
+        keys[j + 1] = keys[j];
+        order[j + 1] = order[j];
+        j--;
+        shifts++;
+      }
+      keys[j + 1] = key;
+      order[j + 1] = i;
+
+      if (shifts > maxShifts)
+        return null;
+    }
+    return order;
+  }
+
+  /**
+   * Return the number of items that do not stand at their original position in the last computed
+   * permutation.
+   */
+  public int countMoved() {
+    int moved = 0;
+    for (int i = 0; i < size; i++)
+      if (order[i] != i)
+        moved++;
+    return moved;
+  }
+
+  /** Sort the scores by decreasing value and reorder the input list accordingly. */
+  public <T> void sortDescending(List<T> list) {
+    checkSize(list);
+    reorder(list, sortDescending());
+  }
+
+  /** Sort the scores by increasing value and reorder the input list accordingly. */
+  public <T> void sortAscending(List<T> list) {
+    checkSize(list);
+    reorder(list, sortAscending());
+  }
+
+  /**
+   * Reorder the list according to a permutation where <code>order[i]</code> is the index of the
+   * item that should appear at position i.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> void reorder(List<T> list, int[] order) {
+    int n = list.size();
+
+    ensureCapacity(n);
+
+    // copy current list content
+    if (list instanceof RandomAccess) {
+      for (int i = 0; i < n; i++)
+        items[i] = list.get(i);
+    } else {
+      int i = 0;
+      for (T item : list)
+        items[i++] = item;
+    }
+
+    // write items in their new order
+    if (list instanceof RandomAccess) {
+      for (int i = 0; i < n; i++)
+        list.set(i, (T) items[order[i]]);
+    } else {
+      ListIterator<T> it = list.listIterator();
+      for (int i = 0; i < n; i++) {
+        it.next();
+        it.set((T) items[order[i]]);
+      }
+    }
+
+    // release references to avoid retaining items
+    for (int i = 0; i < n; i++)
+      items[i] = null;
+  }
+
+  /* */
+
+  protected int[] sort(boolean descending) {
+    int n = size;
+
+    for (int i = 0; i < n; i++) {
+      keys[i] = toSortableKey(scores[i], descending);
+      order[i] = i;
+    }
+
+    int[] srcKeys = keys;
+    int[] dstKeys = keysBuffer;
+    int[] srcOrder = order;
+    int[] dstOrder = orderBuffer;
+
+    for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS) {
+      if (radixPass(srcKeys, srcOrder, dstKeys, dstOrder, n, shift)) {
+        int[] k = srcKeys;
+        srcKeys = dstKeys;
+        dstKeys = k;
+        int[] o = srcOrder;
+        srcOrder = dstOrder;
+        dstOrder = o;
+      }
+    }
+
+    // keep the sorted arrays as the reference arrays for the next sort
+    keys = srcKeys;
+    keysBuffer = dstKeys;
+    order = srcOrder;
+    orderBuffer = dstOrder;
+
+    return order;
+  }
+
+  /**
+   * Stable counting sort of the keys on the byte standing at the given shift.
+   * 
+   * @return false if the pass was skipped because all keys share the same byte, in which case
+   *         destination arrays were not written.
+   */
+  protected boolean radixPass(int[] srcKeys, int[] srcOrder, int[] dstKeys, int[] dstOrder, int n,
+      int shift) {
+    int[] h = histogram;
+
+    for (int i = 0; i < RADIX; i++)
+      h[i] = 0;
+
+    for (int i = 0; i < n; i++)
+      h[(srcKeys[i] >>> shift) & RADIX_MASK]++;
+
+    // skip this pass if all keys share the same byte
+    if (n > 0 && h[(srcKeys[0] >>> shift) & RADIX_MASK] == n)
+      return false;
+
+    // convert counts to start offsets
+    int offset = 0;
+    for (int i = 0; i < RADIX; i++) {
+      int count = h[i];
+      h[i] = offset;
+      offset += count;
+    }
+
+    for (int i = 0; i < n; i++) {
+      int key = srcKeys[i];
+      int position = h[(key >>> shift) & RADIX_MASK]++;
+      dstKeys[position] = key;
+      dstOrder[position] = srcOrder[i];
+    }
+    return true;
+  }
+
+  /**
+   * Convert a float to an int which unsigned order is the same as the float order, or the reverse
+   * order if descending is true. NaN values are mapped to the greatest key.
+   */
+  public static int toSortableKey(float value, boolean descending) {
+    int bits;
+    if (Float.isNaN(value))
+      bits = 0x7fc00000; // canonical NaN
+    else
+      bits = Float.floatToRawIntBits(value + 0.0f); // merges -0 with +0
+
+    int key = bits ^ ((bits >> 31) | 0x80000000);
+    return descending ? ~key : key;
+  }
+
+  protected void checkSize(List<?> list) {
+    if (list.size() != size)
+      throw new IllegalArgumentException(
+          "List has " + list.size() + " items but " + size + " scores were given");
+  }
+
+  protected void ensureCapacity(int n) {
+    if (scores.length < n) {
+      scores = new float[n];
+      keys = new int[n];
+      keysBuffer = new int[n];
+      order = new int[n];
+      orderBuffer = new int[n];
+      items = new Object[n];
+    }
+  }
+}
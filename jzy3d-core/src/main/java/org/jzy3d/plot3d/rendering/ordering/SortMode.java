@@ -0,0 +1,26 @@
+package org.jzy3d.plot3d.rendering.ordering;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Define how an ordering strategy sorts a list of items.
+ */
+public enum SortMode {
+  /**
+   * Sort with {@link Collections#sort(List, java.util.Comparator)}, using the strategy as
+   * comparator. Scores are computed twice per comparison.
+   */
+  COMPARATOR,
+  /**
+   * Compute the score of each item once, sort the scores with a {@link ScoreSorter}, then reorder
+   * the items accordingly.
+   */
+  PRECOMPUTED_SCORES,
+  /**
+   * Compute the score of each item once and repair the order obtained at the previous frame with
+   * an insertion sort. Falls back to a full {@link #PRECOMPUTED_SCORES} sort if the list changed,
+   * if the viewpoint moved beyond a threshold or if the order is too far from being sorted.
+   */
+  INCREMENTAL
+}
@@ -2,6 +2,7 @@ package org.jzy3d.plot3d.rendering.scene;
 
 import java.util.ArrayList;
 import java.util.List;
+import org.jzy3d.plot3d.primitives.ArrayMesh;
 import org.jzy3d.plot3d.primitives.Composite;
 import org.jzy3d.plot3d.primitives.Drawable;
 import org.jzy3d.plot3d.primitives.Polygon;
@@ -38,6 +39,8 @@ public class Decomposition {
    * output list
    * <li>A {@link Drawable#isFaceDisplayed()}=false will be kept but not decomposed as object with
    * wireframe only or boundary only do not need a decomposition for rendering properly with alpha.
+   * <li>An {@link ArrayMesh} will be expanded in {@link Polygon}s only if
+   * {@link ArrayMesh#isDecomposable()}=true.
    * </ul>
    */
   public static List<Drawable> getDecomposition(List<? extends Drawable> drawables) {
@@ -50,6 +53,9 @@ public class Decomposition {
           Composite composite = (Composite)drawable;
           monotypes.addAll(getDecomposition(composite));
         }
+        else if (isDecomposable(drawable)) {
+          monotypes.addAll(((ArrayMesh) drawable).getDecomposition());
+        }
         else {
           monotypes.add(drawable);
         }
@@ -84,6 +90,8 @@ public class Decomposition {
               } else {
                 selection.add(compositeChild);
               }
+            } else if (isDecomposable(child)) {
+              selection.addAll(((ArrayMesh) child).getDecomposition());
             } else {
               selection.add(child);
             }
@@ -120,5 +128,10 @@ public class Decomposition {
     return selection;
   }
 
+  /** An {@link ArrayMesh} is decomposed in polygons only if it is configured so. */
+  protected static boolean isDecomposable(Drawable drawable) {
+    return drawable instanceof ArrayMesh && ((ArrayMesh) drawable).isDecomposable();
+  }
+
   private Decomposition() {}
 }
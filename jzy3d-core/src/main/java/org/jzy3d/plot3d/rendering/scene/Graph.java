@@ -1,7 +1,12 @@
 package org.jzy3d.plot3d.rendering.scene;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import org.jzy3d.events.DrawableChangedEvent;
+import org.jzy3d.events.IDrawableListener;
 import org.jzy3d.maths.BoundingBox3d;
 import org.jzy3d.painters.IPainter;
 import org.jzy3d.plot3d.primitives.Composite;
@@ -25,6 +30,14 @@ import org.jzy3d.plot3d.transform.Transform;
  * other specified {@link AbstractOrderingStrategy}. Sorting is usefull for handling transparency
  * properly.
  * 
+ * The decomposition is cached and only rebuilt when the graph content changes, i.e. when a
+ * {@link Drawable} is added or removed, or when a {@link Drawable} of the graph or a nested
+ * {@link Composite} notifies a {@link DrawableChangedEvent#FIELD_DISPLAYED} or
+ * {@link DrawableChangedEvent#FIELD_DATA} change. A frame where only the camera moved hence only
+ * sorts the cached list. Changes that are not notified to the graph (e.g. hiding a polygon of a
+ * composite, or editing the list returned by {@link Composite#getDrawables()}) should be followed
+ * by {@link #invalidateDecomposition()}.
+ * 
  * The {@link Graph} maintains a reference to its mother {@link Scene} in order to inform the
  * {@link View}s when its content has change and that repainting is required.
  * 
@@ -40,6 +53,20 @@ public class Graph {
   protected AbstractOrderingStrategy strategy;
   protected boolean sort = true;
 
+  protected List<Drawable> decomposition = new ArrayList<>();
+  protected volatile boolean decompositionDirty = true;
+  protected boolean cacheDecomposition = true;
+  protected IDrawableListener decompositionListener = new IDrawableListener() {
+    @Override
+    public void drawableChanged(DrawableChangedEvent e) {
+      if (e.what() == DrawableChangedEvent.FIELD_DISPLAYED
+          || e.what() == DrawableChangedEvent.FIELD_DATA)
+        invalidateDecomposition();
+    }
+  };
+  /** Graph components and nested composites currently listened by {@link #decompositionListener}. */
+  protected Set<Drawable> listenedDrawables = newIdentitySet();
+
   protected List<GraphListener> graphListener;
 
   protected BoundingBox3d clipBox;
@@ -79,6 +106,9 @@ public class Graph {
         c.dispose();
     // }
     components.clear();
+    listenedDrawables = newIdentitySet();
+    decomposition = new ArrayList<>();
+    invalidateDecomposition();
     scene = null;
   }
 
@@ -97,7 +127,11 @@ public class Graph {
   public void add(Drawable drawable, boolean updateViews) {
     synchronized (this) {
       components.add(drawable);
+
+      if (drawable != null && listenedDrawables.add(drawable))
+        drawable.addDrawableListener(decompositionListener);
     }
+    invalidateDecomposition();
 
     if (updateViews)
       viewsUpdateBounds();
@@ -129,7 +163,12 @@ public class Graph {
     boolean output = false;
     synchronized (this) {
       output = components.remove(drawable);
+
+      if (output && drawable != null && listenedDrawables.remove(drawable))
+        drawable.removeDrawableListener(decompositionListener);
     }
+    if (output)
+      invalidateDecomposition();
     BoundingBox3d bbox = getBounds();
     for (View view : scene.views) {
       view.lookToBox(bbox);
@@ -198,10 +237,7 @@ public class Graph {
       transform.execute(painter);
       
       
-      if(clipIncludesLimits)
-        painter.clip(clipBox.marginRatio(CLIP_MARGIN_RATIO)); // make the box a little bigger
-      else
-        painter.clip(clipBox);
+      painter.clip(getClippingBox());
       
       painter.clipOn();
 
@@ -238,10 +274,12 @@ public class Graph {
 
   /** render all items of the graph after decomposing all composite item into primitive drawables */
   public void drawDecomposition(IPainter painter) {
-    List<Drawable> monotypes = getDecomposition();
+    List<Drawable> monotypes = decompose();
     strategy.sort(monotypes, painter.getCamera());
 
-    for (Drawable d : monotypes) {
+    // indexed loop to avoid an iterator per frame
+    for (int i = 0; i < monotypes.size(); i++) {
+      Drawable d = monotypes.get(i);
       if (d.isDisplayed())
         d.draw(painter);
     }
@@ -250,13 +288,105 @@ public class Graph {
   /**
    * Expand all {@link AbstractComposites} instance into a list of atomic {@link Drawable} types and
    * return all the current Graph primitives decomposition.
+   * 
+   * The returned list is an unmodifiable copy, which is hence not reordered by the next frames.
    */
   public List<Drawable> getDecomposition() {
-    List<Drawable> monotypes;
-    synchronized (components) {
-      monotypes = Decomposition.getDecomposition(components);
+    return Collections.unmodifiableList(new ArrayList<>(decompose()));
+  }
+
+  /**
+   * Return the decomposition to draw. If {@link #isCacheDecomposition()} is true, the returned list
+   * is the one cached by the graph, which is sorted in place at each frame.
+   */
+  protected synchronized List<Drawable> decompose() {
+    if (!cacheDecomposition) {
+      synchronized (components) {
+        return Decomposition.getDecomposition(components);
+      }
+    }
+
+    if (decompositionDirty) {
+      // reset flag before decomposing so that a change notified meanwhile is not lost
+      decompositionDirty = false;
+
+      synchronized (components) {
+        decomposition = Decomposition.getDecomposition(components);
+        updateDecompositionListeners();
+      }
+    }
+    return decomposition;
+  }
+
+  /**
+   * Listen to the drawables of the graph and, recursively, to the {@link Composite}s they contain,
+   * including hidden ones, so that adding, removing, showing or hiding a composite child
+   * invalidates the decomposition. Leaf drawables nested in a composite are not listened to avoid
+   * registering a listener on each polygon of large surfaces : showing or hiding one of them
+   * should be followed by {@link #invalidateDecomposition()}.
+   */
+  protected void updateDecompositionListeners() {
+    Set<Drawable> reached = newIdentitySet();
+    collectListenedDrawables(components, true, reached);
+
+    for (Drawable d : listenedDrawables)
+      if (!reached.contains(d))
+        d.removeDrawableListener(decompositionListener);
+    for (Drawable d : reached)
+      if (!listenedDrawables.contains(d))
+        d.addDrawableListener(decompositionListener);
+
+    listenedDrawables = reached;
+  }
+
+  /**
+   * Collect the given drawables if they are graph components or {@link Composite}s, and recursively
+   * the {@link Composite}s they contain.
+   */
+  protected static void collectListenedDrawables(List<? extends Drawable> drawables,
+      boolean components, Set<Drawable> output) {
+    for (Drawable d : drawables) {
+      if (d instanceof Composite) {
+        if (output.add(d)) {
+          List<Drawable> children = ((Composite) d).getDrawables();
+          synchronized (children) {
+            collectListenedDrawables(children, false, output);
+          }
+        }
+      } else if (d != null && components) {
+        output.add(d);
+      }
     }
-    return monotypes;
+  }
+
+  protected static Set<Drawable> newIdentitySet() {
+    return Collections.newSetFromMap(new IdentityHashMap<Drawable, Boolean>());
+  }
+
+  /**
+   * Force the decomposition to be rebuilt at next rendering. Should be called after changing the
+   * content or the displayed status of a {@link Drawable} in a way that the graph can not be
+   * notified of.
+   */
+  public void invalidateDecomposition() {
+    decompositionDirty = true;
+  }
+
+  public boolean isDecompositionDirty() {
+    return decompositionDirty;
+  }
+
+  public boolean isCacheDecomposition() {
+    return cacheDecomposition;
+  }
+
+  /**
+   * Set to false to decompose the graph at each rendering instead of reusing the decomposition
+   * computed at the previous frame.
+   */
+  public void setCacheDecomposition(boolean cacheDecomposition) {
+    this.cacheDecomposition = cacheDecomposition;
+    invalidateDecomposition();
   }
 
   /** Update all interactive {@link Drawable} projections */
@@ -327,6 +457,19 @@ public class Graph {
     return clipBox;
   }
 
+  /**
+   * Return the box actually given to the painter for clipping, i.e. the clip box made a little
+   * bigger if it includes its limits, or null if no clip box is defined.
+   */
+  protected BoundingBox3d getClippingBox() {
+    if (clipBox == null)
+      return null;
+    else if (clipIncludesLimits)
+      return clipBox.marginRatio(CLIP_MARGIN_RATIO); // make the box a little bigger
+    else
+      return clipBox;
+  }
+
   public void setClipBox(BoundingBox3d clipBox) {
     setClipBox(clipBox, true);
   }
@@ -1,171 +1,281 @@
 package org.jzy3d.plot3d.rendering.scene;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.maths.BoundingBox3d;
 import org.jzy3d.painters.IPainter;
 import org.jzy3d.plot3d.primitives.Composite;
 import org.jzy3d.plot3d.primitives.Drawable;
 import org.jzy3d.plot3d.rendering.ordering.AbstractOrderingStrategy;
-import com.google.common.collect.Lists;
+import org.jzy3d.plot3d.rendering.ordering.ScoreSorter;
+import org.jzy3d.plot3d.rendering.view.Camera;
 
 /**
- * 
- * WORK IN PROGRESS
- * =================
- * 
- * Split drawing tasks to multiple thread, and wait for termination of all drawing tasks
- * before exiting the draw method, hence ensuring a consistent display.
- * 
- * This prove to be hardly managed by opengl backends (emulgl and jogl) that require GL primitives
- * being called consistently in order (glBegin->glVertex->glEnd) : multi thread make them interlaced
- * in the current GL context.
- * 
- * EmulGL : throws exception 
- * JOGL : AWT and NEWT are both crashing the JVM
- * 
- * 
- * 
- * 
- * @author martin
+ * A {@link Graph} that prepares the frame on multiple CPU cores while keeping the GL submission on
+ * the rendering thread.
  *
+ * OpenGL backends (EmulGL and JOGL) require GL primitives to be called consistently in order
+ * (glBegin->glVertex->glEnd) from a single thread. This graph hence splits each frame in two
+ * stages :
+ * <ul>
+ * <li>a preparation stage running on a {@link ForkJoinPool}, that scores each {@link Drawable} of
+ * the decomposition with the {@link AbstractOrderingStrategy}, culls the hidden ones and the ones
+ * standing outside of the {@link #getClipBox()}, and sorts them by decreasing score.
+ * <li>a submission stage running on the calling GL thread, that draws the prepared drawables in
+ * order.
+ * </ul>
+ *
+ * The preparation stage relies on
+ * {@link AbstractOrderingStrategy#computeScores(List, float[], int, int)} and always sorts by
+ * decreasing score, hence ignores custom {@link AbstractOrderingStrategy#compare(Drawable, Drawable)}
+ * implementations. Drawables having equal scores keep their decomposition order.
+ *
+ * The pool is either created and owned by the graph, or given by the caller. An owned pool is shut
+ * down by {@link #dispose()}, which is invoked when the chart is disposed. A given pool remains
+ * under the responsibility of the caller.
+ *
+ * @author Martin Pernollet
  */
 public class MultithreadedGraph extends Graph {
-  int cores;
-  ExecutorService executor;
+  /** Number of drawables under which a preparation task is not split anymore. */
+  protected static final int DEFAULT_TASK_SIZE = 4096;
+  protected static final long DISPOSE_TIMEOUT_MS = 1000;
+
+  protected ForkJoinPool pool;
+  protected boolean ownsPool;
+  protected int taskSize = DEFAULT_TASK_SIZE;
+
+  // buffers reused from one frame to the other
+  protected float[] scores = new float[0];
+  protected long[] keys = new long[0];
+  protected long[] keysBuffer = new long[0];
 
   public MultithreadedGraph(Scene scene, AbstractOrderingStrategy strategy, boolean sort) {
-    super(scene, strategy, sort);
+    this(scene, strategy, sort, new ForkJoinPool(Runtime.getRuntime().availableProcessors()));
+    this.ownsPool = true;
+  }
 
-    cores = Runtime.getRuntime().availableProcessors();
-    executor = Executors.newFixedThreadPool(cores);
+  /**
+   * Build a graph preparing frames with the given pool, which won't be shut down when the graph is
+   * disposed.
+   */
+  public MultithreadedGraph(Scene scene, AbstractOrderingStrategy strategy, boolean sort,
+      ForkJoinPool pool) {
+    super(scene, strategy, sort);
+    this.pool = pool;
+    this.ownsPool = false;
   }
 
   @Override
   public synchronized void dispose() {
-    executor.shutdownNow(); // does not await termination of tasks
+    if (ownsPool)
+      shutdownPool();
     super.dispose();
   }
 
-
+  protected void shutdownPool() {
+    pool.shutdown();
+    try {
+      if (!pool.awaitTermination(DISPOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+        pool.shutdownNow();
+    } catch (InterruptedException e) {
+      pool.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
 
   /**
-   * Decompose all {@link Composite} objects, and sort the extracted monotype (i.e.
-   * non-{@link Composite} {@link Drawable}s) in order to render them according to the default -or
-   * defined- {@link AbstractOrderingStrategy}.
-   * 
+   * Decompose all {@link Composite} objects, prepare the extracted monotypes on the pool, and draw
+   * them in order from the calling thread.
    */
   @Override
-  public void draw(IPainter painter) {
-    draw(painter, components, sort);
+  public void drawDecomposition(IPainter painter) {
+    List<Drawable> monotypes = decompose();
+
+    int visible = prepare(monotypes, painter.getCamera());
+
+    for (int i = 0; i < visible; i++) {
+      monotypes.get(indexOf(keys[i])).draw(painter);
+    }
   }
 
-  // https://www.baeldung.com/java-executor-service-tutorial
-  @Override
-  public synchronized void draw(IPainter painter, List<Drawable> components, boolean sort) {
+  /**
+   * Score, cull and sort the monotypes on the pool. After this call, the first returned number of
+   * elements of {@link #getKeys()} hold the index of the drawables to render, in rendering order
+   * (see {@link #indexOf(long)}).
+   *
+   * @return the number of drawables to render.
+   */
+  public int prepare(List<Drawable> monotypes, Camera camera) {
+    int n = monotypes.size();
+    ensureCapacity(n);
 
-    if(components.size()==0)
-      return;
+    if (n == 0)
+      return 0;
 
-    painter.glMatrixMode_ModelView();
+    strategy.setCamera(camera);
 
-    // Decompose
-    synchronized (components) {
-      components = Decomposition.getDecomposition(components);
-    }
-      
+    // cull with the box clipped by the painter, including its margin
+    int visible = pool.invoke(new PrepareTask(monotypes, getClippingBox(), 0, n));
+    pool.invoke(new SortTask(0, n));
+    return visible;
+  }
 
-    
-    // Compute chunks
-    int chunckSize = (int) (1f * components.size() / cores);
-    
-    List<List<Drawable>> chuncks =
-        Lists.partition(components, chunckSize);
+  /** Return the index of the drawable encoded in the given key. */
+  public static int indexOf(long key) {
+    return (int) key;
+  }
 
-    int chunckNumber = chuncks.size();
+  /**
+   * Encode a score and an index in a long which natural order sorts scores by decreasing value,
+   * and equal scores by increasing index.
+   */
+  protected static long toKey(float score, int index) {
+    int key = ScoreSorter.toSortableKey(score, true) ^ 0x80000000;
+    return ((long) key << 32) | (index & 0xFFFFFFFFL);
+  }
 
-    System.out.println("cores:" + cores + " chunks:" + chunckNumber + " components:" + components.size() + " chunk size:" + chunckSize);
+  /** A key greater than any key produced by {@link #toKey(float, int)}, used for culled items. */
+  protected static final long CULLED = Long.MAX_VALUE;
 
-    
-    //CyclicBarrier cyclicBarrier = new CyclicBarrier(chunckNumber);
-    CountDownLatch doneSignal = new CountDownLatch(chunckNumber);
-    
-    for (List<Drawable> chunck : chuncks) {
+  protected static boolean isCulled(Drawable d, BoundingBox3d clip) {
+    if (!d.isDisplayed())
+      return true;
+    if (clip == null)
+      return false;
 
-      /*Callable<Void> drawChunkTask = () -> {
-        System.out.println("GO CHUNK (size:" + chunck.size());
+    BoundingBox3d b = d.getBounds();
+    if (b == null || b.isReset())
+      return false;
 
-        for (Drawable d : chunck) {
-          d.draw(painter);
-        }
-        System.out.println("COUNT DOWN");
-
-        doneSignal.countDown();
-        return null;
-      };*/
-      
-      Runnable drawChunkTask2 = () -> {
-        System.out.println("GO CHUNK (size:" + chunck.size());
-
-        for (Drawable d : chunck) {
-          System.out.print("*");
-          d.draw(painter);
+    return b.getXmax() < clip.getXmin() || b.getXmin() > clip.getXmax()
+        || b.getYmax() < clip.getYmin() || b.getYmin() > clip.getYmax()
+        || b.getZmax() < clip.getZmin() || b.getZmin() > clip.getZmax();
+  }
+
+  /** Score and cull a range of drawables and return the number of visible ones. */
+  protected class PrepareTask extends RecursiveTask<Integer> {
+    private static final long serialVersionUID = 1L;
+
+    protected List<Drawable> monotypes;
+    protected BoundingBox3d clip;
+    protected int from;
+    protected int to;
+
+    public PrepareTask(List<Drawable> monotypes, BoundingBox3d clip, int from, int to) {
+      this.monotypes = monotypes;
+      this.clip = clip;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Integer compute() {
+      if (to - from > taskSize) {
+        int mid = (from + to) >>> 1;
+        PrepareTask left = new PrepareTask(monotypes, clip, from, mid);
+        PrepareTask right = new PrepareTask(monotypes, clip, mid, to);
+        left.fork();
+        int r = right.compute();
+        return left.join() + r;
+      }
+
+      strategy.computeScores(monotypes, scores, from, to);
+
+      int visible = 0;
+      for (int i = from; i < to; i++) {
+        if (isCulled(monotypes.get(i), clip)) {
+          keys[i] = CULLED;
+        } else {
+          keys[i] = toKey(scores[i], i);
+          visible++;
         }
-        System.out.println("COUNT DOWN");
+      }
+      return visible;
+    }
+  }
 
-        doneSignal.countDown();
-      };
-      //executor.submit(drawChunkTask2);
-      executor.execute(drawChunkTask2);
+  /** Merge sort of a range of keys, sorting small ranges sequentially. */
+  protected class SortTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    protected int from;
+    protected int to;
+
+    public SortTask(int from, int to) {
+      this.from = from;
+      this.to = to;
     }
 
-    // Wait for task to finish
-    System.out.println("AWAIT");
-    try {
-      //cyclicBarrier.await();
-      doneSignal.await();
-      System.out.println("DONE");
-    } catch (InterruptedException e) {
-      e.printStackTrace();
-    }    
-    
+    @Override
+    protected void compute() {
+      if (to - from <= taskSize) {
+        Arrays.sort(keys, from, to);
+        return;
+      }
 
-    /*
-     * if (!sort) { drawSimple(painter, components); } else { drawDecomposition(painter); }
-     */
+      int mid = (from + to) >>> 1;
+      invokeAll(new SortTask(from, mid), new SortTask(mid, to));
+
+      if (keys[mid - 1] <= keys[mid])
+        return; // already ordered
+
+      // merge both halves in buffer, then copy back
+      int i = from;
+      int j = mid;
+      int k = from;
+      while (i < mid && j < to)
+        keysBuffer[k++] = keys[i] <= keys[j] ? keys[i++] : keys[j++];
+      while (i < mid)
+        keysBuffer[k++] = keys[i++];
+      while (j < to)
+        keysBuffer[k++] = keys[j++];
+      System.arraycopy(keysBuffer, from, keys, from, to - from);
+    }
   }
 
-  /** render all items of the graph */
-  @Override
-  public void drawSimple(IPainter painter, List<Drawable> components) {
-    for (Drawable d : components)
-      if (d.isDisplayed())
-        d.draw(painter);
+  protected void ensureCapacity(int n) {
+    if (scores.length < n) {
+      scores = new float[n];
+      keys = new long[n];
+      keysBuffer = new long[n];
+    }
   }
 
-  /** render all items of the graph after decomposing all composite item into primitive drawables */
-  @Override
-  public void drawDecomposition(IPainter painter) {
-    List<Drawable> monotypes = getDecomposition();
-    strategy.sort(monotypes, painter.getCamera());
+  /* */
 
-    for (Drawable d : monotypes) {
-      if (d.isDisplayed())
-        d.draw(painter);
-    }
+  /**
+   * Keys computed by the last {@link #prepare(List, Camera)}, sorted in rendering order.
+   */
+  public long[] getKeys() {
+    return keys;
+  }
+
+  public ForkJoinPool getPool() {
+    return pool;
   }
 
   /**
-   * Expand all {@link AbstractComposites} instance into a list of atomic {@link Drawable} types and
-   * return all the current Graph primitives decomposition.
+   * Set the pool used to prepare frames. The previous pool is shut down if it was owned by this
+   * graph. The given pool won't be shut down when the graph is disposed.
    */
-  @Override
-  public List<Drawable> getDecomposition() {
-    List<Drawable> monotypes;
-    synchronized (components) {
-      monotypes = Decomposition.getDecomposition(components);
-    }
-    return monotypes;
+  public synchronized void setPool(ForkJoinPool pool) {
+    if (ownsPool)
+      shutdownPool();
+    this.pool = pool;
+    this.ownsPool = false;
+  }
+
+  public int getTaskSize() {
+    return taskSize;
+  }
+
+  /** Number of drawables under which a preparation task is processed sequentially. */
+  public void setTaskSize(int taskSize) {
+    this.taskSize = taskSize;
   }
 }
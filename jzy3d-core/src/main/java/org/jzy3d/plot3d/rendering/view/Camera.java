@@ -340,24 +340,52 @@ public class Camera extends AbstractViewportManager {
     return new Coord3d(screenCoord[0], screenCoord[1], screenCoord[2]);
   }
 
-  public Coord3d[] modelToScreen(IPainter painter, Coord3d[] points) {
-    int viewport[] = painter.getViewPortAsInt();
+  /**
+   * Return a snapshot of the current modelview, projection and viewport of the painter, to project
+   * many points at once with {@link ScreenProjection#project(float[], float[])}.
+   * 
+   * Requires the GL context to be current, as {@link #modelToScreen(IPainter, Coord3d)}.
+   */
+  public ScreenProjection getScreenProjection(IPainter painter) {
+    return new ScreenProjection(painter);
+  }
 
-    float screenCoord[] = new float[3];
+  /**
+   * Project interleaved x,y,z model coordinates into the caller owned <code>screen</code> array,
+   * querying the painter matrices once for all points.
+   * 
+   * @see ScreenProjection#project(float[], float[])
+   */
+  public void modelToScreen(IPainter painter, float[] xyz, float[] screen) {
+    if (getScreenProjection(painter).project(xyz, screen) > 0)
+      failedProjection("Could not retrieve model coordinates in screen for some points");
+  }
+
+  /**
+   * Project points into the caller owned <code>screen</code> array, holding interleaved x,y,z
+   * screen coordinates, querying the painter matrices once for all points.
+   * 
+   * @see ScreenProjection#project(Coord3d[], float[])
+   */
+  public void modelToScreen(IPainter painter, Coord3d[] points, float[] screen) {
+    if (getScreenProjection(painter).project(points, screen) > 0)
+      failedProjection("Could not retrieve model coordinates in screen for some points");
+  }
+
+  public Coord3d[] modelToScreen(IPainter painter, Coord3d[] points) {
+    float[] screen = new float[points.length * 3];
+    modelToScreen(painter, points, screen);
 
     Coord3d[] projection = new Coord3d[points.length];
 
     for (int i = 0; i < points.length; i++) {
-      if (!painter.gluProject(points[i].x, points[i].y, points[i].z, painter.getModelViewAsFloat(),
-          0, painter.getProjectionAsFloat(), 0, viewport, 0, screenCoord, 0))
-        failedProjection("Could not retrieve model coordinates in screen for " + points[i]);
-      projection[i] = new Coord3d(screenCoord[0], screenCoord[1], screenCoord[2]);
+      projection[i] = new Coord3d(screen[i * 3], screen[i * 3 + 1], screen[i * 3 + 2]);
     }
     return projection;
   }
 
   public Coord3d[][] modelToScreen(IPainter painter, Coord3d[][] points) {
-    int viewport[] = painter.getViewPortAsInt();
+    ScreenProjection screen = getScreenProjection(painter);
 
     float screenCoord[] = new float[3];
 
@@ -365,9 +393,7 @@ public class Camera extends AbstractViewportManager {
 
     for (int i = 0; i < points.length; i++) {
       for (int j = 0; j < points[i].length; j++) {
-        if (!painter.gluProject(points[i][j].x, points[i][j].y, points[i][j].z,
-            painter.getModelViewAsFloat(), 0, painter.getProjectionAsFloat(), 0, viewport, 0,
-            screenCoord, 0))
+        if (!screen.project(points[i][j].x, points[i][j].y, points[i][j].z, screenCoord, 0))
           failedProjection("Could not retrieve model coordinates in screen for " + points[i][j]);
         projection[i][j] = new Coord3d(screenCoord[0], screenCoord[1], screenCoord[2]);
       }
@@ -376,15 +402,14 @@ public class Camera extends AbstractViewportManager {
   }
 
   public List<Coord3d> modelToScreen(IPainter painter, List<Coord3d> points) {
-    int viewport[] = painter.getViewPortAsInt();
+    ScreenProjection screen = getScreenProjection(painter);
 
     float screenCoord[] = new float[3];
 
     List<Coord3d> projection = new Vector<Coord3d>();
 
     for (Coord3d point : points) {
-      if (!painter.gluProject(point.x, point.y, point.z, painter.getModelViewAsFloat(), 0,
-          painter.getProjectionAsFloat(), 0, viewport, 0, screenCoord, 0))
+      if (!screen.project(point.x, point.y, point.z, screenCoord, 0))
         failedProjection("Could not retrieve model coordinates in screen for " + point);
       projection.add(new Coord3d(screenCoord[0], screenCoord[1], screenCoord[2]));
     }
@@ -393,7 +418,7 @@ public class Camera extends AbstractViewportManager {
 
   public ArrayList<ArrayList<Coord3d>> modelToScreen(IPainter painter,
       ArrayList<ArrayList<Coord3d>> polygons) {
-    int viewport[] = painter.getViewPortAsInt();
+    ScreenProjection screen = getScreenProjection(painter);
 
     float screenCoord[] = new float[3];
 
@@ -402,8 +427,7 @@ public class Camera extends AbstractViewportManager {
     for (ArrayList<Coord3d> polygon : polygons) {
       ArrayList<Coord3d> projection = new ArrayList<Coord3d>(polygon.size());
       for (Coord3d point : polygon) {
-        if (!painter.gluProject(point.x, point.y, point.z, painter.getModelViewAsFloat(), 0,
-            painter.getProjectionAsFloat(), 0, viewport, 0, screenCoord, 0))
+        if (!screen.project(point.x, point.y, point.z, screenCoord, 0))
           failedProjection("Could not retrieve model coordinates in screen for " + point);
         projection.add(new Coord3d(screenCoord[0], screenCoord[1], screenCoord[2]));
       }
@@ -413,8 +437,22 @@ public class Camera extends AbstractViewportManager {
   }
 
   public PolygonArray modelToScreen(IPainter painter, PolygonArray polygon) {
-    int viewport[] = painter.getViewPortAsInt();
+    return modelToScreen(getScreenProjection(painter), polygon);
+  }
+
+  public PolygonArray[][] modelToScreen(IPainter painter, PolygonArray[][] polygons) {
+    ScreenProjection screen = getScreenProjection(painter);
+
+    PolygonArray[][] projections = new PolygonArray[polygons.length][polygons[0].length];
+    for (int i = 0; i < polygons.length; i++) {
+      for (int j = 0; j < polygons[i].length; j++) {
+        projections[i][j] = modelToScreen(screen, polygons[i][j]);
+      }
+    }
+    return projections;
+  }
 
+  protected PolygonArray modelToScreen(ScreenProjection screen, PolygonArray polygon) {
     float screenCoord[] = new float[3];
 
     int len = polygon.length();
@@ -424,9 +462,7 @@ public class Camera extends AbstractViewportManager {
     float[] z = new float[len];
 
     for (int i = 0; i < len; i++) {
-      if (!painter.gluProject(polygon.x[i], polygon.y[i], polygon.z[i],
-          painter.getModelViewAsFloat(), 0, painter.getProjectionAsFloat(), 0, viewport, 0,
-          screenCoord, 0))
+      if (!screen.project(polygon.x[i], polygon.y[i], polygon.z[i], screenCoord, 0))
         failedProjection("Could not retrieve model coordinates in screen for point " + i);
       x[i] = screenCoord[0];
       y[i] = screenCoord[1];
@@ -435,34 +471,6 @@ public class Camera extends AbstractViewportManager {
     return new PolygonArray(x, y, z);
   }
 
-  public PolygonArray[][] modelToScreen(IPainter painter, PolygonArray[][] polygons) {
-    int viewport[] = painter.getViewPortAsInt();
-    float screencoord[] = new float[3];
-
-    PolygonArray[][] projections = new PolygonArray[polygons.length][polygons[0].length];
-    for (int i = 0; i < polygons.length; i++) {
-      for (int j = 0; j < polygons[i].length; j++) {
-        PolygonArray polygon = polygons[i][j];
-        int len = polygon.length();
-        float[] x = new float[len];
-        float[] y = new float[len];
-        float[] z = new float[len];
-
-        for (int k = 0; k < len; k++) {
-          if (!painter.gluProject(polygon.x[k], polygon.y[k], polygon.z[k],
-              painter.getModelViewAsFloat(), 0, painter.getProjectionAsFloat(), 0, viewport, 0,
-              screencoord, 0))
-            failedProjection("Could not retrieve model coordinates in screen for point " + k);
-          x[k] = screencoord[0];
-          y[k] = screencoord[1];
-          z[k] = screencoord[2];
-        }
-        projections[i][j] = new PolygonArray(x, y, z);
-      }
-    }
-    return projections;
-  }
-
   protected void failedProjection(String message) {
     if (failOnException)
       throw new RuntimeException(message);
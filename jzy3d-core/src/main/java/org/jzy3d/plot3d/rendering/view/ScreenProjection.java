@@ -0,0 +1,296 @@
+package org.jzy3d.plot3d.rendering.view;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.painters.IPainter;
+
+/**
+ * A snapshot of the modelview, projection and viewport of a painter, to project many model
+ * coordinates to screen without querying the painter for each point.
+ *
+ * The modelview and projection matrices are multiplied once at construction, so that projecting a
+ * point costs a single matrix-vector product, and points are read from and written to caller owned
+ * arrays, so that projecting allocates nothing. Inputs larger than {@link #getTileSize()} points are
+ * split in tiles projected in parallel on a {@link ForkJoinPool}.
+ *
+ * Projected coordinates follow gluProject : x and y are in pixels of the viewport, z is the depth
+ * in [0,1] for points between the near and far clipping planes. A point having a null homogeneous
+ * coordinate can not be projected and is written as {@link Float#NaN}.
+ *
+ * <pre>
+ * <code>
+ * ScreenProjection projection = chart.getView().getCamera().getScreenProjection(painter);
+ * projection.project(xyz, screen); // xyz and screen are interleaved x,y,z arrays
+ * </code>
+ * </pre>
+ *
+ * The snapshot is not updated when the camera moves : a new one should be taken for each frame.
+ *
+ * @author Martin Pernollet
+ */
+public class ScreenProjection {
+  /** Number of points under which a projection task is not split anymore. */
+  public static final int DEFAULT_TILE_SIZE = 16384;
+
+  /** Column major product of the projection and modelview matrices */
+  protected final double[] mvp = new double[16];
+  protected final double viewportX;
+  protected final double viewportY;
+  protected final double viewportWidth;
+  protected final double viewportHeight;
+
+  protected ForkJoinPool pool = ForkJoinPool.commonPool();
+  protected int tileSize = DEFAULT_TILE_SIZE;
+
+  /** Snapshot the current matrices and viewport of the painter. */
+  public ScreenProjection(IPainter painter) {
+    this(painter.getModelViewAsFloat(), painter.getProjectionAsFloat(),
+        painter.getViewPortAsInt());
+  }
+
+  /**
+   * @param modelView a column major 4x4 modelview matrix.
+   * @param projection a column major 4x4 projection matrix.
+   * @param viewport the viewport as {x, y, width, height}.
+   */
+  public ScreenProjection(float[] modelView, float[] projection, int[] viewport) {
+    if (modelView.length < 16 || projection.length < 16)
+      throw new IllegalArgumentException("Matrices must have 16 elements");
+    if (viewport.length < 4)
+      throw new IllegalArgumentException("Viewport must have 4 elements");
+
+    for (int col = 0; col < 4; col++) {
+      for (int row = 0; row < 4; row++) {
+        double sum = 0;
+        for (int k = 0; k < 4; k++)
+          sum += (double) projection[k * 4 + row] * modelView[col * 4 + k];
+        mvp[col * 4 + row] = sum;
+      }
+    }
+
+    this.viewportX = viewport[0];
+    this.viewportY = viewport[1];
+    this.viewportWidth = viewport[2];
+    this.viewportHeight = viewport[3];
+  }
+
+  /**
+   * Project a single point and write its screen coordinates at <code>offset</code> of
+   * <code>screen</code>.
+   *
+   * @return false if the point could not be projected, in which case NaN is written.
+   */
+  public boolean project(float x, float y, float z, float[] screen, int offset) {
+    double[] m = mvp;
+    double w = m[3] * x + m[7] * y + m[11] * z + m[15];
+
+    if (w == 0) {
+      screen[offset] = Float.NaN;
+      screen[offset + 1] = Float.NaN;
+      screen[offset + 2] = Float.NaN;
+      return false;
+    }
+
+    double cx = (m[0] * x + m[4] * y + m[8] * z + m[12]) / w;
+    double cy = (m[1] * x + m[5] * y + m[9] * z + m[13]) / w;
+    double cz = (m[2] * x + m[6] * y + m[10] * z + m[14]) / w;
+
+    screen[offset] = (float) (viewportX + (1 + cx) * viewportWidth / 2);
+    screen[offset + 1] = (float) (viewportY + (1 + cy) * viewportHeight / 2);
+    screen[offset + 2] = (float) ((1 + cz) / 2);
+    return true;
+  }
+
+  /** Project a single point to a new coordinate, having NaN components if it can not be projected. */
+  public Coord3d project(Coord3d point) {
+    float[] screen = new float[3];
+    project(point.x, point.y, point.z, screen, 0);
+    return new Coord3d(screen[0], screen[1], screen[2]);
+  }
+
+  /**
+   * Project interleaved x,y,z model coordinates into interleaved x,y,z screen coordinates.
+   *
+   * @param xyz the model coordinates, 3 values per point.
+   * @param screen the output, at least as long as <code>xyz</code>. May be <code>xyz</code> itself
+   *        to project in place.
+   * @return the number of points that could not be projected.
+   */
+  public int project(float[] xyz, float[] screen) {
+    checkOutput(xyz.length / 3, screen);
+    return run(new Input() {
+      @Override
+      public int project(int from, int to) {
+        int failed = 0;
+        for (int i = from; i < to; i++) {
+          int k = i * 3;
+          if (!ScreenProjection.this.project(xyz[k], xyz[k + 1], xyz[k + 2], screen, k))
+            failed++;
+        }
+        return failed;
+      }
+    }, xyz.length / 3);
+  }
+
+  /**
+   * Project coordinates given as separated x, y and z arrays into interleaved x,y,z screen
+   * coordinates.
+   *
+   * @return the number of points that could not be projected.
+   */
+  public int project(float[] x, float[] y, float[] z, float[] screen) {
+    if (y.length != x.length || z.length != x.length)
+      throw new IllegalArgumentException(
+          "Coordinate arrays differ in length : " + x.length + ", " + y.length + ", " + z.length);
+    checkOutput(x.length, screen);
+    return run(new Input() {
+      @Override
+      public int project(int from, int to) {
+        int failed = 0;
+        for (int i = from; i < to; i++) {
+          if (!ScreenProjection.this.project(x[i], y[i], z[i], screen, i * 3))
+            failed++;
+        }
+        return failed;
+      }
+    }, x.length);
+  }
+
+  /**
+   * Project points into interleaved x,y,z screen coordinates.
+   *
+   * @return the number of points that could not be projected.
+   */
+  public int project(Coord3d[] points, float[] screen) {
+    checkOutput(points.length, screen);
+    return run(new Input() {
+      @Override
+      public int project(int from, int to) {
+        int failed = 0;
+        for (int i = from; i < to; i++) {
+          Coord3d p = points[i];
+          if (!ScreenProjection.this.project(p.x, p.y, p.z, screen, i * 3))
+            failed++;
+        }
+        return failed;
+      }
+    }, points.length);
+  }
+
+  protected void checkOutput(int points, float[] screen) {
+    if (screen.length < points * 3)
+      throw new IllegalArgumentException(
+          "Output can hold " + screen.length / 3 + " points, need " + points);
+  }
+
+  protected int run(Input input, int points) {
+    if (pool != null && points > tileSize)
+      return pool.invoke(new ProjectTask(input, 0, points));
+    else
+      return input.project(0, points);
+  }
+
+  /** Projects a range of points of an input and returns the number of failures. */
+  protected interface Input {
+    int project(int from, int to);
+  }
+
+  protected class ProjectTask extends RecursiveTask<Integer> {
+    private static final long serialVersionUID = 1L;
+
+    protected Input input;
+    protected int from;
+    protected int to;
+
+    public ProjectTask(Input input, int from, int to) {
+      this.input = input;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Integer compute() {
+      if (to - from <= tileSize)
+        return input.project(from, to);
+
+      int mid = (from + to) >>> 1;
+      ProjectTask right = new ProjectTask(input, mid, to);
+      right.fork();
+      int failed = new ProjectTask(input, from, mid).compute();
+      return failed + right.join();
+    }
+  }
+
+  /**
+   * Project a point as gluProject does, reading the matrices and viewport at the given offsets, but
+   * without allocating anything. Painters lacking a native gluProject may delegate to this method.
+   *
+   * @return false if the point could not be projected.
+   */
+  public static boolean gluProject(float objX, float objY, float objZ, float[] model,
+      int modelOffset, float[] proj, int projOffset, int[] view, int viewOffset, float[] winPos,
+      int winPosOffset) {
+    // eye = model * obj
+    double ex = model[modelOffset] * objX + model[modelOffset + 4] * objY
+        + model[modelOffset + 8] * objZ + model[modelOffset + 12];
+    double ey = model[modelOffset + 1] * objX + model[modelOffset + 5] * objY
+        + model[modelOffset + 9] * objZ + model[modelOffset + 13];
+    double ez = model[modelOffset + 2] * objX + model[modelOffset + 6] * objY
+        + model[modelOffset + 10] * objZ + model[modelOffset + 14];
+    double ew = model[modelOffset + 3] * objX + model[modelOffset + 7] * objY
+        + model[modelOffset + 11] * objZ + model[modelOffset + 15];
+
+    // clip = proj * eye
+    double cx = proj[projOffset] * ex + proj[projOffset + 4] * ey + proj[projOffset + 8] * ez
+        + proj[projOffset + 12] * ew;
+    double cy = proj[projOffset + 1] * ex + proj[projOffset + 5] * ey + proj[projOffset + 9] * ez
+        + proj[projOffset + 13] * ew;
+    double cz = proj[projOffset + 2] * ex + proj[projOffset + 6] * ey + proj[projOffset + 10] * ez
+        + proj[projOffset + 14] * ew;
+    double cw = proj[projOffset + 3] * ex + proj[projOffset + 7] * ey + proj[projOffset + 11] * ez
+        + proj[projOffset + 15] * ew;
+
+    if (cw == 0)
+      return false;
+
+    cx /= cw;
+    cy /= cw;
+    cz /= cw;
+
+    winPos[winPosOffset] = (float) (view[viewOffset] + (1 + cx) * view[viewOffset + 2] / 2);
+    winPos[winPosOffset + 1] = (float) (view[viewOffset + 1] + (1 + cy) * view[viewOffset + 3] / 2);
+    winPos[winPosOffset + 2] = (float) ((1 + cz) / 2);
+    return true;
+  }
+
+  /* */
+
+  /** The column major product of the projection and modelview matrices. Do not edit. */
+  public double[] getModelViewProjection() {
+    return mvp;
+  }
+
+  public ForkJoinPool getPool() {
+    return pool;
+  }
+
+  /**
+   * Set the pool projecting large inputs, or null to project them on the calling thread. Default
+   * to the common pool.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  public int getTileSize() {
+    return tileSize;
+  }
+
+  /** Set the number of points projected by a single task. */
+  public void setTileSize(int tileSize) {
+    if (tileSize < 1)
+      throw new IllegalArgumentException("Tile size must be positive : " + tileSize);
+    this.tileSize = tileSize;
+  }
+}
@@ -0,0 +1,57 @@
+package org.jzy3d.plot3d.rendering.view.lod;
+
+import java.util.Arrays;
+import org.jzy3d.plot3d.primitives.LODSurface;
+import org.jzy3d.plot3d.primitives.Wireframeable;
+
+/**
+ * A {@link LODSetting} that also reduces the geometry of {@link LODSurface}s, by setting the screen
+ * size of their cells. Other {@link Wireframeable}s only have their display modes changed.
+ *
+ * Ranked in {@link LODCandidates} and scored by {@link LODPerf}, such settings let
+ * {@link LODPerf#applyBestCandidateBelow(double, Wireframeable)} pick the finest resolution able to
+ * render within a frame time budget.
+ *
+ * @author Martin Pernollet
+ */
+public class GeometricLODSetting extends LODSetting {
+  protected double tolerance;
+
+  /**
+   * @param tolerance screen size of a surface cell in pixels, see
+   *        {@link LODSurface#setTolerance(double)}.
+   */
+  public GeometricLODSetting(String name, FaceColor face, WireColor wire, double tolerance) {
+    super(name, face, wire);
+    if (tolerance <= 0)
+      throw new IllegalArgumentException("Tolerance must be positive : " + tolerance);
+    this.tolerance = tolerance;
+  }
+
+  @Override
+  public void apply(Wireframeable wireframeable) {
+    super.apply(wireframeable);
+
+    if (wireframeable instanceof LODSurface)
+      ((LODSurface) wireframeable).setTolerance(tolerance);
+  }
+
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  /**
+   * Build candidates drawing faces without wireframe, ranked from the finest to the coarsest of the
+   * given tolerances.
+   */
+  public static LODCandidates candidates(double... tolerances) {
+    double[] sorted = tolerances.clone();
+    Arrays.sort(sorted);
+
+    LODSetting[] settings = new LODSetting[sorted.length];
+    for (int i = 0; i < sorted.length; i++)
+      settings[i] = new GeometricLODSetting(i + " [face:on, wire:off, cell:" + sorted[i] + "px]",
+          FaceColor.ON, WireColor.OFF, sorted[i]);
+    return new LODCandidates(settings);
+  }
+}
@@ -0,0 +1,110 @@
+package org.jzy3d.plot3d.rendering.view.lod;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import org.jzy3d.maths.Range;
+import org.jzy3d.plot3d.builder.Mapper;
+
+/**
+ * A regular grid of heights, where the height of the grid point (xi,yi) stands at index
+ * <code>xi * ysteps + yi</code>, as in {@link org.jzy3d.plot3d.builder.concrete.OrthonormalGrid}.
+ *
+ * Heights are read from a {@link FloatBuffer}, which may wrap an array or be mapped from a file,
+ * so that an 8192x8192 grid only costs its 256MB of floats, or no heap at all when mapped.
+ *
+ * @author Martin Pernollet
+ */
+public class HeightField {
+  protected final FloatBuffer heights;
+  protected final Range xrange;
+  protected final Range yrange;
+  protected final int xsteps;
+  protected final int ysteps;
+
+  public HeightField(float[] heights, Range xrange, int xsteps, Range yrange, int ysteps) {
+    this(FloatBuffer.wrap(heights), xrange, xsteps, yrange, ysteps);
+  }
+
+  /**
+   * @param heights xsteps * ysteps heights read with absolute gets, hence from index 0 whatever
+   *        the buffer position.
+   */
+  public HeightField(FloatBuffer heights, Range xrange, int xsteps, Range yrange, int ysteps) {
+    if (xsteps < 2 || ysteps < 2)
+      throw new IllegalArgumentException(
+          "A height field needs at least 2x2 points : " + xsteps + "x" + ysteps);
+    if (heights.capacity() < (long) xsteps * ysteps)
+      throw new IllegalArgumentException("Expect " + ((long) xsteps * ysteps)
+          + " heights, got " + heights.capacity());
+
+    this.heights = heights;
+    this.xrange = xrange;
+    this.yrange = yrange;
+    this.xsteps = xsteps;
+    this.ysteps = ysteps;
+  }
+
+  /**
+   * Evaluate the mapper on a grid, one column of points per task on the common pool unless the
+   * mapper is not {@link Mapper#isThreadSafe()}. Unlike
+   * {@link org.jzy3d.plot3d.builder.concrete.OrthonormalGrid#applyAsCoordinates(Mapper)}, X and Y
+   * are not stored.
+   */
+  public static HeightField of(Mapper mapper, Range xrange, int xsteps, Range yrange,
+      int ysteps) {
+    float[] heights = new float[Math.multiplyExact(xsteps, ysteps)];
+    double xstep = xrange.getRange() / (double) (xsteps - 1);
+    double ystep = yrange.getRange() / (double) (ysteps - 1);
+
+    double[] ys = new double[ysteps];
+    for (int yi = 0; yi < ysteps; yi++)
+      ys[yi] = yrange.getMin() + yi * ystep;
+
+    IntStream columns = IntStream.range(0, xsteps);
+    if (mapper.isThreadSafe())
+      columns = columns.parallel();
+
+    columns.forEach(xi -> {
+      double[] xs = new double[ysteps];
+      float[] zs = new float[ysteps];
+      Arrays.fill(xs, xrange.getMin() + xi * xstep);
+      mapper.f(xs, ys, zs, 0, ysteps);
+      System.arraycopy(zs, 0, heights, xi * ysteps, ysteps);
+    });
+
+    return new HeightField(heights, xrange, xsteps, yrange, ysteps);
+  }
+
+  public float getHeight(int xi, int yi) {
+    return heights.get(xi * ysteps + yi);
+  }
+
+  public float getX(int xi) {
+    return xrange.getMin() + xi * (xrange.getRange() / (xsteps - 1));
+  }
+
+  public float getY(int yi) {
+    return yrange.getMin() + yi * (yrange.getRange() / (ysteps - 1));
+  }
+
+  public FloatBuffer getHeights() {
+    return heights;
+  }
+
+  public Range getXRange() {
+    return xrange;
+  }
+
+  public Range getYRange() {
+    return yrange;
+  }
+
+  public int getXSteps() {
+    return xsteps;
+  }
+
+  public int getYSteps() {
+    return ysteps;
+  }
+}
@@ -0,0 +1,549 @@
+package org.jzy3d.plot3d.rendering.view.lod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+import org.jzy3d.maths.BoundingBox3d;
+
+/**
+ * A quadtree of tiles over a {@link HeightField} allowing to draw the field with a resolution
+ * varying according to the screen size of each of its parts.
+ *
+ * A tile of level L covers {@link #getTileSize()} x {@link #getTileSize()} cells of level L, a cell
+ * of level L being made of 2^L x 2^L grid cells. Level 0 tiles hence sample every grid point, and
+ * the single tile of the last level samples the whole field with the coarsest resolution. Only the
+ * minimum and maximum height of each tile is stored, so the tree costs a few kilobytes above the
+ * field itself.
+ *
+ * {@link #select(ScreenSize, double, int)} refines tiles until their cells are smaller than a
+ * number of pixels or until a number of faces is reached, and
+ * {@link #tessellate(List)} builds the quads of the selected tiles.
+ *
+ * @author Martin Pernollet
+ */
+public class LODQuadtree {
+  public static final int DEFAULT_TILE_SIZE = 64;
+
+  /** Size of a box once projected on screen. */
+  public interface ScreenSize {
+    /**
+     * Return the largest side of the screen rectangle covered by the box in pixels, or a negative
+     * value if the box is out of screen.
+     */
+    double pixels(BoundingBox3d box);
+  }
+
+  protected final HeightField field;
+  protected final int tileSize;
+  protected final int cellsX;
+  protected final int cellsY;
+  protected final int levels;
+
+  // number of tiles and height range of each tile, per level
+  protected final int[] tilesX;
+  protected final int[] tilesY;
+  protected final float[][] zmin;
+  protected final float[][] zmax;
+
+  public LODQuadtree(HeightField field) {
+    this(field, DEFAULT_TILE_SIZE);
+  }
+
+  public LODQuadtree(HeightField field, int tileSize) {
+    if (tileSize < 1)
+      throw new IllegalArgumentException("Tile size must be positive : " + tileSize);
+
+    this.field = field;
+    this.tileSize = tileSize;
+    this.cellsX = field.getXSteps() - 1;
+    this.cellsY = field.getYSteps() - 1;
+
+    int l = 1;
+    while (((long) tileSize << (l - 1)) < Math.max(cellsX, cellsY))
+      l++;
+    this.levels = l;
+
+    tilesX = new int[levels];
+    tilesY = new int[levels];
+    zmin = new float[levels][];
+    zmax = new float[levels][];
+
+    for (l = 0; l < levels; l++) {
+      tilesX[l] = (cellsX - 1) / span(l) + 1;
+      tilesY[l] = (cellsY - 1) / span(l) + 1;
+      zmin[l] = new float[tilesX[l] * tilesY[l]];
+      zmax[l] = new float[tilesX[l] * tilesY[l]];
+    }
+
+    computeRanges();
+  }
+
+  /** Scan the field for the height range of level 0 tiles, then merge ranges up to the root. */
+  protected void computeRanges() {
+    IntStream.range(0, tilesX[0] * tilesY[0]).parallel().forEach(t -> {
+      int x0 = (t / tilesY[0]) * tileSize;
+      int y0 = (t % tilesY[0]) * tileSize;
+      float min = Float.POSITIVE_INFINITY;
+      float max = Float.NEGATIVE_INFINITY;
+
+      for (int xi = x0; xi <= Math.min(x0 + tileSize, cellsX); xi++) {
+        for (int yi = y0; yi <= Math.min(y0 + tileSize, cellsY); yi++) {
+          float z = field.getHeight(xi, yi);
+          if (z < min)
+            min = z;
+          if (z > max)
+            max = z;
+        }
+      }
+      zmin[0][t] = min;
+      zmax[0][t] = max;
+    });
+
+    for (int l = 1; l < levels; l++) {
+      for (int x = 0; x < tilesX[l]; x++) {
+        for (int y = 0; y < tilesY[l]; y++) {
+          float min = Float.POSITIVE_INFINITY;
+          float max = Float.NEGATIVE_INFINITY;
+
+          for (int cx = 2 * x; cx < Math.min(2 * x + 2, tilesX[l - 1]); cx++) {
+            for (int cy = 2 * y; cy < Math.min(2 * y + 2, tilesY[l - 1]); cy++) {
+              min = Math.min(min, zmin[l - 1][cx * tilesY[l - 1] + cy]);
+              max = Math.max(max, zmax[l - 1][cx * tilesY[l - 1] + cy]);
+            }
+          }
+          zmin[l][x * tilesY[l] + y] = min;
+          zmax[l][x * tilesY[l] + y] = max;
+        }
+      }
+    }
+  }
+
+  /* SELECTION */
+
+  /**
+   * Select the tiles to draw, starting from the root and splitting the tile having the largest
+   * cells on screen first, until all cells are smaller than the given number of pixels or until
+   * splitting a tile would exceed the given number of faces. Out of screen tiles are not split.
+   *
+   * @return tiles covering the whole field without overlap, sorted by level, X and Y.
+   */
+  public List<Tile> select(ScreenSize screen, double pixelsPerCell, int maxFaces) {
+    List<Tile> selection = new ArrayList<>();
+    PriorityQueue<Tile> queue =
+        new PriorityQueue<>(Comparator.comparingDouble((Tile t) -> t.pixels).reversed());
+
+    Tile root = tile(levels - 1, 0, 0, screen);
+    long faces = root.faces;
+    queue.add(root);
+
+    while (!queue.isEmpty()) {
+      Tile tile = queue.poll();
+
+      if (tile.level == 0 || tile.pixels <= pixelsPerCell) {
+        selection.add(tile);
+        continue;
+      }
+
+      List<Tile> children = children(tile, screen);
+      long childFaces = 0;
+      for (Tile child : children)
+        childFaces += child.faces;
+
+      if (faces - tile.faces + childFaces > maxFaces) {
+        selection.add(tile);
+      } else {
+        faces += childFaces - tile.faces;
+        queue.addAll(children);
+      }
+    }
+
+    selection.sort(Comparator.comparingInt((Tile t) -> t.level).thenComparingInt(t -> t.x)
+        .thenComparingInt(t -> t.y));
+    return selection;
+  }
+
+  /** Return all tiles of a level, e.g. all level 0 tiles to draw the field at full resolution. */
+  public List<Tile> getTiles(int level) {
+    List<Tile> tiles = new ArrayList<>();
+    for (int x = 0; x < tilesX[level]; x++)
+      for (int y = 0; y < tilesY[level]; y++)
+        tiles.add(tile(level, x, y, null));
+    return tiles;
+  }
+
+  protected List<Tile> children(Tile tile, ScreenSize screen) {
+    List<Tile> children = new ArrayList<>(4);
+    int l = tile.level - 1;
+    for (int x = 2 * tile.x; x < Math.min(2 * tile.x + 2, tilesX[l]); x++)
+      for (int y = 2 * tile.y; y < Math.min(2 * tile.y + 2, tilesY[l]); y++)
+        children.add(tile(l, x, y, screen));
+    return children;
+  }
+
+  protected Tile tile(int level, int x, int y, ScreenSize screen) {
+    Tile tile = new Tile(level, x, y);
+    int cx = cells(x0(level, x), x1(level, x), level);
+    int cy = cells(y0(level, y), y1(level, y), level);
+    tile.faces = (long) cx * cy;
+
+    if (screen != null) {
+      double pixels = screen.pixels(getBounds(tile));
+      tile.pixels = pixels < 0 ? 0 : pixels / Math.max(cx, cy);
+    }
+    return tile;
+  }
+
+  /** Number of grid cells covered by a tile side at level 0, 2^level times more cells per level. */
+  protected int span(int level) {
+    return tileSize << level;
+  }
+
+  protected int x0(int level, int x) {
+    return x * span(level);
+  }
+
+  protected int x1(int level, int x) {
+    return (int) Math.min((long) x0(level, x) + span(level), cellsX);
+  }
+
+  protected int y0(int level, int y) {
+    return y * span(level);
+  }
+
+  protected int y1(int level, int y) {
+    return (int) Math.min((long) y0(level, y) + span(level), cellsY);
+  }
+
+  /** Number of cells of a level in the grid range [from, to]. */
+  protected int cells(int from, int to, int level) {
+    int stride = 1 << level;
+    return (to - from + stride - 1) / stride;
+  }
+
+  /* TESSELLATION */
+
+  /**
+   * Build the quads of the given tiles, which should cover the field without overlap, as returned
+   * by {@link #select(ScreenSize, double, int)}.
+   *
+   * Borders of a tile standing next to a coarser tile have their heights interpolated along the
+   * border of the coarser tile, so that no crack appears between tiles of different levels. Tiles
+   * share the vertices of their borders.
+   */
+  public Tessellation tessellate(List<Tile> tiles) {
+    // level of the selected tile covering each level 0 tile
+    int[] coverage = new int[tilesX[0] * tilesY[0]];
+    Arrays.fill(coverage, -1);
+
+    long vertices = 0;
+    long faces = 0;
+    long borders = 0;
+
+    for (Tile tile : tiles) {
+      int n = 1 << tile.level;
+      for (int x = tile.x * n; x < Math.min((tile.x + 1) * n, tilesX[0]); x++)
+        for (int y = tile.y * n; y < Math.min((tile.y + 1) * n, tilesY[0]); y++)
+          coverage[x * tilesY[0] + y] = tile.level;
+
+      long cx = cells(x0(tile.level, tile.x), x1(tile.level, tile.x), tile.level);
+      long cy = cells(y0(tile.level, tile.y), y1(tile.level, tile.y), tile.level);
+      vertices += (cx + 1) * (cy + 1);
+      faces += cx * cy;
+      borders += 2 * (cx + cy);
+    }
+
+    if (vertices * 3 > Integer.MAX_VALUE || faces * 4 > Integer.MAX_VALUE)
+      throw new IllegalArgumentException(
+          "Too many vertices to tessellate : " + vertices + ", select less tiles");
+
+    // coarse tiles first, so that finer borders can be interpolated along them
+    List<Tile> sorted = new ArrayList<>(tiles);
+    sorted.sort(Comparator.comparingInt((Tile t) -> t.level).reversed());
+
+    Tessellation mesh = new Tessellation((int) vertices, (int) faces);
+    VertexTable shared = new VertexTable((int) Math.min(borders, 1 << 28));
+    int[] local = new int[0];
+
+    for (Tile tile : sorted) {
+      int stride = 1 << tile.level;
+      int x0 = x0(tile.level, tile.x);
+      int x1 = x1(tile.level, tile.x);
+      int y0 = y0(tile.level, tile.y);
+      int y1 = y1(tile.level, tile.y);
+      int cx = cells(x0, x1, tile.level);
+      int cy = cells(y0, y1, tile.level);
+
+      int left = x0 > 0 ? coverage(coverage, x0 / tileSize - 1, y0 / tileSize) : -1;
+      int right = x1 < cellsX ? coverage(coverage, x1 / tileSize, y0 / tileSize) : -1;
+      int bottom = y0 > 0 ? coverage(coverage, x0 / tileSize, y0 / tileSize - 1) : -1;
+      int top = y1 < cellsY ? coverage(coverage, x0 / tileSize, y1 / tileSize) : -1;
+
+      if (local.length < (cx + 1) * (cy + 1))
+        local = new int[(cx + 1) * (cy + 1)];
+
+      for (int a = 0; a <= cx; a++) {
+        int xi = Math.min(x0 + a * stride, x1);
+
+        for (int b = 0; b <= cy; b++) {
+          int yi = Math.min(y0 + b * stride, y1);
+
+          if (a > 0 && a < cx && b > 0 && b < cy) {
+            local[a * (cy + 1) + b] =
+                mesh.add(field.getX(xi), field.getY(yi), field.getHeight(xi, yi));
+            continue;
+          }
+
+          long key = (long) xi * field.getYSteps() + yi;
+          int v = shared.get(key);
+
+          if (v < 0) {
+            float z = field.getHeight(xi, yi);
+
+            if (a == 0 && left > tile.level && !aligned(yi, left, cellsY))
+              z = interpolateAlongY(mesh, shared, xi, yi, 1 << left);
+            else if (a == cx && right > tile.level && !aligned(yi, right, cellsY))
+              z = interpolateAlongY(mesh, shared, xi, yi, 1 << right);
+            else if (b == 0 && bottom > tile.level && !aligned(xi, bottom, cellsX))
+              z = interpolateAlongX(mesh, shared, xi, yi, 1 << bottom);
+            else if (b == cy && top > tile.level && !aligned(xi, top, cellsX))
+              z = interpolateAlongX(mesh, shared, xi, yi, 1 << top);
+
+            v = mesh.add(field.getX(xi), field.getY(yi), z);
+            shared.put(key, v);
+          }
+          local[a * (cy + 1) + b] = v;
+        }
+      }
+
+      for (int a = 0; a < cx; a++) {
+        for (int b = 0; b < cy; b++) {
+          int v = a * (cy + 1) + b;
+          mesh.quad(local[v], local[v + cy + 1], local[v + cy + 2], local[v + 1]);
+        }
+      }
+    }
+
+    mesh.trim();
+    return mesh;
+  }
+
+  protected int coverage(int[] coverage, int x, int y) {
+    return coverage[x * tilesY[0] + y];
+  }
+
+  /** True if a grid index is a vertex of a tile of the given level. */
+  protected boolean aligned(int index, int level, int last) {
+    return index % (1 << level) == 0 || index == last;
+  }
+
+  /** Height of the segment of a coarser tile border at the given point of the X=xi line. */
+  protected float interpolateAlongY(Tessellation mesh, VertexTable shared, int xi, int yi,
+      int stride) {
+    int y0 = yi / stride * stride;
+    int y1 = Math.min(y0 + stride, cellsY);
+    float z0 = height(mesh, shared, xi, y0);
+    float z1 = height(mesh, shared, xi, y1);
+    return z0 + (z1 - z0) * (yi - y0) / (y1 - y0);
+  }
+
+  /** Height of the segment of a coarser tile border at the given point of the Y=yi line. */
+  protected float interpolateAlongX(Tessellation mesh, VertexTable shared, int xi, int yi,
+      int stride) {
+    int x0 = xi / stride * stride;
+    int x1 = Math.min(x0 + stride, cellsX);
+    float z0 = height(mesh, shared, x0, yi);
+    float z1 = height(mesh, shared, x1, yi);
+    return z0 + (z1 - z0) * (xi - x0) / (x1 - x0);
+  }
+
+  /** Height of an already tessellated border vertex, or height of the field. */
+  protected float height(Tessellation mesh, VertexTable shared, int xi, int yi) {
+    int v = shared.get((long) xi * field.getYSteps() + yi);
+    return v < 0 ? field.getHeight(xi, yi) : mesh.positions[v * 3 + 2];
+  }
+
+  /* */
+
+  /** Bounds of a tile, in the coordinates of the field. */
+  public BoundingBox3d getBounds(Tile tile) {
+    int t = tile.x * tilesY[tile.level] + tile.y;
+    float min = zmin[tile.level][t];
+    float max = zmax[tile.level][t];
+
+    // a tile only made of NaN heights
+    if (min > max)
+      min = max = 0;
+
+    return new BoundingBox3d(field.getX(x0(tile.level, tile.x)),
+        field.getX(x1(tile.level, tile.x)), field.getY(y0(tile.level, tile.y)),
+        field.getY(y1(tile.level, tile.y)), min, max);
+  }
+
+  public BoundingBox3d getBounds() {
+    return getBounds(new Tile(levels - 1, 0, 0));
+  }
+
+  public HeightField getField() {
+    return field;
+  }
+
+  public int getTileSize() {
+    return tileSize;
+  }
+
+  public int getLevels() {
+    return levels;
+  }
+
+  /* */
+
+  /** A tile of the quadtree, identified by its level and its X and Y index in this level. */
+  public static class Tile {
+    protected final int level;
+    protected final int x;
+    protected final int y;
+    protected long faces;
+    protected double pixels;
+
+    public Tile(int level, int x, int y) {
+      this.level = level;
+      this.x = x;
+      this.y = y;
+    }
+
+    public int getLevel() {
+      return level;
+    }
+
+    public int getX() {
+      return x;
+    }
+
+    public int getY() {
+      return y;
+    }
+
+    /** Number of quads of this tile. */
+    public long getFaces() {
+      return faces;
+    }
+
+    /** Screen size of a cell of this tile, when it was selected. */
+    public double getPixels() {
+      return pixels;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Tile))
+        return false;
+      Tile t = (Tile) o;
+      return level == t.level && x == t.x && y == t.y;
+    }
+
+    @Override
+    public int hashCode() {
+      return (level * 31 + x) * 31 + y;
+    }
+
+    @Override
+    public String toString() {
+      return "Tile(level=" + level + ", x=" + x + ", y=" + y + ")";
+    }
+  }
+
+  /** Quads built from tiles, as arrays ready for an {@link org.jzy3d.plot3d.primitives.ArrayMesh}. */
+  public static class Tessellation {
+    protected float[] positions;
+    protected int[] indices;
+    protected int vertexCount;
+    protected int faceCount;
+
+    public Tessellation(int maxVertices, int maxFaces) {
+      positions = new float[maxVertices * 3];
+      indices = new int[maxFaces * 4];
+    }
+
+    protected int add(float x, float y, float z) {
+      int v = vertexCount * 3;
+      positions[v] = x;
+      positions[v + 1] = y;
+      positions[v + 2] = z;
+      return vertexCount++;
+    }
+
+    protected void quad(int a, int b, int c, int d) {
+      int f = faceCount * 4;
+      indices[f] = a;
+      indices[f + 1] = b;
+      indices[f + 2] = c;
+      indices[f + 3] = d;
+      faceCount++;
+    }
+
+    protected void trim() {
+      if (positions.length != vertexCount * 3)
+        positions = Arrays.copyOf(positions, vertexCount * 3);
+      if (indices.length != faceCount * 4)
+        indices = Arrays.copyOf(indices, faceCount * 4);
+    }
+
+    /** x,y,z triplets of each vertex. */
+    public float[] getPositions() {
+      return positions;
+    }
+
+    /** 4 vertex indices per quad. */
+    public int[] getIndices() {
+      return indices;
+    }
+
+    public int getVertexCount() {
+      return vertexCount;
+    }
+
+    public int getFaceCount() {
+      return faceCount;
+    }
+  }
+
+  /** Open addressing map from grid point keys to vertex indices. */
+  protected static class VertexTable {
+    protected final long[] keys;
+    protected final int[] values;
+    protected final int mask;
+
+    /** @param expected maximum number of keys. */
+    public VertexTable(int expected) {
+      int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+      keys = new long[capacity];
+      values = new int[capacity];
+      mask = capacity - 1;
+      Arrays.fill(keys, -1);
+    }
+
+    public int get(long key) {
+      for (int i = slot(key);; i = (i + 1) & mask) {
+        if (keys[i] == key)
+          return values[i];
+        if (keys[i] == -1)
+          return -1;
+      }
+    }
+
+    public void put(long key, int value) {
+      int i = slot(key);
+      while (keys[i] != -1 && keys[i] != key)
+        i = (i + 1) & mask;
+      keys[i] = key;
+      values[i] = value;
+    }
+
+    protected int slot(long key) {
+      return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+  }
+}
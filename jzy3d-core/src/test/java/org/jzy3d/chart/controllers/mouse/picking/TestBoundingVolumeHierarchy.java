@@ -0,0 +1,96 @@
+package org.jzy3d.chart.controllers.mouse.picking;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.maths.BoundingBox3d;
+
+public class TestBoundingVolumeHierarchy {
+  @Test
+  public void whenQueryingAfterInsertMoveRemove_ThenSameItemsAsBruteForce() {
+    Random r = new Random(0);
+    int n = 2000;
+    BoundingBox3d[] boxes = new BoundingBox3d[n];
+    BoundingVolumeHierarchy<Integer> bvh = new BoundingVolumeHierarchy<>();
+
+    // items are identified by reference, hence each one is boxed once
+    Integer[] items = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      items[i] = i;
+      boxes[i] = randomBox(r);
+      bvh.insert(items[i], boxes[i]);
+    }
+
+    // move a quarter, remove another quarter
+    for (int i = 0; i < n / 4; i++) {
+      boxes[i] = randomBox(r);
+      bvh.update(items[i], boxes[i]);
+    }
+    for (int i = n / 4; i < n / 2; i++) {
+      Assert.assertTrue(bvh.remove(items[i]));
+      boxes[i] = null;
+    }
+    Assert.assertEquals(n / 2 + n / 4, bvh.size());
+
+    for (int q = 0; q < 20; q++) {
+      BoundingBox3d query = randomBox(r);
+
+      Set<Integer> expected = new HashSet<>();
+      for (int i = 0; i < n; i++)
+        if (boxes[i] != null && overlap(boxes[i], query))
+          expected.add(i);
+
+      Set<Integer> actual = new HashSet<>();
+      bvh.query((xmin, xmax, ymin, ymax, zmin, zmax) -> xmin <= query.getXmax()
+          && query.getXmin() <= xmax && ymin <= query.getYmax() && query.getYmin() <= ymax
+          && zmin <= query.getZmax() && query.getZmin() <= zmax, actual::add);
+
+      Assert.assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void whenInsertingIdenticalItems_ThenTreeStaysBalanced() {
+    BoundingVolumeHierarchy<Integer> bvh = new BoundingVolumeHierarchy<>();
+    BoundingBox3d origin = new BoundingBox3d(0, 0, 0, 0, 0, 0);
+
+    for (int i = 0; i < 1024; i++)
+      bvh.insert(i, origin);
+
+    // an AVL-balanced tree of 1024 leaves is at most 1.44 log2(n) high
+    Assert.assertTrue("height " + bvh.getHeight(), bvh.getHeight() <= 15);
+  }
+
+  @Test
+  public void whenMovingWithinLeafBounds_ThenTreeUnchanged() {
+    BoundingVolumeHierarchy<String> bvh = new BoundingVolumeHierarchy<>();
+    bvh.insert("a", new BoundingBox3d(0, 2, 0, 2, 0, 2));
+    bvh.insert("b", new BoundingBox3d(5, 6, 5, 6, 5, 6));
+
+    Assert.assertFalse(bvh.update("a", new BoundingBox3d(1, 2, 1, 2, 1, 2)));
+    Assert.assertTrue(bvh.update("a", new BoundingBox3d(-1, 2, 1, 2, 1, 2)));
+    Assert.assertEquals(new BoundingBox3d(-1, 6, 1, 6, 1, 6), bvh.getBounds());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void whenInsertingTwice_ThenThrows() {
+    BoundingVolumeHierarchy<String> bvh = new BoundingVolumeHierarchy<>();
+    bvh.insert("a", new BoundingBox3d(0, 1, 0, 1, 0, 1));
+    bvh.insert("a", new BoundingBox3d(0, 1, 0, 1, 0, 1));
+  }
+
+  protected boolean overlap(BoundingBox3d a, BoundingBox3d b) {
+    return a.getXmin() <= b.getXmax() && b.getXmin() <= a.getXmax() && a.getYmin() <= b.getYmax()
+        && b.getYmin() <= a.getYmax() && a.getZmin() <= b.getZmax() && b.getZmin() <= a.getZmax();
+  }
+
+  protected BoundingBox3d randomBox(Random r) {
+    float x = r.nextFloat() * 100;
+    float y = r.nextFloat() * 100;
+    float z = r.nextFloat() * 100;
+    return new BoundingBox3d(x, x + r.nextFloat() * 5, y, y + r.nextFloat() * 5, z,
+        z + r.nextFloat() * 5);
+  }
+}
@@ -0,0 +1,143 @@
+package org.jzy3d.chart.controllers.mouse.picking;
+
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.colors.Color;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.plot3d.primitives.Point;
+import org.jzy3d.plot3d.primitives.pickable.Pickable;
+import org.jzy3d.plot3d.primitives.pickable.PickablePoint;
+import org.jzy3d.plot3d.primitives.pickable.PickablePolygon;
+import org.jzy3d.plot3d.primitives.pickable.PickableSphere;
+
+public class TestRayPickingSupport {
+  Coord3d noScaling = new Coord3d(1, 1, 1);
+
+  // a ray along Z, from z=10 to z=-10, with a radius of 0.1
+  PickingRay ray =
+      new PickingRay(new Coord3d(0, 0, 10), new Coord3d(0, 0, -10), 0.1, 0.1, noScaling);
+
+  @Test
+  public void whenPointsOnRay_ThenPickedFromNearestToFarthest() {
+    RayPickingSupport picking = new RayPickingSupport();
+
+    PickablePoint far = new PickablePoint(new Coord3d(0, 0, -5));
+    PickablePoint near = new PickablePoint(new Coord3d(0.05, 0, 5));
+    PickablePoint middle = new PickablePoint(new Coord3d(0, 0.05, 0));
+    PickablePoint aside = new PickablePoint(new Coord3d(1, 0, 0));
+    picking.registerPickableObject(far, "far");
+    picking.registerPickableObject(near, "near");
+    picking.registerPickableObject(middle, "middle");
+    picking.registerPickableObject(aside, "aside");
+
+    List<Pickable> picked = picking.pick(ray);
+
+    Assert.assertEquals(3, picked.size());
+    Assert.assertSame(near, picked.get(0));
+    Assert.assertSame(middle, picked.get(1));
+    Assert.assertSame(far, picked.get(2));
+  }
+
+  @Test
+  public void whenPointMovedWithoutNotification_ThenRefreshedBeforePick() {
+    RayPickingSupport picking = new RayPickingSupport();
+
+    PickablePoint point = new PickablePoint(new Coord3d(3, 3, 0));
+    picking.registerPickableObject(point, "p");
+    Assert.assertTrue(picking.pick(ray).isEmpty());
+
+    // as a graph moves its vertices while drawing them
+    point.setData(new Coord3d(0, 0, 1));
+    Assert.assertEquals(1, picking.pick(ray).size());
+
+    // a move that is not notified is missed
+    picking.setRefreshBeforePick(false);
+    point.setData(new Coord3d(3, 3, 0));
+    picking.pickableMoved(point);
+    point.setData(new Coord3d(0, 0, 1));
+    Assert.assertTrue(picking.pick(ray).isEmpty());
+    picking.pickableMoved(point);
+    Assert.assertEquals(1, picking.pick(ray).size());
+
+    Assert.assertTrue(picking.unRegisterPickableObject(point));
+    Assert.assertTrue(picking.pick(ray).isEmpty());
+  }
+
+  @Test
+  public void whenRayCrossesSphereOrPolygon_ThenPicked() {
+    RayPickingSupport picking = new RayPickingSupport();
+
+    PickableSphere sphere = new PickableSphere(new Coord3d(0.5, 0, 0), 1, 10, Color.RED);
+    PickableSphere missed = new PickableSphere(new Coord3d(5, 0, 0), 1, 10, Color.RED);
+
+    PickablePolygon polygon = new PickablePolygon();
+    polygon.add(new Point(new Coord3d(-1, -1, 2)));
+    polygon.add(new Point(new Coord3d(1, -1, 2)));
+    polygon.add(new Point(new Coord3d(1, 1, 2)));
+    polygon.add(new Point(new Coord3d(-1, 1, 2)));
+
+    picking.registerPickableObject(sphere, "sphere");
+    picking.registerPickableObject(missed, "missed");
+    picking.registerPickableObject(polygon, "polygon");
+
+    List<Pickable> picked = picking.pick(ray);
+    Assert.assertEquals(2, picked.size());
+    Assert.assertSame(polygon, picked.get(0));
+    Assert.assertSame(sphere, picked.get(1));
+  }
+
+  @Test
+  public void whenPolygonsAreEqualOrModified_ThenHierarchyTracksEachInstance() {
+    RayPickingSupport picking = new RayPickingSupport();
+
+    // two polygons with the same content, hence equal and with the same hash code
+    PickablePolygon polygon = square(2);
+    PickablePolygon twin = square(2);
+    picking.registerPickableObject(polygon, "polygon");
+    picking.registerPickableObject(twin, "twin");
+    Assert.assertEquals(2, picking.pick(ray).size());
+
+    // an equal polygon that is not registered is not removed
+    Assert.assertFalse(picking.unRegisterPickableObject(square(2)));
+    Assert.assertEquals(2, picking.hierarchy.size());
+
+    // a polygon which content changed after registration is still removed
+    polygon.add(new Point(new Coord3d(0, 2, 2)));
+    Assert.assertTrue(picking.unRegisterPickableObject(polygon));
+    Assert.assertEquals(1, picking.hierarchy.size());
+    Assert.assertSame(twin, picking.pick(ray).get(0));
+  }
+
+  protected PickablePolygon square(float z) {
+    PickablePolygon polygon = new PickablePolygon();
+    polygon.add(new Point(new Coord3d(-1, -1, z)));
+    polygon.add(new Point(new Coord3d(1, -1, z)));
+    polygon.add(new Point(new Coord3d(1, 1, z)));
+    polygon.add(new Point(new Coord3d(-1, 1, z)));
+    return polygon;
+  }
+
+  @Test
+  public void whenViewScaled_ThenRayComparedInScaledSpace() {
+    // data z=50 is drawn at z=5 when the view scales Z by 0.1
+    PickingRay scaledRay = new PickingRay(new Coord3d(0, 0, 10), new Coord3d(0, 0, -10), 0.1,
+        0.1, new Coord3d(1, 1, 0.1));
+
+    Assert.assertEquals(0.25, scaledRay.intersectPoint(new Coord3d(0, 0, 50)), 1e-6);
+    Assert.assertTrue(Double.isNaN(scaledRay.intersectPoint(new Coord3d(0, 0, 500))));
+  }
+
+  @Test
+  public void whenRadiusGrowsWithDistance_ThenFarPointsPickedWithinLargerRadius() {
+    PickingRay cone =
+        new PickingRay(new Coord3d(0, 0, 10), new Coord3d(0, 0, -10), 0, 1, noScaling);
+
+    // radius is 0.25 at z=5, 0.75 at z=-5
+    Assert.assertTrue(Double.isNaN(cone.intersectPoint(new Coord3d(0.5, 0, 5))));
+    Assert.assertEquals(0.75, cone.intersectPoint(new Coord3d(0.5, 0, -5)), 1e-6);
+
+    Assert.assertFalse(cone.intersects(0.5f, 0.6f, 0, 0, 4, 6));
+    Assert.assertTrue(cone.intersects(0.5f, 0.6f, 0, 0, -6, -4));
+  }
+}
@@ -0,0 +1,107 @@
+package org.jzy3d.colors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.colors.colormaps.ColorMapGrayscale;
+import org.jzy3d.colors.colormaps.ColorMapHotCold;
+import org.jzy3d.colors.colormaps.ColorMapLookupTable;
+import org.jzy3d.colors.colormaps.ColorMapRainbow;
+import org.jzy3d.colors.colormaps.IColorMap;
+import org.jzy3d.maths.Range;
+
+public class TestColorMapLookupTable {
+  @Test
+  public void whenSamplingColormaps_ThenColorsMatchWithinResolution() {
+    IColorMap[] colormaps = {new ColorMapRainbow(), new ColorMapHotCold(), new ColorMapGrayscale()};
+
+    for (IColorMap colormap : colormaps) {
+      ColorMapper exact = new ColorMapper(colormap, -2, 3);
+      ColorMapper lookup = new ColorMapper(new ColorMapLookupTable(colormap, 4096), -2, 3);
+
+      for (double v = -3; v <= 4; v += 0.0137) {
+        assertColorEquals(exact.getColor(v), lookup.getColor(v), 0.005);
+      }
+    }
+  }
+
+  @Test
+  public void whenBatchColoring_ThenColorsMatchSingleValueColoring() {
+    ColorMapper mapper = new ColorMapper(new ColorMapLookupTable(new ColorMapRainbow()), 0, 10,
+        new Color(1f, 0.5f, 1f, 0.5f));
+
+    float[] values = {-1, 0, 2.5f, 5, 7.5f, 10, 11, Float.NaN};
+    float[] rgba = new float[values.length * 4];
+    int[] argb = new int[values.length];
+
+    mapper.getColors(values, 0, values.length, rgba);
+    mapper.getPackedColors(values, 0, values.length, argb);
+
+    for (int i = 0; i < values.length; i++) {
+      Color expected = mapper.getColor(values[i]);
+      Color batch = new Color(rgba[i * 4], rgba[i * 4 + 1], rgba[i * 4 + 2], rgba[i * 4 + 3]);
+      assertColorEquals(expected, batch, 0);
+
+      Assert.assertEquals(Math.round(expected.a * 255), (argb[i] >>> 24) & 0xFF);
+      Assert.assertEquals(Math.round(expected.r * 255), (argb[i] >>> 16) & 0xFF);
+      Assert.assertEquals(Math.round(expected.g * 255), (argb[i] >>> 8) & 0xFF);
+      Assert.assertEquals(Math.round(expected.b * 255), argb[i] & 0xFF);
+    }
+  }
+
+  @Test
+  public void whenColormapIsNotLookupTable_ThenBatchColoringFallsBackToColormap() {
+    ColorMapper mapper = new ColorMapper(new ColorMapHotCold(), 0, 1);
+
+    float[] values = {0, 0.3f, 1};
+    float[] rgba = new float[values.length * 4];
+    mapper.getColors(values, 1, 3, rgba);
+
+    Assert.assertEquals(0, rgba[0], 0);
+    assertColorEquals(mapper.getColor(values[1]), new Color(rgba[4], rgba[5], rgba[6], rgba[7]), 0);
+  }
+
+  @Test
+  public void whenChangingRangeFactorOrDirection_ThenBatchColorsFollow() {
+    ColorMapLookupTable lookup = new ColorMapLookupTable(new ColorMapGrayscale(), 256);
+    ColorMapper mapper = new ColorMapper(lookup, 0, 1);
+
+    float[] values = {0.25f};
+    float[] rgba = new float[4];
+
+    mapper.getColors(values, 0, 1, rgba);
+    Assert.assertEquals(0.25, rgba[0], 0.01);
+
+    // range does not require building table again
+    float[] table = lookup.getTable();
+    mapper.setRange(new Range(0, 0.5f));
+    mapper.getColors(values, 0, 1, rgba);
+    Assert.assertEquals(0.5, rgba[0], 0.01);
+    Assert.assertSame(table, lookup.getTable());
+
+    // direction does
+    lookup.setDirection(false);
+    mapper.getColors(values, 0, 1, rgba);
+    Assert.assertEquals(0.5, rgba[0], 0.01);
+    Assert.assertNotSame(table, lookup.getTable());
+    values[0] = 0;
+    mapper.getColors(values, 0, 1, rgba);
+    Assert.assertEquals(1, rgba[0], 0.01);
+
+    mapper.factor = new Color(0.5f, 0.5f, 0.5f, 1f);
+    mapper.getColors(values, 0, 1, rgba);
+    Assert.assertEquals(0.5, rgba[0], 0.01);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void whenOutputIsTooSmall_ThenThrow() {
+    ColorMapper mapper = new ColorMapper(new ColorMapLookupTable(new ColorMapRainbow()), 0, 1);
+    mapper.getPackedColors(new float[10], 0, 10, new int[5]);
+  }
+
+  protected void assertColorEquals(Color expected, Color actual, double delta) {
+    Assert.assertEquals(expected.r, actual.r, delta);
+    Assert.assertEquals(expected.g, actual.g, delta);
+    Assert.assertEquals(expected.b, actual.b, delta);
+    Assert.assertEquals(expected.a, actual.a, delta);
+  }
+}
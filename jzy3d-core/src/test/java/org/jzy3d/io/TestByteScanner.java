@@ -0,0 +1,105 @@
+package org.jzy3d.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestByteScanner {
+  @Test
+  public void whenParsingNumbers_ThenValuesMatchJavaParsing() {
+    String[] numbers = {"0", "-0", "12", "+3", "-7.25", "0.1", ".5", "1.", "3.4028235e38",
+        "1.4e-45", "6.02214076E23", "-1.602176634e-19", "123456789012345678901234",
+        "0.000000000000000000000000123", "1e22", "1e23", "9007199254740993"};
+
+    StringBuilder text = new StringBuilder();
+    for (String n : numbers)
+      text.append(n).append(" \t");
+
+    ByteScanner scanner = scanner(text.toString());
+    for (String n : numbers)
+      Assert.assertEquals(n, Double.parseDouble(n), scanner.nextDouble(), 0);
+    Assert.assertTrue(scanner.isEndOfLine());
+  }
+
+  @Test
+  public void whenParsingRandomFloats_ThenValuesAreExact() {
+    Random r = new Random(0);
+    StringBuilder text = new StringBuilder();
+    float[] values = new float[10000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (float) ((r.nextDouble() - 0.5) * Math.pow(10, r.nextInt(20) - 10));
+      text.append(values[i]).append(' ');
+    }
+
+    ByteScanner scanner = scanner(text.toString());
+    for (float v : values)
+      Assert.assertEquals(v, scanner.nextFloat(), 0);
+  }
+
+  @Test
+  public void whenParsingSpecialValues_ThenNaNAndInfinityAreRead() {
+    ByteScanner scanner = scanner("nan -inf inf 12abc");
+    Assert.assertTrue(Double.isNaN(scanner.nextDouble()));
+    Assert.assertEquals(Double.NEGATIVE_INFINITY, scanner.nextDouble(), 0);
+    Assert.assertEquals(Double.POSITIVE_INFINITY, scanner.nextDouble(), 0);
+    Assert.assertEquals(12, scanner.nextInt());
+
+    try {
+      scanner.nextInt();
+      Assert.fail();
+    } catch (NumberFormatException e) {
+      // abc is not a number
+    }
+  }
+
+  @Test
+  public void whenReadingLines_ThenWordsAndLinesAreSeparated() {
+    ByteScanner scanner = scanner("element vertex 12\r\nend_header\nlast");
+    Assert.assertTrue(scanner.nextWordIs("element"));
+    Assert.assertFalse(scanner.nextWordIs("vert"));
+    Assert.assertEquals("vertex", scanner.nextWord());
+    Assert.assertEquals(12, scanner.nextInt());
+    Assert.assertTrue(scanner.isEndOfLine());
+    scanner.skipLine();
+    Assert.assertEquals("end_header", scanner.nextLine());
+    Assert.assertEquals("last", scanner.nextLine());
+    Assert.assertFalse(scanner.hasRemaining());
+  }
+
+  @Test
+  public void whenScanningFileByWindows_ThenLinesAcrossWindowsAreRead() throws IOException {
+    int lines = 20000;
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < lines; i++)
+      text.append(i).append(' ').append(i * 0.5f).append('\n');
+
+    File file = File.createTempFile("jzy3d-scanner", ".txt");
+    Files.write(file.toPath(), text.toString().getBytes(StandardCharsets.US_ASCII));
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      ByteScanner scanner = new ByteScanner(channel, 0, channel.size(), ByteScanner.MAX_LINE);
+
+      for (int i = 0; i < lines; i++) {
+        scanner.ensure(ByteScanner.MAX_LINE);
+        Assert.assertEquals(i, scanner.nextInt());
+        Assert.assertEquals(i * 0.5f, scanner.nextFloat(), 0);
+        scanner.skipLine();
+      }
+      Assert.assertFalse(scanner.hasRemaining());
+
+      Assert.assertEquals(lines, scanner.range(0, channel.size()).countLines());
+    }
+    file.delete();
+  }
+
+  protected ByteScanner scanner(String text) {
+    return new ByteScanner(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)));
+  }
+}
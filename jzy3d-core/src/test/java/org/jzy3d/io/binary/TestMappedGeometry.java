@@ -0,0 +1,121 @@
+package org.jzy3d.io.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.plot3d.primitives.BufferScatter;
+
+public class TestMappedGeometry {
+  @Test
+  public void whenWritingMesh_ThenMappedBuffersHoldSameValues() throws IOException {
+    float[] positions = {0, 0, 0, 1, 0, 0, 1, 2, 0, 0, 2, -3};
+    float[] colors = {1, 0, 0, 0, 1, 0, 0, 0, 1, 1, 1, 1};
+    float[] normals = {0, 0, 1, 0, 0, 1, 0, 0, 1, 0, 0, 1};
+    int[] indices = {0, 1, 2, 0, 2, 3};
+
+    File file = File.createTempFile("jzy3d-mesh", ".bin");
+    BinaryGeometryWriter.write(file, positions, colors, 3, normals, indices, 3);
+
+    try (MappedGeometry mesh = new MappedGeometry(file)) {
+      Assert.assertEquals(4, mesh.getPointCount());
+      Assert.assertEquals(6, mesh.getIndexCount());
+      Assert.assertEquals(3, mesh.getColorChannels());
+      Assert.assertEquals(3, mesh.getVerticesPerElement());
+      Assert.assertTrue(mesh.hasNormals());
+      Assert.assertEquals(new BoundingBox3d(0, 1, 0, 2, -3, 0), mesh.getBounds());
+
+      assertBufferEquals(positions, mesh.getPositions());
+      assertBufferEquals(colors, mesh.getColors());
+      assertBufferEquals(normals, mesh.getNormals());
+
+      IntBuffer mappedIndices = mesh.getIndices();
+      Assert.assertTrue(mappedIndices.isDirect());
+      for (int i = 0; i < indices.length; i++)
+        Assert.assertEquals(indices[i], mappedIndices.get(i));
+
+      // range of points
+      FloatBuffer last = mesh.getPositions(2, 2);
+      Assert.assertEquals(6, last.capacity());
+      Assert.assertEquals(-3, last.get(5), 0);
+    }
+    file.delete();
+  }
+
+  @Test
+  public void whenWritingCloudByChunks_ThenScatterReadsMappedPoints() throws IOException {
+    int n = 100000;
+    File file = File.createTempFile("jzy3d-cloud", ".bin");
+
+    try (BinaryGeometryWriter writer = new BinaryGeometryWriter(file, n, 4, false, 0, 0)) {
+      float[] xyz = new float[1000 * 3];
+      float[] rgba = new float[1000 * 4];
+
+      for (int chunk = 0; chunk < n; chunk += 1000) {
+        for (int i = 0; i < 1000; i++) {
+          xyz[i * 3] = chunk + i;
+          xyz[i * 3 + 1] = -(chunk + i);
+          xyz[i * 3 + 2] = (chunk + i) % 7;
+          rgba[i * 4 + 3] = 1;
+        }
+        writer.putPositions(xyz, 0, xyz.length);
+        writer.putColors(rgba, 0, rgba.length);
+      }
+    }
+
+    try (MappedGeometry cloud = new MappedGeometry(file)) {
+      Assert.assertEquals(n, cloud.getPointCount());
+      Assert.assertNull(cloud.getNormals());
+      Assert.assertNull(cloud.getIndices());
+
+      BufferScatter scatter = new BufferScatter(cloud);
+      Assert.assertEquals(n, scatter.size());
+      Assert.assertEquals(new BoundingBox3d(0, n - 1, -(n - 1), 0, 0, 6), scatter.getBounds());
+
+      // bounds computed from buffer match bounds stored in header
+      scatter.updateBounds();
+      Assert.assertEquals(cloud.getBounds(), scatter.getBounds());
+
+      Assert.assertEquals(54321, scatter.getPositions().get(54321 * 3), 0);
+    }
+    file.delete();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void whenSectionIsIncomplete_ThenClosingThrows() throws IOException {
+    File file = File.createTempFile("jzy3d-cloud", ".bin");
+    file.deleteOnExit();
+
+    try (BinaryGeometryWriter writer = new BinaryGeometryWriter(file, 2, 0, false, 0, 0)) {
+      writer.putPositions(new float[] {1, 2, 3}, 0, 3);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void whenWritingMoreThanDeclared_ThenThrow() throws IOException {
+    File file = File.createTempFile("jzy3d-cloud", ".bin");
+    file.deleteOnExit();
+
+    BinaryGeometryWriter writer = new BinaryGeometryWriter(file, 1, 0, false, 0, 0);
+    writer.putPositions(new float[] {1, 2, 3, 4, 5, 6}, 0, 6);
+  }
+
+  @Test(expected = IOException.class)
+  public void whenFileIsNotBinaryGeometry_ThenOpeningThrows() throws IOException {
+    File file = File.createTempFile("jzy3d-cloud", ".txt");
+    file.deleteOnExit();
+    Files.write(file.toPath(), new byte[128]);
+
+    new MappedGeometry(file);
+  }
+
+  protected void assertBufferEquals(float[] expected, FloatBuffer actual) {
+    Assert.assertEquals(expected.length, actual.remaining());
+    for (int i = 0; i < expected.length; i++)
+      Assert.assertEquals(expected[i], actual.get(i), 0);
+  }
+}
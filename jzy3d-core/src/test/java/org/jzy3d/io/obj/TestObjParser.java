@@ -0,0 +1,151 @@
+package org.jzy3d.io.obj;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.io.IMeshHandler;
+import org.jzy3d.io.MeshArrays;
+
+public class TestObjParser {
+  @Test
+  public void whenParsingFaceFormats_ThenVerticesNormalsAndTrianglesAreRead() throws IOException {
+    String obj = "# a quad and a triangle\n" //
+        + "o quad\n" //
+        + "v 0 0 0\n" //
+        + "v 1 0 0\n" //
+        + "v  1 1 0\n" //
+        + "v 0 1 0.5\n" //
+        + "vt 0 0\n" //
+        + "vn 0 0 1\n" //
+        + "vn 0 1 0\n" //
+        + "usemtl none\n" //
+        + "f 1/1/1 2/1/1 3/1/1 4/1/2\n" //
+        + "f 1//2 3//2 4//2\r\n" //
+        + "f 2 3 4\n";
+
+    MeshArrays mesh = new ObjParser().read(buffer(obj));
+
+    Assert.assertEquals(4, mesh.getVertexCount());
+    Assert.assertEquals(2, mesh.getNormalCount());
+    Assert.assertEquals(4, mesh.getTriangleCount());
+    Assert.assertNull(mesh.getColors());
+
+    Assert.assertEquals(0.5f, mesh.getPositions()[11], 0);
+    Assert.assertArrayEquals(new int[] {0, 1, 2, 0, 2, 3, 0, 2, 3, 1, 2, 3}, mesh.getIndices());
+    Assert.assertArrayEquals(new int[] {0, 0, 0, 0, 0, 1, 1, 1, 1, 0, 0, 0},
+        mesh.getNormalIndices());
+  }
+
+  @Test
+  public void whenParsingVertexColorsAndNegativeIndices_ThenTheyAreResolved() throws IOException {
+    String obj = "v 0 0 0 1 0 0\n" //
+        + "v 1 0 0 0 1 0\n" //
+        + "v 1 1 0\n" //
+        + "f -3 -2 -1\n";
+
+    MeshArrays mesh = new ObjParser().read(buffer(obj));
+
+    Assert.assertArrayEquals(new int[] {0, 1, 2}, mesh.getIndices());
+    Assert.assertArrayEquals(new float[] {1, 0, 0, 1, 0, 1, 0, 1, 1, 1, 1, 1}, mesh.getColors(),
+        0);
+  }
+
+  @Test
+  public void whenParsingByChunks_ThenMeshEqualsSequentialParsing() throws IOException {
+    String obj = grid(150, false);
+
+    MeshArrays sequential = new MeshArrays();
+    new ObjParser().parse(buffer(obj), sequential);
+
+    ObjParser parser = new ObjParser();
+    parser.setChunkSize(4096);
+    MeshArrays parallel = parser.read(buffer(obj));
+
+    assertMeshEquals(sequential, parallel);
+    Assert.assertEquals(150 * 150, parallel.getVertexCount());
+    Assert.assertEquals(149 * 149 * 2, parallel.getTriangleCount());
+
+    // with relative indices, chunks are parsed again sequentially
+    MeshArrays relative = parser.read(buffer(grid(150, true)));
+    assertMeshEquals(sequential, relative);
+  }
+
+  @Test
+  public void whenParsingFile_ThenStreamingAndParallelReadingAgree() throws IOException {
+    File file = File.createTempFile("jzy3d-grid", ".obj");
+    Files.write(file.toPath(), grid(100, false).getBytes(StandardCharsets.US_ASCII));
+
+    ObjParser parser = new ObjParser();
+    parser.setChunkSize(10000);
+    MeshArrays parallel = parser.read(file);
+
+    // streaming mode keeps one vertex out of two
+    int[] kept = new int[1];
+    parser.parse(file, new IMeshHandler() {
+      int n = 0;
+
+      @Override
+      public void vertex(float x, float y, float z) {
+        if (n++ % 2 == 0)
+          kept[0]++;
+      }
+
+      @Override
+      public void face(int[] vertices, int[] normals, int count) {}
+    });
+
+    Assert.assertEquals(100 * 100, parallel.getVertexCount());
+    Assert.assertEquals(100 * 100 / 2, kept[0]);
+
+    // legacy model loading relies on the same parser
+    OBJFile model = new OBJFile();
+    Assert.assertTrue(model.loadModelFromFile(file));
+    Assert.assertEquals(100 * 100, model.getPositionCount());
+    Assert.assertEquals(parallel.getTriangleCount() * 3, model.getIndexCount());
+
+    file.delete();
+  }
+
+  /** A grid of quads, each split in two triangles. */
+  protected String grid(int n, boolean relative) {
+    StringBuilder obj = new StringBuilder();
+    for (int i = 0; i < n; i++)
+      for (int j = 0; j < n; j++)
+        obj.append("v ").append(i * 0.1f).append(' ').append(j * 0.1f).append(' ')
+            .append((float) Math.sin(i * j)).append('\n');
+
+    for (int i = 0; i < n - 1; i++) {
+      for (int j = 0; j < n - 1; j++) {
+        int a = i * n + j + 1;
+        int b = a + n;
+        if (relative) {
+          int count = n * n + 1;
+          obj.append("f ").append(a - count).append(' ').append(b - count).append(' ')
+              .append(b + 1 - count).append('\n');
+          obj.append("f ").append(a - count).append(' ').append(b + 1 - count).append(' ')
+              .append(a + 1 - count).append('\n');
+        } else {
+          obj.append("f ").append(a).append(' ').append(b).append(' ').append(b + 1).append('\n');
+          obj.append("f ").append(a).append(' ').append(b + 1).append(' ').append(a + 1)
+              .append('\n');
+        }
+      }
+    }
+    return obj.toString();
+  }
+
+  protected void assertMeshEquals(MeshArrays expected, MeshArrays actual) {
+    Assert.assertArrayEquals(expected.getPositions(), actual.getPositions(), 0);
+    Assert.assertArrayEquals(expected.getIndices(), actual.getIndices());
+    Assert.assertNull(actual.getColors());
+    Assert.assertNull(actual.getNormals());
+  }
+
+  protected ByteBuffer buffer(String text) {
+    return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+  }
+}
@@ -0,0 +1,189 @@
+package org.jzy3d.io.ply;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.io.MeshArrays;
+
+public class TestPlyParser {
+  @Test
+  public void whenParsingAscii_ThenVerticesColorsAndFacesAreRead() throws IOException {
+    String ply = "ply\n" //
+        + "format ascii 1.0\n" //
+        + "comment a colored quad\n" //
+        + "element vertex 4\n" //
+        + "property float x\n" //
+        + "property float y\n" //
+        + "property float z\n" //
+        + "property uchar red\n" //
+        + "property uchar green\n" //
+        + "property uchar blue\n" //
+        + "element face 1\n" //
+        + "property list uchar int vertex_indices\n" //
+        + "end_header\n" //
+        + "0 0 0 255 0 0\n" //
+        + "1 0 0 0 255 0\n" //
+        + "1 1 0 0 0 255\n" //
+        + "0 1 0.5 0 0 0\n" //
+        + "4 0 1 2 3\n";
+
+    MeshArrays mesh = new PlyParser().read(buffer(ply));
+
+    Assert.assertEquals(4, mesh.getVertexCount());
+    Assert.assertEquals(2, mesh.getTriangleCount());
+    Assert.assertEquals(0.5f, mesh.getPositions()[11], 0);
+    Assert.assertArrayEquals(new int[] {0, 1, 2, 0, 2, 3}, mesh.getIndices());
+    Assert.assertArrayEquals(new float[] {1, 0, 0, 1, 0, 1, 0, 1, 0, 0, 1, 1, 0, 0, 0, 1},
+        mesh.getColors(), 0);
+  }
+
+  @Test
+  public void whenParsingBinary_ThenMeshEqualsAscii() throws IOException {
+    int n = 60;
+    MeshArrays ascii = new PlyParser().read(buffer(asciiGrid(n)));
+    MeshArrays little = new PlyParser().read(binaryGrid(n, ByteOrder.LITTLE_ENDIAN));
+    MeshArrays big = new PlyParser().read(binaryGrid(n, ByteOrder.BIG_ENDIAN));
+
+    Assert.assertEquals(n * n, ascii.getVertexCount());
+    Assert.assertEquals((n - 1) * (n - 1) * 2, ascii.getTriangleCount());
+    assertMeshEquals(ascii, little);
+    assertMeshEquals(ascii, big);
+  }
+
+  @Test
+  public void whenParsingByChunks_ThenMeshEqualsSequentialParsing() throws IOException {
+    int n = 120;
+
+    MeshArrays ascii = new MeshArrays();
+    new PlyParser().parse(buffer(asciiGrid(n)), ascii);
+    MeshArrays binary = new MeshArrays();
+    new PlyParser().parse(binaryGrid(n, ByteOrder.LITTLE_ENDIAN), binary);
+
+    PlyParser parser = new PlyParser();
+    parser.setChunkSize(2048);
+
+    assertMeshEquals(ascii, parser.read(buffer(asciiGrid(n))));
+    assertMeshEquals(binary, parser.read(binaryGrid(n, ByteOrder.LITTLE_ENDIAN)));
+    assertMeshEquals(ascii, binary);
+  }
+
+  @Test
+  public void whenParsingUnknownElements_ThenTheyAreSkipped() throws IOException {
+    String ply = "ply\n" //
+        + "format ascii 1.0\n" //
+        + "element camera 1\n" //
+        + "property float fov\n" //
+        + "property list uchar float params\n" //
+        + "element vertex 3\n" //
+        + "property double x\n" //
+        + "property double y\n" //
+        + "property double z\n" //
+        + "property float nx\n" //
+        + "property float ny\n" //
+        + "property float nz\n" //
+        + "element face 1\n" //
+        + "property list uchar uint vertex_index\n" //
+        + "end_header\n" //
+        + "45 2 0.1 0.2\n" //
+        + "0 0 0 0 0 1\n" //
+        + "1 0 0 0 0 1\n" //
+        + "0 1 0 0 0 1\n" //
+        + "3 0 1 2\n";
+
+    MeshArrays mesh = new PlyParser().read(buffer(ply));
+
+    Assert.assertArrayEquals(new float[] {0, 0, 0, 1, 0, 0, 0, 1, 0}, mesh.getPositions(), 0);
+    Assert.assertArrayEquals(new float[] {0, 0, 1, 0, 0, 1, 0, 0, 1}, mesh.getNormals(), 0);
+    Assert.assertArrayEquals(new int[] {0, 1, 2}, mesh.getIndices());
+  }
+
+  @Test(expected = IOException.class)
+  public void whenParsingInvalidHeader_ThenIOExceptionIsThrown() throws IOException {
+    new PlyParser().read(buffer("ply\nformat ascii 1.0\nelement vertex 3\n"));
+  }
+
+  /* */
+
+  protected String asciiGrid(int n) {
+    StringBuilder ply = new StringBuilder(header("ascii", n));
+    for (int i = 0; i < n; i++)
+      for (int j = 0; j < n; j++)
+        ply.append(x(i)).append(' ').append(y(j)).append(' ').append(z(i, j)).append(' ')
+            .append(i % 256).append(' ').append(j % 256).append(" 0\n");
+
+    for (int i = 0; i < n - 1; i++)
+      for (int j = 0; j < n - 1; j++) {
+        int a = i * n + j;
+        ply.append("3 ").append(a).append(' ').append(a + n).append(' ').append(a + n + 1)
+            .append('\n');
+        ply.append("3 ").append(a).append(' ').append(a + n + 1).append(' ').append(a + 1)
+            .append('\n');
+      }
+    return ply.toString();
+  }
+
+  protected ByteBuffer binaryGrid(int n, ByteOrder order) {
+    String format = order == ByteOrder.BIG_ENDIAN ? "binary_big_endian" : "binary_little_endian";
+    byte[] header = header(format, n).getBytes(StandardCharsets.US_ASCII);
+    int faces = (n - 1) * (n - 1) * 2;
+
+    ByteBuffer buffer = ByteBuffer.allocate(header.length + n * n * 15 + faces * 13).order(order);
+    buffer.put(header);
+
+    for (int i = 0; i < n; i++)
+      for (int j = 0; j < n; j++) {
+        buffer.putFloat(x(i)).putFloat(y(j)).putFloat(z(i, j));
+        buffer.put((byte) (i % 256)).put((byte) (j % 256)).put((byte) 0);
+      }
+
+    for (int i = 0; i < n - 1; i++)
+      for (int j = 0; j < n - 1; j++) {
+        int a = i * n + j;
+        buffer.put((byte) 3).putInt(a).putInt(a + n).putInt(a + n + 1);
+        buffer.put((byte) 3).putInt(a).putInt(a + n + 1).putInt(a + 1);
+      }
+
+    buffer.flip();
+    return buffer;
+  }
+
+  protected String header(String format, int n) {
+    return "ply\n" //
+        + "format " + format + " 1.0\n" //
+        + "element vertex " + (n * n) + "\n" //
+        + "property float x\n" //
+        + "property float y\n" //
+        + "property float z\n" //
+        + "property uchar red\n" //
+        + "property uchar green\n" //
+        + "property uchar blue\n" //
+        + "element face " + ((n - 1) * (n - 1) * 2) + "\n" //
+        + "property list uchar int vertex_indices\n" //
+        + "end_header\n";
+  }
+
+  protected float x(int i) {
+    return i * 0.1f;
+  }
+
+  protected float y(int j) {
+    return j * -0.3f;
+  }
+
+  protected float z(int i, int j) {
+    return (float) Math.cos(i * j);
+  }
+
+  protected void assertMeshEquals(MeshArrays expected, MeshArrays actual) {
+    Assert.assertArrayEquals(expected.getPositions(), actual.getPositions(), 0);
+    Assert.assertArrayEquals(expected.getColors(), actual.getColors(), 0);
+    Assert.assertArrayEquals(expected.getIndices(), actual.getIndices());
+  }
+
+  protected ByteBuffer buffer(String text) {
+    return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+  }
+}
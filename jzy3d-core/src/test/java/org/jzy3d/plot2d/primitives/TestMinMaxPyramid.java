@@ -0,0 +1,129 @@
+package org.jzy3d.plot2d.primitives;
+
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestMinMaxPyramid {
+  @Test
+  public void whenQueryingMinMax_ThenSameAsScanningSamples() {
+    Random r = new Random(0);
+    MinMaxPyramid pyramid = new MinMaxPyramid(16);
+    int n = 20000;
+    for (int i = 0; i < n; i++)
+      pyramid.add(i, (float) r.nextGaussian());
+
+    Assert.assertTrue(pyramid.getLevels() >= 4);
+
+    int[] minmax = new int[2];
+    for (int q = 0; q < 500; q++) {
+      int from = r.nextInt(n);
+      int to = from + 1 + r.nextInt(n - from);
+
+      float min = Float.MAX_VALUE;
+      float max = -Float.MAX_VALUE;
+      for (int i = from; i < to; i++) {
+        min = Math.min(min, pyramid.getY(i));
+        max = Math.max(max, pyramid.getY(i));
+      }
+
+      pyramid.minMax(from, to, minmax);
+      Assert.assertEquals(min, pyramid.getY(minmax[0]), 0);
+      Assert.assertEquals(max, pyramid.getY(minmax[1]), 0);
+      Assert.assertTrue(from <= minmax[0] && minmax[0] < to);
+      Assert.assertTrue(from <= minmax[1] && minmax[1] < to);
+    }
+  }
+
+  @Test
+  public void whenDownsampling_ThenEachColumnKeepsFirstMinMaxLast() {
+    Random r = new Random(1);
+    MinMaxPyramid pyramid = new MinMaxPyramid();
+    int n = 100000;
+    for (int i = 0; i < n; i++)
+      pyramid.add(i * 0.01f, (float) Math.sin(i * 0.001) + r.nextFloat());
+
+    double xmin = 100;
+    double xmax = 600;
+    int columns = 50;
+    float[] xy = new float[MinMaxPyramid.maxDownsampledPoints(columns) * 2];
+    int points = pyramid.downsample(xmin, xmax, columns, xy);
+
+    Assert.assertTrue(points <= MinMaxPyramid.maxDownsampledPoints(columns));
+    Assert.assertTrue(points >= columns * 2);
+
+    // points are ordered and start before, end after the range
+    for (int i = 1; i < points; i++)
+      Assert.assertTrue(xy[i * 2 - 2] <= xy[i * 2]);
+    Assert.assertTrue(xy[0] < xmin);
+    Assert.assertTrue(xy[(points - 1) * 2] > xmax);
+
+    double width = (xmax - xmin) / columns;
+    for (int c = 0; c < columns; c++) {
+      double left = xmin + c * width;
+      double right = xmin + (c + 1) * width;
+
+      float min = Float.MAX_VALUE;
+      float max = -Float.MAX_VALUE;
+      for (int i = 0; i < n; i++) {
+        float x = pyramid.getX(i);
+        if (left <= x && x < right) {
+          min = Math.min(min, pyramid.getY(i));
+          max = Math.max(max, pyramid.getY(i));
+        }
+      }
+
+      float dmin = Float.MAX_VALUE;
+      float dmax = -Float.MAX_VALUE;
+      for (int i = 0; i < points; i++) {
+        float x = xy[i * 2];
+        if (left <= x && x < right) {
+          dmin = Math.min(dmin, xy[i * 2 + 1]);
+          dmax = Math.max(dmax, xy[i * 2 + 1]);
+        }
+      }
+      Assert.assertEquals("column " + c, min, dmin, 0);
+      Assert.assertEquals("column " + c, max, dmax, 0);
+    }
+  }
+
+  @Test
+  public void whenFewSamplesInRange_ThenAllReturned() {
+    MinMaxPyramid pyramid = new MinMaxPyramid();
+    for (int i = 0; i < 1000; i++)
+      pyramid.add(i, i % 7);
+
+    float[] xy = new float[MinMaxPyramid.maxDownsampledPoints(100) * 2];
+    int points = pyramid.downsample(10, 20, 100, xy);
+
+    // 9 to 21 included
+    Assert.assertEquals(13, points);
+    Assert.assertEquals(9, xy[0], 0);
+    Assert.assertEquals(21, xy[24], 0);
+    Assert.assertEquals(21 % 7, xy[25], 0);
+  }
+
+  @Test
+  public void whenCleared_ThenEmpty() {
+    MinMaxPyramid pyramid = new MinMaxPyramid();
+    for (int i = 0; i < 100; i++)
+      pyramid.add(i, i);
+    pyramid.clear();
+
+    Assert.assertEquals(0, pyramid.size());
+    Assert.assertEquals(0, pyramid.downsample(0, 100, 10, new float[84]));
+
+    pyramid.add(5, 1);
+    pyramid.add(6, 3);
+    int[] minmax = new int[2];
+    pyramid.minMax(0, 2, minmax);
+    Assert.assertArrayEquals(new int[] {0, 1}, minmax);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void whenXDecreases_ThenThrows() {
+    MinMaxPyramid pyramid = new MinMaxPyramid();
+    pyramid.add(1, 0);
+    pyramid.add(0, 0);
+  }
+}
@@ -0,0 +1,122 @@
+package org.jzy3d.plot3d.builder.concrete;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Coordinates;
+import org.jzy3d.maths.Range;
+import org.jzy3d.plot3d.builder.Mapper;
+
+public class TestOrthonormalGrid {
+  Mapper mapper = new Mapper() {
+    @Override
+    public double f(double x, double y) {
+      return x * Math.sin(x * y);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+      return true;
+    }
+  };
+
+  @Test
+  public void whenApplyingInParallel_ThenCoordinatesAreIdenticalToSequential() {
+    OrthonormalGrid parallel = new OrthonormalGrid(new Range(-3, 3), 80, new Range(0, 1), 50);
+    parallel.setTileSize(100);
+
+    OrthonormalGrid sequential = new OrthonormalGrid(new Range(-3, 3), 80, new Range(0, 1), 50);
+    sequential.setPool(null);
+
+    Coordinates p = parallel.applyAsCoordinates(mapper);
+    Coordinates s = sequential.applyAsCoordinates(mapper);
+
+    Assert.assertEquals(80 * 50, p.getX().length);
+    Assert.assertArrayEquals(s.getX(), p.getX(), 0);
+    Assert.assertArrayEquals(s.getY(), p.getY(), 0);
+    Assert.assertArrayEquals(s.getZ(), p.getZ(), 0);
+
+    // Then the grid order is X major
+    Assert.assertEquals(-3, p.getX()[0], 0);
+    Assert.assertEquals(-3, p.getX()[49], 0);
+    Assert.assertEquals(1, p.getY()[49], 0);
+    Assert.assertEquals(3, p.getX()[80 * 50 - 1], 0);
+  }
+
+  @Test
+  public void whenApplyingAsList_ThenCoordinatesMatchMapper() {
+    OrthonormalGrid grid = new OrthonormalGrid(new Range(-1, 1), 11);
+
+    List<Coord3d> coords = grid.apply(mapper);
+
+    // Then the mapper reads double coordinates, as the sequential grid did
+    Assert.assertEquals(121, coords.size());
+    for (int xi = 0; xi < 11; xi++) {
+      for (int yi = 0; yi < 11; yi++) {
+        double x = -1 + xi * (2 / 10.0);
+        double y = -1 + yi * (2 / 10.0);
+        Coord3d c = coords.get(xi * 11 + yi);
+        Assert.assertEquals((float) x, c.x, 0);
+        Assert.assertEquals((float) mapper.f(x, y), c.z, 0);
+      }
+    }
+  }
+
+  @Test
+  public void whenMapperOverridesBatch_ThenGridEvaluatesTilesOnSeveralThreads() {
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    Mapper batch = new Mapper() {
+      @Override
+      public double f(double x, double y) {
+        throw new IllegalStateException("should be evaluated by batch");
+      }
+
+      @Override
+      public void f(double[] x, double[] y, float[] z, int from, int to) {
+        threads.add(Thread.currentThread());
+        for (int i = from; i < to; i++)
+          z[i] = (float) (x[i] + y[i]);
+      }
+
+      @Override
+      public boolean isThreadSafe() {
+        return true;
+      }
+    };
+
+    OrthonormalGrid grid = new OrthonormalGrid(new Range(0, 1), 200);
+    grid.setPool(new ForkJoinPool(4));
+    grid.setTileSize(50);
+
+    Coordinates c = grid.applyAsCoordinates(batch);
+
+    for (int i = 0; i < c.getZ().length; i++)
+      Assert.assertEquals(c.getX()[i] + c.getY()[i], c.getZ()[i], 1e-6);
+
+    Assert.assertTrue(threads.size() >= 1);
+    grid.getPool().shutdown();
+  }
+
+  @Test
+  public void whenMapperDoesNotOptInThreadSafety_ThenGridIsEvaluatedOnCallingThread() {
+    Thread caller = Thread.currentThread();
+
+    Mapper notThreadSafe = new Mapper() {
+      @Override
+      public double f(double x, double y) {
+        Assert.assertSame(caller, Thread.currentThread());
+        return x;
+      }
+    };
+    Assert.assertFalse(notThreadSafe.isThreadSafe());
+
+    OrthonormalGrid grid = new OrthonormalGrid(new Range(0, 1), 100);
+    grid.setTileSize(10);
+    grid.applyAsCoordinates(notThreadSafe);
+  }
+}
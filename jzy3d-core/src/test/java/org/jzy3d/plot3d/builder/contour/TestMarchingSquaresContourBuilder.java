@@ -0,0 +1,152 @@
+package org.jzy3d.plot3d.builder.contour;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.maths.Range;
+import org.jzy3d.plot3d.builder.Mapper;
+import org.jzy3d.plot3d.builder.concrete.OrthonormalGrid;
+import org.jzy3d.plot3d.primitives.LineStrip;
+import org.jzy3d.plot3d.primitives.Point;
+import org.jzy3d.plot3d.primitives.contour.ContourLevel;
+import org.jzy3d.plot3d.primitives.contour.ContourLevels;
+
+public class TestMarchingSquaresContourBuilder {
+  Mapper paraboloid = new Mapper() {
+    @Override
+    public double f(double x, double y) {
+      return x * x + y * y;
+    }
+  };
+
+  @Test
+  public void whenContouringParaboloid_ThenEachLevelIsASingleClosedCircle() {
+    OrthonormalGrid grid = new OrthonormalGrid(new Range(-1, 1), 101);
+    MarchingSquaresContourBuilder builder = new MarchingSquaresContourBuilder();
+    builder.setBandSize(8);
+
+    ContourLevels contours = builder.build(grid, paraboloid, new double[] {0.25, 0.5});
+
+    for (double level : new double[] {0.25, 0.5}) {
+      ContourLevel contour = contours.getContourLevel(level);
+      Assert.assertEquals(1, contour.getLines().size());
+
+      LineStrip line = contour.getLines().get(0);
+      Assert.assertTrue(line.size() > 50);
+      Assert.assertEquals(line.get(0).getCoord(), line.getLastPoint().getCoord());
+
+      for (Point p : line.getPoints()) {
+        double radius = Math.sqrt(p.xyz.x * p.xyz.x + p.xyz.y * p.xyz.y);
+        Assert.assertEquals(Math.sqrt(level), radius, 0.01);
+        Assert.assertEquals(level, p.xyz.z, 0);
+      }
+    }
+  }
+
+  @Test
+  public void whenContouringPlane_ThenLevelIsAnOpenStraightLineCrossingTheGrid() {
+    float[] x = {0, 1, 2, 3};
+    float[] y = {0, 1, 2, 3, 4};
+    float[] z = new float[x.length * y.length];
+    for (int xi = 0; xi < x.length; xi++)
+      for (int yi = 0; yi < y.length; yi++)
+        z[xi * y.length + yi] = x[xi];
+
+    float[][][] polylines = new MarchingSquaresContourBuilder().polylines(x, y, z,
+        new double[] {1.5, 10});
+
+    Assert.assertEquals(1, polylines[0].length);
+    Assert.assertEquals(0, polylines[1].length);
+
+    float[] line = polylines[0][0];
+    Assert.assertEquals(y.length * 2, line.length);
+    for (int i = 0; i < line.length; i += 2)
+      Assert.assertEquals(1.5, line[i], 1e-6);
+
+    // Then points follow each other along Y
+    float from = Math.min(line[1], line[line.length - 1]);
+    float to = Math.max(line[1], line[line.length - 1]);
+    Assert.assertEquals(0, from, 0);
+    Assert.assertEquals(4, to, 0);
+  }
+
+  @Test
+  public void whenContouringInParallel_ThenPolylinesAreIdenticalToSequential() {
+    float[] x = axis(-3, 3, 120);
+    float[] y = axis(-2, 2, 90);
+    float[] z = new float[x.length * y.length];
+    for (int xi = 0; xi < x.length; xi++)
+      for (int yi = 0; yi < y.length; yi++)
+        z[xi * y.length + yi] = (float) (Math.sin(x[xi] * 2) * Math.cos(y[yi] * 3));
+
+    double[] levels = MarchingSquaresContourBuilder.levels(-1, 1, 9);
+
+    MarchingSquaresContourBuilder parallel = new MarchingSquaresContourBuilder();
+    parallel.setBandSize(7);
+    MarchingSquaresContourBuilder sequential = new MarchingSquaresContourBuilder();
+    sequential.setBandSize(7);
+    sequential.setPool(null);
+
+    float[][][] p = parallel.polylines(x, y, z, levels);
+    float[][][] s = sequential.polylines(x, y, z, levels);
+
+    Assert.assertEquals(levels.length, p.length);
+    for (int k = 0; k < levels.length; k++) {
+      Assert.assertEquals(s[k].length, p[k].length);
+      for (int l = 0; l < s[k].length; l++)
+        Assert.assertArrayEquals(s[k][l], p[k][l], 0);
+    }
+
+    // Then the level 0 crosses the grid along the zeros of sin and cos
+    Assert.assertTrue(p[4].length > 1);
+  }
+
+  @Test
+  public void whenCellHasHole_ThenContourStopsAroundIt() {
+    float[] x = {0, 1, 2};
+    float[] y = {0, 1, 2};
+    float[] z = {0, 0, 0, 0, 1, 0, 0, 0, 0};
+
+    float[][][] closed = new MarchingSquaresContourBuilder().polylines(x, y, z, new double[] {0.5});
+    Assert.assertEquals(1, closed[0].length);
+    Assert.assertEquals(5 * 2, closed[0][0].length);
+
+    z[0] = Float.NaN;
+    float[][][] open = new MarchingSquaresContourBuilder().polylines(x, y, z, new double[] {0.5});
+    Assert.assertEquals(1, open[0].length);
+    Assert.assertEquals(4 * 2, open[0][0].length);
+  }
+
+  @Test
+  public void whenSurfaceIsFlat_ThenThereIsNoLevelAndNoContour() {
+    float[] x = {0, 1, 2};
+    float[] y = {0, 1};
+    float[] flat = {2, 2, 2, 2, 2, 2};
+    float[] undefined = {Float.NaN, Float.NaN, Float.NaN, Float.NaN, Float.NaN, Float.NaN};
+
+    Assert.assertEquals(0, MarchingSquaresContourBuilder.levels(flat, 5).length);
+    Assert.assertEquals(0, MarchingSquaresContourBuilder.levels(undefined, 5).length);
+
+    double[] levels = MarchingSquaresContourBuilder.levels(flat, 5);
+    float[][][] polylines = new MarchingSquaresContourBuilder().polylines(x, y, flat, levels);
+    Assert.assertEquals(0, polylines.length);
+
+    // NaN heights are ignored to compute the levels
+    float[] partial = {Float.NaN, 0, 1, 2, 3, Float.NaN};
+    Assert.assertArrayEquals(new double[] {1, 2},
+        MarchingSquaresContourBuilder.levels(partial, 2), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void whenLevelsAreNotSorted_ThenThrowsIllegalArgument() {
+    float[] x = {0, 1};
+    float[] y = {0, 1};
+    new MarchingSquaresContourBuilder().polylines(x, y, new float[4], new double[] {1, 0});
+  }
+
+  static float[] axis(float min, float max, int steps) {
+    float[] axis = new float[steps];
+    for (int i = 0; i < steps; i++)
+      axis[i] = min + (max - min) * i / (steps - 1);
+    return axis;
+  }
+}
@@ -0,0 +1,59 @@
+package org.jzy3d.plot3d.builder.delaunay;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.plot3d.primitives.ArrayMesh;
+import org.jzy3d.plot3d.primitives.Polygon;
+import org.jzy3d.plot3d.primitives.Shape;
+
+public class TestDelaunayTessellator {
+  List<Coord3d> coordinates = new ArrayList<Coord3d>();
+  {
+    coordinates.add(new Coord3d(0, 0, 1));
+    coordinates.add(new Coord3d(1, 0, 2));
+    coordinates.add(new Coord3d(1, 1, 3));
+    coordinates.add(new Coord3d(0, 1, 4));
+    coordinates.add(new Coord3d(0.5, 0.5, 5));
+  }
+
+  @Test
+  public void whenBuildingMesh_ThenVerticesAreInputPoints() {
+    ArrayMesh mesh = new DelaunayTessellator().buildMesh(coordinates);
+
+    Assert.assertEquals(5, mesh.getVertexCount());
+    Assert.assertEquals(4, mesh.getFaceCount());
+    Assert.assertEquals(3, mesh.getFaceSize());
+    Assert.assertEquals(5, mesh.getPositions()[4 * 3 + 2], 0);
+
+    // Then each triangle uses the center point
+    int[] indices = mesh.getIndices();
+    for (int t = 0; t < indices.length; t += 3) {
+      Assert.assertTrue(indices[t] == 4 || indices[t + 1] == 4 || indices[t + 2] == 4);
+    }
+  }
+
+  @Test
+  public void whenBuildingPolygons_ThenTheyMatchMesh() {
+    Shape shape = (Shape) new DelaunayTessellator().build(coordinates);
+
+    Assert.assertEquals(4, shape.size());
+  }
+
+  @Test
+  public void whenSubclassOverridesComputePolygons_ThenBuildUsesIt() {
+    DelaunayTessellator tessellator = new DelaunayTessellator() {
+      @SuppressWarnings("deprecation")
+      @Override
+      protected List<Polygon> computePolygons(List<Coord3d> coordinates) {
+        List<Polygon> polygons = super.computePolygons(coordinates);
+        return polygons.subList(0, 1);
+      }
+    };
+    Shape shape = (Shape) tessellator.build(coordinates);
+
+    Assert.assertEquals(1, shape.size());
+  }
+}
@@ -0,0 +1,226 @@
+package org.jzy3d.plot3d.primitives;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.colors.ColorMapper;
+import org.jzy3d.colors.colormaps.ColorMapRainbow;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Range;
+import org.jzy3d.plot3d.builder.Mapper;
+import org.jzy3d.plot3d.builder.SurfaceBuilder;
+import org.jzy3d.plot3d.builder.concrete.OrthonormalTessellator;
+import org.jzy3d.plot3d.rendering.scene.Decomposition;
+import org.jzy3d.plot3d.transform.space.SpaceTransform;
+import org.jzy3d.plot3d.transform.space.SpaceTransformer;
+
+public class TestArrayMesh {
+  Mapper mapper = new Mapper() {
+    @Override
+    public double f(double x, double y) {
+      return x * y;
+    }
+  };
+
+  @Test
+  public void whenBuildingFromGrid_ThenMeshHoldsSameQuadsThanShape() {
+    SurfaceBuilder builder = new SurfaceBuilder();
+    Range range = new Range(-1, 1);
+
+    Shape shape = builder.orthonormal(mapper, range, 5);
+    ArrayMesh mesh = builder.orthonormalMesh(mapper, range, 5);
+
+    // Then one quad per cell, sharing vertices
+    Assert.assertEquals(4, mesh.getFaceSize());
+    Assert.assertEquals(25, mesh.getVertexCount());
+    Assert.assertEquals(shape.size(), mesh.getFaceCount());
+    Assert.assertEquals(shape.getBounds(), mesh.getBounds());
+
+    // Then quads have the same vertices in the same order
+    for (int f = 0; f < mesh.getFaceCount(); f++) {
+      Polygon polygon = (Polygon) shape.get(f);
+
+      for (int k = 0; k < 4; k++) {
+        Coord3d expected = polygon.get(k).xyz;
+        Coord3d actual = mesh.getVertex(mesh.getIndices()[f * 4 + k]);
+        Assert.assertEquals(expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void whenGridHasNaN_ThenCellsAreSkippedAndBoundsIgnoreNaN() {
+    float[] x = {0, 1, 2, 0, 1, 2};
+    float[] y = {0, 0, 0, 1, 1, 1};
+    float[] z = {0, 1, 2, 3, 4, Float.NaN};
+
+    ArrayMesh mesh = new OrthonormalTessellator().buildMesh(x, y, z);
+
+    Assert.assertEquals(1, mesh.getFaceCount());
+    Assert.assertEquals(new BoundingBox3d(0, 2, 0, 1, 0, 4), mesh.getBounds());
+  }
+
+  @Test
+  public void whenSortingFaces_ThenFarthestFacesComeFirst() {
+    // Given three triangles along the X axis
+    float[] positions = {0, 0, 0, 1, 0, 0, 0, 1, 0, //
+        10, 0, 0, 11, 0, 0, 10, 1, 0, //
+        5, 0, 0, 6, 0, 0, 5, 1, 0};
+    int[] indices = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+    ArrayMesh mesh = new ArrayMesh(positions, indices, 3);
+
+    // When looking from the negative X side
+    int[] sorted = mesh.sortFaces(positions, new Coord3d(-10, 0, 0));
+
+    // Then the farthest triangle is drawn first
+    Assert.assertArrayEquals(new int[] {3, 4, 5, 6, 7, 8, 0, 1, 2}, sorted);
+
+    // When looking from the positive X side
+    sorted = mesh.sortFaces(positions, new Coord3d(20, 0, 0));
+    Assert.assertArrayEquals(new int[] {0, 1, 2, 6, 7, 8, 3, 4, 5}, sorted);
+
+    // Then the original indices are not modified
+    Assert.assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8}, mesh.getIndices());
+  }
+
+  @Test
+  public void whenEyeDoesNotMove_ThenFacesAreNotSortedAgain() {
+    float[] positions = {0, 0, 0, 1, 0, 0, 0, 1, 0, //
+        10, 0, 0, 11, 0, 0, 10, 1, 0};
+    ArrayMesh mesh = new ArrayMesh(positions, new int[] {0, 1, 2, 3, 4, 5}, 3);
+
+    int[] sorted = mesh.getSortedIndices(positions, new Coord3d(-10, 0, 0));
+    Assert.assertArrayEquals(new int[] {3, 4, 5, 0, 1, 2}, sorted);
+
+    // When the eye does not move, then the previous order is reused without sorting
+    sorted[0] = -1;
+    Assert.assertSame(sorted, mesh.getSortedIndices(positions, new Coord3d(-10, 0, 0)));
+    Assert.assertEquals(-1, sorted[0]);
+
+    // When the eye moves, then faces are sorted again
+    Assert.assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5},
+        mesh.getSortedIndices(positions, new Coord3d(20, 0, 0)));
+
+    // When the data changes, then faces are sorted again
+    mesh.setData(positions.clone(), null, new int[] {3, 4, 5, 0, 1, 2}, 3);
+    Assert.assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5},
+        mesh.getSortedIndices(mesh.getPositions(), new Coord3d(20, 0, 0)));
+  }
+
+  @Test
+  public void whenSpaceTransformerDoesNotChange_ThenPositionsAreNotTransformedAgain() {
+    int[] calls = new int[1];
+    SpaceTransform doubling = new SpaceTransform() {
+      @Override
+      public float compute(float value) {
+        calls[0]++;
+        return value * 2;
+      }
+    };
+
+    float[] positions = {0, 0, 0, 1, 0, 0, 1, 1, 1};
+    ArrayMesh mesh = new ArrayMesh(positions, new int[] {0, 1, 2}, 3);
+    SpaceTransformer transformer = new SpaceTransformer(doubling, null, null);
+    mesh.setSpaceTransformer(transformer);
+
+    float[] drawn = mesh.getDrawnPositions();
+    Assert.assertEquals(2, drawn[3], 0);
+    Assert.assertEquals(3, calls[0]);
+    FloatBuffer buffer = mesh.getPositionBuffer(drawn);
+
+    // When drawing again, then positions and their buffer are reused
+    buffer.put(3, -1);
+    Assert.assertSame(drawn, mesh.getDrawnPositions());
+    Assert.assertSame(buffer, mesh.getPositionBuffer(mesh.getDrawnPositions()));
+    Assert.assertEquals(3, calls[0]);
+    Assert.assertEquals(-1, buffer.get(3), 0);
+
+    // When an axis transform changes, then positions and their buffer are updated
+    transformer.setY(doubling);
+    Assert.assertEquals(2, mesh.getDrawnPositions()[7], 0);
+    Assert.assertEquals(2, mesh.getPositionBuffer(mesh.getDrawnPositions()).get(3), 0);
+    Assert.assertEquals(9, calls[0]);
+
+    // When the transformer changes, then positions are transformed again
+    mesh.setSpaceTransformer(new SpaceTransformer());
+    Assert.assertEquals(1, mesh.getDrawnPositions()[7], 0);
+  }
+
+  @Test
+  public void whenDecomposable_ThenDecompositionExpandsMeshInPolygons() {
+    float[] positions = {0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0, 2, 0, 0, 2, 1, 0};
+    float[] colors = new float[6 * 4];
+    for (int i = 0; i < colors.length; i++)
+      colors[i] = 0.5f;
+    int[] indices = {0, 1, 2, 3, 1, 4, 5, 2};
+
+    ArrayMesh mesh = new ArrayMesh(positions, colors, indices, 4);
+    List<Drawable> drawables = new ArrayList<>();
+    drawables.add(mesh);
+
+    // Not decomposed by default
+    Assert.assertEquals(1, Decomposition.getDecomposition(drawables).size());
+    Assert.assertSame(mesh, Decomposition.getDecomposition(drawables).get(0));
+
+    // Decomposed on demand
+    mesh.setDecomposable(true);
+    List<Drawable> polygons = Decomposition.getDecomposition(drawables);
+    Assert.assertEquals(2, polygons.size());
+
+    Polygon second = (Polygon) polygons.get(1);
+    Assert.assertEquals(new Coord3d(1, 0, 0), second.get(0).xyz);
+    Assert.assertEquals(new Coord3d(2, 1, 0), second.get(2).xyz);
+    Assert.assertEquals(0.5f, second.get(0).rgb.r, 0);
+  }
+
+  @Test
+  public void whenComputingNormals_ThenFlatMeshHasVerticalNormals() {
+    float[] positions = {0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0};
+    ArrayMesh mesh = new ArrayMesh(positions, new int[] {0, 1, 2, 3}, 4);
+
+    float[] normals = mesh.getNormals();
+
+    for (int v = 0; v < 4; v++) {
+      Assert.assertEquals(0, normals[v * 3], 0);
+      Assert.assertEquals(0, normals[v * 3 + 1], 0);
+      Assert.assertEquals(1, normals[v * 3 + 2], 0);
+    }
+  }
+
+  @Test
+  public void whenDrawingAgain_ThenDirectBuffersAreReusedUntilColorsOrDataChange() {
+    float[] positions = {0, 0, 0, 1, 0, 0, 1, 1, 1, 0, 1, 1};
+    ArrayMesh mesh = new ArrayMesh(positions, new int[] {0, 1, 2, 3}, 4);
+    mesh.setColorMapper(new ColorMapper(new ColorMapRainbow(), 0, 1));
+
+    FloatBuffer colors = mesh.getColorBuffer(mesh.getDrawnColors());
+    Assert.assertTrue(colors.isDirect());
+    Assert.assertEquals(16, colors.remaining());
+    float first = colors.get(0);
+
+    // When nothing changed, then the buffer is not refilled
+    colors.put(0, -1);
+    Assert.assertSame(colors, mesh.getColorBuffer(mesh.getDrawnColors()));
+    Assert.assertEquals(-1, colors.get(0), 0);
+
+    // When the mapper range changes, then the buffer is refilled without reallocation
+    mesh.getColorMapper().setRange(new Range(0, 2));
+    Assert.assertSame(colors, mesh.getColorBuffer(mesh.getDrawnColors()));
+    Assert.assertEquals(first, colors.get(0), 0);
+
+    // When the data changes, then the buffers are refilled
+    FloatBuffer vertices = mesh.getPositionBuffer(mesh.getDrawnPositions());
+    Assert.assertEquals(1, vertices.get(3), 0);
+    float[] moved = {0, 0, 0, 2, 0, 0, 1, 1, 1, 0, 1, 1};
+    mesh.setData(moved, null, new int[] {0, 1, 2, 3}, 4);
+    Assert.assertEquals(2, mesh.getPositionBuffer(mesh.getDrawnPositions()).get(3), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void whenIndexIsOutOfRange_ThenBuildingFails() {
+    new ArrayMesh(new float[] {0, 0, 0, 1, 0, 0, 1, 1, 0}, new int[] {0, 1, 3}, 3);
+  }
+}
@@ -0,0 +1,160 @@
+package org.jzy3d.plot3d.primitives;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.colors.Color;
+import org.jzy3d.colors.ColorMapper;
+import org.jzy3d.colors.colormaps.ColorMapRainbow;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.maths.Coord3d;
+
+public class TestStreamingScatter {
+
+  @Test
+  public void whenExceedingCapacity_ThenOldestSamplesAreEvicted() {
+    StreamingScatter scatter = new StreamingScatter(4);
+
+    for (int i = 0; i < 10; i++) {
+      scatter.add(i, -i, i * 2, i);
+    }
+    scatter.update();
+
+    Assert.assertEquals(10, scatter.getPublishedCount());
+    Assert.assertEquals(4, scatter.size());
+    Assert.assertEquals(new Coord3d(6, -6, 12), scatter.get(0));
+    Assert.assertEquals(new Coord3d(9, -9, 18), scatter.get(3));
+
+    // Then bounds only cover the remaining samples
+    Assert.assertEquals(new BoundingBox3d(6, 9, -9, -6, 12, 18), scatter.getBounds());
+  }
+
+  @Test
+  public void whenUpdatingSeveralTimes_ThenBoundsFollowTheWindow() {
+    StreamingScatter scatter = new StreamingScatter(3);
+
+    // a large value enters the window
+    scatter.add(0, 0, 100, 0);
+    scatter.add(1, 0, 1, 1);
+    Assert.assertEquals(100, scatter.getBounds().getZmax(), 0);
+
+    // and leaves it
+    scatter.add(2, 0, 2, 2);
+    scatter.add(3, 0, 3, 3);
+    Assert.assertEquals(3, scatter.getBounds().getZmax(), 0);
+    Assert.assertEquals(1, scatter.getBounds().getZmin(), 0);
+    Assert.assertEquals(1, scatter.getBounds().getXmin(), 0);
+
+    // NaN values are drawn but do not change bounds
+    scatter.add(4, 0, Float.NaN, 4);
+    Assert.assertEquals(3, scatter.size());
+    Assert.assertEquals(2, scatter.getBounds().getZmin(), 0);
+    Assert.assertEquals(4, scatter.getBounds().getXmax(), 0);
+  }
+
+  @Test
+  public void whenTimeWindowIsSet_ThenOldSamplesAreEvicted() {
+    StreamingScatter scatter = new StreamingScatter(100);
+    scatter.setTimeWindow(10);
+
+    for (int i = 0; i < 50; i++) {
+      scatter.add(i, 0, 0, i * 2);
+    }
+    scatter.update();
+
+    // samples stamped 88 to 98 are kept
+    Assert.assertEquals(6, scatter.size());
+    Assert.assertEquals(44, scatter.get(0).x, 0);
+    Assert.assertEquals(new BoundingBox3d(44, 49, 0, 0, 0, 0), scatter.getBounds());
+
+    scatter.clear();
+    Assert.assertEquals(0, scatter.size());
+    Assert.assertTrue(scatter.getBounds().isReset());
+  }
+
+  @Test
+  public void whenColorMapperRangeIsUpdated_ThenItFollowsZRange() {
+    ColorMapper mapper = new ColorMapper(new ColorMapRainbow(), 0, 1);
+    StreamingScatter scatter = new StreamingScatter(2, mapper);
+
+    scatter.add(0, 0, -5, 0);
+    scatter.add(0, 0, 5, 1);
+    scatter.update();
+
+    Assert.assertEquals(-5, mapper.getMin(), 0);
+    Assert.assertEquals(5, mapper.getMax(), 0);
+
+    scatter.add(0, 0, 7, 2);
+    scatter.update();
+
+    Assert.assertEquals(5, mapper.getMin(), 0);
+    Assert.assertEquals(7, mapper.getMax(), 0);
+  }
+
+  @Test
+  public void whenRingWraps_ThenColorsAreMappedFromZOfEachSample() {
+    ColorMapper mapper = new ColorMapper(new ColorMapRainbow(), 0, 1);
+    StreamingScatter scatter = new StreamingScatter(3, mapper);
+
+    // five samples in a ring of four slots, hence the window wraps around its end
+    for (int i = 0; i < 5; i++)
+      scatter.add(0, 0, i, i);
+    scatter.update();
+
+    for (long i = 2; i < 5; i++) {
+      int slot = (int) (i % scatter.slots);
+      Color expected = mapper.getColor(i);
+      Assert.assertEquals(expected.r, scatter.rgba[slot * 4], 0);
+      Assert.assertEquals(expected.g, scatter.rgba[slot * 4 + 1], 0);
+      Assert.assertEquals(expected.b, scatter.rgba[slot * 4 + 2], 0);
+      Assert.assertEquals(expected.a, scatter.rgba[slot * 4 + 3], 0);
+    }
+  }
+
+  @Test
+  public void whenProducerAppendsConcurrently_ThenConsumerOnlySeesConsistentSamples()
+      throws InterruptedException {
+    int capacity = 1000;
+    int samples = 2000000;
+    StreamingScatter scatter = new StreamingScatter(capacity);
+
+    // each sample holds x=y=z=i, hence a torn sample would have different coordinates
+    Thread producer = new Thread(() -> {
+      for (int i = 0; i < samples; i++)
+        scatter.add(i, i, i, i);
+    });
+    producer.start();
+
+    while (producer.isAlive()) {
+      scatter.update();
+      assertConsistent(scatter, capacity);
+    }
+    producer.join();
+
+    scatter.update();
+    assertConsistent(scatter, capacity);
+    Assert.assertEquals(capacity, scatter.size());
+    Assert.assertEquals(samples - 1, scatter.getBounds().getXmax(), 0);
+  }
+
+  protected void assertConsistent(StreamingScatter scatter, int capacity) {
+    int size = scatter.size();
+    Assert.assertTrue(size <= capacity);
+
+    Coord3d previous = null;
+    for (int i = 0; i < size; i++) {
+      Coord3d c = scatter.get(i);
+      Assert.assertEquals(c.x, c.y, 0);
+      Assert.assertEquals(c.x, c.z, 0);
+
+      if (previous != null)
+        Assert.assertEquals(previous.x + 1, c.x, 0);
+      previous = c;
+    }
+
+    // read bounds as of the last update, as getBounds() would collect new samples
+    if (size > 0) {
+      Assert.assertEquals(scatter.get(0).x, scatter.bbox.getXmin(), 0);
+      Assert.assertEquals(scatter.get(size - 1).x, scatter.bbox.getXmax(), 0);
+    }
+  }
+}
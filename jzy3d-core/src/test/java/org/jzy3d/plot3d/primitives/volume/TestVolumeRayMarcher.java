@@ -0,0 +1,180 @@
+package org.jzy3d.plot3d.primitives.volume;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.colors.ColorMapper;
+import org.jzy3d.colors.colormaps.ColorMapGrayscale;
+import org.jzy3d.maths.BoundingBox3d;
+
+public class TestVolumeRayMarcher {
+  static final int N = 32;
+  static final int W = 32;
+  static final int H = 24;
+
+  /** Model coordinates are normalized device coordinates */
+  static final double[] IDENTITY = {1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1};
+
+  BoundingBox3d bounds = new BoundingBox3d(-1, 1, -1, 1, -1, 1);
+  ColorMapper mapper = new ColorMapper(new ColorMapGrayscale(), 0, 1);
+
+  @Test
+  public void whenVolumeIsFull_ThenRaysStopOpaque() {
+    FloatBuffer values = FloatBuffer.allocate(N * N * N);
+    for (int i = 0; i < values.capacity(); i++)
+      values.put(i, 1);
+
+    int[] image = render(new VolumeRayMarcher(grid(values), mapper, bounds), null);
+
+    for (int pixel : image) {
+      Assert.assertTrue(pixel >>> 24 >= 252);
+      // Then the color is the one of the maximum, white, premultiplied
+      Assert.assertEquals(pixel >>> 24, (pixel >> 16) & 0xff, 1);
+    }
+  }
+
+  @Test
+  public void whenVolumeIsEmpty_ThenImageIsTransparent() {
+    VolumeRayMarcher marcher =
+        new VolumeRayMarcher(grid(FloatBuffer.allocate(N * N * N)), mapper, bounds);
+
+    int[] image = render(marcher, null);
+    Assert.assertArrayEquals(new int[W * H], image);
+
+    // Then the whole volume is a single transparent brick
+    VolumeBrickPyramid bricks = marcher.getBricks();
+    int top = bricks.getLevels() - 1;
+    Assert.assertEquals(0, bricks.getMax(top, 0), 0);
+    Assert.assertArrayEquals(new int[] {1, 1, 1}, bricks.getBricks(top));
+  }
+
+  @Test
+  public void whenSkippingEmptySpace_ThenImageIsIdenticalToSamplingAll() {
+    FloatBuffer values = blob();
+
+    VolumeRayMarcher skipping = new VolumeRayMarcher(grid(values), mapper, bounds);
+    skipping.setStep(0.5f);
+    VolumeRayMarcher sampling = new VolumeRayMarcher(grid(values), mapper, bounds);
+    sampling.setStep(0.5f);
+    sampling.setSkipEmptySpace(false);
+
+    int[] expected = render(sampling, null);
+    Assert.assertArrayEquals(expected, render(skipping, null));
+
+    // Then the blob is visible in the center and not at the corners
+    Assert.assertTrue(expected[H / 2 * W + W / 2] >>> 24 > 0);
+    Assert.assertEquals(0, expected[0]);
+
+    // Then rendering in parallel is identical
+    skipping.setTileSize(1);
+    sampling.setPool(null);
+    Assert.assertArrayEquals(expected, render(skipping, null));
+    Assert.assertArrayEquals(expected, render(sampling, null));
+  }
+
+  @Test
+  public void whenRangeChangesWhileRendering_ThenFrameKeepsItsTransferFunction() {
+    FloatBuffer values = blob();
+
+    VolumeRayMarcher reference = new VolumeRayMarcher(grid(values), mapper, bounds);
+    reference.setPool(null);
+    int[] expected = render(reference, null);
+
+    // Given a marcher whose settings change after the first ray of a frame
+    VolumeRayMarcher changing = new VolumeRayMarcher(grid(values), mapper, bounds) {
+      boolean changed = false;
+
+      @Override
+      protected int march(Frame frame, double ox, double oy, double oz, double dx, double dy,
+          double dz) {
+        if (!changed) {
+          changed = true;
+          setRange(0.5f, 2);
+          setStep(0.25f);
+        }
+        return super.march(frame, ox, oy, oz, dx, dy, dz);
+      }
+    };
+    changing.setPool(null);
+
+    // Then the frame is rendered with the settings it started with
+    Assert.assertArrayEquals(expected, render(changing, null));
+
+    // Then the next frame uses the new settings
+    Assert.assertFalse(Arrays.equals(expected, render(changing, null)));
+  }
+
+  @Test
+  public void whenGeometryStandsInFront_ThenRaysStopAtItsDepth() {
+    // values only in the back half of the volume, away from the viewer
+    FloatBuffer values = FloatBuffer.allocate(N * N * N);
+    for (int z = N / 2; z < N; z++)
+      for (int i = 0; i < N * N; i++)
+        values.put(z * N * N + i, 1);
+
+    float[] depth = new float[W * H];
+    Arrays.fill(depth, 1);
+    Arrays.fill(depth, 0, W * H / 2, 0.25f);
+
+    int[] image = render(new VolumeRayMarcher(grid(values), mapper, bounds), depth);
+
+    for (int i = 0; i < W * H; i++) {
+      if (i < W * H / 2)
+        Assert.assertEquals(0, image[i]);
+      else
+        Assert.assertTrue(image[i] >>> 24 > 200);
+    }
+  }
+
+  @Test
+  public void whenVoxelsAreBytes_ThenImageIsIdenticalToFloats() {
+    ByteBuffer bytes = ByteBuffer.allocate(N * N * N);
+    FloatBuffer floats = FloatBuffer.allocate(N * N * N);
+    for (int i = 0; i < N * N * N; i++) {
+      int v = (i * 7) % 256;
+      bytes.put(i, (byte) v);
+      floats.put(i, v);
+    }
+
+    ColorMapper mapper255 = new ColorMapper(new ColorMapGrayscale(), 0, 255);
+    int[] fromBytes = render(new VolumeRayMarcher(grid(bytes), mapper255, bounds), null);
+    int[] fromFloats = render(new VolumeRayMarcher(grid(floats), mapper255, bounds), null);
+
+    Assert.assertArrayEquals(fromFloats, fromBytes);
+    // Then bytes are unsigned
+    Assert.assertEquals(255, grid(bytes).get(73), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void whenBufferIsTooSmall_ThenThrowsIllegalArgument() {
+    new VoxelGrid(FloatBuffer.allocate(10), new int[] {N, N, N});
+  }
+
+  /* */
+
+  int[] render(VolumeRayMarcher marcher, float[] depth) {
+    int[] image = new int[W * H];
+    marcher.render(IDENTITY, W, H, depth, image);
+    return image;
+  }
+
+  static VoxelGrid grid(Buffer values) {
+    return new VoxelGrid(values, new int[] {N, N, N});
+  }
+
+  /** A sphere fading from the center of the volume. */
+  static FloatBuffer blob() {
+    FloatBuffer values = FloatBuffer.allocate(N * N * N);
+    for (int z = 0; z < N; z++)
+      for (int y = 0; y < N; y++)
+        for (int x = 0; x < N; x++) {
+          double c = (N - 1) / 2.0;
+          double d = Math.sqrt((x - c) * (x - c) + (y - c) * (y - c) + (z - c) * (z - c));
+          values.put((z * N + y) * N + x, (float) Math.max(0, 1 - d / (N / 4)));
+        }
+    return values;
+  }
+}
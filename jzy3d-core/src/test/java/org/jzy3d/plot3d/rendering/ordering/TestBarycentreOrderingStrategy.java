@@ -0,0 +1,115 @@
+package org.jzy3d.plot3d.rendering.ordering;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.plot3d.primitives.Drawable;
+import org.jzy3d.plot3d.primitives.Point;
+import org.jzy3d.plot3d.rendering.view.Camera;
+
+public class TestBarycentreOrderingStrategy {
+  @Test
+  public void whenSortingByScores_thenOrderMatchesComparator() {
+    Random random = new Random(0);
+    List<Drawable> points = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      points.add(new Point(new Coord3d(random.nextInt(100), random.nextInt(100), random.nextInt(100))));
+    }
+    List<Drawable> copy = new ArrayList<>(points);
+
+    Camera camera = new Camera(new Coord3d(50, 50, 50));
+    camera.setEye(new Coord3d(-200, 30, 120));
+
+    BarycentreOrderingStrategy strategy = new BarycentreOrderingStrategy();
+    Assert.assertEquals(SortMode.COMPARATOR, strategy.getSortMode());
+    strategy.setSortMode(SortMode.PRECOMPUTED_SCORES);
+    strategy.sort(points, camera);
+
+    strategy.setSortMode(SortMode.COMPARATOR);
+    strategy.sort(copy, camera);
+
+    // distances are integers, so equal scores can be ordered differently by both sorts
+    for (int i = 0; i < points.size(); i++) {
+      Assert.assertEquals(strategy.score(copy.get(i)), strategy.score(points.get(i)), 0);
+    }
+
+    // farthest first
+    for (int i = 1; i < points.size(); i++) {
+      Assert.assertTrue(strategy.score(points.get(i - 1)) >= strategy.score(points.get(i)));
+    }
+  }
+
+  @Test
+  public void whenCameraMovesSlightly_thenIncrementalSortRepairsPreviousOrder() {
+    Random random = new Random(1);
+    List<Drawable> points = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      points.add(new Point(new Coord3d(random.nextFloat(), random.nextFloat(), random.nextFloat())));
+    }
+
+    Camera camera = new Camera(new Coord3d(0.5, 0.5, 0.5));
+
+    BarycentreOrderingStrategy strategy = new BarycentreOrderingStrategy();
+    strategy.setSortMode(SortMode.INCREMENTAL);
+
+    // first sort can not reuse anything
+    camera.setEye(new Coord3d(10, 0, 5));
+    strategy.sort(points, camera);
+    Assert.assertEquals(1, strategy.getFullSortCount());
+    Assert.assertEquals(0, strategy.getIncrementalSortCount());
+    assertSortedFarthestFirst(strategy, points);
+
+    // small rotation : previous order is repaired
+    for (int i = 1; i <= 10; i++) {
+      double angle = i * 0.005;
+      camera.setEye(new Coord3d(10 * Math.cos(angle), 10 * Math.sin(angle), 5));
+      strategy.sort(points, camera);
+      assertSortedFarthestFirst(strategy, points);
+    }
+    Assert.assertEquals(1, strategy.getFullSortCount());
+    Assert.assertEquals(10, strategy.getIncrementalSortCount());
+    Assert.assertTrue(strategy.getLastMovedCount() < points.size());
+
+    // a different list is fully sorted
+    List<Drawable> copy = new ArrayList<>(points);
+    strategy.sort(copy, camera);
+    Assert.assertEquals(2, strategy.getFullSortCount());
+
+    // same camera : nothing moves
+    strategy.sort(copy, camera);
+    Assert.assertEquals(0, strategy.getLastMovedCount());
+  }
+
+  @Test
+  public void whenCameraJumps_thenIncrementalSortFallsBackToFullSort() {
+    Random random = new Random(2);
+    List<Drawable> points = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      points.add(new Point(new Coord3d(random.nextFloat(), random.nextFloat(), random.nextFloat())));
+    }
+
+    Camera camera = new Camera(new Coord3d(0.5, 0.5, 0.5));
+
+    BarycentreOrderingStrategy strategy = new BarycentreOrderingStrategy();
+    strategy.setSortMode(SortMode.INCREMENTAL);
+
+    camera.setEye(new Coord3d(10, 0, 5));
+    strategy.sort(points, camera);
+
+    // opposite side : order is reversed, which exceeds the shift budget
+    camera.setEye(new Coord3d(-10, 0, -5));
+    strategy.sort(points, camera);
+
+    Assert.assertEquals(2, strategy.getFullSortCount());
+    assertSortedFarthestFirst(strategy, points);
+  }
+
+  protected void assertSortedFarthestFirst(AbstractOrderingStrategy strategy, List<Drawable> list) {
+    for (int i = 1; i < list.size(); i++) {
+      Assert.assertTrue((float) strategy.score(list.get(i - 1)) >= (float) strategy.score(list.get(i)));
+    }
+  }
+}
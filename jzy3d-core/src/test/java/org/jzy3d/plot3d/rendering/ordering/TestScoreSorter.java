@@ -0,0 +1,83 @@
+package org.jzy3d.plot3d.rendering.ordering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestScoreSorter {
+  @Test
+  public void whenSortingDescending_thenPermutationFollowsDecreasingScores() {
+    Random random = new Random(0);
+    int n = 10000;
+
+    ScoreSorter sorter = new ScoreSorter();
+    float[] scores = sorter.getScores(n);
+    float[] expected = new float[n];
+    for (int i = 0; i < n; i++) {
+      scores[i] = (random.nextFloat() - 0.5f) * 1000;
+      expected[i] = scores[i];
+    }
+    Arrays.sort(expected);
+
+    int[] order = sorter.sortDescending();
+
+    for (int i = 0; i < n; i++) {
+      Assert.assertEquals(expected[n - 1 - i], scores[order[i]], 0);
+    }
+  }
+
+  @Test
+  public void whenSortingAscending_thenPermutationFollowsIncreasingScores() {
+    ScoreSorter sorter = new ScoreSorter();
+    float[] scores = sorter.getScores(5);
+    scores[0] = 3;
+    scores[1] = -1;
+    scores[2] = 0;
+    scores[3] = Float.NEGATIVE_INFINITY;
+    scores[4] = 2.5f;
+
+    int[] order = sorter.sortAscending();
+
+    Assert.assertArrayEquals(new int[] {3, 1, 2, 4, 0}, Arrays.copyOf(order, 5));
+  }
+
+  @Test
+  public void whenScoresAreEqual_thenOriginalOrderIsKept() {
+    List<String> items = new ArrayList<>(Arrays.asList("a", "b", "c", "d"));
+
+    ScoreSorter sorter = new ScoreSorter();
+    float[] scores = sorter.getScores(4);
+    scores[0] = 1;
+    scores[1] = 2;
+    scores[2] = -0.0f;
+    scores[3] = 0.0f;
+    sorter.sortDescending(items);
+
+    Assert.assertEquals(Arrays.asList("b", "a", "c", "d"), items);
+  }
+
+  @Test
+  public void whenScoreIsNaN_thenItIsSortedFirst() {
+    List<String> items = new LinkedList<>(Arrays.asList("a", "b", "c"));
+
+    ScoreSorter sorter = new ScoreSorter();
+    float[] scores = sorter.getScores(3);
+    scores[0] = 1;
+    scores[1] = Float.NaN;
+    scores[2] = Float.POSITIVE_INFINITY;
+    sorter.sortDescending(items);
+
+    Assert.assertEquals(Arrays.asList("b", "c", "a"), items);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void whenListSizeDiffersFromScores_thenFails() {
+    ScoreSorter sorter = new ScoreSorter();
+    sorter.getScores(2);
+    sorter.sortDescending(new ArrayList<>(Arrays.asList("a", "b", "c")));
+  }
+}
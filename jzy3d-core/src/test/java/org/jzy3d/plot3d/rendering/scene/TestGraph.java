@@ -1,8 +1,15 @@
 package org.jzy3d.plot3d.rendering.scene;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
 import org.junit.Test;
 import org.jzy3d.maths.BoundingBox3d;
 import org.jzy3d.painters.IPainter;
+import org.jzy3d.plot3d.primitives.Composite;
+import org.jzy3d.plot3d.primitives.Drawable;
+import org.jzy3d.plot3d.primitives.RandomGeom;
 import org.jzy3d.plot3d.transform.Transform;
 import org.mockito.Mockito;
 
@@ -39,4 +46,151 @@ public class TestGraph {
     Mockito.verify(p).clip(expectClipBox);
   }
 
+  @Test
+  public void whenContentDoesNotChange_thenDecompositionIsReused() {
+    RandomGeom g = new RandomGeom();
+    Composite cube = g.cube();
+
+    // Given a graph
+    Graph graph = new Graph();
+    graph.add(cube, false);
+
+    List<Drawable> decomposition = graph.decompose();
+    Assert.assertEquals(6, decomposition.size());
+    Assert.assertFalse(graph.isDecompositionDirty());
+
+    // When nothing changed, then the same decomposition is returned
+    Assert.assertSame(decomposition, graph.decompose());
+
+    // When a transform is set, then the decomposition remains valid
+    graph.setTransform(new Transform());
+    Assert.assertSame(decomposition, graph.decompose());
+  }
+
+  @Test
+  public void whenGettingDecomposition_thenCachedListIsNotExposed() {
+    Graph graph = new Graph();
+    graph.add(new RandomGeom().cube(), false);
+
+    List<Drawable> decomposition = graph.getDecomposition();
+    Assert.assertNotSame(graph.decompose(), decomposition);
+    Assert.assertEquals(graph.decompose(), decomposition);
+
+    // When the cached list is sorted in place, then the returned copy keeps its order
+    List<Drawable> before = new ArrayList<>(decomposition);
+    Collections.reverse(graph.decompose());
+    Assert.assertEquals(before, decomposition);
+
+    try {
+      decomposition.clear();
+      Assert.fail("expected an unmodifiable list");
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void whenContentChanges_thenDecompositionIsInvalidated() {
+    RandomGeom g = new RandomGeom();
+    Composite cube = g.cube();
+    Composite cube2 = g.cube();
+
+    Graph graph = new Graph();
+    graph.add(cube, false);
+    Assert.assertEquals(6, graph.getDecomposition().size());
+
+    // When adding a drawable
+    graph.add(cube2, false);
+    Assert.assertTrue(graph.isDecompositionDirty());
+    Assert.assertEquals(12, graph.getDecomposition().size());
+
+    // When hiding a drawable
+    cube2.setDisplayed(false);
+    Assert.assertTrue(graph.isDecompositionDirty());
+    Assert.assertEquals(6, graph.getDecomposition().size());
+
+    // When hiding faces, composite is not decomposed anymore
+    cube.setFaceDisplayed(false);
+    Assert.assertTrue(graph.isDecompositionDirty());
+    Assert.assertEquals(1, graph.getDecomposition().size());
+    cube.setFaceDisplayed(true);
+
+    // When modifying the content of a composite
+    cube.remove(cube.get(0));
+    Assert.assertTrue(graph.isDecompositionDirty());
+    Assert.assertEquals(5, graph.getDecomposition().size());
+  }
+
+  @Test
+  public void whenEditingNestedComposite_thenDecompositionIsInvalidated() {
+    RandomGeom g = new RandomGeom();
+    Composite cube = g.cube();
+    Composite cube2 = g.cube();
+    Composite group = new Composite();
+    group.add(cube2);
+    cube.add(group);
+
+    Drawable face = cube.get(0);
+    face.setDisplayed(false);
+    cube2.setDisplayed(false);
+
+    // Given a decomposition built while children are hidden
+    Graph graph = new Graph();
+    graph.add(cube, false);
+    Assert.assertEquals(5, graph.getDecomposition().size());
+    Assert.assertFalse(graph.isDecompositionDirty());
+
+    // When showing a hidden nested composite, then it is drawn again
+    cube2.setDisplayed(true);
+    Assert.assertTrue(graph.isDecompositionDirty());
+    Assert.assertEquals(11, graph.getDecomposition().size());
+
+    // When showing a leaf of a composite, then the graph is not notified and must be invalidated
+    face.setDisplayed(true);
+    Assert.assertFalse(graph.isDecompositionDirty());
+    graph.invalidateDecomposition();
+    Assert.assertTrue(graph.getDecomposition().contains(face));
+    Assert.assertEquals(12, graph.getDecomposition().size());
+
+    // When a child is added to a nested composite after the decomposition was built
+    Composite cube3 = g.cube();
+    group.add(cube3);
+    Assert.assertTrue(graph.isDecompositionDirty());
+    Assert.assertEquals(18, graph.getDecomposition().size());
+
+    // Then this child is listened if it is a composite
+    cube3.setDisplayed(false);
+    Assert.assertTrue(graph.isDecompositionDirty());
+    Assert.assertEquals(12, graph.getDecomposition().size());
+
+    // When a child is removed from a composite, then it is not listened anymore
+    group.remove(cube3);
+    Assert.assertEquals(12, graph.getDecomposition().size());
+    cube3.setDisplayed(true);
+    Assert.assertFalse(graph.isDecompositionDirty());
+  }
+
+  @Test
+  public void whenDecomposing_thenOnlyComponentsAndCompositesAreListened() {
+    RandomGeom g = new RandomGeom();
+    Composite cube = g.cube();
+    Graph graph = new Graph();
+    graph.add(cube, false);
+    graph.add(cube.get(0), false);
+    graph.getDecomposition();
+
+    Assert.assertEquals(2, graph.listenedDrawables.size());
+    Assert.assertTrue(graph.listenedDrawables.contains(cube));
+    Assert.assertTrue(graph.listenedDrawables.contains(cube.get(0)));
+  }
+
+  @Test
+  public void whenCacheDisabled_thenDecompositionIsRebuilt() {
+    Graph graph = new Graph();
+    graph.add(new RandomGeom().cube(), false);
+    graph.setCacheDecomposition(false);
+
+    Assert.assertNotSame(graph.getDecomposition(), graph.getDecomposition());
+    Assert.assertEquals(6, graph.getDecomposition().size());
+  }
 }
@@ -0,0 +1,104 @@
+package org.jzy3d.plot3d.rendering.scene;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.plot3d.primitives.Drawable;
+import org.jzy3d.plot3d.primitives.Point;
+import org.jzy3d.plot3d.rendering.ordering.BarycentreOrderingStrategy;
+import org.jzy3d.plot3d.rendering.view.Camera;
+
+public class TestMultithreadedGraph {
+  @Test
+  public void whenPreparing_thenOrderMatchesSingleThreadedSort() {
+    MultithreadedGraph graph =
+        new MultithreadedGraph(null, new BarycentreOrderingStrategy(), true);
+    graph.setTaskSize(64);
+
+    Random random = new Random(0);
+    for (int i = 0; i < 5000; i++) {
+      graph.add(new Point(new Coord3d(random.nextInt(50), random.nextInt(50), random.nextInt(50))),
+          false);
+    }
+
+    Camera camera = new Camera(new Coord3d(25, 25, 25));
+    camera.setEye(new Coord3d(-100, 40, 80));
+
+    List<Drawable> monotypes = graph.getDecomposition();
+    int visible = graph.prepare(monotypes, camera);
+    Assert.assertEquals(5000, visible);
+
+    List<Drawable> expected = new ArrayList<>(monotypes);
+    new BarycentreOrderingStrategy().sort(expected, camera);
+
+    long[] keys = graph.getKeys();
+    for (int i = 0; i < visible; i++) {
+      Assert.assertSame(expected.get(i), monotypes.get(MultithreadedGraph.indexOf(keys[i])));
+    }
+
+    graph.dispose();
+    Assert.assertTrue(graph.getPool().isShutdown());
+  }
+
+  @Test
+  public void whenClipBoxIsSet_thenOutsideAndHiddenDrawablesAreCulled() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    MultithreadedGraph graph =
+        new MultithreadedGraph(null, new BarycentreOrderingStrategy(), true, pool);
+
+    Point inside = new Point(new Coord3d(0, 0, 0));
+    Point outside = new Point(new Coord3d(10, 0, 0));
+    Point hidden = new Point(new Coord3d(0.5, 0, 0));
+    hidden.setDisplayed(false);
+
+    graph.add(inside, false);
+    graph.add(outside, false);
+    graph.add(hidden, false);
+    graph.setClipBox(new BoundingBox3d(-1, 1, -1, 1, -1, 1));
+
+    List<Drawable> monotypes = graph.getDecomposition();
+    int visible = graph.prepare(monotypes, new Camera(new Coord3d(0, 0, 0)));
+
+    Assert.assertEquals(1, visible);
+    Assert.assertSame(inside, monotypes.get(MultithreadedGraph.indexOf(graph.getKeys()[0])));
+
+    // a given pool is not shut down by the graph
+    graph.dispose();
+    Assert.assertFalse(pool.isShutdown());
+    pool.shutdown();
+  }
+
+  @Test
+  public void whenDrawableStandsInClipMargin_thenItIsNotCulled() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    MultithreadedGraph graph =
+        new MultithreadedGraph(null, new BarycentreOrderingStrategy(), true, pool);
+
+    // margin is 1/1000 of the box size, i.e. 0.1
+    BoundingBox3d clip = new BoundingBox3d(0, 100, 0, 100, 0, 100);
+    Point onEdge = new Point(new Coord3d(100.05, 50, 50));
+    Point outside = new Point(new Coord3d(100.5, 50, 50));
+
+    graph.add(onEdge, false);
+    graph.add(outside, false);
+    graph.setClipBox(clip);
+
+    // When the clip box includes its limits, then drawables in its margin are kept
+    List<Drawable> monotypes = graph.getDecomposition();
+    Camera camera = new Camera(new Coord3d(50, 50, 50));
+    Assert.assertEquals(1, graph.prepare(monotypes, camera));
+    Assert.assertSame(onEdge, monotypes.get(MultithreadedGraph.indexOf(graph.getKeys()[0])));
+
+    // When the clip box excludes its limits, then they are culled
+    graph.setClipBox(clip, false);
+    Assert.assertEquals(0, graph.prepare(monotypes, camera));
+
+    graph.dispose();
+    pool.shutdown();
+  }
+}
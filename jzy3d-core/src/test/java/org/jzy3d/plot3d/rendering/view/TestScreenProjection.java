@@ -0,0 +1,106 @@
+package org.jzy3d.plot3d.rendering.view;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.maths.Coord3d;
+
+public class TestScreenProjection {
+  // column major, as returned by glGetFloatv
+  float[] modelView = {0.8f, 0.1f, -0.5f, 0, -0.2f, 0.9f, 0.3f, 0, 0.5f, -0.3f, 0.8f, 0, 0.5f,
+      -1.5f, -12, 1};
+  // a perspective frustum with near=1, far=100
+  float[] projection = {1.5f, 0, 0, 0, 0, 2, 0, 0, 0, 0, -1.0202f, -1, 0, 0, -2.0202f, 0};
+  int[] viewport = {10, 20, 800, 600};
+
+  @Test
+  public void whenProjectingPoints_ThenMatchesGluProject() {
+    ScreenProjection screen = new ScreenProjection(modelView, projection, viewport);
+
+    Random r = new Random(0);
+    int n = 1000;
+    float[] xyz = new float[n * 3];
+    for (int i = 0; i < xyz.length; i++)
+      xyz[i] = r.nextFloat() * 4 - 2;
+
+    float[] out = new float[n * 3];
+    Assert.assertEquals(0, screen.project(xyz, out));
+
+    float[] expected = new float[3];
+    for (int i = 0; i < n; i++) {
+      Assert.assertTrue(ScreenProjection.gluProject(xyz[i * 3], xyz[i * 3 + 1], xyz[i * 3 + 2],
+          modelView, 0, projection, 0, viewport, 0, expected, 0));
+
+      Assert.assertEquals(expected[0], out[i * 3], 1e-3);
+      Assert.assertEquals(expected[1], out[i * 3 + 1], 1e-3);
+      Assert.assertEquals(expected[2], out[i * 3 + 2], 1e-6);
+    }
+  }
+
+  @Test
+  public void whenIdentityMatrices_ThenMapsClipSpaceToViewport() {
+    float[] identity = {1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1};
+    ScreenProjection screen = new ScreenProjection(identity, identity, viewport);
+
+    Coord3d center = screen.project(new Coord3d(0, 0, 0));
+    Assert.assertEquals(410, center.x, 1e-6);
+    Assert.assertEquals(320, center.y, 1e-6);
+    Assert.assertEquals(0.5, center.z, 1e-6);
+
+    Coord3d corner = screen.project(new Coord3d(-1, 1, -1));
+    Assert.assertEquals(10, corner.x, 1e-6);
+    Assert.assertEquals(620, corner.y, 1e-6);
+    Assert.assertEquals(0, corner.z, 1e-6);
+  }
+
+  @Test
+  public void whenProjectingInParallel_ThenSameAsSequential() {
+    Random r = new Random(1);
+    int n = 10000;
+    Coord3d[] points = new Coord3d[n];
+    float[] x = new float[n];
+    float[] y = new float[n];
+    float[] z = new float[n];
+    for (int i = 0; i < n; i++) {
+      points[i] = new Coord3d(r.nextFloat(), r.nextFloat(), r.nextFloat());
+      x[i] = points[i].x;
+      y[i] = points[i].y;
+      z[i] = points[i].z;
+    }
+
+    ScreenProjection screen = new ScreenProjection(modelView, projection, viewport);
+    screen.setPool(null);
+    float[] sequential = new float[n * 3];
+    screen.project(points, sequential);
+
+    screen.setPool(ForkJoinPool.commonPool());
+    screen.setTileSize(100);
+    float[] parallel = new float[n * 3];
+    screen.project(points, parallel);
+    Assert.assertArrayEquals(sequential, parallel, 0);
+
+    float[] separated = new float[n * 3];
+    screen.project(x, y, z, separated);
+    Assert.assertArrayEquals(sequential, separated, 0);
+  }
+
+  @Test
+  public void whenPointOnEyePlane_ThenCountedAsFailedAndNaN() {
+    float[] identity = {1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1};
+    ScreenProjection screen = new ScreenProjection(identity, projection, viewport);
+
+    // w = -z is null for z=0
+    float[] xyz = {0, 0, -5, 1, 1, 0};
+    float[] out = new float[6];
+    Assert.assertEquals(1, screen.project(xyz, out));
+    Assert.assertFalse(Float.isNaN(out[0]));
+    Assert.assertTrue(Float.isNaN(out[3]));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void whenOutputTooSmall_ThenThrows() {
+    ScreenProjection screen = new ScreenProjection(modelView, projection, viewport);
+    screen.project(new float[9], new float[6]);
+  }
+}
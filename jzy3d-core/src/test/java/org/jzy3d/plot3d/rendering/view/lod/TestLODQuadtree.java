@@ -0,0 +1,184 @@
+package org.jzy3d.plot3d.rendering.view.lod;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.maths.Range;
+import org.jzy3d.plot3d.builder.Mapper;
+import org.jzy3d.plot3d.primitives.LODSurface;
+import org.jzy3d.plot3d.rendering.view.lod.LODQuadtree.ScreenSize;
+import org.jzy3d.plot3d.rendering.view.lod.LODQuadtree.Tessellation;
+import org.jzy3d.plot3d.rendering.view.lod.LODQuadtree.Tile;
+
+public class TestLODQuadtree {
+  static final Mapper MAPPER = new Mapper() {
+    @Override
+    public double f(double x, double y) {
+      return x * Math.sin(x * y);
+    }
+  };
+
+  // a grid which size is not a power of two
+  HeightField field = HeightField.of(MAPPER, new Range(-3, 3), 301, new Range(-2, 2), 157);
+
+  @Test
+  public void whenBuildingQuadtree_ThenRootBoundsHoldTheField() {
+    LODQuadtree quadtree = new LODQuadtree(field, 16);
+
+    // 300 cells need 16, 32, 64, 128, 256 and 512 cells tiles
+    Assert.assertEquals(6, quadtree.getLevels());
+
+    float zmin = Float.POSITIVE_INFINITY;
+    float zmax = Float.NEGATIVE_INFINITY;
+    for (int xi = 0; xi < 301; xi++) {
+      for (int yi = 0; yi < 157; yi++) {
+        zmin = Math.min(zmin, field.getHeight(xi, yi));
+        zmax = Math.max(zmax, field.getHeight(xi, yi));
+      }
+    }
+    Assert.assertEquals(new BoundingBox3d(-3, 3, -2, 2, zmin, zmax), quadtree.getBounds());
+  }
+
+  @Test
+  public void whenTessellatingFinestLevel_ThenAllGridPointsAreSharedVertices() {
+    LODQuadtree quadtree = new LODQuadtree(field, 16);
+    Tessellation mesh = quadtree.tessellate(quadtree.getTiles(0));
+
+    Assert.assertEquals(301 * 157, mesh.getVertexCount());
+    Assert.assertEquals(300 * 156, mesh.getFaceCount());
+    assertNoCrack(mesh);
+  }
+
+  @Test
+  public void whenSelectingWithMixedLevels_ThenTileBordersHaveNoCrack() {
+    LODQuadtree quadtree = new LODQuadtree(field, 8);
+
+    // cells look larger near the (-3,-2) corner
+    ScreenSize screen = box -> {
+      double dx = box.getCenter().x + 3;
+      double dy = box.getCenter().y + 2;
+      return 2000 * (box.getXmax() - box.getXmin()) / (1 + 4 * (dx * dx + dy * dy));
+    };
+    List<Tile> tiles = quadtree.select(screen, 2, Integer.MAX_VALUE);
+
+    int finest = Integer.MAX_VALUE;
+    int coarsest = 0;
+    for (Tile tile : tiles) {
+      finest = Math.min(finest, tile.getLevel());
+      coarsest = Math.max(coarsest, tile.getLevel());
+    }
+    Assert.assertEquals(0, finest);
+    Assert.assertTrue(coarsest >= 2);
+
+    Tessellation mesh = quadtree.tessellate(tiles);
+    assertCovers(quadtree, tiles);
+    assertNoCrack(mesh);
+  }
+
+  @Test
+  public void whenSelectingWithBudget_ThenFaceCountIsBounded() {
+    LODQuadtree quadtree = new LODQuadtree(field, 8);
+    List<Tile> tiles = quadtree.select(box -> 1e6, 1, 5000);
+
+    long faces = 0;
+    for (Tile tile : tiles)
+      faces += tile.getFaces();
+
+    Assert.assertTrue(faces <= 5000);
+    Assert.assertEquals(faces, quadtree.tessellate(tiles).getFaceCount());
+    assertCovers(quadtree, tiles);
+
+    // out of screen tiles are never refined
+    Assert.assertEquals(1, quadtree.select(box -> -1, 1, 5000).size());
+  }
+
+  @Test
+  public void whenApplyingGeometricSetting_ThenSurfaceToleranceChanges() {
+    LODCandidates candidates = GeometricLODSetting.candidates(8, 1, 4);
+    Assert.assertEquals(1, ((GeometricLODSetting) candidates.getRank().get(0)).getTolerance(), 0);
+    Assert.assertEquals(8, ((GeometricLODSetting) candidates.getRank().get(2)).getTolerance(), 0);
+
+    LODSurface surface = new LODSurface(new LODQuadtree(field, 16));
+    surface.setWireframeDisplayed(true);
+    candidates.getRank().get(1).apply(surface);
+
+    Assert.assertEquals(4, surface.getTolerance(), 0);
+    Assert.assertTrue(surface.isFaceDisplayed());
+    Assert.assertFalse(surface.isWireframeDisplayed());
+
+    surface.setSelection(surface.getQuadtree().getTiles(1));
+    Assert.assertEquals(150 * 78, surface.getFaceCount());
+    Assert.assertEquals(-3, surface.getBounds().getXmin(), 0);
+  }
+
+  /* */
+
+  /** Tiles cover each grid cell exactly once. */
+  protected void assertCovers(LODQuadtree quadtree, List<Tile> tiles) {
+    long cells = 0;
+    for (Tile tile : tiles) {
+      int span = quadtree.getTileSize() << tile.getLevel();
+      long x = Math.min(300, (tile.getX() + 1L) * span) - (long) tile.getX() * span;
+      long y = Math.min(156, (tile.getY() + 1L) * span) - (long) tile.getY() * span;
+      cells += x * y;
+    }
+    Assert.assertEquals(300 * 156, cells);
+  }
+
+  /**
+   * Each vertex standing on an edge drawn along a grid line must lie on the segment of any other
+   * edge of the same grid line covering it.
+   */
+  protected void assertNoCrack(Tessellation mesh) {
+    float[] p = mesh.getPositions();
+    int[] q = mesh.getIndices();
+
+    Map<Long, List<float[]>> lines = new HashMap<>();
+
+    for (int f = 0; f < q.length; f += 4) {
+      for (int k = 0; k < 4; k++) {
+        int a = q[f + k] * 3;
+        int b = q[f + (k + 1) % 4] * 3;
+        long ai = Math.round((p[a] + 3) / 6 * 300);
+        long aj = Math.round((p[a + 1] + 2) / 4 * 156);
+        long bi = Math.round((p[b] + 3) / 6 * 300);
+        long bj = Math.round((p[b + 1] + 2) / 4 * 156);
+
+        // segments along Y stored by X line, segments along X stored by Y line
+        if (ai == bi)
+          line(lines, ai).add(new float[] {aj, p[a + 2], bj, p[b + 2]});
+        else
+          line(lines, -1 - aj).add(new float[] {ai, p[a + 2], bi, p[b + 2]});
+      }
+    }
+
+    for (List<float[]> segments : lines.values()) {
+      for (float[] s : segments) {
+        for (float[] t : segments) {
+          assertOnSegment(s[0], s[1], t);
+          assertOnSegment(s[2], s[3], t);
+        }
+      }
+    }
+  }
+
+  protected List<float[]> line(Map<Long, List<float[]>> lines, long key) {
+    return lines.computeIfAbsent(key, k -> new ArrayList<>());
+  }
+
+  protected void assertOnSegment(float position, float z, float[] segment) {
+    float from = Math.min(segment[0], segment[2]);
+    float to = Math.max(segment[0], segment[2]);
+
+    if (position <= from || position >= to)
+      return;
+
+    float ratio = (position - segment[0]) / (segment[2] - segment[0]);
+    float expected = segment[1] + (segment[3] - segment[1]) * ratio;
+    Assert.assertEquals(expected, z, 1e-4);
+  }
+}
@@ -7,6 +7,8 @@ import org.jzy3d.chart.Chart;
 import org.jzy3d.chart.controllers.RateLimiter;
 import org.jzy3d.chart.controllers.RateLimiterAdaptsToRenderTime;
 import org.jzy3d.chart.controllers.mouse.camera.adaptive.AbstractAdativeRenderingHandler;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.RenderTimeBudgetScheduler;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByCoarseningLOD;
 import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByDroppingFaceAndKeepingWireframe;
 import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByDroppingFaceAndKeepingWireframeWithColor;
 import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByDroppingHiDPI;
@@ -14,6 +16,7 @@ import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByDroppin
 import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByDroppingWireframe;
 import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByKeepingBoundingBoxOnly;
 import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByPerformanceKnowledge;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByReducingResolution;
 import org.jzy3d.painters.EmulGLPainter;
 import org.jzy3d.plot3d.primitives.Wireframeable;
 import org.jzy3d.plot3d.rendering.canvas.ICanvas;
@@ -51,6 +54,14 @@ public class AdaptiveMouseController extends AWTCameraMouseController {
   protected AdaptByDroppingSmoothColor adaptByDroppingSmoothColor;
   protected AdaptByKeepingBoundingBoxOnly adaptByKeepingBoundingBoxOnly;
   protected AdaptByPerformanceKnowledge adaptByPerformanceKnowledge;
+  protected AdaptByCoarseningLOD adaptByCoarseningLOD;
+  protected AdaptByReducingResolution adaptByReducingResolution;
+
+  /**
+   * Drives the optimizations instead of mouse events if
+   * {@link AdaptiveRenderingPolicy#optimizeWithRenderTimeBudget} is set.
+   */
+  protected RenderTimeBudgetScheduler scheduler;
 
   /**
    * Keep track of drawable that have had their wireframe disabled for optimization in order to
@@ -79,6 +90,31 @@ public class AdaptiveMouseController extends AWTCameraMouseController {
     super(chart);
   }
 
+  /** Start the scheduler if the policy was set before a chart was registered. */
+  @Override
+  public void register(Chart chart) {
+    super.register(chart);
+
+    if (scheduler == null)
+      installScheduler();
+  }
+
+  /** Move the scheduler to the first remaining chart. */
+  @Override
+  public void unregister(Chart chart) {
+    super.unregister(chart);
+    installScheduler();
+  }
+
+  @Override
+  public void dispose() {
+    if (scheduler != null) {
+      scheduler.stop();
+      scheduler = null;
+    }
+    super.dispose();
+  }
+
   @Override
   public void mousePressed(MouseEvent e) {
     loadChartFields(getChart());
@@ -140,7 +176,7 @@ public class AdaptiveMouseController extends AWTCameraMouseController {
   }
 
   protected boolean detectIfRenderingIsSlow(double lastRenderingTime) {
-    if (policy == null)
+    if (policy == null || policy.optimizeWithRenderTimeBudget)
       return false;
     else
       return policy.optimizeForRenderingTimeLargerThan < lastRenderingTime;
@@ -174,6 +210,10 @@ public class AdaptiveMouseController extends AWTCameraMouseController {
       adaptByPerformanceKnowledge = new AdaptByPerformanceKnowledge(chart);
     adaptByPerformanceKnowledge.setPerf(getLODPerf());
     adaptByPerformanceKnowledge.setMaxRenderingTime(policy.optimizeForRenderingTimeLargerThan);
+    if(adaptByCoarseningLOD==null)
+      adaptByCoarseningLOD = new AdaptByCoarseningLOD(chart);
+    if(adaptByReducingResolution==null)
+      adaptByReducingResolution = new AdaptByReducingResolution(chart);
     
   }
 
@@ -201,6 +241,12 @@ public class AdaptiveMouseController extends AWTCameraMouseController {
     if(policy.optimizeByPerformanceKnowledge){
       adaptByPerformanceKnowledge.apply();
     }
+    
+    if(policy.optimizeByCoarseningLOD)
+      adaptByCoarseningLOD.apply();
+    
+    if(policy.optimizeByReducingResolution)
+      adaptByReducingResolution.apply();
 
   }
 
@@ -226,6 +272,12 @@ public class AdaptiveMouseController extends AWTCameraMouseController {
     if(policy.optimizeByPerformanceKnowledge){
       adaptByPerformanceKnowledge.revert();
     }
+    
+    if(policy.optimizeByCoarseningLOD)
+      adaptByCoarseningLOD.revert();
+    
+    if(policy.optimizeByReducingResolution)
+      adaptByReducingResolution.revert();
 
   }
 
@@ -238,6 +290,29 @@ public class AdaptiveMouseController extends AWTCameraMouseController {
   public void setPolicy(AdaptiveRenderingPolicy policy) {
     this.policy = policy;
     this.setRateLimiter(policy.renderingRateLimiter);
+    this.installScheduler();
+  }
+
+  public RenderTimeBudgetScheduler getScheduler() {
+    return scheduler;
+  }
+
+  /**
+   * Replace the scheduler by one following the current policy, or simply stop it if the policy does
+   * not optimize with a render time budget.
+   */
+  protected void installScheduler() {
+    if (scheduler != null) {
+      scheduler.stop();
+      scheduler = null;
+    }
+
+    if (policy != null && policy.optimizeWithRenderTimeBudget && getCharts() != null
+        && !getCharts().isEmpty()
+        && getChart().getCanvas() != null) {
+      scheduler = new RenderTimeBudgetScheduler(getChart(), policy);
+      scheduler.start();
+    }
   }
 
 }
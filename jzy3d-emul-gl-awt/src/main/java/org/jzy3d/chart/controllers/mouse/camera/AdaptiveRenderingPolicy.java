@@ -2,6 +2,7 @@ package org.jzy3d.chart.controllers.mouse.camera;
 
 import org.jzy3d.chart.controllers.RateLimiter;
 import org.jzy3d.chart.controllers.RateLimiterAdaptsToRenderTime;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.RenderTimeBudgetScheduler;
 
 /**
  * A collection of settings to allow a controller to adapt rendering quality in order to
@@ -40,6 +41,16 @@ public class AdaptiveRenderingPolicy {
    */
   public double optimizeForRenderingTimeLargerThan = 100;
 
+  /**
+   * If true, the enabled optimization policies are not applied between mouse pressed and mouse
+   * release but stepped frame after frame by a {@link RenderTimeBudgetScheduler} so that rendering
+   * remains below {@link #optimizeForRenderingTimeLargerThan}, including while animating or
+   * updating data.
+   * 
+   * Defaults to false
+   */
+  public boolean optimizeWithRenderTimeBudget = DEFAULT;
+
   /**
    * If true, the polygon wireframe will be desactivated between mouse pressed and mouse release.
    * 
@@ -70,6 +81,14 @@ public class AdaptiveRenderingPolicy {
    */
   public boolean optimizeByDroppingHiDPI = DEFAULT;
   
+  /**
+   * If true, the chart will render at half its resolution, then be resized to the canvas, between
+   * mouse pressed and mouse release.
+   * 
+   * Defaults to false
+   */
+  public boolean optimizeByReducingResolution = DEFAULT;
+  
   /**
    * If true, the polygon face coloring will be set to flat instead of smooth. Has no effect if the chart is configured for flat coloring.
    * 
@@ -83,5 +102,12 @@ public class AdaptiveRenderingPolicy {
    * Defaults to false
    */
   public boolean optimizeByDrawingBoundingBoxOnly = DEFAULT;
+  
+  /**
+   * If true, {@link org.jzy3d.plot3d.primitives.LODSurface}s will draw larger cells.
+   * 
+   * Defaults to false
+   */
+  public boolean optimizeByCoarseningLOD = DEFAULT;
 
 }
@@ -0,0 +1,120 @@
+package org.jzy3d.chart.controllers.mouse.camera.adaptive;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the rendering times of the last frames to answer percentile queries such as "90% of the
+ * recent frames rendered in less than X ms".
+ *
+ * Times are both kept in a ring, to forget the oldest frame when a new one comes, and counted in
+ * buckets of {@link #getResolution()} ms, so that adding a frame costs O(1) and a percentile query
+ * costs at most one pass over the buckets, without sorting nor allocation. A percentile is given
+ * by the upper bound of its bucket, except for times beyond the last bucket which are read from
+ * the ring.
+ *
+ * @author Martin Pernollet
+ */
+public class FrameTimeHistogram {
+  public static final int DEFAULT_CAPACITY = 30;
+  public static final double DEFAULT_RESOLUTION = 1;
+  public static final int DEFAULT_BUCKETS = 1000;
+
+  protected final double[] times;
+  protected final int[] buckets;
+  protected final double resolution;
+
+  protected int next;
+  protected int count;
+
+  public FrameTimeHistogram() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public FrameTimeHistogram(int capacity) {
+    this(capacity, DEFAULT_RESOLUTION, DEFAULT_BUCKETS);
+  }
+
+  /**
+   * @param capacity the number of recent frames to remember.
+   * @param resolution the width of a bucket in ms.
+   * @param buckets the number of buckets, the last one counting all times larger than
+   *        <code>(buckets-1) * resolution</code> ms.
+   */
+  public FrameTimeHistogram(int capacity, double resolution, int buckets) {
+    if (capacity < 1)
+      throw new IllegalArgumentException("Capacity must be positive : " + capacity);
+    if (resolution <= 0)
+      throw new IllegalArgumentException("Resolution must be positive : " + resolution);
+    if (buckets < 2)
+      throw new IllegalArgumentException("Need at least 2 buckets : " + buckets);
+
+    this.times = new double[capacity];
+    this.buckets = new int[buckets];
+    this.resolution = resolution;
+  }
+
+  /** Remember a frame time, forgetting the oldest one if the histogram is full. */
+  public void add(double mili) {
+    if (count == times.length)
+      buckets[bucket(times[next])]--;
+    else
+      count++;
+
+    times[next] = mili;
+    buckets[bucket(mili)]++;
+    next = (next + 1) % times.length;
+  }
+
+  /**
+   * Return the time under which the given ratio of the remembered frames rendered, e.g. 0.9 for
+   * the 90th percentile, or 0 if no frame was added.
+   */
+  public double percentile(double ratio) {
+    if (ratio < 0 || ratio > 1)
+      throw new IllegalArgumentException("Ratio must be in [0,1] : " + ratio);
+    if (count == 0)
+      return 0;
+
+    int rank = Math.max(1, (int) Math.ceil(ratio * count));
+    int last = buckets.length - 1;
+    int cumulated = 0;
+
+    for (int b = 0; b < last; b++) {
+      cumulated += buckets[b];
+      if (cumulated >= rank)
+        return (b + 1) * resolution;
+    }
+    return max();
+  }
+
+  /** The largest remembered time. */
+  public double max() {
+    double max = 0;
+    for (int i = 0; i < count; i++)
+      max = Math.max(max, times[i]);
+    return max;
+  }
+
+  /** Forget all frames, e.g. after a change of quality made them irrelevant. */
+  public void clear() {
+    Arrays.fill(buckets, 0);
+    next = 0;
+    count = 0;
+  }
+
+  protected int bucket(double mili) {
+    return (int) Math.min(buckets.length - 1, Math.max(0, mili / resolution));
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public int getCapacity() {
+    return times.length;
+  }
+
+  public double getResolution() {
+    return resolution;
+  }
+}
@@ -0,0 +1,395 @@
+package org.jzy3d.chart.controllers.mouse.camera.adaptive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.jzy3d.chart.Chart;
+import org.jzy3d.chart.controllers.mouse.camera.AdaptiveMouseController;
+import org.jzy3d.chart.controllers.mouse.camera.AdaptiveRenderingPolicy;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByCoarseningLOD;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByDroppingFaceAndKeepingWireframe;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByDroppingFaceAndKeepingWireframeWithColor;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByDroppingHiDPI;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByDroppingSmoothColor;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByDroppingWireframe;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByKeepingBoundingBoxOnly;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByReducingResolution;
+import org.jzy3d.plot3d.rendering.canvas.ICanvas;
+import org.jzy3d.plot3d.rendering.canvas.ICanvasListener;
+
+/**
+ * Adapts the rendering quality after each frame so that rendering remains within a time budget,
+ * whatever triggered the frames : mouse, animation or data updates. Where
+ * {@link AdaptiveMouseController} degrades quality between mouse press and release according to
+ * the last frame, this scheduler listens to all frames of the canvas with
+ * {@link ICanvasListener#frameRendered(double)} and keeps their times in a
+ * {@link FrameTimeHistogram}.
+ *
+ * The quality is driven through a ladder of {@link AdaptiveRenderingHandler}s, ordered from the
+ * least to the most visible degradation. The level of the scheduler is the number of handlers
+ * currently applied.
+ * <ul>
+ * <li>When the {@link #getPercentile()} of recent frame times exceeds the budget, the next handler
+ * is applied.
+ * <li>When it falls below {@link #getUpgradeRatio()} times the budget, the last applied handler is
+ * reverted, provided the current level held for {@link #getUpgradeDelay()} frames.
+ * </ul>
+ *
+ * Quality does not flicker between two levels thanks to
+ * <ul>
+ * <li>the gap between the downgrade and upgrade thresholds,
+ * <li>the {@link #getSettleFrames()} frames to wait after any change before taking a new decision,
+ * the histogram being cleared at each change so that decisions only rely on frames of the
+ * current level,
+ * <li>the upgrade delay being doubled each time an upgrade has to be reverted within the
+ * {@link FrameTimeHistogram#getCapacity()} following frames, until {@link #MAX_UPGRADE_DELAY}.
+ * </ul>
+ *
+ * Once no frame was rendered for {@link #getIdleDelay()} ms, the full quality is restored and a
+ * frame is rendered to let the chart rest with its best look. The level reached before is resumed
+ * at once if the next frame exceeds the budget again.
+ *
+ * <pre>
+ * <code>
+ * AdaptiveRenderingPolicy policy = new AdaptiveRenderingPolicy();
+ * policy.optimizeForRenderingTimeLargerThan = 40; // ms
+ * policy.optimizeByDroppingSmoothColor = true;
+ * policy.optimizeByCoarseningLOD = true;
+ * policy.optimizeByDroppingHiDPI = true;
+ *
+ * RenderTimeBudgetScheduler scheduler = new RenderTimeBudgetScheduler(chart, policy);
+ * scheduler.start();
+ * </code>
+ * </pre>
+ *
+ * Or simply set {@link AdaptiveRenderingPolicy#optimizeWithRenderTimeBudget} to let the
+ * {@link AdaptiveMouseController} start a scheduler.
+ *
+ * @author Martin Pernollet
+ */
+public class RenderTimeBudgetScheduler implements ICanvasListener {
+  public static final double DEFAULT_PERCENTILE = 0.9;
+  public static final double DEFAULT_UPGRADE_RATIO = 0.5;
+  public static final int DEFAULT_SETTLE_FRAMES = 5;
+  public static final int DEFAULT_UPGRADE_DELAY = 30;
+  public static final int MAX_UPGRADE_DELAY = 960;
+  public static final long DEFAULT_IDLE_DELAY = 500;
+
+  protected final List<AdaptiveRenderingHandler> ladder;
+  protected final FrameTimeHistogram histogram;
+  protected ICanvas canvas;
+  protected double budget;
+
+  protected double percentile = DEFAULT_PERCENTILE;
+  protected double upgradeRatio = DEFAULT_UPGRADE_RATIO;
+  protected int settleFrames = DEFAULT_SETTLE_FRAMES;
+  protected int upgradeDelay = DEFAULT_UPGRADE_DELAY;
+  protected long idleDelay = DEFAULT_IDLE_DELAY;
+
+  /** Number of ladder handlers currently applied. */
+  protected int level;
+  /** Frames rendered since the last change of level. */
+  protected int frames;
+  /** Frames to wait before upgrading, doubled at each failed upgrade. */
+  protected int currentUpgradeDelay = DEFAULT_UPGRADE_DELAY;
+  /** True while the last change is an upgrade that may still fail. */
+  protected boolean probing;
+  /** Level to resume after an idle restore. */
+  protected int resumeLevel;
+  /** True while rendering the frame that shows the restored quality. */
+  protected boolean restoring;
+  protected volatile long lastFrameNanos;
+
+  protected ScheduledExecutorService idleTimer;
+
+  /**
+   * Build a scheduler driving the handlers enabled by the policy, in the order given by
+   * {@link #ladder(Chart, AdaptiveRenderingPolicy)}, to render within
+   * {@link AdaptiveRenderingPolicy#optimizeForRenderingTimeLargerThan} ms.
+   */
+  public RenderTimeBudgetScheduler(Chart chart, AdaptiveRenderingPolicy policy) {
+    this(chart.getCanvas(), ladder(chart, policy), policy.optimizeForRenderingTimeLargerThan);
+  }
+
+  /**
+   * @param canvas the canvas to listen to, may be null if frames are given to
+   *        {@link #frameRendered(double)} by the caller.
+   * @param ladder handlers ordered from the least to the most visible degradation.
+   * @param budget the frame time to stay under, in ms.
+   */
+  public RenderTimeBudgetScheduler(ICanvas canvas, List<AdaptiveRenderingHandler> ladder,
+      double budget) {
+    this(canvas, ladder, budget, new FrameTimeHistogram());
+  }
+
+  public RenderTimeBudgetScheduler(ICanvas canvas, List<AdaptiveRenderingHandler> ladder,
+      double budget, FrameTimeHistogram histogram) {
+    if (budget <= 0)
+      throw new IllegalArgumentException("Budget must be positive : " + budget);
+    this.canvas = canvas;
+    this.ladder = new ArrayList<>(ladder);
+    this.budget = budget;
+    this.histogram = histogram;
+  }
+
+  /**
+   * Return the handlers enabled by the policy, from the least to the most visible degradation :
+   * flat colors, coarser {@link org.jzy3d.plot3d.primitives.LODSurface}s, dropped HiDPI, reduced
+   * resolution, even coarser surfaces, then dropped wireframe, dropped faces and bounding boxes
+   * only.
+   *
+   * {@link AdaptiveRenderingPolicy#optimizeByPerformanceKnowledge} is ignored as it chooses a
+   * setting on its own rather than stepping from the current one.
+   */
+  public static List<AdaptiveRenderingHandler> ladder(Chart chart,
+      AdaptiveRenderingPolicy policy) {
+    List<AdaptiveRenderingHandler> ladder = new ArrayList<>();
+
+    if (policy.optimizeByDroppingSmoothColor)
+      ladder.add(new AdaptByDroppingSmoothColor(chart));
+    if (policy.optimizeByCoarseningLOD)
+      ladder.add(new AdaptByCoarseningLOD(chart));
+    if (policy.optimizeByDroppingHiDPI)
+      ladder.add(new AdaptByDroppingHiDPI(chart));
+    if (policy.optimizeByReducingResolution)
+      ladder.add(new AdaptByReducingResolution(chart));
+    if (policy.optimizeByCoarseningLOD)
+      ladder.add(new AdaptByCoarseningLOD(chart));
+    if (policy.optimizeByDroppingWireframeOnly)
+      ladder.add(new AdaptByDroppingWireframe(chart));
+    if (policy.optimizeByDroppingFaceAndKeepingWireframeWithColor)
+      ladder.add(new AdaptByDroppingFaceAndKeepingWireframeWithColor(chart));
+    if (policy.optimizeByDroppingFaceAndKeepingWireframe)
+      ladder.add(new AdaptByDroppingFaceAndKeepingWireframe(chart));
+    if (policy.optimizeByDrawingBoundingBoxOnly)
+      ladder.add(new AdaptByKeepingBoundingBoxOnly(chart));
+
+    return ladder;
+  }
+
+  /* */
+
+  /** Listen to the canvas frames and start watching for idleness. */
+  public synchronized void start() {
+    if (canvas == null)
+      throw new IllegalArgumentException("No canvas to listen to");
+    if (idleTimer != null)
+      return;
+
+    lastFrameNanos = System.nanoTime();
+    canvas.addCanvasListener(this);
+
+    if (idleDelay > 0) {
+      idleTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, getClass().getSimpleName());
+        thread.setDaemon(true);
+        return thread;
+      });
+      long period = Math.max(1, idleDelay / 4);
+      idleTimer.scheduleWithFixedDelay(this::checkIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Stop listening to the canvas and restore the full quality. The canvas is locked before the
+   * scheduler, as when rendering a frame or restoring an idle chart, since reverting handlers may
+   * lock the canvas.
+   */
+  public void stop() {
+    if (canvas == null) {
+      stopAndRestore();
+      return;
+    }
+
+    canvas.removeCanvasListener(this);
+    synchronized (canvas) {
+      stopAndRestore();
+    }
+  }
+
+  protected synchronized void stopAndRestore() {
+    if (idleTimer != null) {
+      idleTimer.shutdownNow();
+      idleTimer = null;
+    }
+    resumeLevel = 0;
+    restoreAll();
+  }
+
+  @Override
+  public void pixelScaleChanged(double pixelScaleX, double pixelScaleY) {
+    // frames of the new scale will tell
+  }
+
+  /** Step the quality according to the time of the frame that just rendered. */
+  @Override
+  public synchronized void frameRendered(double mili) {
+    lastFrameNanos = System.nanoTime();
+
+    if (restoring) {
+      restoring = false;
+      return;
+    }
+
+    if (resumeLevel > 0) {
+      int resume = resumeLevel;
+      resumeLevel = 0;
+
+      if (mili > budget) {
+        while (level < resume)
+          ladder.get(level++).apply();
+        changed();
+        return;
+      }
+    }
+
+    histogram.add(mili);
+    frames++;
+
+    if (probing && frames > histogram.getCapacity()) {
+      probing = false;
+      currentUpgradeDelay = upgradeDelay;
+    }
+
+    if (frames < settleFrames)
+      return;
+
+    double time = histogram.percentile(percentile);
+
+    if (time > budget) {
+      if (level < ladder.size()) {
+        if (probing)
+          currentUpgradeDelay = Math.min(currentUpgradeDelay * 2, MAX_UPGRADE_DELAY);
+        ladder.get(level++).apply();
+        changed();
+      }
+    } else if (level > 0 && time < budget * upgradeRatio && frames >= currentUpgradeDelay) {
+      ladder.get(--level).revert();
+      changed();
+      probing = true;
+    }
+  }
+
+  /**
+   * Restore the full quality if no frame rendered for {@link #getIdleDelay()} ms. The canvas is
+   * locked while reverting handlers so that no frame renders with a half reverted quality.
+   */
+  protected void checkIdle() {
+    if (level == 0 || System.nanoTime() - lastFrameNanos < idleDelay * 1000000)
+      return;
+
+    synchronized (canvas) {
+      synchronized (this) {
+        if (level == 0 || System.nanoTime() - lastFrameNanos < idleDelay * 1000000)
+          return;
+        resumeLevel = level;
+        restoreAll();
+        restoring = true;
+      }
+      canvas.forceRepaint();
+    }
+  }
+
+  protected void restoreAll() {
+    while (level > 0)
+      ladder.get(--level).revert();
+    changed();
+  }
+
+  protected void changed() {
+    histogram.clear();
+    frames = 0;
+    probing = false;
+  }
+
+  /* */
+
+  public synchronized int getLevel() {
+    return level;
+  }
+
+  public List<AdaptiveRenderingHandler> getLadder() {
+    return ladder;
+  }
+
+  public FrameTimeHistogram getHistogram() {
+    return histogram;
+  }
+
+  public double getBudget() {
+    return budget;
+  }
+
+  /** Set the frame time to stay under, in ms. */
+  public void setBudget(double budget) {
+    if (budget <= 0)
+      throw new IllegalArgumentException("Budget must be positive : " + budget);
+    this.budget = budget;
+  }
+
+  public double getPercentile() {
+    return percentile;
+  }
+
+  /** Set the ratio of recent frames that must render within the budget, 0.9 by default. */
+  public void setPercentile(double percentile) {
+    if (percentile <= 0 || percentile > 1)
+      throw new IllegalArgumentException("Percentile must be in ]0,1] : " + percentile);
+    this.percentile = percentile;
+  }
+
+  public double getUpgradeRatio() {
+    return upgradeRatio;
+  }
+
+  /** Set the ratio of the budget recent frames must be under to upgrade, 0.5 by default. */
+  public void setUpgradeRatio(double upgradeRatio) {
+    if (upgradeRatio <= 0 || upgradeRatio >= 1)
+      throw new IllegalArgumentException("Upgrade ratio must be in ]0,1[ : " + upgradeRatio);
+    this.upgradeRatio = upgradeRatio;
+  }
+
+  public int getSettleFrames() {
+    return settleFrames;
+  }
+
+  /** Set the number of frames to wait after a change before taking a new decision. */
+  public void setSettleFrames(int settleFrames) {
+    if (settleFrames < 1)
+      throw new IllegalArgumentException("Settle frames must be positive : " + settleFrames);
+    this.settleFrames = settleFrames;
+  }
+
+  public int getUpgradeDelay() {
+    return upgradeDelay;
+  }
+
+  /** Set the number of frames a level must hold before upgrading. */
+  public synchronized void setUpgradeDelay(int upgradeDelay) {
+    if (upgradeDelay < 1)
+      throw new IllegalArgumentException("Upgrade delay must be positive : " + upgradeDelay);
+    this.upgradeDelay = upgradeDelay;
+    this.currentUpgradeDelay = upgradeDelay;
+  }
+
+  /** The upgrade delay, including the backoff of failed upgrades. */
+  public synchronized int getCurrentUpgradeDelay() {
+    return currentUpgradeDelay;
+  }
+
+  public long getIdleDelay() {
+    return idleDelay;
+  }
+
+  /**
+   * Set the time in ms without frame after which the full quality is restored, or 0 to keep the
+   * current quality. Applies at next {@link #start()}.
+   */
+  public void setIdleDelay(long idleDelay) {
+    if (idleDelay < 0)
+      throw new IllegalArgumentException("Idle delay must be positive : " + idleDelay);
+    this.idleDelay = idleDelay;
+  }
+}
@@ -1,6 +1,7 @@
 package org.jzy3d.chart.controllers.mouse.camera.adaptive;
 
 import org.jzy3d.colors.Color;
+import org.jzy3d.plot3d.primitives.LODSurface;
 import org.jzy3d.plot3d.primitives.Wireframeable;
 
 public class Toggle {
@@ -9,6 +10,7 @@ public class Toggle {
   boolean wireColorMode;
   Color wireColor;
   boolean bounds;
+  double tolerance;
   
   Wireframeable w;
 
@@ -19,6 +21,9 @@ public class Toggle {
     wireColor = d.getWireframeColor();
     wireColorMode = d.isWireframeColorFromPolygonPoints();
     bounds = d.isBoundingBoxDisplayed();
+
+    if (d instanceof LODSurface)
+      tolerance = ((LODSurface) d).getTolerance();
   }
 
   public void reset() {
@@ -27,5 +32,8 @@ public class Toggle {
     w.setWireframeColor(wireColor);
     w.setWireframeColorFromPolygonPoints(wireColorMode);
     w.setBoundingBoxDisplayed(bounds);
+
+    if (w instanceof LODSurface)
+      ((LODSurface) w).setTolerance(tolerance);
   }
 }
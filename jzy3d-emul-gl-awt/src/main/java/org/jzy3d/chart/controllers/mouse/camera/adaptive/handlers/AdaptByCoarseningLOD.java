@@ -0,0 +1,41 @@
+package org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers;
+
+import org.jzy3d.chart.Chart;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.AbstractAdativeRenderingHandler;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.AdaptiveRenderingHandler;
+import org.jzy3d.plot3d.primitives.LODSurface;
+import org.jzy3d.plot3d.primitives.Wireframeable;
+
+/**
+ * Multiply the tolerance of {@link LODSurface}s so that they draw larger cells, hence less faces.
+ * Other drawables are left unchanged.
+ */
+public class AdaptByCoarseningLOD extends AbstractAdativeRenderingHandler
+    implements AdaptiveRenderingHandler {
+  public static final double DEFAULT_FACTOR = 2;
+
+  protected double factor;
+
+  public AdaptByCoarseningLOD(Chart chart) {
+    this(chart, DEFAULT_FACTOR);
+  }
+
+  public AdaptByCoarseningLOD(Chart chart, double factor) {
+    super(chart);
+    if (factor <= 1)
+      throw new IllegalArgumentException("Factor must be larger than 1 : " + factor);
+    this.factor = factor;
+  }
+
+  @Override
+  protected void applyOptimisation(Wireframeable w) {
+    if (w instanceof LODSurface) {
+      LODSurface surface = (LODSurface) w;
+      surface.setTolerance(surface.getTolerance() * factor);
+    }
+  }
+
+  public double getFactor() {
+    return factor;
+  }
+}
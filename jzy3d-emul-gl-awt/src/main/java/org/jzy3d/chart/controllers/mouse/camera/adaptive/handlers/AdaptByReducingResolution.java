@@ -0,0 +1,86 @@
+package org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers;
+
+import org.jzy3d.chart.Chart;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.AbstractAdativeRenderingHandler;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.AdaptiveRenderingHandler;
+import org.jzy3d.painters.EmulGLPainter;
+import org.jzy3d.plot3d.primitives.Wireframeable;
+import org.jzy3d.plot3d.rendering.canvas.EmulGLCanvas;
+import org.jzy3d.plot3d.rendering.canvas.ProgressiveRendering;
+import jgl.wt.awt.GL;
+
+/**
+ * Render at a fraction of the current resolution, the image being resized to the canvas when
+ * swapped. Unlike {@link AdaptByDroppingHiDPI}, this also applies to screens without HiDPI.
+ * 
+ * Buffers of the full resolution are kept and reused, see {@link GL#setKeepBufferCapacity(boolean)}.
+ * 
+ * When the canvas has a {@link ProgressiveRendering}, which sets the render scale of each frame,
+ * the reduction multiplies its interactive scale with
+ * {@link ProgressiveRendering#setResolutionFactor(double)} instead.
+ */
+public class AdaptByReducingResolution extends AbstractAdativeRenderingHandler
+    implements AdaptiveRenderingHandler {
+  public static final double DEFAULT_SCALE = 0.5;
+
+  protected EmulGLCanvas canvas;
+  protected GL gl;
+  protected double scale;
+  protected double currentScale;
+  /** The progressive rendering whose factor was reduced by {@link #apply()}, if any */
+  protected ProgressiveRendering progressive;
+
+  public AdaptByReducingResolution(Chart chart) {
+    this(chart, DEFAULT_SCALE);
+  }
+
+  public AdaptByReducingResolution(Chart chart, double scale) {
+    super(chart);
+    if (scale <= 0 || scale >= 1)
+      throw new IllegalArgumentException("Scale must be in ]0,1[ : " + scale);
+    this.scale = scale;
+
+    canvas = (EmulGLCanvas) chart.getCanvas();
+    gl = ((EmulGLPainter) chart.getPainter()).getGL();
+  }
+
+  @Override
+  public void apply() {
+    // not in the middle of a frame
+    synchronized (canvas) {
+      progressive = canvas.getProgressiveRendering();
+      if (progressive != null) {
+        progressive.setResolutionFactor(scale);
+        return;
+      }
+
+      currentScale = gl.getRenderScale();
+      gl.setKeepBufferCapacity(true);
+      gl.setRenderScale(currentScale * scale);
+      gl.applyViewport();
+    }
+  }
+
+  @Override
+  public void revert() {
+    synchronized (canvas) {
+      if (progressive != null) {
+        progressive.setResolutionFactor(1);
+        progressive = null;
+        return;
+      }
+
+      gl.setRenderScale(currentScale);
+      gl.applyViewport();
+    }
+  }
+
+  @Override
+  protected void applyOptimisation(Wireframeable w) {
+    // nothing to do drawable-wise
+  }
+
+  public double getScale() {
+    return scale;
+  }
+}
@@ -10,6 +10,8 @@ import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.imageio.ImageIO;
 import org.jzy3d.colors.Color;
 import org.jzy3d.maths.Array;
@@ -24,6 +26,7 @@ import org.jzy3d.plot3d.rendering.image.AWTImageConvert;
 import org.jzy3d.plot3d.rendering.lights.Attenuation;
 import org.jzy3d.plot3d.rendering.lights.LightModel;
 import org.jzy3d.plot3d.rendering.lights.MaterialProperty;
+import org.jzy3d.plot3d.rendering.view.ScreenProjection;
 import jgl.context.gl_util;
 import jgl.glu.GLUquadricObj;
 import jgl.wt.awt.GL;
@@ -36,6 +39,8 @@ public class EmulGLPainter extends AbstractPainter implements IPainter {
   protected GLU glu;
   protected GLUT glut;
 
+  protected Map<java.awt.Font, FontMetrics> fontMetrics = new ConcurrentHashMap<>();
+
   public GL getGL() {
     return gl;
   }
@@ -675,7 +680,8 @@ public class EmulGLPainter extends AbstractPainter implements IPainter {
 
   /**
    * Text length processing based on AWT {@link FontMetrics} obtained
-   * by retrieving the graphic context of the {@link GLCanvas}.
+   * by retrieving the graphic context of the {@link GLCanvas}. Font metrics are kept per font, so
+   * that a graphic context is only retrieved the first time a font is measured.
    * 
    * In case no graphics is available
    */
@@ -684,32 +690,45 @@ public class EmulGLPainter extends AbstractPainter implements IPainter {
     if(font==null) {
       throw new NullPointerException("Font is null");
     }
-    Graphics g = null;
+    FontMetrics fm = getFontMetrics(toAWT(font));
     
-    // Try getting an onscreen canvas graphics
-    EmulGLCanvas c = (EmulGLCanvas) getCanvas();
-    if (c != null) {
-      g = c.getGraphics();
+    if (fm != null) {
+      return fm.stringWidth(string);
     }
 
-    // Try getting an offscreen image graphics
-    if(g==null) {
-      BufferedImage image = getGL().getRenderedImage();
-      g = image.getGraphics();
-    }
+    // Fallback on glut
+    return glutBitmapLength(font.getCode(), string);
+  }
+
+  protected FontMetrics getFontMetrics(java.awt.Font font) {
+    FontMetrics fm = fontMetrics.get(font);
     
-    // Hope to have a graphics and process string width
-    if (g != null) {
-      g.setFont(toAWT(font)); // TODO : cache?
+    if (fm == null) {
+      Graphics g = null;
+      
+      // Try getting an onscreen canvas graphics
+      EmulGLCanvas c = (EmulGLCanvas) getCanvas();
+      if (c != null) {
+        g = c.getGraphics();
+      }
 
-      FontMetrics fm = g.getFontMetrics();
-      if (fm != null) {
-        return fm.stringWidth(string);
+      // Try getting an offscreen image graphics
+      if(g==null) {
+        BufferedImage image = getGL().getRenderedImage();
+        if (image != null)
+          g = image.getGraphics();
+      }
+      
+      // Hope to have a graphics and process string width
+      if (g != null) {
+        fm = g.getFontMetrics(font);
+        g.dispose();
+        
+        if (fm != null)
+          fontMetrics.put(font, fm);
       }
     }
-
-    // Fallback on glut
-    return glutBitmapLength(font.getCode(), string);
+    return fm;
   }
 
   /**
@@ -1013,35 +1032,9 @@ public class EmulGLPainter extends AbstractPainter implements IPainter {
   public boolean gluProject(float objX, float objY, float objZ, float[] model, int model_offset,
       float[] proj, int proj_offset, int[] view, int view_offset, float[] winPos,
       int winPos_offset) {
-    // throw new NotImplementedException();
-    // glu.gluProject(objx, objy, objz, model, proj, viewport, winx, winy, winz)
-
-    double[] modelD = new double[model.length];
-    for (int i = 0; i < model.length; i++) {
-      modelD[i] = model[i];
-    }
-
-    // double[] winy = new double[1];
-    // double[] winz = new double[1];
-
-    double[] projD = new double[proj.length];
-    for (int i = 0; i < proj.length; i++) {
-      projD[i] = proj[i];
-    }
-
-    double[] winx = new double[1];
-    double[] winy = new double[1];
-    double[] winz = new double[1];
-
-    boolean out = glu.gluProject(objX, objY, objZ, modelD, projD, view,
-        winx, winy, winz);
-
-    // winPos[0], winPos[1], winPos[2];
-    winPos[0] = (float) winx[0];
-    winPos[1] = (float) winy[0];
-    winPos[2] = (float) winz[0];
-
-    return out;
+    // projects without copying the matrices to double arrays as GLU.gluProject requires
+    return ScreenProjection.gluProject(objX, objY, objZ, model, model_offset, proj, proj_offset,
+        view, view_offset, winPos, winPos_offset);
   }
 
   // GL GET
@@ -1321,6 +1314,41 @@ public class EmulGLPainter extends AbstractPainter implements IPainter {
     // (target, u1, u2, ustride, uorder, v1, v2, vstride, vorder, points);
   }
 
+  @Override
+  public void glEnableClientState(int array) {
+    gl.glEnableClientState(array);
+  }
+
+  @Override
+  public void glDisableClientState(int array) {
+    gl.glDisableClientState(array);
+  }
+
+  @Override
+  public void glVertexPointer(int size, int type, int stride, FloatBuffer pointer) {
+    gl.glVertexPointer(size, type, stride, pointer);
+  }
+
+  @Override
+  public void glColorPointer(int size, int type, int stride, FloatBuffer pointer) {
+    gl.glColorPointer(size, type, stride, pointer);
+  }
+
+  @Override
+  public void glNormalPointer(int type, int stride, FloatBuffer pointer) {
+    gl.glNormalPointer(type, stride, pointer);
+  }
+
+  @Override
+  public void glDrawArrays(int mode, int first, int count) {
+    gl.glDrawArrays(mode, first, count);
+  }
+
+  @Override
+  public void glDrawElements(int mode, int count, int type, IntBuffer indices) {
+    gl.glDrawElements(mode, count, type, indices);
+  }
+
   /* ***************** SHORTCUTS TO GL CONSTANTS *************************** */
 
   /**
@@ -1542,5 +1570,80 @@ public class EmulGLPainter extends AbstractPainter implements IPainter {
     gl.glDisable(GL.GL_STENCIL);
   }
 
+  @Override
+  public void glEnableClientState_VertexArray() {
+    glEnableClientState(GL.GL_VERTEX_ARRAY);
+  }
+
+  @Override
+  public void glDisableClientState_VertexArray() {
+    glDisableClientState(GL.GL_VERTEX_ARRAY);
+  }
+
+  @Override
+  public void glEnableClientState_ColorArray() {
+    glEnableClientState(GL.GL_COLOR_ARRAY);
+  }
+
+  @Override
+  public void glDisableClientState_ColorArray() {
+    glDisableClientState(GL.GL_COLOR_ARRAY);
+  }
+
+  @Override
+  public void glEnableClientState_NormalArray() {
+    glEnableClientState(GL.GL_NORMAL_ARRAY);
+  }
+
+  @Override
+  public void glDisableClientState_NormalArray() {
+    glDisableClientState(GL.GL_NORMAL_ARRAY);
+  }
+
+  @Override
+  public void glVertexPointer_Float(int size, int stride, FloatBuffer pointer) {
+    glVertexPointer(size, GL.GL_FLOAT, stride, pointer);
+  }
+
+  @Override
+  public void glColorPointer_Float(int size, int stride, FloatBuffer pointer) {
+    glColorPointer(size, GL.GL_FLOAT, stride, pointer);
+  }
+
+  @Override
+  public void glNormalPointer_Float(int stride, FloatBuffer pointer) {
+    glNormalPointer(GL.GL_FLOAT, stride, pointer);
+  }
+
+  @Override
+  public void glDrawArrays_Triangles(int first, int count) {
+    glDrawArrays(GL.GL_TRIANGLES, first, count);
+  }
+
+  @Override
+  public void glDrawArrays_Quads(int first, int count) {
+    glDrawArrays(GL.GL_QUADS, first, count);
+  }
+
+  @Override
+  public void glDrawArrays_Points(int first, int count) {
+    glDrawArrays(GL.GL_POINTS, first, count);
+  }
+
+  @Override
+  public void glDrawElements_Triangles(int count, IntBuffer indices) {
+    glDrawElements(GL.GL_TRIANGLES, count, GL.GL_UNSIGNED_INT, indices);
+  }
+
+  @Override
+  public void glDrawElements_Quads(int count, IntBuffer indices) {
+    glDrawElements(GL.GL_QUADS, count, GL.GL_UNSIGNED_INT, indices);
+  }
+
+  @Override
+  public void glDrawElements_Lines(int count, IntBuffer indices) {
+    glDrawElements(GL.GL_LINES, count, GL.GL_UNSIGNED_INT, indices);
+  }
+
 
 }
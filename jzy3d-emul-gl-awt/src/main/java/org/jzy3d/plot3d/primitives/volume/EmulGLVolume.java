@@ -0,0 +1,113 @@
+package org.jzy3d.plot3d.primitives.volume;
+
+import java.nio.Buffer;
+import org.apache.logging.log4j.LogManager;
+import org.jzy3d.colors.ColorMapper;
+import org.jzy3d.colors.IMultiColorable;
+import org.jzy3d.maths.BoundingBox3d;
+import org.jzy3d.painters.EmulGLPainter;
+import org.jzy3d.painters.IPainter;
+import org.jzy3d.plot3d.primitives.Drawable;
+import org.jzy3d.plot3d.rendering.view.ScreenProjection;
+import org.jzy3d.plot3d.transform.Transform;
+import jgl.GL;
+
+/**
+ * Renders a volume with EmulGL, by marching rays through the voxels on the CPU with a
+ * {@link VolumeRayMarcher} and blending the resulting image over the rasterized scene.
+ *
+ * The equivalent of the native <code>Texture3D</code>, with the same constructors and transfer
+ * function. Rays stop at the depth of the geometry drawn before the volume, which should hence be
+ * added last to the scene graph.
+ *
+ * @author Martin Pernollet
+ */
+public class EmulGLVolume extends Drawable implements IMultiColorable {
+  protected VolumeRayMarcher marcher;
+
+  protected int[] image = new int[0];
+  protected float[] depth = new float[0];
+
+  /**
+   * @param buffer a {@link java.nio.FloatBuffer} or a {@link java.nio.ByteBuffer} of unsigned bytes
+   *        holding the voxel values, X varying the fastest.
+   * @param shape the number of voxels along Z, Y and X.
+   * @param min the value mapped to the first color, and transparent.
+   * @param max the value mapped to the last color, and opaque.
+   * @param mapper the colors of the values.
+   * @param bbox the box of the volume in data coordinates.
+   */
+  public EmulGLVolume(Buffer buffer, int[] shape, float min, float max, ColorMapper mapper,
+      BoundingBox3d bbox) {
+    this.marcher = new VolumeRayMarcher(new VoxelGrid(buffer, shape), min, max, mapper, bbox);
+    this.bbox = bbox;
+  }
+
+  /** A volume whose value range is the one of the color mapper. */
+  public EmulGLVolume(Buffer buffer, int[] shape, ColorMapper mapper, BoundingBox3d bbox) {
+    this(buffer, shape, (float) mapper.getMin(), (float) mapper.getMax(), mapper, bbox);
+  }
+
+  @Override
+  public void draw(IPainter painter) {
+    if (!(painter instanceof EmulGLPainter))
+      return;
+    GL gl = ((EmulGLPainter) painter).getGL();
+
+    doTransform(painter);
+
+    int[] viewport = painter.getViewPortAsInt();
+    int width = viewport[2];
+    int height = viewport[3];
+    if (width < 2 || height < 2)
+      return;
+
+    if (image.length != width * height) {
+      image = new int[width * height];
+      depth = new float[width * height];
+    }
+
+    // The color and depth buffers have the size of the viewport
+    gl.readDepth(0, 0, width, height, depth);
+
+    float[] range = new float[2];
+    gl.glGetFloatv(GL.GL_DEPTH_RANGE, range);
+    if (range[0] != 0 || range[1] != 1) {
+      float scale = range[1] != range[0] ? 1 / (range[1] - range[0]) : 0;
+      for (int i = 0; i < depth.length; i++)
+        depth[i] = (depth[i] - range[0]) * scale;
+    }
+
+    double[] mvp = new ScreenProjection(painter).getModelViewProjection();
+    marcher.render(mvp, width, height, depth, image);
+
+    gl.compositePixels(0, 0, width, height, image);
+
+    doDrawBoundsIfDisplayed(painter);
+  }
+
+  @Override
+  public void applyGeometryTransform(Transform transform) {
+    LogManager.getLogger(EmulGLVolume.class).warn("not implemented");
+  }
+
+  @Override
+  public void updateBounds() {
+    bbox = marcher.getBounds();
+  }
+
+  @Override
+  public ColorMapper getColorMapper() {
+    return marcher.getColorMapper();
+  }
+
+  @Override
+  public void setColorMapper(ColorMapper mapper) {
+    marcher.setColorMapper(mapper);
+  }
+
+  /** The ray marcher, to tune its step, opacity threshold or pool. */
+  public VolumeRayMarcher getRayMarcher() {
+    return marcher;
+  }
+}
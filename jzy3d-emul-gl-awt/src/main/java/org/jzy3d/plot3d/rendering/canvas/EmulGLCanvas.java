@@ -14,6 +14,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -74,7 +75,7 @@ public class EmulGLCanvas extends GLCanvas implements IScreenCanvas, IMonitorabl
   protected EmulGLPainter painter;
   protected IAnimator animator;
 
-  protected List<ICanvasListener> canvasListeners = new ArrayList<>();
+  protected List<ICanvasListener> canvasListeners = new CopyOnWriteArrayList<>();
 
   protected AtomicBoolean isRenderingFlag = new AtomicBoolean(false);
 
@@ -310,9 +311,10 @@ public class EmulGLCanvas extends GLCanvas implements IScreenCanvas, IMonitorabl
    * triggers a {@link ComponentEvent.COMPONENT_RESIZED} event.
    * 
    * Performance measurement can be seen on screen if {@link #setProfileDisplayMethod(boolean)} was
-   * set to true OR can be collected by a {@link Monitor} defined by {@link #add(Monitor)}.
+   * set to true OR can be collected by a {@link Monitor} defined by {@link #add(Monitor)} OR
+   * listened frame by frame with {@link ICanvasListener#frameRendered(double)}.
    * 
-   * This method is synchronized to prevent multiple concurrent calls to doDisplay which might make
+   * Rendering is synchronized to prevent multiple concurrent calls to doDisplay which might make
    * jGL get crazy with GL state consistency : GL states must be consistent during a complete
    * rendering pass, and should not be modified by a second rendering pass in the middle of the
    * first one. Consistency may be on drawing a complete geometry in appropriate order (glBegin,
@@ -323,8 +325,19 @@ public class EmulGLCanvas extends GLCanvas implements IScreenCanvas, IMonitorabl
    * case the canvas is not ready for working. This is different from making use of
    * <code>synchronized</code> (which lead to a queue of calls to be resolved) in that one may
    * simply not append work to do according to the status of the canvas.
+   * 
+   * With a {@link ProgressiveRendering}, a refinement in progress is cancelled before waiting for
+   * the lock.
    */
-  public synchronized void doRender() {
+  public void doRender() {
+    ProgressiveRendering progressive = this.progressive;
+    if (progressive != null) {
+      progressive.frameRequested();
+    }
+    doRenderFrame();
+  }
+
+  protected synchronized void doRenderFrame() {
     // System.out.println("doRender " + profileDisplayCount + " ");
     // printCallTrace(2, "jzy3d");
 
@@ -338,14 +351,32 @@ public class EmulGLCanvas extends GLCanvas implements IScreenCanvas, IMonitorabl
         resetCountGLBegin();
       }
 
+      boolean refining = false;
+      if (progressive != null) {
+        progressive.beforeFrame();
+        refining = progressive.isRefining();
+      }
+
       view.clear();
       view.render();
 
+      // A cancelled refinement is not displayed
+      if (refining && myGL.isCancelled()) {
+        // Texts and images queued by the refinement would be drawn by the next frame
+        myGL.clearTextsAndImages();
+        progressive.frameCancelled();
+        isRenderingFlag.set(false);
+        return;
+      }
+
       // Ask opengl to provide an image for display
       myGL.glFlush();
 
-      if (exporter != null) {
-        BufferedImage image = myGL.getRenderedImage();
+      // Refinements do not change the frame, and have another size
+      if (exporter != null && !refining) {
+        // an exporter keeping the image needs a snapshot of the zero-copy buffer
+        BufferedImage image = exporter.isCopyingOnExport() ? myGL.getRenderedImage()
+            : myGL.getRenderedImageSnapshot();
         exporter.export(image);
       }
 
@@ -359,14 +390,22 @@ public class EmulGLCanvas extends GLCanvas implements IScreenCanvas, IMonitorabl
       // PROFILE
       profileDisplayTimer.toc();
 
-      lastRenderingTimeMs = profileDisplayTimer.elapsedMilisecond();
+      // Refinements are not representative of the interactive rendering time
+      if (!refining) {
+        lastRenderingTimeMs = profileDisplayTimer.elapsedMilisecond();
 
-      if (profileDisplayMethod) {
-        profile(lastRenderingTimeMs);
+        if (profileDisplayMethod) {
+          profile(lastRenderingTimeMs);
 
+        }
+        if (monitor != null) {
+          monitorRenderingTime(monitor, lastRenderingTimeMs);
+        }
+        fireFrameRendered(lastRenderingTimeMs);
       }
-      if (monitor != null) {
-        monitorRenderingTime(monitor, lastRenderingTimeMs);
+
+      if (progressive != null) {
+        progressive.frameRendered();
       }
 
       profileDisplayCount++;
@@ -408,6 +447,38 @@ public class EmulGLCanvas extends GLCanvas implements IScreenCanvas, IMonitorabl
 
   protected double lastRenderingTimeMs = LAST_RENDER_TIME_UNDEFINED;
 
+  protected volatile ProgressiveRendering progressive;
+
+  public ProgressiveRendering getProgressiveRendering() {
+    return progressive;
+  }
+
+  /**
+   * Render interactive frames at a lower resolution and refine them when idle, or render all frames
+   * at full resolution if null. The previous progressive rendering is disposed.
+   */
+  public synchronized void setProgressiveRendering(ProgressiveRendering progressive) {
+    if (this.progressive != null && this.progressive != progressive) {
+      this.progressive.dispose();
+    }
+    this.progressive = progressive;
+  }
+
+  /** Number of threads rasterizing primitives by tiles, 1 if tiled rendering is disabled. */
+  public int getTiledRenderingThreads() {
+    return myGL.getTiledRenderingThreads();
+  }
+
+  /**
+   * Rasterize primitives by tiles of the image on the given number of threads, e.g.
+   * <code>Runtime.getRuntime().availableProcessors()</code>, or on the rendering thread only if
+   * lower than 2, which is the default. The image is identical in both cases, see
+   * {@link GL#setTiledRenderingThreads(int)}.
+   */
+  public synchronized void setTiledRenderingThreads(int threads) {
+    myGL.setTiledRenderingThreads(threads);
+  }
+
   @Override
   public double getLastRenderingTimeMs() {
     return lastRenderingTimeMs;
@@ -460,7 +531,7 @@ public class EmulGLCanvas extends GLCanvas implements IScreenCanvas, IMonitorabl
   @Override
   public BufferedImage screenshot() {
     EmulGLPainter painter = (EmulGLPainter) getView().getPainter();
-    return (BufferedImage) painter.getGL().getRenderedImage();
+    return (BufferedImage) painter.getGL().getRenderedImageSnapshot();
   }
 
   @Override
@@ -505,7 +576,11 @@ public class EmulGLCanvas extends GLCanvas implements IScreenCanvas, IMonitorabl
 
   @Override
   public void dispose() {
+    // stop the refinement thread, if any
+    setProgressiveRendering(null);
 
+    // stop the threads of the tiled rendering, if any
+    setTiledRenderingThreads(1);
   }
 
   @Override
@@ -583,6 +658,12 @@ public class EmulGLCanvas extends GLCanvas implements IScreenCanvas, IMonitorabl
     }
   }
 
+  protected void fireFrameRendered(double mili) {
+    for (ICanvasListener listener : canvasListeners) {
+      listener.frameRendered(mili);
+    }
+  }
+
   /* *********************************************************************** */
   /* ************************** PROFILE AND DEBUG ************************** */
   /* *********************************************************************** */
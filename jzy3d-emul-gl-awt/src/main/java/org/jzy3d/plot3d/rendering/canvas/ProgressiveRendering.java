@@ -0,0 +1,239 @@
+package org.jzy3d.plot3d.rendering.canvas;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import jgl.wt.awt.GL;
+
+/**
+ * Renders the frames of an {@link EmulGLCanvas} at a fraction of its resolution, then refines the
+ * last frame in background once the canvas stayed idle for {@link #getIdleDelay()} ms.
+ *
+ * <ul>
+ * <li>Frames requested by mouse, animation or data updates render at
+ * {@link #getInteractiveScale()}, e.g. 0.5 to rasterize four times less pixels. jGL resizes them to
+ * the canvas with a bilinear interpolation when swapping images.
+ * <li>The refinement renders at {@link #getRefinedScale()}, which is 1 for the full resolution, or
+ * 2 to supersample the final image.
+ * <li>A frame requested while refining cancels the refinement : jGL skips the remaining primitives
+ * with {@link GL#setCancelled(boolean)}, and the canceled frame is neither displayed nor notified
+ * to {@link ICanvasListener}s. The requested frame hence waits at most for the primitive in
+ * progress.
+ * </ul>
+ *
+ * The scale is given to jGL as a render scale, so that fonts and layouts follow the resolution as
+ * for HiDPI. Buffers are sized for the largest resolution and reused by the smaller ones with
+ * {@link GL#setKeepBufferCapacity(boolean)}, so that switching between both passes allocates no
+ * buffer. Combine with {@link GL#setZeroCopyFlush(boolean)} to avoid copying the rendered image as
+ * well.
+ *
+ * The render scale is owned by this class while installed : handlers reducing the resolution, such
+ * as <code>AdaptByReducingResolution</code> in the render time budget ladder, compose with it
+ * through {@link #setResolutionFactor(double)}, which multiplies the interactive scale.
+ *
+ * <pre>
+ * <code>
+ * EmulGLCanvas canvas = (EmulGLCanvas) chart.getCanvas();
+ * canvas.setProgressiveRendering(new ProgressiveRendering(canvas));
+ * </code>
+ * </pre>
+ *
+ * @author Martin Pernollet
+ */
+public class ProgressiveRendering {
+  public static final double DEFAULT_INTERACTIVE_SCALE = 0.5;
+  public static final double DEFAULT_REFINED_SCALE = 1;
+  public static final long DEFAULT_IDLE_DELAY = 200;
+
+  protected final EmulGLCanvas canvas;
+  protected final GL gl;
+
+  protected double interactiveScale = DEFAULT_INTERACTIVE_SCALE;
+  protected double refinedScale = DEFAULT_REFINED_SCALE;
+  protected long idleDelay = DEFAULT_IDLE_DELAY;
+  protected volatile double resolutionFactor = 1;
+
+  protected final ScheduledExecutorService executor;
+  protected ScheduledFuture<?> pendingRefinement;
+  /** The thread rendering a refinement, null if not refining */
+  protected volatile Thread refiningThread;
+  /** True if the displayed frame is refined */
+  protected volatile boolean refined;
+
+  public ProgressiveRendering(EmulGLCanvas canvas) {
+    this.canvas = canvas;
+    this.gl = canvas.getGL();
+    this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, getClass().getSimpleName());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Invoked by the canvas before waiting to render a frame : a pending refinement is dropped and
+   * a running one is cancelled, unless the frame is the refinement itself.
+   */
+  public synchronized void frameRequested() {
+    if (Thread.currentThread() == refiningThread)
+      return;
+
+    if (pendingRefinement != null) {
+      pendingRefinement.cancel(false);
+      pendingRefinement = null;
+    }
+    if (refiningThread != null)
+      gl.setCancelled(true);
+  }
+
+  /**
+   * Invoked by the canvas while holding its rendering lock, before rendering a frame, to apply the
+   * resolution of the frame.
+   */
+  public void beforeFrame() {
+    gl.setKeepBufferCapacity(true);
+
+    if (isRefining()) {
+      applyScale(refinedScale);
+    } else {
+      gl.setCancelled(false);
+      applyScale(interactiveScale * resolutionFactor);
+    }
+  }
+
+  /**
+   * Invoked by the canvas after displaying a frame : schedules a refinement after an interactive
+   * frame.
+   */
+  public void frameRendered() {
+    if (isRefining()) {
+      refined = true;
+      return;
+    }
+
+    refined = false;
+    scheduleRefinement();
+  }
+
+  /** Invoked by the canvas when the refinement was cancelled and not displayed. */
+  public void frameCancelled() {
+    refined = false;
+  }
+
+  protected synchronized void scheduleRefinement() {
+    if (pendingRefinement != null)
+      pendingRefinement.cancel(false);
+    if (executor.isShutdown())
+      return;
+    pendingRefinement = executor.schedule(this::refine, idleDelay, TimeUnit.MILLISECONDS);
+  }
+
+  protected void refine() {
+    synchronized (this) {
+      // dropped by a frame request while waiting for this lock
+      if (pendingRefinement == null || refiningThread != null)
+        return;
+      pendingRefinement = null;
+      refiningThread = Thread.currentThread();
+    }
+
+    try {
+      // a refinement waiting for the canvas while this is disposed is not rendered
+      synchronized (canvas) {
+        if (!executor.isShutdown())
+          canvas.doRender();
+      }
+    } finally {
+      refiningThread = null;
+    }
+  }
+
+  protected void applyScale(double scale) {
+    if (gl.getRenderScale() != scale) {
+      gl.setRenderScale(scale);
+      gl.applyViewport();
+    }
+  }
+
+  /**
+   * Stop refining and restore the full resolution. Invoked by the canvas when this progressive
+   * rendering is replaced or when the canvas is disposed.
+   */
+  public void dispose() {
+    synchronized (this) {
+      if (pendingRefinement != null) {
+        pendingRefinement.cancel(false);
+        pendingRefinement = null;
+      }
+    }
+    executor.shutdownNow();
+
+    synchronized (canvas) {
+      gl.setCancelled(false);
+      applyScale(1);
+      gl.setKeepBufferCapacity(false);
+    }
+  }
+
+  /* */
+
+  /** True if the calling thread is rendering a refinement. */
+  public boolean isRefining() {
+    return Thread.currentThread() == refiningThread;
+  }
+
+  /** True if the frame currently displayed is a refinement. */
+  public boolean isRefined() {
+    return refined;
+  }
+
+  public double getInteractiveScale() {
+    return interactiveScale;
+  }
+
+  /** Set the fraction of the resolution to render interactive frames at, 0.5 by default. */
+  public void setInteractiveScale(double interactiveScale) {
+    if (!(interactiveScale > 0))
+      throw new IllegalArgumentException("Scale must be positive : " + interactiveScale);
+    this.interactiveScale = interactiveScale;
+  }
+
+  public double getRefinedScale() {
+    return refinedScale;
+  }
+
+  /**
+   * Set the fraction of the resolution to render refinements at, 1 by default, 2 to supersample.
+   */
+  public void setRefinedScale(double refinedScale) {
+    if (!(refinedScale > 0))
+      throw new IllegalArgumentException("Scale must be positive : " + refinedScale);
+    this.refinedScale = refinedScale;
+  }
+
+  public double getResolutionFactor() {
+    return resolutionFactor;
+  }
+
+  /**
+   * Set a factor multiplying the interactive scale from the next frame, 1 by default. Refinements
+   * are not affected, since they render once the canvas is idle.
+   */
+  public void setResolutionFactor(double resolutionFactor) {
+    if (!(resolutionFactor > 0))
+      throw new IllegalArgumentException("Factor must be positive : " + resolutionFactor);
+    this.resolutionFactor = resolutionFactor;
+  }
+
+  public long getIdleDelay() {
+    return idleDelay;
+  }
+
+  /** Set the time in ms without frame after which the refinement renders. */
+  public void setIdleDelay(long idleDelay) {
+    if (idleDelay < 0)
+      throw new IllegalArgumentException("Idle delay must be positive : " + idleDelay);
+    this.idleDelay = idleDelay;
+  }
+}
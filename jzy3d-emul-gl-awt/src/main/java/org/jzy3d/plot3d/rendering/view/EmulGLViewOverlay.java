@@ -37,7 +37,7 @@ public class EmulGLViewOverlay implements IViewOverlay {
 			try {
 				int imWidth = viewport.getWidth();
 				int imHeight = viewport.getHeight();
-				if (view.getPixelScale().x > 1 || view.getPixelScale().y > 1) {
+				if (view.getPixelScale().x != 1 || view.getPixelScale().y != 1) {
 					imWidth = (int) (viewport.getWidth() * view.getPixelScale().x);
 					imHeight = (int) (viewport.getHeight() * view.getPixelScale().y);
 				}
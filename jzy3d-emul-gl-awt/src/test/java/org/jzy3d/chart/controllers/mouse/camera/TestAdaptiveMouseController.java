@@ -59,6 +59,29 @@ public class TestAdaptiveMouseController {
     Assert.assertNotNull(k.getRateLimiter());
   }
 
+  @Test
+  public void whenPolicySetBeforeRegisteringChart_ThenSchedulerStartsAtRegistration() {
+    // Given
+    Chart chart = new EmulGLChartFactory().newChart();
+
+    AdaptiveRenderingPolicy policy = new AdaptiveRenderingPolicy();
+    policy.optimizeWithRenderTimeBudget = true;
+    policy.optimizeByDroppingSmoothColor = true;
+
+    // When the policy is set before any chart is registered
+    AdaptiveMouseController controller = new AdaptiveMouseController();
+    controller.setPolicy(policy);
+    Assert.assertNull(controller.getScheduler());
+
+    // Then the scheduler starts once a chart is registered
+    controller.register(chart);
+    Assert.assertNotNull(controller.getScheduler());
+
+    // Then the scheduler stops with the controller
+    controller.dispose();
+    Assert.assertNull(controller.getScheduler());
+  }
+
   @Test
   public void whenRepaintOnDemand_onHiDPIChart_ThenOptimizationTriggersIfPerformanceIsBad() {
     // Given
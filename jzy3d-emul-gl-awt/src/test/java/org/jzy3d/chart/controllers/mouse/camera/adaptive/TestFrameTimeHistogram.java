@@ -0,0 +1,53 @@
+package org.jzy3d.chart.controllers.mouse.camera.adaptive;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestFrameTimeHistogram {
+  @Test
+  public void whenAddingFrames_ThenPercentileIsUpperBoundOfBucket() {
+    FrameTimeHistogram histogram = new FrameTimeHistogram(10);
+    Assert.assertEquals(0, histogram.percentile(0.9), 0);
+
+    for (int i = 0; i < 10; i++)
+      histogram.add(i + 0.5);
+
+    Assert.assertEquals(10, histogram.getCount());
+    Assert.assertEquals(1, histogram.percentile(0), 0);
+    Assert.assertEquals(5, histogram.percentile(0.5), 0);
+    Assert.assertEquals(9, histogram.percentile(0.9), 0);
+    Assert.assertEquals(10, histogram.percentile(1), 0);
+  }
+
+  @Test
+  public void whenFull_ThenOldestFramesAreForgotten() {
+    FrameTimeHistogram histogram = new FrameTimeHistogram(4);
+
+    for (int i = 0; i < 4; i++)
+      histogram.add(100);
+    for (int i = 0; i < 3; i++)
+      histogram.add(2);
+
+    Assert.assertEquals(4, histogram.getCount());
+    Assert.assertEquals(3, histogram.percentile(0.75), 0);
+    Assert.assertEquals(101, histogram.percentile(1), 0);
+
+    histogram.add(2);
+    Assert.assertEquals(3, histogram.percentile(1), 0);
+
+    histogram.clear();
+    Assert.assertEquals(0, histogram.getCount());
+    Assert.assertEquals(0, histogram.percentile(1), 0);
+  }
+
+  @Test
+  public void whenFrameExceedsLastBucket_ThenPercentileIsActualTime() {
+    FrameTimeHistogram histogram = new FrameTimeHistogram(3, 2, 10);
+    histogram.add(5);
+    histogram.add(250);
+    histogram.add(120);
+
+    Assert.assertEquals(6, histogram.percentile(0.3), 0);
+    Assert.assertEquals(250, histogram.percentile(1), 0);
+  }
+}
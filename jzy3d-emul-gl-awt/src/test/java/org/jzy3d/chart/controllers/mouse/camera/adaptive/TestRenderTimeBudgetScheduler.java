@@ -0,0 +1,138 @@
+package org.jzy3d.chart.controllers.mouse.camera.adaptive;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestRenderTimeBudgetScheduler {
+  static final double BUDGET = 10;
+
+  @Test
+  public void whenFramesExceedBudget_ThenQualityStepsDownAfterSettling() {
+    List<Step> steps = steps(3);
+    RenderTimeBudgetScheduler scheduler = new RenderTimeBudgetScheduler(null, ladder(steps), BUDGET);
+
+    render(scheduler, 4, 30);
+    Assert.assertEquals(0, scheduler.getLevel());
+
+    render(scheduler, 1, 30);
+    Assert.assertEquals(1, scheduler.getLevel());
+    Assert.assertTrue(steps.get(0).applied);
+    Assert.assertFalse(steps.get(1).applied);
+
+    // never beyond the last step
+    render(scheduler, 100, 30);
+    Assert.assertEquals(3, scheduler.getLevel());
+    Assert.assertTrue(steps.get(2).applied);
+  }
+
+  @Test
+  public void whenFramesAreFast_ThenQualityStepsUpAfterDelay() {
+    List<Step> steps = steps(2);
+    RenderTimeBudgetScheduler scheduler = new RenderTimeBudgetScheduler(null, ladder(steps), BUDGET);
+
+    render(scheduler, 10, 30);
+    Assert.assertEquals(2, scheduler.getLevel());
+
+    // within the hysteresis gap, nothing changes
+    render(scheduler, 100, 7);
+    Assert.assertEquals(2, scheduler.getLevel());
+
+    // the upgrade delay counts from the last change
+    render(scheduler, RenderTimeBudgetScheduler.DEFAULT_UPGRADE_DELAY - 1, 2);
+    Assert.assertEquals(1, scheduler.getLevel());
+    Assert.assertFalse(steps.get(1).applied);
+    Assert.assertTrue(steps.get(0).applied);
+
+    render(scheduler, RenderTimeBudgetScheduler.DEFAULT_UPGRADE_DELAY, 2);
+    Assert.assertEquals(0, scheduler.getLevel());
+    Assert.assertFalse(steps.get(0).applied);
+  }
+
+  @Test
+  public void whenUpgradeDoesNotHold_ThenUpgradeDelayBacksOff() {
+    List<Step> steps = steps(2);
+    RenderTimeBudgetScheduler scheduler = new RenderTimeBudgetScheduler(null, ladder(steps), BUDGET);
+
+    // full quality is too slow, the first step is fast
+    int upgrades = 0;
+    int previous = 0;
+    for (int i = 0; i < 2000; i++) {
+      scheduler.frameRendered(scheduler.getLevel() == 0 ? 30 : 3);
+
+      if (scheduler.getLevel() < previous)
+        upgrades++;
+      previous = scheduler.getLevel();
+      Assert.assertTrue(scheduler.getLevel() <= 1);
+    }
+
+    // 30, 60, 120, 240, 480 and 960 frames delays instead of 2000/35 upgrades
+    Assert.assertEquals(6, upgrades);
+    Assert.assertEquals(RenderTimeBudgetScheduler.MAX_UPGRADE_DELAY,
+        scheduler.getCurrentUpgradeDelay());
+
+    // once the load vanishes, a lasting upgrade resets the delay
+    render(scheduler, 1000, 2);
+    Assert.assertEquals(0, scheduler.getLevel());
+    Assert.assertEquals(RenderTimeBudgetScheduler.DEFAULT_UPGRADE_DELAY,
+        scheduler.getCurrentUpgradeDelay());
+  }
+
+  @Test
+  public void whenStopping_ThenFullQualityIsRestoredInReverseOrder() {
+    List<String> log = new ArrayList<>();
+    List<Step> steps = steps(3);
+    for (Step step : steps)
+      step.log = log;
+
+    RenderTimeBudgetScheduler scheduler = new RenderTimeBudgetScheduler(null, ladder(steps), BUDGET);
+    render(scheduler, 15, 30);
+    scheduler.stop();
+
+    Assert.assertEquals(0, scheduler.getLevel());
+    Assert.assertEquals("[apply 0, apply 1, apply 2, revert 2, revert 1, revert 0]", log.toString());
+  }
+
+  /* */
+
+  protected void render(RenderTimeBudgetScheduler scheduler, int frames, double mili) {
+    for (int i = 0; i < frames; i++)
+      scheduler.frameRendered(mili);
+  }
+
+  protected List<Step> steps(int n) {
+    List<Step> steps = new ArrayList<>();
+    for (int i = 0; i < n; i++)
+      steps.add(new Step(i));
+    return steps;
+  }
+
+  protected List<AdaptiveRenderingHandler> ladder(List<Step> steps) {
+    return new ArrayList<>(steps);
+  }
+
+  static class Step implements AdaptiveRenderingHandler {
+    int id;
+    boolean applied;
+    List<String> log = new ArrayList<>();
+
+    Step(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public void apply() {
+      Assert.assertFalse(applied);
+      applied = true;
+      log.add("apply " + id);
+    }
+
+    @Override
+    public void revert() {
+      Assert.assertTrue(applied);
+      applied = false;
+      log.add("revert " + id);
+    }
+  }
+}
@@ -30,12 +30,9 @@ import org.jzy3d.plot3d.rendering.scene.Scene;
 /**
  * Demo an AWT chart using jGL {@link GLCanvas} for CPU rendering (instead of GPU rendering).
  * 
- * Multithreaded rendering yield to inconsistent draw queries of multiple drawing tasks to a single GL instance
- * 
- * one may create GL instances where each owns its state, consistency, and execution of a geometry draw.
- * 
- * but a shared color/depth buffer.
- * 
+ * The scene graph scores and sorts polygons on all CPU cores, then draws them from the rendering
+ * thread, since GL draw queries issued by multiple threads to a single GL instance would be
+ * interlaced.
  * 
  * @author martin
  *
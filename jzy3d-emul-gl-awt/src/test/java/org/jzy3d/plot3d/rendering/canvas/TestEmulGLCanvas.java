@@ -0,0 +1,57 @@
+package org.jzy3d.plot3d.rendering.canvas;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.chart.Chart;
+import org.jzy3d.chart.factories.EmulGLChartFactory;
+import org.jzy3d.io.AWTImageExporter;
+
+public class TestEmulGLCanvas {
+  @Test
+  public void whenExporterCopiesImage_ThenRenderedImageIsExportedWithoutSnapshot() {
+    Chart chart = new EmulGLChartFactory().newChart();
+    EmulGLCanvas canvas = (EmulGLCanvas) chart.getCanvas();
+    canvas.setSize(300, 200);
+    canvas.getGL().setZeroCopyFlush(true);
+
+    // Given an exporter copying the image before returning
+    RecordingExporter copying = new RecordingExporter(true);
+    canvas.setExporter(copying);
+    canvas.doRenderFrame();
+
+    // Then it receives the rendered image itself
+    Assert.assertSame(canvas.getGL().getRenderedImage(), copying.image);
+
+    // Given an exporter keeping the image
+    RecordingExporter keeping = new RecordingExporter(false);
+    canvas.setExporter(keeping);
+    canvas.doRenderFrame();
+
+    // Then it receives a snapshot not overwritten by the next frames
+    Assert.assertNotSame(canvas.getGL().getRenderedImage(), keeping.image);
+  }
+
+  static class RecordingExporter implements AWTImageExporter {
+    boolean copying;
+    BufferedImage image;
+
+    RecordingExporter(boolean copying) {
+      this.copying = copying;
+    }
+
+    @Override
+    public void export(BufferedImage image) {
+      this.image = image;
+    }
+
+    @Override
+    public void terminate(long timeout, TimeUnit unit) {}
+
+    @Override
+    public boolean isCopyingOnExport() {
+      return copying;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package org.jzy3d.plot3d.rendering.canvas;
+
+import java.awt.image.BufferedImage;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.chart.Chart;
+import org.jzy3d.chart.controllers.mouse.camera.adaptive.handlers.AdaptByReducingResolution;
+import org.jzy3d.chart.factories.EmulGLChartFactory;
+import org.jzy3d.colors.Color;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.plot3d.primitives.Scatter;
+
+public class TestProgressiveRendering {
+  @Test
+  public void whenRefinementIsCancelled_ThenNextFrameDoesNotDrawItsTexts() {
+    // Given a chart with axis tick labels
+    Chart chart = new EmulGLChartFactory().newChart();
+    chart.add(new Scatter(new Coord3d[] {new Coord3d(0, 0, 0), new Coord3d(1, 1, 1)}, Color.BLUE));
+    EmulGLCanvas canvas = (EmulGLCanvas) chart.getCanvas();
+    canvas.setSize(300, 200);
+
+    ProgressiveRendering progressive = new ProgressiveRendering(canvas);
+    progressive.setIdleDelay(Long.MAX_VALUE / 2); // no refinement in background
+    canvas.setProgressiveRendering(progressive);
+
+    canvas.doRenderFrame();
+    int[] expected = pixels(canvas.getGL().getRenderedImage());
+
+    // When a refinement is cancelled after its labels are queued
+    progressive.refiningThread = Thread.currentThread();
+    canvas.getGL().setCancelled(true);
+    canvas.doRenderFrame();
+    progressive.refiningThread = null;
+    Assert.assertFalse(progressive.isRefined());
+
+    // Then the next frame only draws its own labels
+    canvas.doRenderFrame();
+    Assert.assertArrayEquals(expected, pixels(canvas.getGL().getRenderedImage()));
+
+    canvas.setProgressiveRendering(null);
+  }
+
+  @Test
+  public void whenCanvasIsDisposed_ThenProgressiveRenderingIsDisposed() {
+    Chart chart = new EmulGLChartFactory().newChart();
+    EmulGLCanvas canvas = (EmulGLCanvas) chart.getCanvas();
+    canvas.setSize(300, 200);
+
+    ProgressiveRendering progressive = new ProgressiveRendering(canvas);
+    progressive.setIdleDelay(Long.MAX_VALUE / 2);
+    canvas.setProgressiveRendering(progressive);
+
+    // Given a refinement scheduled after an interactive frame
+    canvas.doRenderFrame();
+    Assert.assertNotNull(progressive.pendingRefinement);
+
+    // When disposing the canvas
+    canvas.dispose();
+
+    // Then the refinement is dropped and its thread stopped
+    Assert.assertNull(canvas.getProgressiveRendering());
+    Assert.assertNull(progressive.pendingRefinement);
+    Assert.assertTrue(progressive.executor.isShutdown());
+    Assert.assertEquals(1, canvas.getGL().getRenderScale(), 0);
+  }
+
+  @Test
+  public void whenResolutionIsReduced_ThenInteractiveScaleIsMultiplied() {
+    Chart chart = new EmulGLChartFactory().newChart();
+    EmulGLCanvas canvas = (EmulGLCanvas) chart.getCanvas();
+    canvas.setSize(300, 200);
+
+    ProgressiveRendering progressive = new ProgressiveRendering(canvas);
+    progressive.setIdleDelay(Long.MAX_VALUE / 2);
+    canvas.setProgressiveRendering(progressive);
+
+    // When the budget ladder reduces the resolution
+    AdaptByReducingResolution reduce = new AdaptByReducingResolution(chart, 0.5);
+    reduce.apply();
+    canvas.doRenderFrame();
+
+    // Then both reductions apply
+    Assert.assertEquals(0.25, canvas.getGL().getRenderScale(), 0);
+
+    // Then reverting restores the interactive scale
+    reduce.revert();
+    canvas.doRenderFrame();
+    Assert.assertEquals(0.5, canvas.getGL().getRenderScale(), 0);
+
+    canvas.setProgressiveRendering(null);
+  }
+
+  protected int[] pixels(BufferedImage image) {
+    return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+  }
+}
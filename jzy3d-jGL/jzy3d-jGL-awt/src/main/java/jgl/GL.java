@@ -16,6 +16,8 @@
 
 package jgl;
 
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import jgl.context.gl_context;
@@ -68,9 +70,14 @@ public abstract class GL<ImageType, FontType> {
    * EmulGLCanvas size.
    */
   protected int desiredHeight = 0;
-  /** Horizontal pixel scale induced by HiDPI. */
+  /**
+   * Fraction of the HiDPI resolution to render at, e.g. 0.5 to rasterize four times less pixels
+   * while interacting, or 2 to supersample. Included in the pixel scales.
+   */
+  protected double renderScale = 1;
+  /** Horizontal pixel scale induced by HiDPI and render scale. */
   protected double pixelScaleX = 1;
-  /** Vertical pixel scale induced by HiDPI. */
+  /** Vertical pixel scale induced by HiDPI and render scale. */
   protected double pixelScaleY = 1;
 
   protected int desiredX = 0;
@@ -188,14 +195,82 @@ public abstract class GL<ImageType, FontType> {
     this.pixelScaleY = pixelScaleY;
   }
 
-  /** Reset pixel scale to (1,1) */
+  /** Reset pixel scale to the render scale, which is (1,1) unless {@link #setRenderScale(double)} */
   protected void resetPixelScale() {
-    if (pixelScaleX != 1 || pixelScaleY != 1) {
-      firePixelScaleChanged(1, 1);
+    if (pixelScaleX != renderScale || pixelScaleY != renderScale) {
+      firePixelScaleChanged(renderScale, renderScale);
     }
 
-    pixelScaleX = 1;
-    pixelScaleY = 1;
+    pixelScaleX = renderScale;
+    pixelScaleY = renderScale;
+  }
+
+  public double getRenderScale() {
+    return renderScale;
+  }
+
+  /**
+   * Set the fraction of the resolution to render at, whatever the HiDPI settings : frames render at
+   * the component size multiplied by the HiDPI pixel scale and by this factor, then get resized to
+   * the component when swapped. The pixel scales notified to {@link PixelScaleListener}s include this
+   * factor, so that fonts and layouts follow the resolution as for HiDPI.
+   * 
+   * Values lower than 1 render faster with a blurry look, values higher than 1 supersample.
+   * Applies at next {@link #applyViewport()}. Default is 1.
+   */
+  public void setRenderScale(double renderScale) {
+    if (!(renderScale > 0))
+      throw new IllegalArgumentException("Render scale must be positive : " + renderScale);
+    this.renderScale = renderScale;
+  }
+
+  public boolean isKeepBufferCapacity() {
+    return Context.KeepBufferCapacity;
+  }
+
+  /**
+   * If true, color, depth and stencil buffers are only reallocated when the viewport grows, which
+   * avoids allocating buffers at each change of {@link #setRenderScale(double)}, at the cost of
+   * keeping the memory of the largest viewport. Default is false.
+   */
+  public void setKeepBufferCapacity(boolean keepBufferCapacity) {
+    Context.KeepBufferCapacity = keepBufferCapacity;
+  }
+
+  public boolean isCancelled() {
+    return Context.Cancelled;
+  }
+
+  /**
+   * Skip all primitives begun from now on, until the flag is reset. May be invoked from any thread,
+   * e.g. to abandon a frame that will not be displayed : primitives in progress complete, so that
+   * the rendering thread ends its frame quickly with a consistent state.
+   */
+  public void setCancelled(boolean cancelled) {
+    Context.Cancelled = cancelled;
+  }
+
+  /**
+   * Copy the window depth of the given rectangle of the viewport to an array, row by row from the
+   * top, once queued primitives are rasterized. Pixels out of the viewport read the clear depth.
+   */
+  public void readDepth(int x, int y, int width, int height, float[] depth) {
+    if (depth.length < width * height)
+      throw new IllegalArgumentException("Need " + width * height + " depths, got " + depth.length);
+    Context.gl_read_depth(x, y, width, height, depth);
+  }
+
+  /**
+   * Blend an image of premultiplied ARGB pixels over the color buffer, as
+   * <code>glBlendFunc(GL_ONE, GL_ONE_MINUS_SRC_ALPHA)</code> would, once queued primitives are
+   * rasterized. The image covers the given rectangle of the viewport, its rows going from the top
+   * as those of the color buffer. This allows drawables computing their pixels in software, e.g. by
+   * ray casting, to be composited with the rasterized scene.
+   */
+  public void compositePixels(int x, int y, int width, int height, int[] pixels) {
+    if (pixels.length < width * height)
+      throw new IllegalArgumentException("Need " + width * height + " pixels, got " + pixels.length);
+    Context.gl_composite_pixels(x, y, width, height, pixels);
   }
 
   /**
@@ -203,6 +278,8 @@ public abstract class GL<ImageType, FontType> {
    */
   @SuppressWarnings("unused")
   protected void checkColorBuffer() {
+    Context.CR.gl_flush_tiles();
+
     int a0 = 0;
     int a255 = 0;
     int black = 0;
@@ -290,6 +367,25 @@ public abstract class GL<ImageType, FontType> {
     this.autoAdaptToHiDPI = autoAdaptToHiDPI;
   }
 
+  /**
+   * Return the number of threads rasterizing primitives by tiles, or 1 if tiled rendering is
+   * disabled.
+   */
+  public int getTiledRenderingThreads() {
+    return Context.CR.tiles != null ? Context.CR.tiles.getThreads() : 1;
+  }
+
+  /**
+   * Rasterize primitives by tiles of the color buffer, each tile being processed by one of the
+   * given number of threads. The output is identical to the single threaded rasterization. A value
+   * lower than 2 disables tiled rendering, which is the default.
+   * 
+   * Primitives are queued until the next state change, buffer access or {@link #glFlush()}.
+   */
+  public void setTiledRenderingThreads(int threads) {
+    Context.CR.gl_tiles(threads);
+  }
+
   /* ********************** IMAGE OVERLAY WITH AWT ************************/
 
   public enum ImageLayer {
@@ -322,6 +418,17 @@ public abstract class GL<ImageType, FontType> {
     }
   }
 
+  /**
+   * Discard the texts and images appended since the last {@link #glFlush()}, for a frame that will
+   * not be flushed, e.g. a cancelled one. They would be drawn by the next frame otherwise.
+   */
+  public void clearTextsAndImages() {
+    synchronized (textsToDraw) {
+      textsToDraw.clear();
+    }
+    clearImagesBuffer();
+  }
+
   /* ********************** TEXT MANAGEMENT WITH AWT ************************/
 
 
@@ -1587,9 +1694,11 @@ public abstract class GL<ImageType, FontType> {
       actualWidth = (int) (desiredWidth * pixelScaleX);
       actualHeight = (int) (desiredHeight * pixelScaleY);
     } else {
-      actualWidth = desiredWidth;
-      actualHeight = desiredHeight;
+      actualWidth = (int) (desiredWidth * renderScale);
+      actualHeight = (int) (desiredHeight * renderScale);
     }
+    actualWidth = Math.max(1, actualWidth);
+    actualHeight = Math.max(1, actualHeight);
     CC.gl_viewport(desiredX, desiredY, actualWidth, actualHeight);
   }
 
@@ -5676,6 +5785,177 @@ public abstract class GL<ImageType, FontType> {
     }
   }
 
+  /**
+   * Vertex Arrays
+   */
+
+  /** GLvoid glEnableClientState (GLenum array) */
+  public void glEnableClientState(int array) {
+    if (!isClientArray(array)) {
+      CC.gl_error(GL_INVALID_ENUM, "glEnableClientState(array)");
+      return;
+    }
+    Context.gl_enable_client_state(array, true);
+  }
+
+  /** GLvoid glDisableClientState (GLenum array) */
+  public void glDisableClientState(int array) {
+    if (!isClientArray(array)) {
+      CC.gl_error(GL_INVALID_ENUM, "glDisableClientState(array)");
+      return;
+    }
+    Context.gl_enable_client_state(array, false);
+  }
+
+  protected boolean isClientArray(int array) {
+    return array == GL_VERTEX_ARRAY || array == GL_COLOR_ARRAY || array == GL_NORMAL_ARRAY;
+  }
+
+  /**
+   * GLvoid glVertexPointer (GLint size, GLenum type, GLsizei stride, const GLvoid *pointer)
+   * 
+   * The array starts at the current position of the buffer, and the stride is given in bytes as in
+   * OpenGL.
+   */
+  public void glVertexPointer(int size, int type, int stride, FloatBuffer pointer) {
+    if (size < 2 || size > 4 || !isValidStride(stride)) {
+      CC.gl_error(GL_INVALID_VALUE, "glVertexPointer(size, stride)");
+      return;
+    }
+    if (type != GL_FLOAT) {
+      CC.gl_error(GL_INVALID_ENUM, "glVertexPointer(type)");
+      return;
+    }
+    Context.Array.set_vertex_pointer(size, stride / 4, pointer);
+  }
+
+  /**
+   * GLvoid glColorPointer (GLint size, GLenum type, GLsizei stride, const GLvoid *pointer)
+   * 
+   * The array starts at the current position of the buffer, and the stride is given in bytes as in
+   * OpenGL.
+   */
+  public void glColorPointer(int size, int type, int stride, FloatBuffer pointer) {
+    if (size < 3 || size > 4 || !isValidStride(stride)) {
+      CC.gl_error(GL_INVALID_VALUE, "glColorPointer(size, stride)");
+      return;
+    }
+    if (type != GL_FLOAT) {
+      CC.gl_error(GL_INVALID_ENUM, "glColorPointer(type)");
+      return;
+    }
+    Context.Array.set_color_pointer(size, stride / 4, pointer);
+  }
+
+  /**
+   * GLvoid glNormalPointer (GLenum type, GLsizei stride, const GLvoid *pointer)
+   * 
+   * The array starts at the current position of the buffer, and the stride is given in bytes as in
+   * OpenGL.
+   */
+  public void glNormalPointer(int type, int stride, FloatBuffer pointer) {
+    if (!isValidStride(stride)) {
+      CC.gl_error(GL_INVALID_VALUE, "glNormalPointer(stride)");
+      return;
+    }
+    if (type != GL_FLOAT) {
+      CC.gl_error(GL_INVALID_ENUM, "glNormalPointer(type)");
+      return;
+    }
+    Context.Array.set_normal_pointer(stride / 4, pointer);
+  }
+
+  protected boolean isValidStride(int stride) {
+    return stride >= 0 && stride % 4 == 0;
+  }
+
+  /** GLvoid glArrayElement (GLint i) */
+  public void glArrayElement(int i) {
+    if (CC.Mode == None) {
+      CC.gl_error(GL_INVALID_OPERATION, "glArrayElement" + NEED_GL_BEGIN);
+      return;
+    }
+    if (!checkArrayPointers("glArrayElement")) {
+      return;
+    }
+    Context.gl_array_element(CC, i);
+  }
+
+  /**
+   * GLvoid glDrawArrays (GLenum mode, GLint first, GLsizei count)
+   * 
+   * Equivalent to a glBegin/glEnd block sending the enabled arrays, without checking each call.
+   */
+  public void glDrawArrays(int mode, int first, int count) {
+    if (!checkDrawArrays("glDrawArrays", mode, count)) {
+      return;
+    }
+    if (first < 0) {
+      CC.gl_error(GL_INVALID_VALUE, "glDrawArrays(first)");
+      return;
+    }
+    Context.gl_draw_arrays(CC, mode, first, count);
+  }
+
+  /**
+   * GLvoid glDrawElements (GLenum mode, GLsizei count, GLenum type, const GLvoid *indices)
+   * 
+   * The indices are read from the current position of the buffer.
+   */
+  public void glDrawElements(int mode, int count, int type, IntBuffer indices) {
+    if (!checkDrawArrays("glDrawElements", mode, count)) {
+      return;
+    }
+    if (type != GL_UNSIGNED_INT) {
+      CC.gl_error(GL_INVALID_ENUM, "glDrawElements(type)");
+      return;
+    }
+    if (indices == null) {
+      CC.gl_error(GL_INVALID_OPERATION, "glDrawElements(indices) is null");
+      return;
+    }
+    Context.gl_draw_elements(CC, mode, count, indices);
+  }
+
+  /** Raise GL_INVALID_OPERATION if an enabled array has no pointer. */
+  protected boolean checkArrayPointers(String function) {
+    if (Context.Array.has_null_pointer()) {
+      CC.gl_error(GL_INVALID_OPERATION, function + " with an enabled array having a null pointer");
+      return false;
+    }
+    return true;
+  }
+
+  protected boolean checkDrawArrays(String function, int mode, int count) {
+    if (CC.Mode != None) {
+      CC.gl_error(GL_INVALID_OPERATION, function + " can not be called inside glBegin/glEnd");
+      return false;
+    }
+    if (count < 0) {
+      CC.gl_error(GL_INVALID_VALUE, function + "(count)");
+      return false;
+    }
+    if (!checkArrayPointers(function)) {
+      return false;
+    }
+    switch (mode) {
+      case GL_POINTS:
+      case GL_LINES:
+      case GL_LINE_STRIP:
+      case GL_LINE_LOOP:
+      case GL_TRIANGLES:
+      case GL_TRIANGLE_STRIP:
+      case GL_TRIANGLE_FAN:
+      case GL_QUADS:
+      case GL_QUAD_STRIP:
+      case GL_POLYGON:
+        return true;
+      default:
+        CC.gl_error(GL_INVALID_ENUM, function + "(mode)");
+        return false;
+    }
+  }
+
   /**
    * Selection and Feedback
    */
@@ -5819,6 +6099,11 @@ public abstract class GL<ImageType, FontType> {
   public static final int GL_POLYGON = 0x000A;
   public static final int GL_EDGE_FLAG = 0x0B43;
 
+  /* Vertex Arrays */
+  public static final int GL_VERTEX_ARRAY = 0x8074;
+  public static final int GL_NORMAL_ARRAY = 0x8075;
+  public static final int GL_COLOR_ARRAY = 0x8076;
+
   /* Matrix Mode */
   public static final int GL_MATRIX_MODE = 0x0BA0;
   public static final int GL_MODELVIEW = 0x1700;
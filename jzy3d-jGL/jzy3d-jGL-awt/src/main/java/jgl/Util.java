@@ -38,6 +38,7 @@ public class Util {
     // Draw depth buffer
     float minDepth = Integer.MAX_VALUE;
     float maxDepth = -Integer.MAX_VALUE;
+    gl.Context.CR.gl_flush_tiles();
     int[] color = new int[gl.Context.DepthBuffer.Buffer.length];
     for (int i = 0; i < gl.Context.DepthBuffer.Buffer.length; i++) {
       float depth = gl.Context.DepthBuffer.Buffer[i];
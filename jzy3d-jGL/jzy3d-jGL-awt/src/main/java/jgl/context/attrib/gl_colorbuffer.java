@@ -16,6 +16,7 @@
 
 package jgl.context.attrib;
 
+import java.util.Arrays;
 import jgl.GL;
 import jgl.context.gl_context;
 
@@ -116,7 +117,18 @@ public class gl_colorbuffer {
   }
 
   public void set_buffer(int size) {
-    Buffer = new int[size];
+    set_buffer(size, false);
+  }
+
+  /**
+   * @param keep_capacity if true, a larger buffer is kept and only its first size pixels are used.
+   */
+  public void set_buffer(int size, boolean keep_capacity) {
+    // keep the same buffer if the size does not change, as it may back a displayed image
+    if (Buffer != null && (Buffer.length == size || keep_capacity && Buffer.length > size))
+      Arrays.fill(Buffer, 0, size, 0);
+    else
+      Buffer = new int[size];
   }
 
   public void clear_buffer(int size) {
@@ -70,7 +70,16 @@ public class gl_depthbuffer {
   }
 
   public void set_buffer(int size) {
-    Buffer = new float[size];
+    set_buffer(size, false);
+  }
+
+  /**
+   * @param keep_capacity if true, a larger buffer is kept and only its first size values are used,
+   *        the caller being in charge of clearing them.
+   */
+  public void set_buffer(int size, boolean keep_capacity) {
+    if (!keep_capacity || Buffer == null || Buffer.length < size)
+      Buffer = new float[size];
   }
 
   public void clear_buffer(int size) {
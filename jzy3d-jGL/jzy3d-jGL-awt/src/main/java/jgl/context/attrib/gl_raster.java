@@ -73,6 +73,23 @@ public class gl_raster {
   /** Polygon stipple pattern */
   public byte PolygonStipplePattern[][]; /* initial value is 32x32 1s */
 
+  public gl_raster() {}
+
+  /** A copy of the culling and polygon modes of the given raster state. */
+  public gl_raster(gl_raster cc) {
+    this.CullFace = cc.CullFace;
+    this.CullFaceMode = cc.CullFaceMode;
+    this.FrontFace = cc.FrontFace;
+    this.FrontMode = cc.FrontMode;
+    this.BackMode = cc.BackMode;
+  }
+
+  /** Return true if the culling and polygon modes are the ones of the given raster state. */
+  public boolean same_polygon_modes(gl_raster cc) {
+    return CullFace == cc.CullFace && CullFaceMode == cc.CullFaceMode && FrontFace == cc.FrontFace
+        && FrontMode == cc.FrontMode && BackMode == cc.BackMode;
+  }
+
   public void set_polygon_mode(int face, int mode) {
     if ((face == GL.GL_FRONT) || (face == GL.GL_FRONT_AND_BACK)) {
       FrontMode = mode;
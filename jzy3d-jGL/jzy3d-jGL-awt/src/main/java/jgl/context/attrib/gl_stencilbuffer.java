@@ -16,6 +16,7 @@
 
 package jgl.context.attrib;
 
+import java.util.Arrays;
 import jgl.GL;
 import jgl.context.gl_context;
 // import jgl.context.gl_list_item;
@@ -71,7 +72,17 @@ public class gl_stencilbuffer {
    */
 
   public void set_buffer(int size) {
-    Buffer = new int[size];
+    set_buffer(size, false);
+  }
+
+  /**
+   * @param keep_capacity if true, a larger buffer is kept and only its first size values are used.
+   */
+  public void set_buffer(int size, boolean keep_capacity) {
+    if (keep_capacity && Buffer != null && Buffer.length >= size)
+      Arrays.fill(Buffer, 0, size, 0);
+    else
+      Buffer = new int[size];
   }
 
   public void clear_buffer(int size) {
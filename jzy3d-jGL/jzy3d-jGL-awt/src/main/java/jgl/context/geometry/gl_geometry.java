@@ -63,6 +63,11 @@ public class gl_geometry {
   private void draw_point(int i) {
     float temp[];
 
+    // points are not rasterized by tiles
+    if (CR.tiles != null) {
+      CR.tiles.flush();
+    }
+
     // if (CR.clipping.IsInside (VertexArray [i])) {
     if (CR.clipping != null && !CR.clipping.IsInside(VertexArray[i])) {
       return;
@@ -84,6 +89,10 @@ public class gl_geometry {
   }
 
   private void draw_line(gl_vertex v[]) {
+    if (CR.tiles != null
+        && CR.tiles.queue_line(CR.render, CR.line_pixel, v, CC.ColorTransformation())) {
+      return;
+    }
     CR.render.draw_line(v[0], v[1], CC.ColorTransformation());
   }
 
@@ -123,6 +132,10 @@ public class gl_geometry {
   }
 
   private void draw_polygon(gl_polygon p) {
+    if (CR.tiles != null
+        && CR.tiles.queue_polygon(CR.render, CR.poly_pixel, p, CC.ColorTransformation())) {
+      return;
+    }
     CR.render.draw_polygon(p, CC.ColorTransformation());
   }
 
@@ -0,0 +1,96 @@
+package jgl.context;
+
+import java.nio.FloatBuffer;
+
+/**
+ * gl_array holds the client side vertex, color and normal arrays, as defined by
+ * glVertexPointer, glColorPointer, glNormalPointer and glEnableClientState.
+ *
+ * Strides are given in number of floats between the first component of two consecutive elements,
+ * and offsets are the position of the buffers when the pointer was given.
+ *
+ * When a pointer is backed by an accessible array, its components are read from the array rather
+ * than through the buffer.
+ */
+public class gl_array {
+  /** GL_VERTEX_ARRAY */
+  public boolean VertexEnable = false;
+  public int VertexSize = 4;
+  public int VertexStride = 4;
+  public int VertexOffset = 0;
+  public FloatBuffer VertexPointer;
+  public float[] VertexData;
+  public int VertexDataOffset = 0;
+
+  /** GL_COLOR_ARRAY */
+  public boolean ColorEnable = false;
+  public int ColorSize = 4;
+  public int ColorStride = 4;
+  public int ColorOffset = 0;
+  public FloatBuffer ColorPointer;
+  public float[] ColorData;
+  public int ColorDataOffset = 0;
+
+  /** GL_NORMAL_ARRAY */
+  public boolean NormalEnable = false;
+  public int NormalStride = 3;
+  public int NormalOffset = 0;
+  public FloatBuffer NormalPointer;
+  public float[] NormalData;
+  public int NormalDataOffset = 0;
+
+  public void set_vertex_pointer(int size, int stride, FloatBuffer pointer) {
+    VertexSize = size;
+    VertexStride = stride == 0 ? size : stride;
+    VertexOffset = pointer != null ? pointer.position() : 0;
+    VertexPointer = pointer;
+    VertexData = data(pointer);
+    VertexDataOffset = dataOffset(pointer);
+  }
+
+  public void set_color_pointer(int size, int stride, FloatBuffer pointer) {
+    ColorSize = size;
+    ColorStride = stride == 0 ? size : stride;
+    ColorOffset = pointer != null ? pointer.position() : 0;
+    ColorPointer = pointer;
+    ColorData = data(pointer);
+    ColorDataOffset = dataOffset(pointer);
+  }
+
+  public void set_normal_pointer(int stride, FloatBuffer pointer) {
+    NormalStride = stride == 0 ? 3 : stride;
+    NormalOffset = pointer != null ? pointer.position() : 0;
+    NormalPointer = pointer;
+    NormalData = data(pointer);
+    NormalDataOffset = dataOffset(pointer);
+  }
+
+  /** Return true if an enabled array has no pointer to read its elements from. */
+  public boolean has_null_pointer() {
+    return (VertexEnable && VertexPointer == null) || (ColorEnable && ColorPointer == null)
+        || (NormalEnable && NormalPointer == null);
+  }
+
+  /** Return the k-th float of the vertex pointer. */
+  public float vertex(int k) {
+    return VertexData != null ? VertexData[VertexDataOffset + k] : VertexPointer.get(k);
+  }
+
+  /** Return the k-th float of the color pointer. */
+  public float color(int k) {
+    return ColorData != null ? ColorData[ColorDataOffset + k] : ColorPointer.get(k);
+  }
+
+  /** Return the k-th float of the normal pointer. */
+  public float normal(int k) {
+    return NormalData != null ? NormalData[NormalDataOffset + k] : NormalPointer.get(k);
+  }
+
+  private static float[] data(FloatBuffer pointer) {
+    return pointer != null && pointer.hasArray() ? pointer.array() : null;
+  }
+
+  private static int dataOffset(FloatBuffer pointer) {
+    return pointer != null && pointer.hasArray() ? pointer.arrayOffset() : 0;
+  }
+}
@@ -15,6 +15,8 @@
 
 package jgl.context;
 
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.Stack;
 import java.util.Vector;
 import jgl.GL;
@@ -83,6 +85,9 @@ public class gl_context extends gl_object {
   public gl_select Select = new gl_select();
   public gl_feedback Feedback = new gl_feedback();
 
+  /** Client side vertex arrays */
+  public gl_array Array = new gl_array();
+
   /** Attrib stack */
   public Stack<gl_list_item> AttribStack = new Stack<gl_list_item>();
 
@@ -102,6 +107,15 @@ public class gl_context extends gl_object {
   /** GL_LIST_MODE: Mode of display list under construction */
   public int ListMode = 0;
 
+  /** Keep buffers larger than the viewport instead of reallocating them */
+  public boolean KeepBufferCapacity = false;
+
+  /** Set from any thread to skip the primitives begun from now on */
+  public volatile boolean Cancelled = false;
+
+  /** True if the primitive in progress is skipped, latched by gl_begin to keep geometry consistent */
+  private boolean Skipping = false;
+
   /** the vector of display list group */
   public Vector<gl_list> ListGroup = new Vector<gl_list>();
 
@@ -184,6 +198,7 @@ public class gl_context extends gl_object {
   }
 
   public void gl_clear_depth_buffer() {
+    CR.gl_flush_tiles();
     if (RenderMode != GL.GL_RENDER) {
       return;
     }
@@ -191,6 +206,7 @@ public class gl_context extends gl_object {
   }
 
   public void gl_clear_color_buffer() {
+    CR.gl_flush_tiles();
     if (RenderMode != GL.GL_RENDER) {
       return;
     }
@@ -198,17 +214,87 @@ public class gl_context extends gl_object {
   }
 
   public void gl_clear_stencil_buffer() {
+    CR.gl_flush_tiles();
     if (RenderMode != GL.GL_RENDER) {
       return;
     }
     StencilBuffer.clear_buffer(Viewport.Size);
   }
 
+  /**
+   * Copy the depth of a rectangle of the buffers, rows going from the top, to the given array.
+   * Pixels out of the buffers read the clear depth.
+   */
+  public void gl_read_depth(int x, int y, int width, int height, float depth[]) {
+    CR.gl_flush_tiles();
+    int w = Viewport.Width;
+    for (int j = 0; j < height; j++) {
+      int by = y + j;
+      for (int i = 0; i < width; i++) {
+        int bx = x + i;
+        int index = bx + w * by;
+        if (bx < 0 || bx >= w || by < 0 || index >= Viewport.Size) {
+          depth[j * width + i] = DepthBuffer.Clear;
+        } else {
+          depth[j * width + i] = DepthBuffer.Buffer[index];
+        }
+      }
+    }
+  }
+
+  /**
+   * Blend premultiplied ARGB pixels over a rectangle of the color buffer, rows going from the top,
+   * as GL_ONE, GL_ONE_MINUS_SRC_ALPHA blending. Transparent pixels leave the buffer unchanged.
+   */
+  public void gl_composite_pixels(int x, int y, int width, int height, int pixels[]) {
+    CR.gl_flush_tiles();
+    if (RenderMode != GL.GL_RENDER) {
+      return;
+    }
+    int w = Viewport.Width;
+    int buffer[] = ColorBuffer.Buffer;
+    for (int j = 0; j < height; j++) {
+      int by = y + j;
+      if (by < 0) {
+        continue;
+      }
+      for (int i = 0; i < width; i++) {
+        int src = pixels[j * width + i];
+        int sa = src >>> 24;
+        int bx = x + i;
+        int index = bx + w * by;
+        if (sa == 0 || bx < 0 || bx >= w || index >= Viewport.Size) {
+          continue;
+        }
+        if (sa == 255) {
+          buffer[index] = src;
+        } else {
+          int dst = buffer[index];
+          int inv = 255 - sa;
+          int a = sa + ((dst >>> 24) * inv + 127) / 255;
+          int r = ((src >> 16) & 0xff) + (((dst >> 16) & 0xff) * inv + 127) / 255;
+          int g = ((src >> 8) & 0xff) + (((dst >> 8) & 0xff) * inv + 127) / 255;
+          int b = (src & 0xff) + ((dst & 0xff) * inv + 127) / 255;
+          buffer[index] = Math.min(a, 255) << 24 | Math.min(r, 255) << 16 | Math.min(g, 255) << 8
+              | Math.min(b, 255);
+        }
+      }
+    }
+  }
+
   public void gl_color_mask(boolean red, boolean green, boolean blue, boolean alpha) {
+    int mask = (red ? 0x00ff0000 : 0) | (green ? 0x0000ff00 : 0) | (blue ? 0x000000ff : 0)
+        | (alpha ? 0xff000000 : 0);
+    if (ColorBuffer.ColorMask != mask) {
+      CR.gl_flush_tiles();
+    }
     ColorBuffer.set_color_mask(red, green, blue, alpha);
   }
 
   public void gl_blend_func(int sfactor, int dfactor) {
+    if (ColorBuffer.BlendSrc != sfactor || ColorBuffer.BlendDst != dfactor) {
+      CR.gl_flush_tiles();
+    }
     ColorBuffer.BlendSrc = sfactor;
     ColorBuffer.BlendDst = dfactor;
   }
@@ -222,6 +308,7 @@ public class gl_context extends gl_object {
   }
 
   public void gl_point_size(float size) {
+    // points are not rasterized by tiles
     Raster.PointSize = size;
     if (size != 1)
       CR.gl_point_size(true);
@@ -230,10 +317,12 @@ public class gl_context extends gl_object {
   }
 
   public void gl_line_width(float width) {
+    // only read by stippled lines, which are not rasterized by tiles
     Raster.LineWidth = width;
   }
 
   public void gl_line_stipple(int factor, short pattern) {
+    // stippled lines are not rasterized by tiles
     Raster.LineStippleRepeat = factor;
     Raster.LineStipplePattern = pattern;
   }
@@ -243,6 +332,7 @@ public class gl_context extends gl_object {
   }
 
   public void gl_polygon_stipple(byte mask[]) {
+    // stippled polygons are not rasterized by tiles
     Raster.set_polygon_stipple(mask);
   }
 
@@ -259,6 +349,7 @@ public class gl_context extends gl_object {
   }
 
   public void gl_enable(int cap, boolean state) {
+    // queued primitives keep their renderers and culling, see gl_tile_render
     // int i;
     switch (cap) {
       case GL.GL_ALPHA_TEST:
@@ -744,6 +835,7 @@ public class gl_context extends gl_object {
   }
 
   public void gl_pop_attrib() {
+    CR.gl_flush_tiles();
     gl_list_item AttribItem;
     int i, mask_number;
 
@@ -825,6 +917,7 @@ public class gl_context extends gl_object {
   }
 
   public int gl_render_mode(int mode) {
+    CR.gl_flush_tiles();
     int result = 0;
     switch (RenderMode) {
       case GL.GL_RENDER:
@@ -870,10 +963,16 @@ public class gl_context extends gl_object {
   }
 
   public void gl_depth_func(int func) {
+    if (DepthBuffer.Func != func) {
+      CR.gl_flush_tiles();
+    }
     DepthBuffer.Func = func;
   }
 
   public void gl_depth_mask(boolean flag) {
+    if (DepthBuffer.Mask != flag) {
+      CR.gl_flush_tiles();
+    }
     DepthBuffer.Mask = flag;
   }
 
@@ -901,10 +1000,11 @@ public class gl_context extends gl_object {
   }
 
   public void gl_viewport(int x, int y, int width, int height) {
+    CR.gl_flush_tiles();
     Viewport.set_viewport(x, y, width, height);
-    ColorBuffer.set_buffer(Viewport.Size);
-    DepthBuffer.set_buffer(Viewport.Size);
-    StencilBuffer.set_buffer(Viewport.Size);
+    ColorBuffer.set_buffer(Viewport.Size, KeepBufferCapacity);
+    DepthBuffer.set_buffer(Viewport.Size, KeepBufferCapacity);
+    StencilBuffer.set_buffer(Viewport.Size, KeepBufferCapacity);
     DepthBuffer.clear_buffer(Viewport.Size);
   }
 
@@ -1054,15 +1154,21 @@ public class gl_context extends gl_object {
 
   public void gl_begin(int mode) {
     Mode = mode;
-    CR.geometry.gl_begin();
+    Skipping = Cancelled;
+    if (!Skipping)
+      CR.geometry.gl_begin();
   }
 
   public void gl_end() {
-    CR.geometry.gl_end();
+    if (!Skipping)
+      CR.geometry.gl_end();
+    Skipping = false;
     Mode = GL.None;
   }
 
   public void gl_vertex(float x, float y, float z, float w) {
+    if (Skipping)
+      return;
     Current.Vertex[0] = x;
     Current.Vertex[1] = y;
     Current.Vertex[2] = z;
@@ -1094,6 +1200,139 @@ public class gl_context extends gl_object {
 
   public void gl_raster_pos(float x, float y, float z, float w) {}
 
+  public void gl_enable_client_state(int array, boolean state) {
+    switch (array) {
+      case GL.GL_VERTEX_ARRAY:
+        Array.VertexEnable = state;
+        break;
+      case GL.GL_COLOR_ARRAY:
+        Array.ColorEnable = state;
+        break;
+      case GL.GL_NORMAL_ARRAY:
+        Array.NormalEnable = state;
+        break;
+    }
+  }
+
+  /**
+   * Send the array elements from first to first + count - 1 to the given object, which is either
+   * this context or a display list under construction.
+   */
+  public void gl_draw_arrays(gl_object target, int mode, int first, int count) {
+    if (target != this) {
+      target.gl_begin(mode);
+      for (int i = first; i < first + count; i++) {
+        gl_array_element(target, i);
+      }
+      target.gl_end();
+      return;
+    }
+    if (Cancelled)
+      return;
+    gl_begin(mode);
+    for (int i = first; i < first + count; i++) {
+      draw_array_element(Array, i);
+    }
+    gl_end();
+  }
+
+  /**
+   * Send the array elements which indices are read from the position of the given buffer to the
+   * given object, which is either this context or a display list under construction.
+   */
+  public void gl_draw_elements(gl_object target, int mode, int count, IntBuffer indices) {
+    int offset = indices.position();
+    if (target != this) {
+      target.gl_begin(mode);
+      for (int i = 0; i < count; i++) {
+        gl_array_element(target, indices.get(offset + i));
+      }
+      target.gl_end();
+      return;
+    }
+    if (Cancelled)
+      return;
+    gl_begin(mode);
+    for (int i = 0; i < count; i++) {
+      draw_array_element(Array, indices.get(offset + i));
+    }
+    gl_end();
+  }
+
+  /**
+   * Send the normal, color and vertex of an array element to the given object, as glNormal,
+   * glColor and glVertex would do.
+   */
+  public void gl_array_element(gl_object target, int i) {
+    gl_array a = Array;
+
+    if (target == this) {
+      draw_array_element(a, i);
+      return;
+    }
+
+    if (a.NormalEnable) {
+      int k = a.NormalOffset + i * a.NormalStride;
+      target.gl_normal(a.normal(k), a.normal(k + 1), a.normal(k + 2));
+    }
+    if (a.ColorEnable) {
+      int k = a.ColorOffset + i * a.ColorStride;
+      float alpha = a.ColorSize == 4 ? clamp(a.color(k + 3)) : 1.0f;
+      target.gl_color(clamp(a.color(k)), clamp(a.color(k + 1)), clamp(a.color(k + 2)), alpha);
+    }
+    if (a.VertexEnable) {
+      int k = a.VertexOffset + i * a.VertexStride;
+      switch (a.VertexSize) {
+        case 2:
+          target.gl_vertex(a.vertex(k), a.vertex(k + 1), 0.0f, 1.0f);
+          break;
+        case 3:
+          target.gl_vertex(a.vertex(k), a.vertex(k + 1), a.vertex(k + 2), 1.0f);
+          break;
+        default:
+          target.gl_vertex(a.vertex(k), a.vertex(k + 1), a.vertex(k + 2), a.vertex(k + 3));
+          break;
+      }
+    }
+  }
+
+  /**
+   * Read an array element into the current normal, color and vertex of this context and send the
+   * vertex to the geometry pipeline, without going through gl_normal, gl_color and gl_vertex.
+   */
+  private void draw_array_element(gl_array a, int i) {
+    if (a.NormalEnable) {
+      int k = a.NormalOffset + i * a.NormalStride;
+      float[] normal = Current.Normal;
+      normal[0] = a.normal(k);
+      normal[1] = a.normal(k + 1);
+      normal[2] = a.normal(k + 2);
+    }
+    if (a.ColorEnable) {
+      int k = a.ColorOffset + i * a.ColorStride;
+      float red = clamp(a.color(k));
+      float green = clamp(a.color(k + 1));
+      float blue = clamp(a.color(k + 2));
+      float alpha = a.ColorSize == 4 ? clamp(a.color(k + 3)) : 1.0f;
+      Current.set_color(red, green, blue, alpha);
+      if (Lighting.ColorMaterial)
+        Lighting.set_color(red, green, blue, alpha);
+    }
+    if (a.VertexEnable && !Skipping) {
+      int k = a.VertexOffset + i * a.VertexStride;
+      float[] vertex = Current.Vertex;
+      vertex[0] = a.vertex(k);
+      vertex[1] = a.vertex(k + 1);
+      vertex[2] = a.VertexSize > 2 ? a.vertex(k + 2) : 0.0f;
+      vertex[3] = a.VertexSize > 3 ? a.vertex(k + 3) : 1.0f;
+      CR.geometry.gl_vertex();
+    }
+  }
+
+  private static float clamp(float x) {
+    return x < 0.0f ? 0.0f : (x > 1.0f ? 1.0f : x);
+  }
+
   public void gl_shade_model(int mode) {
     Lighting.ShadeModel = mode;
     CR.gl_smooth(Lighting.ShadeModel == GL.GL_SMOOTH);
@@ -1143,47 +1382,58 @@ public class gl_context extends gl_object {
   }
 
   public void gl_read_index_pixels(int x, int y, int width, int height, int size, Object pixels) {
+    CR.gl_flush_tiles();
     // TODO
   }
 
   public void gl_read_color_pixels(int x, int y, int width, int height, int format, int size,
       Object pixels) {
+    CR.gl_flush_tiles();
     ColorBuffer.read_pixels(x, y, width, height, format, size, pixels);
   }
 
   public void gl_read_stencil_pixels(int x, int y, int width, int height, int size, Object pixels) {
+    CR.gl_flush_tiles();
     StencilBuffer.read_pixels(x, y, width, height, size, pixels);
   }
 
   public void gl_read_depth_pixels(int x, int y, int width, int height, int size, Object pixels) {
+    CR.gl_flush_tiles();
     DepthBuffer.read_pixels(x, y, width, height, size, pixels);
   }
 
   public void gl_draw_index_pixels(int width, int height, int size, Object pixels) {
+    CR.gl_flush_tiles();
     // TODO
   }
 
   public void gl_draw_color_pixels(int width, int height, int format, int size, Object pixels) {
+    CR.gl_flush_tiles();
     ColorBuffer.draw_pixels(width, height, format, size, pixels);
   }
 
   public void gl_draw_stencil_pixels(int width, int height, int size, Object pixels) {
+    CR.gl_flush_tiles();
     StencilBuffer.draw_pixels(width, height, size, pixels);
   }
 
   public void gl_draw_depth_pixels(int width, int height, int size, Object pixels) {
+    CR.gl_flush_tiles();
     DepthBuffer.draw_pixels(width, height, size, pixels);
   }
 
   public void gl_copy_color_pixels(int x, int y, int width, int height) {
+    CR.gl_flush_tiles();
     ColorBuffer.copy_pixels(x, y, width, height);
   }
 
   public void gl_copy_stencil_pixels(int x, int y, int width, int height) {
+    CR.gl_flush_tiles();
     StencilBuffer.copy_pixels(x, y, width, height);
   }
 
   public void gl_copy_depth_pixels(int x, int y, int width, int height) {
+    CR.gl_flush_tiles();
     DepthBuffer.copy_pixels(x, y, width, height);
   }
 
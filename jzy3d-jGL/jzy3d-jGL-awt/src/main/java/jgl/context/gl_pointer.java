@@ -41,6 +41,7 @@ import jgl.context.render.gl_smooth;
 import jgl.context.render.gl_smooth_z;
 import jgl.context.render.gl_tex;
 import jgl.context.render.gl_tex_z;
+import jgl.context.render.gl_tile_render;
 import jgl.context.render.pixel.gl_blend_pixel;
 import jgl.context.render.pixel.gl_render_pixel;
 import jgl.context.render.pixel.gl_render_point;
@@ -109,6 +110,9 @@ public class gl_pointer {
   public gl_render_pixel line_pixel;
   public gl_render_pixel poly_pixel;
 
+  /** Renderer queuing primitives to rasterize them by tiles, null if disabled */
+  public gl_tile_render tiles;
+
   public gl_pointer(gl_context cc) {
     CC = cc;
     // clipping = new gl_nf_color_clipping (CC);
@@ -128,6 +132,28 @@ public class gl_pointer {
     line.set_pixel(basic_pixel);
   }
 
+  /**
+   * Rasterize primitives by tiles on the given number of threads, or disable tiles if threads is
+   * lower than 2.
+   */
+  public void gl_tiles(int threads) {
+    if (tiles != null) {
+      tiles.flush();
+      tiles.shutdown();
+      tiles = null;
+    }
+    if (threads > 1) {
+      tiles = new gl_tile_render(CC, threads);
+    }
+  }
+
+  /** Rasterize queued primitives, if any. */
+  public void gl_flush_tiles() {
+    if (tiles != null) {
+      tiles.flush();
+    }
+  }
+
   public void gl_stipple_line(boolean state) {
     if (state) {
       line_pixel = new gl_stipple_line_pixel(CC, this);
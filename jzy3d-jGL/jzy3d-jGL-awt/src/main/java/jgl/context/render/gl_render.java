@@ -20,6 +20,7 @@ import jgl.GL;
 import jgl.context.gl_context;
 import jgl.context.gl_polygon;
 import jgl.context.gl_vertex;
+import jgl.context.attrib.gl_raster;
 import jgl.context.render.pixel.gl_render_pixel;
 
 /**
@@ -46,6 +47,13 @@ public class gl_render {
 
   protected int color; // for flat shading
 
+  // Rows of the triangles to draw, other rows are skipped (see gl_tile_render)
+  protected int RowMin = Integer.MIN_VALUE;
+  protected int RowMax = Integer.MAX_VALUE;
+
+  // Culling and polygon modes, the ones of the context unless set (see gl_tile_render)
+  protected gl_raster Raster;
+
   protected void init_xy(gl_vertex v1, gl_vertex v2) {
     LineXY[0][0] = (int) (v1.Vertex[0] + (float) 0.5);
     LineXY[0][1] = (int) (v1.Vertex[1] + (float) 0.5);
@@ -489,19 +497,19 @@ public class gl_render {
       return;
     }
 
-    facing = facing ^ (area > 0) ^ (CC.Raster.FrontFace == GL.GL_CW);
+    facing = facing ^ (area > 0) ^ (Raster.FrontFace == GL.GL_CW);
 
-    if (CC.Raster.CullFace) {
-      if (CC.Raster.CullFaceMode == GL.GL_FRONT_AND_BACK)
+    if (Raster.CullFace) {
+      if (Raster.CullFaceMode == GL.GL_FRONT_AND_BACK)
         return;
-      if (facing & (CC.Raster.CullFaceMode == GL.GL_FRONT))
+      if (facing & (Raster.CullFaceMode == GL.GL_FRONT))
         return;
-      if (!facing & (CC.Raster.CullFaceMode == GL.GL_BACK))
+      if (!facing & (Raster.CullFaceMode == GL.GL_BACK))
         return;
     }
 
     if (facing) {
-      switch (CC.Raster.FrontMode) {
+      switch (Raster.FrontMode) {
         case GL.GL_POINT:
           draw_point(v1);
           draw_point(v2);
@@ -517,7 +525,7 @@ public class gl_render {
           return;
       }
     } else {
-      switch (CC.Raster.BackMode) {
+      switch (Raster.BackMode) {
         case GL.GL_POINT:
           draw_point(v1);
           draw_point(v2);
@@ -558,7 +566,8 @@ public class gl_render {
 
     // Draw the upper part of the triangle....
     for (i = TriXY[Top][1]; i < TriXY[Mid][1]; i++) {
-      draw_horizontal_line(i);
+      if (i >= RowMin && i <= RowMax)
+        draw_horizontal_line(i);
       inc_left();
       inc_right();
     }
@@ -577,13 +586,15 @@ public class gl_render {
 
     // Draw the lower part of the triangle....
     for (i = TriXY[Mid][1]; i < TriXY[Down][1]; i++) {
-      draw_horizontal_line(i);
+      if (i >= RowMin && i <= RowMax)
+        draw_horizontal_line(i);
       inc_left();
       inc_right();
     }
 
     // Draw the lowest line of the triangle....
-    draw_horizontal_line(TriXY[Down][1]);
+    if (TriXY[Down][1] >= RowMin && TriXY[Down][1] <= RowMax)
+      draw_horizontal_line(TriXY[Down][1]);
   }
 
   public void draw_triangle(gl_vertex v1, gl_vertex v2, gl_vertex v3, int color) {
@@ -610,8 +621,27 @@ public class gl_render {
     pixel = p;
   }
 
+  /**
+   * Only draw the rows [min;max] of the triangles. Rows are skipped after the edges of the triangle
+   * have been walked, so that the drawn pixels are exactly the ones that would be drawn without
+   * restriction.
+   */
+  public void set_rows(int min, int max) {
+    RowMin = min;
+    RowMax = max;
+  }
+
+  /**
+   * Read the culling and polygon modes from the given raster state instead of the one of the
+   * context.
+   */
+  public void set_raster(gl_raster raster) {
+    Raster = raster;
+  }
+
   public gl_render(gl_context cc) {
     CC = cc;
+    Raster = cc.Raster;
   }
 
 }
@@ -0,0 +1,312 @@
+package jgl.context.render;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import jgl.GL;
+import jgl.context.gl_context;
+import jgl.context.gl_polygon;
+import jgl.context.gl_vertex;
+import jgl.context.attrib.gl_raster;
+import jgl.context.render.pixel.gl_blend_pixel;
+import jgl.context.render.pixel.gl_render_pixel;
+import jgl.context.render.pixel.gl_tile_pixel;
+
+/**
+ * gl_tile_render is a binned renderer that rasterizes primitives on several threads.
+ *
+ * Transformed and clipped primitives are queued instead of being rasterized immediately. When the
+ * queue is flushed, primitives are binned into tiles made of {@link #getTileHeight()} rows of the
+ * color buffer, and each tile is rasterized by a single thread that only writes to the rows of
+ * this tile in the color and depth buffers. Each tile receives its primitives in submission order,
+ * and a primitive rasterized in a tile writes exactly the pixels it would write without tiling, so
+ * the output is identical to the single threaded rasterization.
+ *
+ * Since rasterization reads the state of the context (blending functions, depth function and mask,
+ * color mask, viewport), the context must {@link #flush()} the queue before any actual change of
+ * such state, and before any read or write of the buffers that does not go through this renderer.
+ * Each queued primitive keeps its renderers and a snapshot of the culling and polygon modes, so
+ * that changing them, or enabling depth test, blending, lighting..., does not flush the queue, as
+ * drawables do around almost every polygon.
+ *
+ * Only flat and smooth shading, with or without depth test and blending are queued. Other
+ * primitives (points, textures, stipples, selection, polygons rendered as points) are rejected so
+ * that the caller draws them immediately after the queue was flushed.
+ */
+public class gl_tile_render {
+  public static final int DEFAULT_TILE_HEIGHT = 32;
+
+  protected static final int POLYGON = 0;
+  protected static final int LINE = 1;
+
+  protected gl_context CC;
+  protected int Threads;
+  protected int TileHeight = DEFAULT_TILE_HEIGHT;
+  protected ExecutorService Executor;
+
+  protected List<gl_tile_command> Commands = new ArrayList<>();
+
+  // Culling and polygon modes of the last queued primitive, shared by the next ones until changed
+  protected gl_raster Raster;
+
+  // Commands of each tile, as indices in the command list
+  protected int TileCommands[][] = new int[0][];
+  protected int TileSize[] = new int[0];
+
+  protected gl_tile_worker Workers[];
+
+  public gl_tile_render(gl_context cc, int threads) {
+    CC = cc;
+    Threads = threads;
+    Workers = new gl_tile_worker[threads];
+    for (int i = 0; i < threads; i++) {
+      Workers[i] = new gl_tile_worker(i);
+    }
+    Executor = Executors.newFixedThreadPool(threads - 1, new gl_tile_thread_factory());
+  }
+
+  /**
+   * Queue a polygon, or flush the queue and return false if the polygon can not be rasterized by
+   * tiles, in which case the caller should rasterize it immediately.
+   */
+  public boolean queue_polygon(gl_render render, gl_render_pixel pixel, gl_polygon p, int color) {
+    if (!accepts(render, pixel)
+        || CC.Raster.FrontMode == GL.GL_POINT || CC.Raster.BackMode == GL.GL_POINT) {
+      flush();
+      return false;
+    }
+    if (p == null || p.n < 3) {
+      return true; // nothing would be drawn
+    }
+    queue(POLYGON, render, pixel, p.Polygon, p.n, color);
+    return true;
+  }
+
+  /**
+   * Queue a line, or flush the queue and return false if the line can not be rasterized by tiles,
+   * in which case the caller should rasterize it immediately.
+   */
+  public boolean queue_line(gl_render render, gl_render_pixel pixel, gl_vertex v[], int color) {
+    if (!accepts(render, pixel)) {
+      flush();
+      return false;
+    }
+    queue(LINE, render, pixel, v, 2, color);
+    return true;
+  }
+
+  protected boolean accepts(gl_render render, gl_render_pixel pixel) {
+    Class<?> r = render.getClass();
+    Class<?> p = pixel.getClass();
+    return (r == gl_render.class || r == gl_depth.class || r == gl_smooth.class
+        || r == gl_smooth_z.class) && (p == gl_render_pixel.class || p == gl_blend_pixel.class);
+  }
+
+  protected void queue(int type, gl_render render, gl_render_pixel pixel, gl_vertex v[], int n,
+      int color) {
+    int ymin = Integer.MAX_VALUE;
+    int ymax = Integer.MIN_VALUE;
+    for (int i = 0; i < n; i++) {
+      int y = (int) (v[i].Vertex[1] + (float) 0.5);
+      ymin = Math.min(ymin, y);
+      ymax = Math.max(ymax, y);
+    }
+
+    // primitive entirely out of the buffer
+    if (ymax < 0 || ymin >= CC.Viewport.Height) {
+      return;
+    }
+
+    gl_tile_command c = new gl_tile_command();
+    c.type = type;
+    c.render = render;
+    c.pixel = pixel;
+    c.vertex = v;
+    c.n = n;
+    c.color = color;
+    if (Raster == null || !Raster.same_polygon_modes(CC.Raster)) {
+      Raster = new gl_raster(CC.Raster);
+    }
+    c.raster = Raster;
+    c.tileMin = Math.max(ymin, 0) / TileHeight;
+    c.tileMax = Math.min(ymax, CC.Viewport.Height - 1) / TileHeight;
+    Commands.add(c);
+  }
+
+  /** Rasterize all queued primitives and wait for completion. */
+  public void flush() {
+    if (Commands.isEmpty()) {
+      return;
+    }
+
+    bin();
+
+    try {
+      List<Future<?>> futures = new ArrayList<>(Threads - 1);
+      for (int i = 1; i < Threads; i++) {
+        futures.add(Executor.submit(Workers[i]));
+      }
+      Workers[0].run();
+
+      for (Future<?> f : futures) {
+        f.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    } finally {
+      Commands.clear();
+    }
+  }
+
+  protected void bin() {
+    int tiles = (CC.Viewport.Height + TileHeight - 1) / TileHeight;
+
+    if (TileSize.length < tiles) {
+      TileCommands = new int[tiles][16];
+      TileSize = new int[tiles];
+    }
+    for (int t = 0; t < tiles; t++) {
+      TileSize[t] = 0;
+    }
+
+    for (int i = 0; i < Commands.size(); i++) {
+      gl_tile_command c = Commands.get(i);
+      for (int t = c.tileMin; t <= c.tileMax; t++) {
+        if (TileSize[t] == TileCommands[t].length) {
+          int grown[] = new int[TileSize[t] * 2];
+          System.arraycopy(TileCommands[t], 0, grown, 0, TileSize[t]);
+          TileCommands[t] = grown;
+        }
+        TileCommands[t][TileSize[t]++] = i;
+      }
+    }
+  }
+
+  /** Stop the threads of this renderer, which can not be flushed anymore. */
+  public void shutdown() {
+    Commands.clear();
+    Executor.shutdown();
+  }
+
+  public int getThreads() {
+    return Threads;
+  }
+
+  /** Number of primitives waiting for the next {@link #flush()}. */
+  public int getQueuedPrimitives() {
+    return Commands.size();
+  }
+
+  public int getTileHeight() {
+    return TileHeight;
+  }
+
+  /** Set the number of rows of a tile. Must be called while the queue is empty. */
+  public void setTileHeight(int tileHeight) {
+    flush();
+    TileHeight = tileHeight;
+  }
+
+  /* */
+
+  /** A queued primitive. */
+  protected static class gl_tile_command {
+    int type;
+    gl_render render;
+    gl_render_pixel pixel;
+    gl_vertex vertex[];
+    int n;
+    int color;
+    gl_raster raster;
+    int tileMin;
+    int tileMax;
+  }
+
+  /**
+   * Rasterize the tiles which index modulo the number of threads equals the worker index, with its
+   * own renderers, as renderers hold the state of the primitive being rasterized.
+   */
+  protected class gl_tile_worker implements Runnable {
+    protected int index;
+    protected gl_tile_pixel pixel = new gl_tile_pixel(CC);
+    protected gl_render render;
+    protected gl_depth depth;
+    protected gl_smooth smooth;
+    protected gl_smooth_z smooth_z;
+    protected gl_polygon polygon = new gl_polygon();
+
+    public gl_tile_worker(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void run() {
+      int tiles = (CC.Viewport.Height + TileHeight - 1) / TileHeight;
+
+      for (int t = index; t < tiles; t += Threads) {
+        int rowMin = t * TileHeight;
+        int rowMax = Math.min(rowMin + TileHeight, CC.Viewport.Height) - 1;
+        pixel.set_rows(rowMin, rowMax);
+
+        for (int i = 0; i < TileSize[t]; i++) {
+          draw(Commands.get(TileCommands[t][i]), rowMin, rowMax);
+        }
+      }
+    }
+
+    protected void draw(gl_tile_command c, int rowMin, int rowMax) {
+      gl_render r = render_for(c.render);
+      r.set_pixel(pixel);
+      r.set_rows(rowMin, rowMax);
+      r.set_raster(c.raster);
+      pixel.set_target(c.pixel);
+
+      if (c.type == POLYGON) {
+        polygon.n = c.n;
+        polygon.Polygon = c.vertex;
+        r.draw_polygon(polygon, c.color);
+      } else {
+        r.draw_line(c.vertex[0], c.vertex[1], c.color);
+      }
+    }
+
+    protected gl_render render_for(gl_render prototype) {
+      Class<?> c = prototype.getClass();
+      if (c == gl_smooth_z.class) {
+        if (smooth_z == null)
+          smooth_z = new gl_smooth_z(CC);
+        return smooth_z;
+      } else if (c == gl_smooth.class) {
+        if (smooth == null)
+          smooth = new gl_smooth(CC);
+        return smooth;
+      } else if (c == gl_depth.class) {
+        if (depth == null)
+          depth = new gl_depth(CC);
+        return depth;
+      } else {
+        if (render == null)
+          render = new gl_render(CC);
+        return render;
+      }
+    }
+  }
+
+  protected static class gl_tile_thread_factory implements ThreadFactory {
+    protected static final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread t = new Thread(r, "jGL-tile-" + count.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package jgl.context.render.pixel;
+
+import jgl.context.gl_context;
+
+/**
+ * gl_tile_pixel forwards pixels to another {@link gl_render_pixel} only if they stand in the rows
+ * of the tile it is bound to, so that several threads may rasterize the same primitive into
+ * distinct tiles of the color and depth buffers.
+ */
+public class gl_tile_pixel extends gl_render_pixel {
+  protected gl_render_pixel target;
+  protected int IndexMin;
+  protected int IndexMax;
+
+  public gl_tile_pixel(gl_context cc) {
+    super(cc);
+  }
+
+  /** Bind this pixel to the rows [rowMin;rowMax] of the color buffer. */
+  public void set_rows(int rowMin, int rowMax) {
+    IndexMin = rowMin * CC.Viewport.Width;
+    IndexMax = (rowMax + 1) * CC.Viewport.Width - 1;
+  }
+
+  public void set_target(gl_render_pixel target) {
+    this.target = target;
+  }
+
+  @Override
+  public void put_pixel_by_index(int index, int color) {
+    if (index >= IndexMin && index <= IndexMax)
+      target.put_pixel_by_index(index, color);
+  }
+
+  @Override
+  public void put_pixel(int x, int y, int color) {
+    int index = x + CC.Viewport.Width * y;
+    if (index >= IndexMin && index <= IndexMax)
+      target.put_pixel(x, y, color);
+  }
+
+  @Override
+  public void put_pixel_by_index(int index, float z, int color) {
+    if (index >= IndexMin && index <= IndexMax)
+      target.put_pixel_by_index(index, z, color);
+  }
+
+  @Override
+  public void put_pixel(int x, int y, float z, int color) {
+    int index = x + CC.Viewport.Width * y;
+    if (index >= IndexMin && index <= IndexMax)
+      target.put_pixel(x, y, z, color);
+  }
+
+  @Override
+  public void init(int dx, int dy) {
+    target.init(dx, dy);
+  }
+}
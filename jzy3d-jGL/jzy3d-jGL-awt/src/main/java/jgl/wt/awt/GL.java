@@ -16,6 +16,7 @@
 package jgl.wt.awt;
 
 import java.applet.Applet;
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Font;
@@ -28,8 +29,13 @@ import java.awt.font.FontRenderContext;
 import java.awt.font.GlyphVector;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
 import java.awt.image.ImageObserver;
 import java.awt.image.MemoryImageSource;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
 import jgl.ImageToDraw;
 import jgl.TextToDraw;
 import jgl.context.gl_util;
@@ -40,6 +46,15 @@ public class GL extends jgl.GL<BufferedImage, Font> {
   protected BufferedImage glImage;
   protected boolean renderedOnce = false;
 
+  protected boolean zeroCopyFlush = false;
+  // color buffer backing glImage when flushing without copy
+  protected int[] glImageBuffer;
+  // color buffer the next frame is rendered into when flushing without copy, and its image
+  protected int[] glBackBuffer;
+  protected BufferedImage glBackImage;
+
+  protected TextRasterCache textCache = new TextRasterCache();
+
   /**
    * Draws the image buffer that was built by {@link GL#glFlush()} with the caller {@link Graphics}
    * context
@@ -49,6 +64,10 @@ public class GL extends jgl.GL<BufferedImage, Font> {
    * <code>void glXSwapBuffers (Display *dpy, GLXDrawable drawable)</code>
    */
   public void glXSwapBuffers(Graphics g, ImageObserver o) {
+    // smooth the image resized to the component when rendered at another resolution
+    if (renderScale != 1 && g instanceof Graphics2D)
+      ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+          RenderingHints.VALUE_INTERPOLATION_BILINEAR);
     g.drawImage(glImage, StartX, StartY, desiredWidth, desiredHeight, o);
   }
 
@@ -62,9 +81,18 @@ public class GL extends jgl.GL<BufferedImage, Font> {
     if (Context.RenderMode != GL_RENDER) {
       return;
     }
+
+    // Rasterize primitives queued for tiled rendering
+    Context.CR.gl_flush_tiles();
+
     // DEBUG
     // checkColorBuffer();
 
+    if (zeroCopyFlush && shiftHorizontally == 0) {
+      flushWithoutCopy();
+      return;
+    }
+
     // ------------------------------------------
     // Create an image producer based on
     // colorbuffer into which GL draws
@@ -81,6 +109,9 @@ public class GL extends jgl.GL<BufferedImage, Font> {
     // and then to the image returned to Canvas
     glImage = new BufferedImage(jGLColorBuffer.getWidth(null), jGLColorBuffer.getHeight(null),
         BufferedImage.TYPE_INT_ARGB);
+    glImageBuffer = null;
+    glBackBuffer = null;
+    glBackImage = null;
     Graphics2D g2d = (Graphics2D) glImage.getGraphics();
     configureRenderingHints(g2d);
 
@@ -106,11 +137,137 @@ public class GL extends jgl.GL<BufferedImage, Font> {
     // debugWriteImageTo("target/jGL.glFlush.png", (RenderedImage)JavaImage);
   }
 
+  /**
+   * Make the color buffer the pixels of the image returned by {@link #getRenderedImage()}, which
+   * avoids allocating and copying a full frame at each {@link #glFlush()}.
+   * 
+   * The color buffer is double buffered : once flushed, the rendered buffer is presented and the
+   * context renders the next frame into a second buffer, so that the displayed image is never
+   * modified by the next frame or by a background rendering. Both buffers and their images are
+   * reused from one frame to the other and only reallocated when the color buffer is resized by
+   * {@link #glViewport(int, int, int, int)}.
+   * 
+   * Overlays are composited in the color buffer itself : texts and background images are drawn
+   * below the scene's pixels, and foreground images above them.
+   */
+  protected void flushWithoutCopy() {
+    int[] buffer = Context.ColorBuffer.Buffer;
+    int width = Context.Viewport.Width;
+    int height = Context.Viewport.Height;
+
+    BufferedImage image;
+    if (buffer == glBackBuffer && hasSize(glBackImage, width, height)) {
+      image = glBackImage;
+    } else if (buffer == glImageBuffer && hasSize(glImage, width, height)) {
+      image = glImage;
+    } else {
+      image = newColorBufferImage(buffer, width, height);
+    }
+
+    Graphics2D g2d = image.createGraphics();
+    configureRenderingHints(g2d);
+
+    // Overlays that should appear BEHIND the scene's polygons, drawn from the nearest to the
+    // farthest since each one goes below what was already drawn : lists are hence walked in
+    // reverse order to stack overlays as the copying flush does
+    g2d.setComposite(AlphaComposite.DstOver);
+    drawImages(g2d, ImageLayer.BACKGROUND, true);
+    drawTexts(g2d, true);
+
+    // Hack background
+    if (clearBackgroundWithG2d)
+      hackClearColorWithG2DfillRect(g2d);
+
+    // Images that should appear ON TOP of the scene's polygons
+    g2d.setComposite(AlphaComposite.SrcOver);
+    drawImages(g2d, ImageLayer.FOREGROUND);
+    clearImagesBuffer();
+
+    g2d.dispose();
+
+    // Present the rendered buffer and render the next frame into the previously presented one
+    if (buffer != glImageBuffer) {
+      glBackBuffer = glImageBuffer;
+      glBackImage = glImageBuffer != null ? glImage : null;
+    }
+    glImage = image;
+    glImageBuffer = buffer;
+
+    if (glBackBuffer == null || glBackBuffer.length != buffer.length) {
+      glBackBuffer = new int[buffer.length];
+      glBackImage = null;
+    }
+    Context.ColorBuffer.Buffer = glBackBuffer;
+  }
+
+  protected boolean hasSize(BufferedImage image, int width, int height) {
+    return image != null && image.getWidth() == width && image.getHeight() == height;
+  }
+
+  /**
+   * Build an ARGB image using the given color buffer as pixels, without copying it.
+   */
+  protected BufferedImage newColorBufferImage(int[] buffer, int width, int height) {
+    DirectColorModel colorModel = (DirectColorModel) ColorModel.getRGBdefault();
+    DataBufferInt data = new DataBufferInt(buffer, width * height);
+    WritableRaster raster = Raster.createPackedRaster(data, width, height, width,
+        colorModel.getMasks(), null);
+    return new BufferedImage(colorModel, raster, false, null);
+  }
+
   public BufferedImage getRenderedImage() {
 
     return glImage;
   }
 
+  /**
+   * Return the rendered image, or a copy of it if it is backed by a color buffer, which will be
+   * overwritten by the frame following the next one (see {@link #setZeroCopyFlush(boolean)}).
+   */
+  public BufferedImage getRenderedImageSnapshot() {
+    if (glImageBuffer == null) {
+      return glImage;
+    }
+    BufferedImage copy = new BufferedImage(glImage.getWidth(), glImage.getHeight(),
+        BufferedImage.TYPE_INT_ARGB);
+    glImage.copyData(copy.getRaster());
+    return copy;
+  }
+
+  /**
+   * @see {@link #setZeroCopyFlush(boolean)}
+   */
+  public boolean isZeroCopyFlush() {
+    return zeroCopyFlush;
+  }
+
+  /**
+   * When true, {@link #glFlush()} does not copy the color buffer to a new image but let
+   * {@link #getRenderedImage()} return an image which pixels are the color buffer, and swaps
+   * between two color buffers so that the next frame is rendered in the other one. The returned
+   * image is hence not modified until the next flush, but is reused for the frame after : callers
+   * willing to keep a frame must copy it. Texts and images are drawn into the color buffer, which
+   * hence contains the overlays after the flush.
+   * 
+   * This mode is ignored if the image is shifted horizontally. Default is false.
+   */
+  public void setZeroCopyFlush(boolean zeroCopyFlush) {
+    this.zeroCopyFlush = zeroCopyFlush;
+  }
+
+  public TextRasterCache getTextCache() {
+    return textCache;
+  }
+
+  /**
+   * Set the cache keeping the rasters of drawn texts, or null to rasterize each text at each
+   * {@link #glFlush()}. Rotated texts are never cached. Default is a {@link TextRasterCache} of
+   * {@link TextRasterCache#DEFAULT_CAPACITY} texts.
+   */
+  public void setTextCache(TextRasterCache textCache) {
+    this.textCache = textCache;
+  }
+
   @Override
   public void applyViewport() {
     Graphics g = null;
@@ -176,7 +333,7 @@ public class GL extends jgl.GL<BufferedImage, Font> {
     } else {
       resetPixelScale();
       if (!renderedOnce) {
-        firePixelScaleChanged(1, 1);
+        firePixelScaleChanged(pixelScaleX, pixelScaleY);
         renderedOnce = true;
       }
     }
@@ -199,11 +356,11 @@ public class GL extends jgl.GL<BufferedImage, Font> {
   }
 
   protected double getPixelScaleX(AffineTransform globalTransform) {
-    return globalTransform.getScaleX();
+    return globalTransform.getScaleX() * renderScale;
   }
 
   protected double getPixelScaleY(AffineTransform globalTransform) {
-    return globalTransform.getScaleY();
+    return globalTransform.getScaleY() * renderScale;
   }
 
 
@@ -257,8 +414,18 @@ public class GL extends jgl.GL<BufferedImage, Font> {
   }
 
   protected void drawImages(Graphics2D g2d, ImageLayer layer) {
+    drawImages(g2d, layer, false);
+  }
+
+  /**
+   * Draw images of the given layer, from the last appended to the first if reverse is true, which
+   * allows stacking them as usual when drawing with {@link AlphaComposite#DstOver}.
+   */
+  protected void drawImages(Graphics2D g2d, ImageLayer layer, boolean reverse) {
     synchronized (imageToDraw) {
-      for (ImageToDraw<BufferedImage> img : imageToDraw) {
+      int n = imageToDraw.size();
+      for (int i = 0; i < n; i++) {
+        ImageToDraw<BufferedImage> img = imageToDraw.get(reverse ? n - 1 - i : i);
         if (img.layer == null || img.layer.equals(layer)) {
           g2d.drawImage(img.image, img.x + shiftHorizontally, img.y, null);
         }
@@ -272,9 +439,18 @@ public class GL extends jgl.GL<BufferedImage, Font> {
    * @param g2d
    */
   protected void drawTexts(Graphics2D g2d) {
+    drawTexts(g2d, false);
+  }
+
+  /**
+   * Renders appended text to given {@link Graphics2D} context, from the last appended to the first
+   * if reverse is true.
+   */
+  protected void drawTexts(Graphics2D g2d, boolean reverse) {
     synchronized (textsToDraw) {
-      for (TextToDraw<Font> text : textsToDraw) {
-        doDrawString(g2d, text);
+      int n = textsToDraw.size();
+      for (int i = 0; i < n; i++) {
+        doDrawString(g2d, textsToDraw.get(reverse ? n - 1 - i : i));
       }
       textsToDraw.clear(); // empty text buffer
     }
@@ -283,16 +459,19 @@ public class GL extends jgl.GL<BufferedImage, Font> {
   protected void doDrawString(Graphics2D g2d, TextToDraw<Font> text) {
     
     // Coloring
-    if (text.r >= 0) {
-      g2d.setColor(new Color(text.r, text.g, text.b));
-    } else {
-      g2d.setColor(Color.BLACK);
-    }
+    Color color = text.r >= 0 ? new Color(text.r, text.g, text.b) : Color.BLACK;
+    g2d.setColor(color);
     
     // Position
     int x = text.x + shiftHorizontally;
     int y = text.y;
     
+    // Composite the cached raster of unrotated texts
+    if (textCache != null && text.rotate == 0) {
+      textCache.drawString(g2d, text.font, text.string, color, useOSFontRendering, x, y);
+      return;
+    }
+    
     // Get text width
     int textWidth = 0;
     g2d.setFont(text.font);
@@ -0,0 +1,178 @@
+package jgl.wt.awt;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keep the rasters of the most recently drawn strings, so that a string drawn again with the same
+ * font and color is composited from its raster instead of being laid out and rasterized again.
+ *
+ * Strings are identified by their font, text, color and rendering mode. When the cache holds more
+ * than {@link #getCapacity()} strings, the least recently drawn one is evicted.
+ *
+ * Rasters are made with the {@link FontRenderContext} of the graphics they are first drawn to, and
+ * are meant to be drawn on graphics that only translate, hence this cache is not used for rotated
+ * texts.
+ */
+public class TextRasterCache {
+  public static final int DEFAULT_CAPACITY = 512;
+
+  protected int capacity;
+  protected Map<Key, TextRaster> rasters;
+
+  protected long hits = 0;
+  protected long misses = 0;
+
+  public TextRasterCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public TextRasterCache(int capacity) {
+    if (capacity < 1)
+      throw new IllegalArgumentException("Capacity must be positive : " + capacity);
+
+    this.capacity = capacity;
+    this.rasters = new LinkedHashMap<Key, TextRaster>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, TextRaster> eldest) {
+        return size() > TextRasterCache.this.capacity;
+      }
+    };
+  }
+
+  /**
+   * Draw the string with its baseline starting at (x,y) in the user space of the given graphics,
+   * rasterizing it first if it is not cached.
+   */
+  public synchronized void drawString(Graphics2D g2d, Font font, String string, Color color,
+      boolean useOSFontRendering, int x, int y) {
+    TextRaster raster = get(g2d, font, string, color, useOSFontRendering);
+
+    if (raster.image != null)
+      g2d.drawImage(raster.image, x + raster.x, y + raster.y, null);
+  }
+
+  protected TextRaster get(Graphics2D g2d, Font font, String string, Color color,
+      boolean useOSFontRendering) {
+    Key key = new Key(font, string, color.getRGB(), useOSFontRendering);
+    TextRaster raster = rasters.get(key);
+
+    if (raster == null) {
+      raster = rasterize(g2d.getFontRenderContext(), font, string, color, useOSFontRendering);
+      rasters.put(key, raster);
+      misses++;
+    } else {
+      hits++;
+    }
+    return raster;
+  }
+
+  protected TextRaster rasterize(FontRenderContext frc, Font font, String string, Color color,
+      boolean useOSFontRendering) {
+    GlyphVector gv = font.createGlyphVector(frc, string);
+    Rectangle bounds = gv.getPixelBounds(frc, 0, 0);
+
+    if (bounds.isEmpty())
+      return new TextRaster(null, 0, 0);
+
+    // margin for antialiasing bleeding outside of pixel bounds
+    bounds.grow(1, 1);
+
+    BufferedImage image =
+        new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+        frc.isAntiAliased() ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON
+            : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+    g.setColor(color);
+    g.setFont(font);
+    g.translate(-bounds.x, -bounds.y);
+
+    if (useOSFontRendering) {
+      g.drawString(string, 0, 0);
+    } else {
+      g.drawGlyphVector(gv, 0, 0);
+    }
+    g.dispose();
+
+    return new TextRaster(image, bounds.x, bounds.y);
+  }
+
+  public synchronized void clear() {
+    rasters.clear();
+  }
+
+  public synchronized int size() {
+    return rasters.size();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /** Number of strings drawn from their cached raster. */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /** Number of strings that had to be rasterized. */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /* */
+
+  /** The raster of a string, and its offset to the left point of the string baseline. */
+  protected static class TextRaster {
+    protected final BufferedImage image;
+    protected final int x;
+    protected final int y;
+
+    public TextRaster(BufferedImage image, int x, int y) {
+      this.image = image;
+      this.x = x;
+      this.y = y;
+    }
+  }
+
+  protected static class Key {
+    protected final Font font;
+    protected final String string;
+    protected final int rgb;
+    protected final boolean useOSFontRendering;
+
+    public Key(Font font, String string, int rgb, boolean useOSFontRendering) {
+      this.font = font;
+      this.string = string;
+      this.rgb = rgb;
+      this.useOSFontRendering = useOSFontRendering;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(font, string, rgb, useOSFontRendering);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (!(obj instanceof Key))
+        return false;
+      Key other = (Key) obj;
+      return rgb == other.rgb && useOSFontRendering == other.useOSFontRendering
+          && font.equals(other.font) && string.equals(other.string);
+    }
+  }
+}
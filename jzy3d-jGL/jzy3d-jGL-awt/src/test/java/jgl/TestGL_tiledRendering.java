@@ -0,0 +1,173 @@
+package jgl;
+
+import java.awt.Canvas;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestGL_tiledRendering {
+  int WIDTH = 301;
+  int HEIGHT = 203;
+
+  @Test
+  public void whenRenderingByTiles_ThenBuffersAreIdenticalToSingleThreadedRendering() {
+    for (boolean smooth : new boolean[] {true, false}) {
+      for (boolean depth : new boolean[] {true, false}) {
+        for (boolean blend : new boolean[] {true, false}) {
+          jgl.wt.awt.GL reference = render(1, smooth, depth, blend);
+          jgl.wt.awt.GL tiled = render(4, smooth, depth, blend);
+
+          String mode = " smooth:" + smooth + " depth:" + depth + " blend:" + blend;
+          Assert.assertArrayEquals("color" + mode, reference.getContext().ColorBuffer.Buffer,
+              tiled.getContext().ColorBuffer.Buffer);
+          Assert.assertArrayEquals("depth" + mode, reference.getContext().DepthBuffer.Buffer,
+              tiled.getContext().DepthBuffer.Buffer, 0);
+
+          tiled.setTiledRenderingThreads(1);
+          Assert.assertEquals(1, tiled.getTiledRenderingThreads());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void whenStateIsUnchangedOrKeptByPrimitives_ThenQueueIsNotFlushed() {
+    jgl.wt.awt.GL gl = new jgl.wt.awt.GL();
+    Canvas canvas = new Canvas();
+    canvas.setSize(WIDTH, HEIGHT);
+    gl.setAutoAdaptToHiDPI(false);
+    gl.glXMakeCurrent(canvas, 0, 0);
+    gl.glViewport(0, 0, WIDTH, HEIGHT);
+    gl.setTiledRenderingThreads(2);
+    gl.glEnable(GL.GL_DEPTH_TEST);
+
+    gl.glBegin(GL.GL_TRIANGLES);
+    vertex(gl, -0.9f, -0.9f);
+    vertex(gl, 0.9f, -0.5f);
+    vertex(gl, 0f, 0.9f);
+    gl.glEnd();
+    Assert.assertEquals(1, gl.getPointer().tiles.getQueuedPrimitives());
+
+    // When setting state that is unchanged, not read by queued primitives, or kept by them
+    gl.glLineWidth(3);
+    gl.glPolygonMode(GL.GL_FRONT_AND_BACK, GL.GL_LINE);
+    gl.glEnable(GL.GL_CULL_FACE);
+    gl.glCullFace(GL.GL_FRONT);
+    gl.glDepthFunc(GL.GL_LESS);
+    gl.glDepthMask(true);
+    gl.glBlendFunc(GL.GL_ONE, GL.GL_ZERO);
+    gl.glEnable(GL.GL_BLEND);
+    gl.glColorMask(true, true, true, true);
+    Assert.assertEquals(1, gl.getPointer().tiles.getQueuedPrimitives());
+
+    // When changing state read by queued primitives
+    gl.glDepthFunc(GL.GL_ALWAYS);
+    Assert.assertEquals(0, gl.getPointer().tiles.getQueuedPrimitives());
+
+    gl.setTiledRenderingThreads(1);
+  }
+
+  protected jgl.wt.awt.GL render(int threads, boolean smooth, boolean depth, boolean blend) {
+    Canvas canvas = new Canvas();
+    canvas.setSize(WIDTH, HEIGHT);
+
+    jgl.wt.awt.GL gl = new jgl.wt.awt.GL();
+    gl.setAutoAdaptToHiDPI(false);
+    gl.glXMakeCurrent(canvas, 0, 0);
+    gl.glViewport(0, 0, WIDTH, HEIGHT);
+    gl.setTiledRenderingThreads(threads);
+
+    if (threads > 1)
+      gl.getPointer().tiles.setTileHeight(7);
+
+    gl.glMatrixMode(GL.GL_PROJECTION);
+    gl.glLoadIdentity();
+    gl.glOrtho(-1, 1, -1, 1, -10, 10);
+    gl.glMatrixMode(GL.GL_MODELVIEW);
+    gl.glLoadIdentity();
+    gl.glRotatef(30, 1, 0, 0);
+    gl.glRotatef(20, 0, 0, 1);
+
+    if (depth)
+      gl.glEnable(GL.GL_DEPTH_TEST);
+    gl.glShadeModel(smooth ? GL.GL_SMOOTH : GL.GL_FLAT);
+    if (blend) {
+      gl.glEnable(GL.GL_BLEND);
+      gl.glBlendFunc(GL.GL_SRC_ALPHA, GL.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    gl.glClearColor(1, 1, 1, 1);
+    gl.glClear(GL.GL_COLOR_BUFFER_BIT | GL.GL_DEPTH_BUFFER_BIT);
+
+    int steps = 30;
+    float cell = 2.4f / steps;
+
+    // overlapping faces, some of them crossing the buffer borders
+    gl.glPolygonMode(GL.GL_FRONT_AND_BACK, GL.GL_FILL);
+    gl.glBegin(GL.GL_QUADS);
+    for (int i = 0; i < steps; i++) {
+      for (int j = 0; j < steps; j++) {
+        float x = -1.2f + i * cell;
+        float y = -1.2f + j * cell;
+        vertex(gl, x, y);
+        vertex(gl, x + cell * 1.5f, y);
+        vertex(gl, x + cell * 1.5f, y + cell * 1.5f);
+        vertex(gl, x, y + cell * 1.5f);
+      }
+    }
+    gl.glEnd();
+
+    // a state change between primitives
+    gl.glLineWidth(1);
+
+    // wireframe
+    for (int i = 0; i < steps; i += 3) {
+      gl.glBegin(GL.GL_LINE_STRIP);
+      for (int j = 0; j < steps; j++) {
+        vertex(gl, -1.2f + i * cell, -1.2f + j * cell);
+      }
+      gl.glEnd();
+    }
+
+    // polygons drawn as lines
+    gl.glPolygonMode(GL.GL_FRONT_AND_BACK, GL.GL_LINE);
+    gl.glBegin(GL.GL_TRIANGLES);
+    vertex(gl, -0.9f, -0.9f);
+    vertex(gl, 0.9f, -0.5f);
+    vertex(gl, 0f, 0.9f);
+    gl.glEnd();
+
+    // state set around each polygon, as drawables do, changing some of it
+    gl.glPolygonMode(GL.GL_FRONT_AND_BACK, GL.GL_FILL);
+    for (int i = 0; i < steps; i += 4) {
+      gl.glLineWidth(2);
+      gl.glDepthMask(i % 8 == 0);
+      if (i % 12 == 0)
+        gl.glEnable(GL.GL_CULL_FACE);
+      else
+        gl.glDisable(GL.GL_CULL_FACE);
+      gl.glPolygonMode(GL.GL_FRONT_AND_BACK, i % 8 == 4 ? GL.GL_LINE : GL.GL_FILL);
+
+      gl.glBegin(GL.GL_QUADS);
+      float x = -1f + i * cell;
+      vertex(gl, x, -0.2f);
+      vertex(gl, x + cell * 3, -0.2f);
+      vertex(gl, x + cell * 3, 0.2f);
+      vertex(gl, x, 0.2f);
+      gl.glEnd();
+    }
+
+    // points are drawn immediately
+    gl.glBegin(GL.GL_POINTS);
+    vertex(gl, 0.1f, 0.1f);
+    gl.glEnd();
+
+    gl.glFlush();
+    return gl;
+  }
+
+  protected void vertex(GL gl, float x, float y) {
+    float z = (float) (0.3 * Math.sin(4 * x) * Math.cos(4 * y));
+    gl.glColor4f(0.5f + x / 3, 0.5f + y / 3, 0.5f + z, 0.6f);
+    gl.glVertex3f(x, y, z);
+  }
+}
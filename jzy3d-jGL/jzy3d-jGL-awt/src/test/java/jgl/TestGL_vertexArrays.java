@@ -0,0 +1,200 @@
+package jgl;
+
+import java.awt.Canvas;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestGL_vertexArrays {
+  int WIDTH = 100;
+  int HEIGHT = 80;
+
+  // 2x2 quads grid, as 9 vertices
+  float[] vertices = new float[27];
+  float[] colors = new float[36];
+  int[] quads = {0, 1, 4, 3, 1, 2, 5, 4, 3, 4, 7, 6, 4, 5, 8, 7};
+
+  public TestGL_vertexArrays() {
+    for (int i = 0; i < 9; i++) {
+      vertices[i * 3] = -0.9f + 0.9f * (i % 3);
+      vertices[i * 3 + 1] = -0.9f + 0.9f * (i / 3);
+      vertices[i * 3 + 2] = 0.1f * i;
+
+      colors[i * 4] = (i % 3) / 2f;
+      colors[i * 4 + 1] = (i / 3) / 2f;
+      colors[i * 4 + 2] = 1 - i / 8f;
+      colors[i * 4 + 3] = 1;
+    }
+  }
+
+  @Test
+  public void whenDrawingElements_ThenBufferIsIdenticalToImmediateMode() {
+    jgl.wt.awt.GL immediate = newGL();
+    immediate.glBegin(GL.GL_QUADS);
+    for (int index : quads) {
+      immediate.glColor4f(colors[index * 4], colors[index * 4 + 1], colors[index * 4 + 2],
+          colors[index * 4 + 3]);
+      immediate.glVertex3f(vertices[index * 3], vertices[index * 3 + 1], vertices[index * 3 + 2]);
+    }
+    immediate.glEnd();
+
+    jgl.wt.awt.GL arrays = newGL();
+    arrays.glEnableClientState(GL.GL_VERTEX_ARRAY);
+    arrays.glEnableClientState(GL.GL_COLOR_ARRAY);
+    arrays.glVertexPointer(3, GL.GL_FLOAT, 0, FloatBuffer.wrap(vertices));
+    arrays.glColorPointer(4, GL.GL_FLOAT, 0, FloatBuffer.wrap(colors));
+    arrays.glDrawElements(GL.GL_QUADS, quads.length, GL.GL_UNSIGNED_INT, IntBuffer.wrap(quads));
+
+    Assert.assertEquals(GL.GL_NO_ERROR, arrays.getContext().ErrorValue);
+    Assert.assertArrayEquals(immediate.getContext().ColorBuffer.Buffer,
+        arrays.getContext().ColorBuffer.Buffer);
+    Assert.assertArrayEquals(immediate.getContext().DepthBuffer.Buffer,
+        arrays.getContext().DepthBuffer.Buffer, 0);
+  }
+
+  @Test
+  public void whenDrawingInterleavedArrays_ThenBufferIsIdenticalToSeparateArrays() {
+    // Given the vertices of the quads, without indices
+    float[] separateVertices = new float[quads.length * 3];
+    float[] separateColors = new float[quads.length * 4];
+
+    // interleaved as padding, x, y, z, r, g, b, a
+    float[] interleaved = new float[1 + quads.length * 7];
+
+    for (int i = 0; i < quads.length; i++) {
+      System.arraycopy(vertices, quads[i] * 3, separateVertices, i * 3, 3);
+      System.arraycopy(colors, quads[i] * 4, separateColors, i * 4, 4);
+      System.arraycopy(vertices, quads[i] * 3, interleaved, 1 + i * 7, 3);
+      System.arraycopy(colors, quads[i] * 4, interleaved, 1 + i * 7 + 3, 4);
+    }
+
+    jgl.wt.awt.GL separate = newGL();
+    separate.glEnableClientState(GL.GL_VERTEX_ARRAY);
+    separate.glEnableClientState(GL.GL_COLOR_ARRAY);
+    separate.glVertexPointer(3, GL.GL_FLOAT, 0, FloatBuffer.wrap(separateVertices));
+    separate.glColorPointer(4, GL.GL_FLOAT, 0, FloatBuffer.wrap(separateColors));
+    separate.glDrawArrays(GL.GL_QUADS, 0, quads.length);
+
+    jgl.wt.awt.GL interleave = newGL();
+    FloatBuffer buffer = FloatBuffer.wrap(interleaved);
+    interleave.glEnableClientState(GL.GL_VERTEX_ARRAY);
+    interleave.glEnableClientState(GL.GL_COLOR_ARRAY);
+    buffer.position(1);
+    interleave.glVertexPointer(3, GL.GL_FLOAT, 7 * 4, buffer);
+    buffer.position(4);
+    interleave.glColorPointer(4, GL.GL_FLOAT, 7 * 4, buffer);
+    interleave.glDrawArrays(GL.GL_QUADS, 0, quads.length);
+
+    Assert.assertArrayEquals(separate.getContext().ColorBuffer.Buffer,
+        interleave.getContext().ColorBuffer.Buffer);
+  }
+
+  @Test
+  public void whenDrawingArraysInDisplayList_ThenArraysAreCompiled() {
+    jgl.wt.awt.GL direct = newGL();
+    direct.glEnableClientState(GL.GL_VERTEX_ARRAY);
+    direct.glEnableClientState(GL.GL_COLOR_ARRAY);
+    direct.glVertexPointer(3, GL.GL_FLOAT, 0, FloatBuffer.wrap(vertices));
+    direct.glColorPointer(4, GL.GL_FLOAT, 0, FloatBuffer.wrap(colors));
+    direct.glDrawElements(GL.GL_QUADS, quads.length, GL.GL_UNSIGNED_INT, IntBuffer.wrap(quads));
+
+    jgl.wt.awt.GL list = newGL();
+    FloatBuffer v = FloatBuffer.wrap(vertices.clone());
+    list.glEnableClientState(GL.GL_VERTEX_ARRAY);
+    list.glEnableClientState(GL.GL_COLOR_ARRAY);
+    list.glVertexPointer(3, GL.GL_FLOAT, 0, v);
+    list.glColorPointer(4, GL.GL_FLOAT, 0, FloatBuffer.wrap(colors));
+
+    int id = list.glGenLists(1);
+    list.glNewList(id, GL.GL_COMPILE);
+    list.glDrawElements(GL.GL_QUADS, quads.length, GL.GL_UNSIGNED_INT, IntBuffer.wrap(quads));
+    list.glEndList();
+
+    // Changing the arrays after compilation does not change the list
+    for (int i = 0; i < vertices.length; i++)
+      v.put(i, 0);
+
+    list.glCallList(id);
+
+    Assert.assertArrayEquals(direct.getContext().ColorBuffer.Buffer,
+        list.getContext().ColorBuffer.Buffer);
+  }
+
+  @Test
+  public void whenGivenInvalidArguments_ThenErrorIsRaised() {
+    jgl.wt.awt.GL gl = newGL();
+
+    assertError(() -> gl.glEnableClientState(GL.GL_TEXTURE_2D));
+    assertError(() -> gl.glVertexPointer(5, GL.GL_FLOAT, 0, FloatBuffer.wrap(vertices)));
+    assertError(() -> gl.glVertexPointer(3, GL.GL_FLOAT, 6, FloatBuffer.wrap(vertices)));
+    assertError(() -> gl.glColorPointer(4, GL.GL_INT, 0, FloatBuffer.wrap(colors)));
+    assertError(() -> gl.glDrawArrays(GL.GL_TEXTURE_2D, 0, 3));
+    assertError(() -> gl.glDrawArrays(GL.GL_TRIANGLES, 0, -1));
+
+    gl.glBegin(GL.GL_TRIANGLES);
+    assertError(() -> gl.glDrawArrays(GL.GL_TRIANGLES, 0, 3));
+  }
+
+  @Test
+  public void whenEnabledArrayHasNullPointer_ThenInvalidOperationIsRaised() {
+    jgl.wt.awt.GL gl = newGL();
+    gl.getContext().setThrowExceptionOnGLError(false);
+
+    gl.glEnableClientState(GL.GL_VERTEX_ARRAY);
+    gl.glEnableClientState(GL.GL_COLOR_ARRAY);
+    gl.glVertexPointer(3, GL.GL_FLOAT, 0, FloatBuffer.wrap(vertices));
+
+    // When drawing while the color array is enabled without pointer
+    gl.glDrawArrays(GL.GL_QUADS, 0, 4);
+    Assert.assertEquals(GL.GL_INVALID_OPERATION, gl.getContext().ErrorValue);
+
+    gl.getContext().ErrorValue = GL.GL_NO_ERROR;
+    gl.glDrawElements(GL.GL_QUADS, quads.length, GL.GL_UNSIGNED_INT, IntBuffer.wrap(quads));
+    Assert.assertEquals(GL.GL_INVALID_OPERATION, gl.getContext().ErrorValue);
+
+    gl.getContext().ErrorValue = GL.GL_NO_ERROR;
+    gl.glBegin(GL.GL_QUADS);
+    gl.glArrayElement(0);
+    gl.glEnd();
+    Assert.assertEquals(GL.GL_INVALID_OPERATION, gl.getContext().ErrorValue);
+
+    // When disabling the array without pointer, then drawing succeeds
+    gl.getContext().ErrorValue = GL.GL_NO_ERROR;
+    gl.glDisableClientState(GL.GL_COLOR_ARRAY);
+    gl.glDrawArrays(GL.GL_QUADS, 0, 4);
+    Assert.assertEquals(GL.GL_NO_ERROR, gl.getContext().ErrorValue);
+  }
+
+  protected void assertError(Runnable glCall) {
+    try {
+      glCall.run();
+      Assert.fail("an error should have been raised");
+    } catch (RuntimeException e) {
+      // expected, as jGL throws exceptions on GL errors
+    }
+  }
+
+  protected jgl.wt.awt.GL newGL() {
+    Canvas canvas = new Canvas();
+    canvas.setSize(WIDTH, HEIGHT);
+
+    jgl.wt.awt.GL gl = new jgl.wt.awt.GL();
+    gl.setAutoAdaptToHiDPI(false);
+    gl.glXMakeCurrent(canvas, 0, 0);
+    gl.glViewport(0, 0, WIDTH, HEIGHT);
+
+    gl.glMatrixMode(GL.GL_PROJECTION);
+    gl.glLoadIdentity();
+    gl.glOrtho(-1, 1, -1, 1, -10, 10);
+    gl.glMatrixMode(GL.GL_MODELVIEW);
+    gl.glLoadIdentity();
+    gl.glRotatef(20, 1, 0, 0);
+
+    gl.glEnable(GL.GL_DEPTH_TEST);
+    gl.glShadeModel(GL.GL_SMOOTH);
+    gl.glClearColor(1, 1, 1, 1);
+    gl.glClear(GL.GL_COLOR_BUFFER_BIT | GL.GL_DEPTH_BUFFER_BIT);
+    return gl;
+  }
+}
@@ -0,0 +1,137 @@
+package jgl.wt.awt;
+
+import java.awt.Canvas;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestGL_renderScale {
+  int WIDTH = 200;
+  int HEIGHT = 100;
+
+  @Test
+  public void whenRenderScaleIsSet_ThenActualSizeAndPixelScaleFollow() {
+    GL gl = newGL();
+    List<Double> scales = new ArrayList<>();
+    gl.addPixelScaleListener((x, y) -> scales.add(x));
+
+    gl.setRenderScale(0.5);
+    gl.glViewport(0, 0, WIDTH, HEIGHT);
+
+    Assert.assertEquals(WIDTH, gl.getDesiredWidth());
+    Assert.assertEquals(WIDTH / 2, gl.getActualWidth());
+    Assert.assertEquals(HEIGHT / 2, gl.getActualHeight());
+    Assert.assertEquals(0.5, gl.getPixelScaleX(), 0);
+    Assert.assertEquals(0.5, scales.get(scales.size() - 1), 0);
+
+    // supersampling
+    gl.setRenderScale(2);
+    gl.applyViewport();
+
+    Assert.assertEquals(WIDTH * 2, gl.getActualWidth());
+    Assert.assertEquals(HEIGHT * 2, gl.getActualHeight());
+    Assert.assertEquals(2, scales.get(scales.size() - 1), 0);
+  }
+
+  @Test
+  public void whenKeepingBufferCapacity_ThenBuffersAreReusedAtAnyScale() {
+    GL gl = newGL();
+    gl.glViewport(0, 0, WIDTH, HEIGHT);
+    gl.setKeepBufferCapacity(true);
+
+    int[] color = gl.getContext().ColorBuffer.Buffer;
+    float[] depth = gl.getContext().DepthBuffer.Buffer;
+    int[] stencil = gl.getContext().StencilBuffer.Buffer;
+
+    for (double scale : new double[] {0.5, 0.25, 1, 0.5}) {
+      gl.setRenderScale(scale);
+      gl.applyViewport();
+
+      Assert.assertSame(color, gl.getContext().ColorBuffer.Buffer);
+      Assert.assertSame(depth, gl.getContext().DepthBuffer.Buffer);
+      Assert.assertSame(stencil, gl.getContext().StencilBuffer.Buffer);
+      Assert.assertEquals((int) (WIDTH * scale * HEIGHT * scale),
+          gl.getContext().Viewport.Size);
+    }
+
+    // Then an image is produced at the reduced size
+    gl.glFlush();
+    Assert.assertEquals(WIDTH / 2, gl.getRenderedImage().getWidth());
+    Assert.assertEquals(HEIGHT / 2, gl.getRenderedImage().getHeight());
+
+    // Then buffers grow when needed
+    gl.setRenderScale(2);
+    gl.applyViewport();
+    Assert.assertEquals(WIDTH * 2 * HEIGHT * 2, gl.getContext().ColorBuffer.Buffer.length);
+
+    // Then buffers are reallocated to the exact size without capacity
+    gl.setKeepBufferCapacity(false);
+    gl.setRenderScale(1);
+    gl.applyViewport();
+    Assert.assertEquals(WIDTH * HEIGHT, gl.getContext().ColorBuffer.Buffer.length);
+  }
+
+  @Test
+  public void whenCancelled_ThenPrimitivesBegunAfterAreSkipped() {
+    GL gl = newGL();
+    gl.glViewport(0, 0, WIDTH, HEIGHT);
+    gl.glClearColor(1, 1, 1, 1);
+    gl.glClear(GL.GL_COLOR_BUFFER_BIT);
+    int clear = gl.getContext().ColorBuffer.Buffer[0];
+
+    gl.glMatrixMode(GL.GL_PROJECTION);
+    gl.glLoadIdentity();
+    gl.glOrtho(-1, 1, -1, 1, -10, 10);
+    gl.glMatrixMode(GL.GL_MODELVIEW);
+    gl.glLoadIdentity();
+    gl.glPolygonMode(GL.GL_FRONT_AND_BACK, GL.GL_FILL);
+
+    // a primitive in progress completes
+    gl.glColor3f(1, 0, 0);
+    gl.glBegin(GL.GL_QUADS);
+    gl.glVertex3f(-1, -1, 0);
+    gl.setCancelled(true);
+    gl.glVertex3f(0, -1, 0);
+    gl.glVertex3f(0, 1, 0);
+    gl.glVertex3f(-1, 1, 0);
+    gl.glEnd();
+
+    // the next ones are skipped
+    gl.glBegin(GL.GL_QUADS);
+    gl.glVertex3f(0, -1, 0);
+    gl.glVertex3f(1, -1, 0);
+    gl.glVertex3f(1, 1, 0);
+    gl.glVertex3f(0, 1, 0);
+    gl.glEnd();
+
+    gl.glFlush();
+    Assert.assertNotEquals(clear, pixel(gl, WIDTH / 4, HEIGHT / 2));
+    Assert.assertEquals(clear, pixel(gl, WIDTH * 3 / 4, HEIGHT / 2));
+
+    // Then rendering works again once the flag is reset
+    gl.setCancelled(false);
+    gl.glBegin(GL.GL_QUADS);
+    gl.glVertex3f(0, -1, 0);
+    gl.glVertex3f(1, -1, 0);
+    gl.glVertex3f(1, 1, 0);
+    gl.glVertex3f(0, 1, 0);
+    gl.glEnd();
+    gl.glFlush();
+    Assert.assertNotEquals(clear, pixel(gl, WIDTH * 3 / 4, HEIGHT / 2));
+  }
+
+  protected int pixel(GL gl, int x, int y) {
+    return gl.getContext().ColorBuffer.Buffer[y * WIDTH + x];
+  }
+
+  protected GL newGL() {
+    Canvas canvas = new Canvas();
+    canvas.setSize(WIDTH, HEIGHT);
+
+    GL gl = new GL();
+    gl.setAutoAdaptToHiDPI(false);
+    gl.glXMakeCurrent(canvas, 0, 0);
+    return gl;
+  }
+}
@@ -0,0 +1,175 @@
+package jgl.wt.awt;
+
+import java.awt.Canvas;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import org.junit.Assert;
+import org.junit.Test;
+import jgl.GL.ImageLayer;
+
+public class TestGL_zeroCopyFlush {
+  int WIDTH = 120;
+  int HEIGHT = 80;
+
+  @Test
+  public void whenFlushingWithoutCopy_ThenImageIsIdenticalToCopiedImage() {
+    GL copying = render(false);
+    GL zeroCopy = render(true);
+
+    BufferedImage expected = copying.getRenderedImage();
+    BufferedImage actual = zeroCopy.getRenderedImage();
+
+    Assert.assertEquals(expected.getWidth(), actual.getWidth());
+    Assert.assertEquals(expected.getHeight(), actual.getHeight());
+
+    for (int x = 0; x < WIDTH; x++) {
+      for (int y = 0; y < HEIGHT; y++) {
+        assertSameColor("pixel " + x + "," + y, expected.getRGB(x, y), actual.getRGB(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void whenFlushingOverlappingBackgroundsWithoutCopy_ThenLastAppendedImageIsOnTop() {
+    GL copying = renderOverlappingBackgrounds(false);
+    GL zeroCopy = renderOverlappingBackgrounds(true);
+
+    BufferedImage expected = copying.getRenderedImage();
+    BufferedImage actual = zeroCopy.getRenderedImage();
+
+    // the second image covers the first one where they overlap
+    Assert.assertEquals(0xFF0000FF, expected.getRGB(45, 35));
+
+    for (int x = 0; x < WIDTH; x++) {
+      for (int y = 0; y < HEIGHT; y++) {
+        Assert.assertEquals("pixel " + x + "," + y, expected.getRGB(x, y), actual.getRGB(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void whenFlushingWithoutCopy_ThenImageIsBackedByFlushedColorBufferAndReused() {
+    GL gl = render(true);
+
+    BufferedImage image = gl.getRenderedImage();
+    int displayed = image.getRGB(0, 0);
+
+    // Then the next frame renders into another color buffer, without altering the displayed image
+    gl.glViewport(0, 0, WIDTH, HEIGHT);
+    int[] next = gl.getContext().ColorBuffer.Buffer;
+    next[0] = 0xFF123456;
+    Assert.assertEquals(displayed, image.getRGB(0, 0));
+
+    // Then flushing presents the rendered buffer
+    gl.glFlush();
+    BufferedImage nextImage = gl.getRenderedImage();
+    Assert.assertNotSame(image, nextImage);
+    Assert.assertEquals(0xFF123456, nextImage.getRGB(0, 0));
+    Assert.assertEquals(displayed, image.getRGB(0, 0));
+    Assert.assertNotSame(next, gl.getContext().ColorBuffer.Buffer);
+
+    // Then the two buffers and their images are reused alternately
+    BufferedImage snapshot = gl.getRenderedImageSnapshot();
+    Assert.assertNotSame(nextImage, snapshot);
+    gl.getContext().ColorBuffer.Buffer[0] = 0xFF654321;
+    Assert.assertEquals(0xFF123456, nextImage.getRGB(0, 0));
+    gl.glFlush();
+    Assert.assertSame(image, gl.getRenderedImage());
+    Assert.assertEquals(0xFF654321, image.getRGB(0, 0));
+    Assert.assertSame(next, gl.getContext().ColorBuffer.Buffer);
+
+    // Then a snapshot is not modified by the next frames
+    gl.getContext().ColorBuffer.Buffer[0] = 0xFF000000;
+    gl.glFlush();
+    Assert.assertEquals(0xFF123456, snapshot.getRGB(0, 0));
+
+    // Then the images are reallocated when the viewport is resized
+    gl.glViewport(0, 0, WIDTH / 2, HEIGHT / 2);
+    gl.glFlush();
+    Assert.assertNotSame(image, gl.getRenderedImage());
+    Assert.assertNotSame(nextImage, gl.getRenderedImage());
+    Assert.assertEquals(WIDTH / 2, gl.getRenderedImage().getWidth());
+    Assert.assertEquals(HEIGHT / 2, gl.getRenderedImage().getHeight());
+    Assert.assertEquals(WIDTH / 2 * HEIGHT / 2, gl.getContext().ColorBuffer.Buffer.length);
+  }
+
+  protected GL render(boolean zeroCopy) {
+    GL gl = renderScene(zeroCopy);
+
+    gl.appendImageToDraw(image(0x8000FF00, 50, 40), 10, 10, ImageLayer.BACKGROUND);
+    gl.appendImageToDraw(image(0xFFFFFF00, 40, 20), 60, 50, ImageLayer.BACKGROUND);
+    gl.appendImageToDraw(image(0x40FF00FF, 30, 30), 40, 30, ImageLayer.FOREGROUND);
+
+    gl.glFlush();
+    return gl;
+  }
+
+  /** Two opaque background images overlapping each other, and partly covered by the scene. */
+  protected GL renderOverlappingBackgrounds(boolean zeroCopy) {
+    GL gl = renderScene(zeroCopy);
+
+    gl.appendImageToDraw(image(0xFFFF0000, 50, 40), 0, 0, ImageLayer.BACKGROUND);
+    gl.appendImageToDraw(image(0xFF0000FF, 50, 40), 30, 20, ImageLayer.BACKGROUND);
+
+    gl.glFlush();
+    return gl;
+  }
+
+  protected GL renderScene(boolean zeroCopy) {
+    Canvas canvas = new Canvas();
+    canvas.setSize(WIDTH, HEIGHT);
+
+    GL gl = new GL();
+    gl.setAutoAdaptToHiDPI(false);
+    gl.setZeroCopyFlush(zeroCopy);
+    gl.glXMakeCurrent(canvas, 0, 0);
+    gl.glViewport(0, 0, WIDTH, HEIGHT);
+
+    gl.glMatrixMode(GL.GL_PROJECTION);
+    gl.glLoadIdentity();
+    gl.glOrtho(-1, 1, -1, 1, -10, 10);
+    gl.glMatrixMode(GL.GL_MODELVIEW);
+    gl.glLoadIdentity();
+
+    gl.glEnable(GL.GL_BLEND);
+    gl.glBlendFunc(GL.GL_SRC_ALPHA, GL.GL_ONE_MINUS_SRC_ALPHA);
+
+    // transparent clear color to let background overlays appear
+    gl.glClearColor(1, 1, 1, 0);
+    gl.glClear(GL.GL_COLOR_BUFFER_BIT | GL.GL_DEPTH_BUFFER_BIT);
+
+    gl.glBegin(GL.GL_QUADS);
+    gl.glColor4f(1, 0, 0, 1);
+    quad(gl, -0.8f, -0.8f, 0.8f);
+    gl.glColor4f(0, 0, 1, 0.5f);
+    quad(gl, -0.2f, -0.2f, 0.9f);
+    gl.glEnd();
+    return gl;
+  }
+
+  protected void quad(GL gl, float x, float y, float size) {
+    gl.glVertex3f(x, y, 0);
+    gl.glVertex3f(x + size, y, 0);
+    gl.glVertex3f(x + size, y + size, 0);
+    gl.glVertex3f(x, y + size, 0);
+  }
+
+  protected BufferedImage image(int argb, int width, int height) {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    g.setColor(new java.awt.Color(argb, true));
+    g.fillRect(0, 0, width, height);
+    g.dispose();
+    return image;
+  }
+
+  /** Compare colors allowing a rounding error as compositing order differs. */
+  protected void assertSameColor(String message, int expected, int actual) {
+    for (int shift = 0; shift < 32; shift += 8) {
+      int e = (expected >> shift) & 0xFF;
+      int a = (actual >> shift) & 0xFF;
+      Assert.assertTrue(message + " expected:" + Integer.toHexString(expected) + " actual:"
+          + Integer.toHexString(actual), Math.abs(e - a) <= 1);
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package jgl.wt.awt;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestTextRasterCache {
+  int WIDTH = 200;
+  int HEIGHT = 80;
+  Font font = new Font("Helvetica", Font.PLAIN, 14);
+
+  @Test
+  public void whenDrawingCachedText_ThenImageIsIdenticalToRasterizedText() {
+    for (boolean zeroCopy : new boolean[] {false, true}) {
+      GL rasterizing = new GL();
+      rasterizing.setTextCache(null);
+      BufferedImage expected = render(rasterizing, zeroCopy);
+
+      GL caching = new GL();
+      render(caching, zeroCopy);
+      BufferedImage actual = render(caching, zeroCopy);
+
+      Assert.assertEquals(3, caching.getTextCache().size());
+      Assert.assertEquals(3, caching.getTextCache().getHits());
+
+      int textPixels = 0;
+      for (int x = 0; x < WIDTH; x++) {
+        for (int y = 0; y < HEIGHT; y++) {
+          assertSameColor("pixel " + x + "," + y, expected.getRGB(x, y), actual.getRGB(x, y));
+          if (expected.getRGB(x, y) != 0x00FFFFFF)
+            textPixels++;
+        }
+      }
+      Assert.assertTrue(textPixels > 0);
+    }
+  }
+
+  @Test
+  public void whenExceedingCapacity_ThenLeastRecentlyDrawnTextIsEvicted() {
+    TextRasterCache cache = new TextRasterCache(2);
+    Graphics2D g = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB).createGraphics();
+
+    cache.drawString(g, font, "a", Color.BLACK, false, 0, 0);
+    cache.drawString(g, font, "b", Color.BLACK, false, 0, 0);
+    cache.drawString(g, font, "a", Color.BLACK, false, 0, 0);
+    cache.drawString(g, font, "c", Color.BLACK, false, 0, 0);
+    Assert.assertEquals(2, cache.size());
+    Assert.assertEquals(1, cache.getHits());
+
+    // "b" was evicted, "a" was not
+    cache.drawString(g, font, "a", Color.BLACK, false, 0, 0);
+    Assert.assertEquals(2, cache.getHits());
+    cache.drawString(g, font, "b", Color.BLACK, false, 0, 0);
+    Assert.assertEquals(4, cache.getMisses());
+
+    // color is part of the key
+    cache.drawString(g, font, "b", Color.RED, false, 0, 0);
+    Assert.assertEquals(5, cache.getMisses());
+    g.dispose();
+  }
+
+  protected BufferedImage render(GL gl, boolean zeroCopy) {
+    Canvas canvas = new Canvas();
+    canvas.setSize(WIDTH, HEIGHT);
+
+    gl.setAutoAdaptToHiDPI(false);
+    gl.setZeroCopyFlush(zeroCopy);
+    gl.glXMakeCurrent(canvas, 0, 0);
+    gl.glViewport(0, 0, WIDTH, HEIGHT);
+    // transparent clear color to let texts drawn behind the scene appear
+    gl.glClearColor(1, 1, 1, 0);
+    gl.glClear(GL.GL_COLOR_BUFFER_BIT | GL.GL_DEPTH_BUFFER_BIT);
+
+    gl.appendTextToDraw(font, "-1.25", 10, 20, 1, 0, 0, 0);
+    gl.appendTextToDraw(font, "3.5E-2", 60, 40, 0, 0, 1, 0);
+    gl.appendTextToDraw(font, "Axis", 120, 60);
+
+    gl.glFlush();
+    return gl.getRenderedImageSnapshot();
+  }
+
+  /** Compare colors allowing a rounding error as the text is blended twice. */
+  protected void assertSameColor(String message, int expected, int actual) {
+    for (int shift = 0; shift < 32; shift += 8) {
+      int e = (expected >> shift) & 0xFF;
+      int a = (actual >> shift) & 0xFF;
+      Assert.assertTrue(message + " expected:" + Integer.toHexString(expected) + " actual:"
+          + Integer.toHexString(actual), Math.abs(e - a) <= 2);
+    }
+  }
+}
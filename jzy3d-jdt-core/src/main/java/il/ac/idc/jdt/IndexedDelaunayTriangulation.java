@@ -0,0 +1,659 @@
+package il.ac.idc.jdt;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * A Delaunay triangulation built at once from arrays of coordinates, for large point sets (millions
+ * of vertices) where {@link DelaunayTriangulation} is too slow and memory hungry.
+ *
+ * <ul>
+ * <li>Points are inserted in an order that keeps successive points close to each other, so that
+ * locating the triangle containing the next point only walks through a few triangles. See
+ * {@link InsertionOrder}.</li>
+ * <li>Triangles are stored in flat arrays of vertex and neighbour indices instead of
+ * {@link Triangle} objects. Triangles outside the convex hull are represented by ghost triangles
+ * sharing a vertex at infinity, so that points outside the current hull are inserted like points
+ * inside it.</li>
+ * <li>The result is given by {@link #getTriangles()} as counter clockwise triplets of indices of the
+ * input points, ready to build an indexed mesh.</li>
+ * </ul>
+ *
+ * Duplicated points and points having a NaN coordinate are ignored, i.e. not referenced by any
+ * triangle. If all points are collinear, the triangulation has no triangle.
+ *
+ * Predicates are evaluated with double precision on coordinates translated to the center of the
+ * point set, which keeps georeferenced coordinates (e.g. LIDAR data) accurate.
+ */
+public class IndexedDelaunayTriangulation {
+  /** The order in which points are inserted. */
+  public enum InsertionOrder {
+    /** Points are inserted in the order they are given. */
+    INPUT,
+    /** Points are inserted along a Hilbert curve. */
+    HILBERT,
+    /**
+     * Biased randomized insertion order : points are randomly dispatched in rounds of doubling
+     * size, and each round is sorted along a Hilbert curve. This protects against worst cases of
+     * clustered or sorted data while keeping the locality of {@link #HILBERT}.
+     */
+    BRIO
+  }
+
+  /** Vertex index of the vertex at infinity shared by all ghost triangles. */
+  public static final int INFINITE = -1;
+
+  /** Point count over which insertion order is computed in parallel, when allowed. */
+  protected static final int PARALLEL_THRESHOLD = 100000;
+
+  /** Size of the first round of {@link InsertionOrder#BRIO}. */
+  protected static final int BRIO_MIN_ROUND = 1000;
+
+  protected static final int HILBERT_ORDER = 16;
+
+  protected final double[] x;
+  protected final double[] y;
+
+  /** Vertices of triangle t in counter clockwise order at 3t, 3t+1, 3t+2 */
+  protected int[] vertices;
+  /** Neighbour of triangle t opposite to the vertex at 3t+i, at 3t+i */
+  protected int[] neighbours;
+  protected int triangleCount = 0;
+
+  protected int last = 0;
+  protected int duplicates = 0;
+  protected int seed = 0x2545F491;
+
+  /** Triangles which edge opposite to the inserted point may have to be flipped */
+  protected int[] stack = new int[64];
+  protected int stackSize = 0;
+
+  protected int[] triangles;
+
+  /**
+   * Triangulate the given points in {@link InsertionOrder#BRIO} order.
+   */
+  public IndexedDelaunayTriangulation(double[] x, double[] y) {
+    this(x, y, InsertionOrder.BRIO, true);
+  }
+
+  /**
+   * Triangulate the given points in {@link InsertionOrder#BRIO} order.
+   */
+  public IndexedDelaunayTriangulation(float[] x, float[] y) {
+    this(toDouble(x), toDouble(y), InsertionOrder.BRIO, true, false);
+  }
+
+  /**
+   * Triangulate the given points.
+   *
+   * @param order the order in which points are inserted.
+   * @param parallel if true, the insertion order of large point sets is computed on the common
+   *        fork join pool.
+   */
+  public IndexedDelaunayTriangulation(double[] x, double[] y, InsertionOrder order,
+      boolean parallel) {
+    this(x, y, order, parallel, true);
+  }
+
+  protected IndexedDelaunayTriangulation(double[] x, double[] y, InsertionOrder order,
+      boolean parallel, boolean copy) {
+    if (x.length != y.length)
+      throw new IllegalArgumentException(
+          "X and Y must have the same length : " + x.length + " != " + y.length);
+
+    this.x = copy ? x.clone() : x;
+    this.y = copy ? y.clone() : y;
+    center(this.x, this.y);
+
+    triangulate(insertionOrder(order, parallel && x.length > PARALLEL_THRESHOLD));
+  }
+
+  /* */
+
+  /**
+   * Return the triangles as counter clockwise triplets of indices of the input points.
+   */
+  public int[] getTriangles() {
+    return triangles;
+  }
+
+  /** Return the number of triangles, not counting ghost triangles. */
+  public int getTriangleCount() {
+    return triangles.length / 3;
+  }
+
+  /** Return the number of input points that were ignored because already inserted. */
+  public int getDuplicateCount() {
+    return duplicates;
+  }
+
+  /* ******************************** INSERTION ORDER ********************************/
+
+  protected int[] insertionOrder(InsertionOrder order, boolean parallel) {
+    int[] valid = IntStream.range(0, x.length)
+        .filter(i -> !Double.isNaN(x[i]) && !Double.isNaN(y[i])).toArray();
+
+    if (order == InsertionOrder.INPUT)
+      return valid;
+
+    if (order == InsertionOrder.BRIO) {
+      Random random = new Random(valid.length);
+      for (int i = valid.length - 1; i > 0; i--) {
+        int j = random.nextInt(i + 1);
+        int swap = valid[i];
+        valid[i] = valid[j];
+        valid[j] = swap;
+      }
+
+      // rounds are [n/2,n[, [n/4,n/2[, ... down to the first round
+      int end = valid.length;
+      while (end > BRIO_MIN_ROUND) {
+        int start = end / 2;
+        hilbertSort(valid, start, end, parallel);
+        end = start;
+      }
+      hilbertSort(valid, 0, end, parallel);
+    } else {
+      hilbertSort(valid, 0, valid.length, parallel);
+    }
+    return valid;
+  }
+
+  /** Sort the points in [from,to[ of order along a Hilbert curve covering their bounds. */
+  protected void hilbertSort(int[] order, int from, int to, boolean parallel) {
+    double xmin = Double.POSITIVE_INFINITY, xmax = Double.NEGATIVE_INFINITY;
+    double ymin = Double.POSITIVE_INFINITY, ymax = Double.NEGATIVE_INFINITY;
+
+    for (int i = from; i < to; i++) {
+      int p = order[i];
+      xmin = Math.min(xmin, x[p]);
+      xmax = Math.max(xmax, x[p]);
+      ymin = Math.min(ymin, y[p]);
+      ymax = Math.max(ymax, y[p]);
+    }
+
+    int cells = (1 << HILBERT_ORDER) - 1;
+    double xscale = xmax > xmin ? cells / (xmax - xmin) : 0;
+    double yscale = ymax > ymin ? cells / (ymax - ymin) : 0;
+    double xoffset = xmin;
+    double yoffset = ymin;
+
+    // keys hold the curve position in the high bits and the point index in the low bits
+    long[] keys = new long[to - from];
+    IntStream range = IntStream.range(from, to);
+    (parallel ? range.parallel() : range).forEach(i -> {
+      int p = order[i];
+      int hx = (int) ((x[p] - xoffset) * xscale);
+      int hy = (int) ((y[p] - yoffset) * yscale);
+      keys[i - from] = (hilbert(hx, hy, HILBERT_ORDER) << 31) | p;
+    });
+
+    if (parallel)
+      Arrays.parallelSort(keys);
+    else
+      Arrays.sort(keys);
+
+    for (int i = from; i < to; i++)
+      order[i] = (int) (keys[i - from] & Integer.MAX_VALUE);
+  }
+
+  /** Return the position of cell (x,y) on the Hilbert curve covering 2^order * 2^order cells. */
+  protected static long hilbert(int x, int y, int order) {
+    int n = 1 << order;
+    long d = 0;
+
+    for (int s = n >> 1; s > 0; s >>= 1) {
+      int rx = (x & s) > 0 ? 1 : 0;
+      int ry = (y & s) > 0 ? 1 : 0;
+      d += (long) s * s * ((3 * rx) ^ ry);
+
+      // rotate quadrant
+      if (ry == 0) {
+        if (rx == 1) {
+          x = n - 1 - x;
+          y = n - 1 - y;
+        }
+        int swap = x;
+        x = y;
+        y = swap;
+      }
+    }
+    return d;
+  }
+
+  /* ******************************** TRIANGULATION ********************************/
+
+  protected void triangulate(int[] order) {
+    int capacity = 2 * order.length + 8;
+    vertices = new int[capacity * 3];
+    neighbours = new int[capacity * 3];
+
+    int first = initialTriangle(order);
+
+    if (first < 0) {
+      triangles = new int[0];
+      return;
+    }
+
+    for (int i = first; i < order.length; i++) {
+      insert(order[i]);
+    }
+
+    triangles = realTriangles();
+
+    // release the triangle store
+    vertices = null;
+    neighbours = null;
+  }
+
+  /**
+   * Build the first triangle out of the first three non collinear points, and its three ghost
+   * triangles. Return the position in order of the next point to insert, or -1 if all points are
+   * collinear.
+   */
+  protected int initialTriangle(int[] order) {
+    if (order.length < 3)
+      return -1;
+
+    int a = order[0];
+    int ib = 1;
+    while (ib < order.length && x[order[ib]] == x[a] && y[order[ib]] == y[a])
+      ib++;
+    if (ib == order.length)
+      return -1;
+    int b = order[ib];
+
+    int ic = ib + 1;
+    while (ic < order.length && orient(a, b, x[order[ic]], y[order[ic]]) == 0)
+      ic++;
+    if (ic == order.length)
+      return -1;
+    int c = order[ic];
+
+    // move a, b, c to the beginning of the order, shifting skipped points after them
+    System.arraycopy(order, ib + 1, order, ib + 2, ic - ib - 1);
+    System.arraycopy(order, 1, order, 3, ib - 1);
+    order[1] = b;
+    order[2] = c;
+
+    if (orient(a, b, x[c], y[c]) < 0) {
+      int swap = b;
+      b = c;
+      c = swap;
+    }
+
+    int t = newTriangle(a, b, c);
+    int gc = newTriangle(b, a, INFINITE); // ghost of edge a,b
+    int ga = newTriangle(c, b, INFINITE); // ghost of edge b,c
+    int gb = newTriangle(a, c, INFINITE); // ghost of edge c,a
+
+    setNeighbours(t, ga, gb, gc);
+    setNeighbours(gc, gb, ga, t);
+    setNeighbours(ga, gc, gb, t);
+    setNeighbours(gb, ga, gc, t);
+
+    last = t;
+    return 3;
+  }
+
+  protected void insert(int p) {
+    double px = x[p];
+    double py = y[p];
+    int t = locate(px, py);
+
+    if (isGhost(t)) {
+      splitTriangle(t, p);
+    } else {
+      int a = vertices[3 * t];
+      int b = vertices[3 * t + 1];
+      int c = vertices[3 * t + 2];
+
+      if (isSame(a, px, py) || isSame(b, px, py) || isSame(c, px, py)) {
+        duplicates++;
+        return;
+      }
+
+      double oa = orient(b, c, px, py);
+      double ob = orient(c, a, px, py);
+      double oc = orient(a, b, px, py);
+      int zeros = (oa == 0 ? 1 : 0) + (ob == 0 ? 1 : 0) + (oc == 0 ? 1 : 0);
+
+      if (zeros == 0)
+        splitTriangle(t, p);
+      else if (zeros == 1)
+        splitEdge(t, oa == 0 ? 0 : (ob == 0 ? 1 : 2), p);
+      else {
+        // numerically on a vertex
+        duplicates++;
+        return;
+      }
+    }
+    legalize(p);
+  }
+
+  /**
+   * Return the real triangle containing p, or a ghost triangle whose hull edge sees p if p is out
+   * of the convex hull.
+   */
+  protected int locate(double px, double py) {
+    int t = last;
+
+    if (isGhost(t))
+      t = neighbours[3 * t + slotOf(t, INFINITE)];
+
+    for (int steps = 0; steps < 2 * triangleCount + 16; steps++) {
+      // start from a random edge to avoid cycling
+      int r = nextRandom() % 3;
+      int next = -1;
+
+      for (int k = 0; k < 3; k++) {
+        int e = (r + k) % 3;
+        int a = vertices[3 * t + (e + 1) % 3];
+        int b = vertices[3 * t + (e + 2) % 3];
+        if (orient(a, b, px, py) < 0) {
+          next = neighbours[3 * t + e];
+          break;
+        }
+      }
+
+      if (next < 0 || isGhost(next))
+        return next < 0 ? t : next;
+      t = next;
+    }
+    return scan(px, py);
+  }
+
+  /** Exhaustive point location, used if the walk does not terminate due to rounding errors. */
+  protected int scan(double px, double py) {
+    for (int t = 0; t < triangleCount; t++) {
+      if (!isGhost(t) && orient(vertices[3 * t], vertices[3 * t + 1], px, py) >= 0
+          && orient(vertices[3 * t + 1], vertices[3 * t + 2], px, py) >= 0
+          && orient(vertices[3 * t + 2], vertices[3 * t], px, py) >= 0)
+        return t;
+    }
+    for (int t = 0; t < triangleCount; t++) {
+      if (isGhost(t) && isInConflict(t, px, py))
+        return t;
+    }
+    throw new IllegalStateException("Can not locate point " + px + "," + py);
+  }
+
+  /** Replace t by three triangles having p as first vertex. */
+  protected void splitTriangle(int t, int p) {
+    int a = vertices[3 * t];
+    int b = vertices[3 * t + 1];
+    int c = vertices[3 * t + 2];
+    int na = neighbours[3 * t];
+    int nb = neighbours[3 * t + 1];
+    int nc = neighbours[3 * t + 2];
+
+    int t1 = newTriangle(p, b, c);
+    int t2 = newTriangle(p, c, a);
+    setVertices(t, p, a, b);
+
+    setNeighbours(t, nc, t1, t2);
+    setNeighbours(t1, na, t2, t);
+    setNeighbours(t2, nb, t, t1);
+    replaceNeighbour(na, t, t1);
+    replaceNeighbour(nb, t, t2);
+
+    push(t);
+    push(t1);
+    push(t2);
+    last = t;
+  }
+
+  /**
+   * Replace t and its neighbour opposite to its vertex e by four triangles having p as first
+   * vertex, p lying on their shared edge.
+   */
+  protected void splitEdge(int t, int e, int p) {
+    int c = vertices[3 * t + e];
+    int a = vertices[3 * t + (e + 1) % 3];
+    int b = vertices[3 * t + (e + 2) % 3];
+    int na = neighbours[3 * t + (e + 1) % 3];
+    int nb = neighbours[3 * t + (e + 2) % 3];
+
+    int u = neighbours[3 * t + e];
+    int j = slotOfNeighbour(u, t);
+    int d = vertices[3 * u + j];
+    int mb = neighbours[3 * u + (j + 1) % 3];
+    int ma = neighbours[3 * u + (j + 2) % 3];
+
+    int t2 = newTriangle(p, c, a);
+    int t4 = newTriangle(p, d, b);
+    setVertices(t, p, b, c);
+    setVertices(u, p, a, d);
+
+    setNeighbours(t, na, t2, t4);
+    setNeighbours(t2, nb, u, t);
+    setNeighbours(u, mb, t4, t2);
+    setNeighbours(t4, ma, t, u);
+    replaceNeighbour(nb, t, t2);
+    replaceNeighbour(ma, u, t4);
+
+    push(t);
+    push(t2);
+    push(u);
+    push(t4);
+    last = t;
+  }
+
+  /**
+   * Flip the edges opposite to p in stacked triangles until they are all locally Delaunay. Stacked
+   * triangles have p as first vertex.
+   */
+  protected void legalize(int p) {
+    double px = x[p];
+    double py = y[p];
+
+    while (stackSize > 0) {
+      int t = stack[--stackSize];
+      int u = neighbours[3 * t];
+
+      if (isInConflict(u, px, py)) {
+        flip(t, u, slotOfNeighbour(u, t));
+        push(t);
+        push(u);
+      }
+    }
+  }
+
+  /**
+   * Flip the edge shared by t=(p,q,r) and u=(d,r,q), d being at slot j of u. t becomes (p,q,d) and
+   * u becomes (p,d,r).
+   */
+  protected void flip(int t, int u, int j) {
+    int p = vertices[3 * t];
+    int q = vertices[3 * t + 1];
+    int r = vertices[3 * t + 2];
+    int d = vertices[3 * u + j];
+
+    int na = neighbours[3 * t + 1];
+    int nb = neighbours[3 * t + 2];
+    int nc = neighbours[3 * u + (j + 1) % 3];
+    int nd = neighbours[3 * u + (j + 2) % 3];
+
+    setVertices(t, p, q, d);
+    setVertices(u, p, d, r);
+    setNeighbours(t, nc, u, nb);
+    setNeighbours(u, nd, na, t);
+    replaceNeighbour(nc, u, t);
+    replaceNeighbour(na, t, u);
+  }
+
+  /**
+   * Return true if p lies in the circumcircle of the real triangle t, or strictly on the outer side
+   * of the hull edge of the ghost triangle t.
+   */
+  protected boolean isInConflict(int t, double px, double py) {
+    int a = vertices[3 * t];
+    int b = vertices[3 * t + 1];
+    int c = vertices[3 * t + 2];
+
+    if (a == INFINITE)
+      return orient(b, c, px, py) > 0;
+    else if (b == INFINITE)
+      return orient(c, a, px, py) > 0;
+    else if (c == INFINITE)
+      return orient(a, b, px, py) > 0;
+    else
+      return inCircle(a, b, c, px, py) > 0;
+  }
+
+  protected int[] realTriangles() {
+    int real = 0;
+    for (int t = 0; t < triangleCount; t++)
+      if (!isGhost(t))
+        real++;
+
+    int[] output = new int[real * 3];
+    int i = 0;
+    for (int t = 0; t < triangleCount; t++) {
+      if (!isGhost(t)) {
+        output[i++] = vertices[3 * t];
+        output[i++] = vertices[3 * t + 1];
+        output[i++] = vertices[3 * t + 2];
+      }
+    }
+    return output;
+  }
+
+  /* ******************************** PREDICATES ********************************/
+
+  /**
+   * Return a positive value if p is on the left of a,b, negative if on the right, zero if
+   * collinear.
+   */
+  protected double orient(int a, int b, double px, double py) {
+    return (x[b] - x[a]) * (py - y[a]) - (y[b] - y[a]) * (px - x[a]);
+  }
+
+  /**
+   * Return a positive value if p lies inside the circumcircle of the counter clockwise triangle
+   * a,b,c.
+   */
+  protected double inCircle(int a, int b, int c, double px, double py) {
+    double adx = x[a] - px;
+    double ady = y[a] - py;
+    double bdx = x[b] - px;
+    double bdy = y[b] - py;
+    double cdx = x[c] - px;
+    double cdy = y[c] - py;
+
+    double ad = adx * adx + ady * ady;
+    double bd = bdx * bdx + bdy * bdy;
+    double cd = cdx * cdx + cdy * cdy;
+
+    return adx * (bdy * cd - bd * cdy) - ady * (bdx * cd - bd * cdx)
+        + ad * (bdx * cdy - bdy * cdx);
+  }
+
+  protected boolean isSame(int a, double px, double py) {
+    return x[a] == px && y[a] == py;
+  }
+
+  /* ******************************** TRIANGLE STORE ********************************/
+
+  protected int newTriangle(int a, int b, int c) {
+    if ((triangleCount + 1) * 3 > vertices.length) {
+      int capacity = triangleCount + (triangleCount >> 1) + 8;
+      vertices = Arrays.copyOf(vertices, capacity * 3);
+      neighbours = Arrays.copyOf(neighbours, capacity * 3);
+    }
+    int t = triangleCount++;
+    setVertices(t, a, b, c);
+    return t;
+  }
+
+  protected void setVertices(int t, int a, int b, int c) {
+    vertices[3 * t] = a;
+    vertices[3 * t + 1] = b;
+    vertices[3 * t + 2] = c;
+  }
+
+  protected void setNeighbours(int t, int na, int nb, int nc) {
+    neighbours[3 * t] = na;
+    neighbours[3 * t + 1] = nb;
+    neighbours[3 * t + 2] = nc;
+  }
+
+  protected void replaceNeighbour(int t, int oldNeighbour, int newNeighbour) {
+    neighbours[3 * t + slotOfNeighbour(t, oldNeighbour)] = newNeighbour;
+  }
+
+  protected int slotOfNeighbour(int t, int neighbour) {
+    if (neighbours[3 * t] == neighbour)
+      return 0;
+    else if (neighbours[3 * t + 1] == neighbour)
+      return 1;
+    else if (neighbours[3 * t + 2] == neighbour)
+      return 2;
+    throw new IllegalStateException(neighbour + " is not a neighbour of " + t);
+  }
+
+  protected int slotOf(int t, int vertex) {
+    if (vertices[3 * t] == vertex)
+      return 0;
+    else if (vertices[3 * t + 1] == vertex)
+      return 1;
+    else
+      return 2;
+  }
+
+  protected boolean isGhost(int t) {
+    return vertices[3 * t] == INFINITE || vertices[3 * t + 1] == INFINITE
+        || vertices[3 * t + 2] == INFINITE;
+  }
+
+  protected void push(int t) {
+    if (stackSize == stack.length)
+      stack = Arrays.copyOf(stack, stackSize * 2);
+    stack[stackSize++] = t;
+  }
+
+  protected int nextRandom() {
+    seed ^= seed << 13;
+    seed ^= seed >>> 17;
+    seed ^= seed << 5;
+    return seed & Integer.MAX_VALUE;
+  }
+
+  /* */
+
+  protected static void center(double[] x, double[] y) {
+    double xmin = Double.POSITIVE_INFINITY, xmax = Double.NEGATIVE_INFINITY;
+    double ymin = Double.POSITIVE_INFINITY, ymax = Double.NEGATIVE_INFINITY;
+
+    for (int i = 0; i < x.length; i++) {
+      if (x[i] < xmin)
+        xmin = x[i];
+      if (x[i] > xmax)
+        xmax = x[i];
+      if (y[i] < ymin)
+        ymin = y[i];
+      if (y[i] > ymax)
+        ymax = y[i];
+    }
+
+    if (xmin > xmax || ymin > ymax)
+      return;
+
+    double cx = (xmin + xmax) / 2;
+    double cy = (ymin + ymax) / 2;
+
+    for (int i = 0; i < x.length; i++) {
+      x[i] -= cx;
+      y[i] -= cy;
+    }
+  }
+
+  protected static double[] toDouble(float[] values) {
+    double[] output = new double[values.length];
+    for (int i = 0; i < values.length; i++)
+      output[i] = values[i];
+    return output;
+  }
+}
@@ -0,0 +1,139 @@
+package il.ac.idc.jdt;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import il.ac.idc.jdt.IndexedDelaunayTriangulation.InsertionOrder;
+
+public class TestIndexedDelaunayTriangulation {
+  @Test
+  public void whenTriangulatingRandomPoints_ThenTrianglesAreDelaunay() {
+    for (InsertionOrder order : InsertionOrder.values()) {
+      Random r = new Random(0);
+      int n = 3000;
+      double[] x = new double[n];
+      double[] y = new double[n];
+      for (int i = 0; i < n; i++) {
+        // clustered points, far from origin
+        double cluster = r.nextInt(5) * 10;
+        x[i] = 600000 + cluster + r.nextGaussian();
+        y[i] = 4000000 + cluster + r.nextGaussian();
+      }
+
+      IndexedDelaunayTriangulation dt = new IndexedDelaunayTriangulation(x, y, order, false);
+      int[] triangles = dt.getTriangles();
+
+      assertCounterClockwise(x, y, triangles);
+      assertEmptyCircles(x, y, triangles, 200);
+      Assert.assertEquals(countJdtTriangles(x, y), dt.getTriangleCount());
+    }
+  }
+
+  @Test
+  public void whenTriangulatingGrid_ThenCocircularAndCollinearPointsAreHandled() {
+    int n = 30;
+    double[] x = new double[n * n];
+    double[] y = new double[n * n];
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        x[i * n + j] = i;
+        y[i * n + j] = j;
+      }
+    }
+
+    IndexedDelaunayTriangulation dt = new IndexedDelaunayTriangulation(x, y);
+
+    // each cell is made of two triangles of area 0.5
+    Assert.assertEquals(2 * (n - 1) * (n - 1), dt.getTriangleCount());
+    assertCounterClockwise(x, y, dt.getTriangles());
+    double area = 0;
+    int[] t = dt.getTriangles();
+    for (int i = 0; i < t.length; i += 3)
+      area += orient(x, y, t[i], t[i + 1], t[i + 2]) / 2;
+    Assert.assertEquals((n - 1) * (n - 1), area, 1e-9);
+  }
+
+  @Test
+  public void whenPointsAreDuplicatedOrNaN_ThenTheyAreIgnored() {
+    float[] x = {0, 1, 0, 1, 1, Float.NaN, 0.5f};
+    float[] y = {0, 0, 1, 1, 0, 0.5f, 0.5f};
+
+    IndexedDelaunayTriangulation dt = new IndexedDelaunayTriangulation(x, y);
+
+    Assert.assertEquals(4, dt.getTriangleCount());
+    Assert.assertEquals(1, dt.getDuplicateCount());
+    for (int v : dt.getTriangles()) {
+      Assert.assertNotEquals(5, v);
+    }
+  }
+
+  @Test
+  public void whenPointsAreCollinear_ThenThereIsNoTriangle() {
+    double[] x = {0, 1, 2, 3};
+    double[] y = {0, 1, 2, 3};
+
+    Assert.assertEquals(0, new IndexedDelaunayTriangulation(x, y).getTriangleCount());
+
+    // adding a point out of the line builds a triangle fan
+    x = new double[] {0, 1, 2, 3, 0};
+    y = new double[] {0, 1, 2, 3, 1};
+    IndexedDelaunayTriangulation dt = new IndexedDelaunayTriangulation(x, y);
+    Assert.assertEquals(3, dt.getTriangleCount());
+    assertCounterClockwise(x, y, dt.getTriangles());
+  }
+
+  /* */
+
+  protected void assertCounterClockwise(double[] x, double[] y, int[] triangles) {
+    for (int i = 0; i < triangles.length; i += 3) {
+      Assert.assertTrue(orient(x, y, triangles[i], triangles[i + 1], triangles[i + 2]) > 0);
+    }
+  }
+
+  /** Verify that no point lies inside the circumcircle of the given number of triangles. */
+  protected void assertEmptyCircles(double[] x, double[] y, int[] triangles, int checked) {
+    int step = Math.max(1, triangles.length / 3 / checked);
+
+    for (int t = 0; t < triangles.length / 3; t += step) {
+      int a = triangles[3 * t], b = triangles[3 * t + 1], c = triangles[3 * t + 2];
+
+      for (int p = 0; p < x.length; p++) {
+        if (p == a || p == b || p == c)
+          continue;
+        Assert.assertFalse("point " + p + " in circle of triangle " + t,
+            inCircle(x, y, a, b, c, p) > 1e-6);
+      }
+    }
+  }
+
+  protected int countJdtTriangles(double[] x, double[] y) {
+    List<Point> points = new ArrayList<Point>();
+    for (int i = 0; i < x.length; i++)
+      points.add(new Point(x[i], y[i]));
+
+    DelaunayTriangulation jdt = new DelaunayTriangulation(points);
+    int count = 0;
+    Iterator<Triangle> it = jdt.trianglesIterator();
+    while (it.hasNext())
+      if (!it.next().isHalfplane())
+        count++;
+    return count;
+  }
+
+  protected double orient(double[] x, double[] y, int a, int b, int c) {
+    return (x[b] - x[a]) * (y[c] - y[a]) - (y[b] - y[a]) * (x[c] - x[a]);
+  }
+
+  protected double inCircle(double[] x, double[] y, int a, int b, int c, int p) {
+    double adx = x[a] - x[p], ady = y[a] - y[p];
+    double bdx = x[b] - x[p], bdy = y[b] - y[p];
+    double cdx = x[c] - x[p], cdy = y[c] - y[p];
+    double ad = adx * adx + ady * ady;
+    double bd = bdx * bdx + bdy * bdy;
+    double cd = cdx * cdx + cdy * cdy;
+    return adx * (bdy * cd - bd * cdy) - ady * (bdx * cd - bd * cdx) + ad * (bdx * cdy - bdy * cdx);
+  }
+}
@@ -3,6 +3,7 @@ package org.jzy3d.chart2d;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import org.jzy3d.plot2d.primitives.DownsampledLineSerie2d;
 import org.jzy3d.plot2d.primitives.LineSerie2d;
 import org.jzy3d.plot2d.primitives.ScatterPointSerie2d;
 import org.jzy3d.plot2d.primitives.ScatterSerie2d;
@@ -34,6 +35,8 @@ public class SerieManager {
   protected Serie2d newSerie(String name, Serie2d.Type type, Serie2d serie) {
     if (Serie2d.Type.LINE.equals(type))
       serie = new LineSerie2d(name);
+    else if (Serie2d.Type.LINE_DOWNSAMPLED.equals(type))
+      serie = new DownsampledLineSerie2d(name);
     else if (Serie2d.Type.SCATTER.equals(type))
       serie = new ScatterSerie2d(name);
     else if (Serie2d.Type.SCATTER_POINTS.equals(type))
@@ -71,6 +71,7 @@ public class MapperContourMeshGenerator extends AbstractContourGenerator
     boolean[][] processed = new boolean[xRes][yRes];
     // List<AbstractDrawable> strips = new ArrayList<AbstractDrawable>();
     ContourMesh mesh = new ContourMesh();
+    mesh.lines.setMergeStripDistance(MapperContourPictureGenerator.MERGE_STRIP_DIST);
 
     for (int i = 0; i < contours.length; i++) {
       for (int j = 0; j < contours[i].length; j++) {
@@ -0,0 +1,82 @@
+package org.jzy3d.contour;
+
+import org.jzy3d.maths.Coordinates;
+import org.jzy3d.maths.Range;
+import org.jzy3d.maths.Utils;
+import org.jzy3d.plot3d.builder.Mapper;
+import org.jzy3d.plot3d.builder.concrete.OrthonormalGrid;
+import org.jzy3d.plot3d.builder.contour.MarchingSquaresContourBuilder;
+import org.jzy3d.plot3d.primitives.contour.ContourLevel;
+import org.jzy3d.plot3d.primitives.contour.ContourMesh;
+
+
+/**
+ * Computes the contours of a {@link Mapper} with a {@link MarchingSquaresContourBuilder}, and
+ * returns them as a {@link ContourMesh}.
+ *
+ * Unlike {@link MapperContourMeshGenerator}, the resolution is the number of grid points where the
+ * mapper is evaluated, and lines are interpolated between them rather than following the pixels of
+ * a quantized matrix. The contour matrix is still computed by {@link MapperContourMeshGenerator}.
+ *
+ * @author Martin Pernollet
+ */
+public class MarchingSquaresContourMeshGenerator extends MapperContourMeshGenerator {
+  protected MarchingSquaresContourBuilder builder = new MarchingSquaresContourBuilder();
+
+  public MarchingSquaresContourMeshGenerator(Mapper mapper, Range xrange, Range yrange) {
+    super(mapper, xrange, yrange);
+  }
+
+  /** Compute nLevels contours evenly spaced between the minimum and maximum of the mapper. */
+  @Override
+  public ContourMesh getContourMesh(IContourColoringPolicy policy, int xRes, int yRes, int nLevels,
+      float planeAxe, boolean writeText) {
+    OrthonormalGrid grid = new OrthonormalGrid(xrange, xRes, yrange, yRes);
+    Coordinates coords = grid.applyAsCoordinates(mapper);
+
+    // a flat surface, or a surface where the mapper is undefined, has no contour
+    double[] levels = MarchingSquaresContourBuilder.levels(coords.getZ(), nLevels);
+    if (levels.length == 0)
+      return new ContourMesh();
+
+    return computeMesh(policy, grid, coords, levels, planeAxe);
+  }
+
+  @Override
+  public ContourMesh getContourMesh(IContourColoringPolicy policy, int xRes, int yRes,
+      double sortedLevels[], float planeAxe, boolean writeText) {
+    OrthonormalGrid grid = new OrthonormalGrid(xrange, xRes, yrange, yRes);
+    return computeMesh(policy, grid, grid.applyAsCoordinates(mapper), sortedLevels, planeAxe);
+  }
+
+  protected ContourMesh computeMesh(IContourColoringPolicy policy, OrthonormalGrid grid,
+      Coordinates coords, double[] levels, float planeAxe) {
+    int xsteps = grid.getXsteps();
+    int ysteps = grid.getYsteps();
+    float[] x = new float[xsteps];
+    float[] y = new float[ysteps];
+    for (int xi = 0; xi < xsteps; xi++)
+      x[xi] = coords.getX()[xi * ysteps];
+    System.arraycopy(coords.getY(), 0, y, 0, ysteps);
+
+    if (policy instanceof DefaultContourColoringPolicy)
+      builder.setColorMapper(((DefaultContourColoringPolicy) policy).getColorMapper());
+    builder.setLineWidth(LINE_STRIP_WIDTH);
+
+    ContourMesh mesh = new ContourMesh();
+    mesh.lines = builder.build(x, y, coords.getZ(), levels);
+
+    for (double level : levels) {
+      ContourLevel contour = mesh.lines.getContourLevel(level);
+      if (contour != null) {
+        contour.fixZ(planeAxe);
+        mesh.setLevelLabel(level, Utils.num2str('f', level, 2));
+      }
+    }
+    return mesh;
+  }
+
+  public MarchingSquaresContourBuilder getBuilder() {
+    return builder;
+  }
+}
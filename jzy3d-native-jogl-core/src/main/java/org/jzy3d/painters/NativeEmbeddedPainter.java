@@ -16,6 +16,7 @@ import org.jzy3d.plot3d.rendering.lights.LightModel;
 import org.jzy3d.plot3d.rendering.lights.MaterialProperty;
 import org.jzy3d.plot3d.rendering.view.Camera;
 import org.jzy3d.plot3d.rendering.view.View;
+import com.jogamp.common.nio.Buffers;
 import com.jogamp.opengl.GL;
 import com.jogamp.opengl.GL2;
 import com.jogamp.opengl.GL2ES1;
@@ -29,6 +30,14 @@ public class NativeEmbeddedPainter extends AbstractPainter implements IPainter {
   protected GL gl;
   protected GLU glu = new GLU();
   protected GLUT glut = new GLUT();
+
+  // direct copies of non direct client arrays, kept alive until the arrays are drawn and reused
+  // from one call to the other
+  protected FloatBuffer vertexArray;
+  protected FloatBuffer colorArray;
+  protected FloatBuffer normalArray;
+  protected IntBuffer indexArray;
+
   protected Camera camera;
 
   @Override
@@ -965,6 +974,82 @@ public class NativeEmbeddedPainter extends AbstractPainter implements IPainter {
     gl.getGL2().glMap2f(target, u1, u2, ustride, uorder, v1, v2, vstride, vorder, points);
   }
 
+  @Override
+  public void glEnableClientState(int array) {
+    gl.getGL2().glEnableClientState(array);
+  }
+
+  @Override
+  public void glDisableClientState(int array) {
+    gl.getGL2().glDisableClientState(array);
+  }
+
+  @Override
+  public void glVertexPointer(int size, int type, int stride, FloatBuffer pointer) {
+    if (pointer != null && !pointer.isDirect()) {
+      pointer = vertexArray = direct(pointer, vertexArray);
+    }
+    gl.getGL2().glVertexPointer(size, type, stride, pointer);
+  }
+
+  @Override
+  public void glColorPointer(int size, int type, int stride, FloatBuffer pointer) {
+    if (pointer != null && !pointer.isDirect()) {
+      pointer = colorArray = direct(pointer, colorArray);
+    }
+    gl.getGL2().glColorPointer(size, type, stride, pointer);
+  }
+
+  @Override
+  public void glNormalPointer(int type, int stride, FloatBuffer pointer) {
+    if (pointer != null && !pointer.isDirect()) {
+      pointer = normalArray = direct(pointer, normalArray);
+    }
+    gl.getGL2().glNormalPointer(type, stride, pointer);
+  }
+
+  @Override
+  public void glDrawArrays(int mode, int first, int count) {
+    gl.glDrawArrays(mode, first, count);
+  }
+
+  @Override
+  public void glDrawElements(int mode, int count, int type, IntBuffer indices) {
+    if (indices != null && !indices.isDirect()) {
+      indices = indexArray = direct(indices, indexArray);
+    }
+    gl.getGL2().glDrawElements(mode, count, type, indices);
+  }
+
+  /**
+   * GL requires client arrays to be direct buffers, hence copy the remaining elements of a non
+   * direct buffer to the given direct buffer, which is only reallocated if it is too small. The
+   * returned buffer must remain referenced until the array is drawn.
+   */
+  protected FloatBuffer direct(FloatBuffer buffer, FloatBuffer target) {
+    int size = buffer.remaining();
+    if (target == null || target.capacity() < size) {
+      int capacity = target == null ? size : Math.max(size, target.capacity() * 2);
+      target = Buffers.newDirectFloatBuffer(capacity);
+    }
+    target.clear();
+    target.put(buffer.duplicate());
+    target.flip();
+    return target;
+  }
+
+  protected IntBuffer direct(IntBuffer buffer, IntBuffer target) {
+    int size = buffer.remaining();
+    if (target == null || target.capacity() < size) {
+      int capacity = target == null ? size : Math.max(size, target.capacity() * 2);
+      target = Buffers.newDirectIntBuffer(capacity);
+    }
+    target.clear();
+    target.put(buffer.duplicate());
+    target.flip();
+    return target;
+  }
+
 
   /* *********************************************************************** */
 
@@ -1205,5 +1290,80 @@ public class NativeEmbeddedPainter extends AbstractPainter implements IPainter {
     gl.glDisable(GL2.GL_STENCIL);
   }
 
+  @Override
+  public void glEnableClientState_VertexArray() {
+    glEnableClientState(GL2.GL_VERTEX_ARRAY);
+  }
+
+  @Override
+  public void glDisableClientState_VertexArray() {
+    glDisableClientState(GL2.GL_VERTEX_ARRAY);
+  }
+
+  @Override
+  public void glEnableClientState_ColorArray() {
+    glEnableClientState(GL2.GL_COLOR_ARRAY);
+  }
+
+  @Override
+  public void glDisableClientState_ColorArray() {
+    glDisableClientState(GL2.GL_COLOR_ARRAY);
+  }
+
+  @Override
+  public void glEnableClientState_NormalArray() {
+    glEnableClientState(GL2.GL_NORMAL_ARRAY);
+  }
+
+  @Override
+  public void glDisableClientState_NormalArray() {
+    glDisableClientState(GL2.GL_NORMAL_ARRAY);
+  }
+
+  @Override
+  public void glVertexPointer_Float(int size, int stride, FloatBuffer pointer) {
+    glVertexPointer(size, GL2.GL_FLOAT, stride, pointer);
+  }
+
+  @Override
+  public void glColorPointer_Float(int size, int stride, FloatBuffer pointer) {
+    glColorPointer(size, GL2.GL_FLOAT, stride, pointer);
+  }
+
+  @Override
+  public void glNormalPointer_Float(int stride, FloatBuffer pointer) {
+    glNormalPointer(GL2.GL_FLOAT, stride, pointer);
+  }
+
+  @Override
+  public void glDrawArrays_Triangles(int first, int count) {
+    glDrawArrays(GL2.GL_TRIANGLES, first, count);
+  }
+
+  @Override
+  public void glDrawArrays_Quads(int first, int count) {
+    glDrawArrays(GL2.GL_QUADS, first, count);
+  }
+
+  @Override
+  public void glDrawArrays_Points(int first, int count) {
+    glDrawArrays(GL2.GL_POINTS, first, count);
+  }
+
+  @Override
+  public void glDrawElements_Triangles(int count, IntBuffer indices) {
+    glDrawElements(GL2.GL_TRIANGLES, count, GL2.GL_UNSIGNED_INT, indices);
+  }
+
+  @Override
+  public void glDrawElements_Quads(int count, IntBuffer indices) {
+    glDrawElements(GL2.GL_QUADS, count, GL2.GL_UNSIGNED_INT, indices);
+  }
+
+  @Override
+  public void glDrawElements_Lines(int count, IntBuffer indices) {
+    glDrawElements(GL2.GL_LINES, count, GL2.GL_UNSIGNED_INT, indices);
+  }
+
 
 }
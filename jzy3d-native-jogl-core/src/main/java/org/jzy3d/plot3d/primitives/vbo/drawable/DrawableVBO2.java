@@ -10,6 +10,7 @@ import org.jzy3d.chart.Chart;
 import org.jzy3d.colors.Color;
 import org.jzy3d.colors.colormaps.IColorMap;
 import org.jzy3d.io.IGLLoader;
+import org.jzy3d.io.binary.MappedGeometry;
 import org.jzy3d.maths.BoundingBox3d;
 import org.jzy3d.maths.Normal.NormalMode;
 import org.jzy3d.painters.IPainter;
@@ -20,6 +21,7 @@ import org.jzy3d.plot3d.primitives.Polygon;
 import org.jzy3d.plot3d.primitives.Wireframeable;
 import org.jzy3d.plot3d.primitives.vbo.drawable.loaders.VBOBufferLoader;
 import org.jzy3d.plot3d.primitives.vbo.drawable.loaders.VBOBufferLoaderForArrays;
+import org.jzy3d.plot3d.primitives.vbo.drawable.loaders.VBOBufferLoaderForMappedGeometry;
 import org.jzy3d.plot3d.primitives.vbo.drawable.loaders.VBOBufferLoaderForPolygons;
 import org.jzy3d.plot3d.rendering.lights.Light;
 import org.jzy3d.plot3d.rendering.scene.Decomposition;
@@ -414,6 +416,14 @@ public class DrawableVBO2 extends Wireframeable implements IGLBindedResource {
     this.loader = loader;
   }
 
+  /**
+   * Initialize a VBO object with the buffers of a file mapped in memory. A geometry without
+   * indices is drawn as points.
+   */
+  public DrawableVBO2(MappedGeometry geometry) {
+    this(new VBOBufferLoaderForMappedGeometry(geometry));
+  }
+
 
   public static VBOBufferLoaderForPolygons makeLoader(List<Polygon> polygons,
       int verticesPerGeometry) {
@@ -843,7 +853,9 @@ public class DrawableVBO2 extends Wireframeable implements IGLBindedResource {
     // Case of non indexed mode (no vertex index defined)
 
     else {
-      gl2.glDrawArrays(glGeometryType, 0, vertices.capacity());
+      // count vertices, not floats
+      int vertexCount = vertices.capacity() / (vertexOffset / Buffers.SIZEOF_FLOAT);
+      gl2.glDrawArrays(glGeometryType, 0, vertexCount);
     }
 
   }
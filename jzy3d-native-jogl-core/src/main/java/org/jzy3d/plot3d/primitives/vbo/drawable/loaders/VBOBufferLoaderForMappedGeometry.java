@@ -0,0 +1,73 @@
+package org.jzy3d.plot3d.primitives.vbo.drawable.loaders;
+
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import org.jzy3d.io.IGLLoader;
+import org.jzy3d.io.binary.MappedGeometry;
+import org.jzy3d.painters.IPainter;
+import org.jzy3d.plot3d.primitives.vbo.drawable.DrawableVBO2;
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opengl.GL;
+
+/**
+ * Feed a {@link DrawableVBO2} with the buffers of a {@link MappedGeometry}.
+ *
+ * Positions, colors, normals and indices are given to the GPU as they are mapped from the file,
+ * without building intermediate coordinates. Colors and normals are hence never computed by this
+ * loader : they are used if the file has them. A file without indices is drawn as points.
+ *
+ * Buffers are only copied if the platform byte order is not the file byte order, since OpenGL
+ * reads buffers in native order.
+ */
+public class VBOBufferLoaderForMappedGeometry extends VBOBufferLoader
+    implements IGLLoader<DrawableVBO2> {
+  protected MappedGeometry geometry;
+
+  public VBOBufferLoaderForMappedGeometry(MappedGeometry geometry) {
+    this.geometry = geometry;
+  }
+
+  @Override
+  public void load(IPainter painter, DrawableVBO2 drawable) throws Exception {
+    FloatBuffer vertices = nativeOrder(geometry.getPositions());
+    FloatBuffer colors = nativeOrder(geometry.getColors());
+    FloatBuffer normals = nativeOrder(geometry.getNormals());
+    IntBuffer elements = nativeOrder(geometry.getIndices());
+
+    if (colors != null)
+      drawable.setColorChannels(geometry.getColorChannels());
+
+    drawable.setHasNormalInVertexArray(false);
+
+    if (elements != null) {
+      drawable.setVerticesPerGeometry(geometry.getVerticesPerElement());
+      drawable.setData(painter, elements, vertices, normals, colors, geometry.getBounds());
+    } else {
+      drawable.setGLGeometryType(GL.GL_POINTS);
+      drawable.setData(painter, vertices, normals, colors, geometry.getBounds());
+    }
+  }
+
+  protected FloatBuffer nativeOrder(FloatBuffer buffer) {
+    if (buffer == null || buffer.order() == ByteOrder.nativeOrder())
+      return buffer;
+
+    FloatBuffer copy = Buffers.newDirectFloatBuffer(buffer.remaining());
+    copy.put(buffer.duplicate()).rewind();
+    return copy;
+  }
+
+  protected IntBuffer nativeOrder(IntBuffer buffer) {
+    if (buffer == null || buffer.order() == ByteOrder.nativeOrder())
+      return buffer;
+
+    IntBuffer copy = Buffers.newDirectIntBuffer(buffer.remaining());
+    copy.put(buffer.duplicate()).rewind();
+    return copy;
+  }
+
+  public MappedGeometry getGeometry() {
+    return geometry;
+  }
+}
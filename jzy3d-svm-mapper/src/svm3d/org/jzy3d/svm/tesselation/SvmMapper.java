@@ -32,21 +32,52 @@ public class SvmMapper extends Mapper {
 
   @Override
   public double f(double x, double y) {
-    output = svm.apply(Conversion.toDataset(Conversion.toVector(x, y)));
-    return output[0];
+    double[] prediction = svm.apply(Conversion.toDataset(Conversion.toVector(x, y)));
+    output = prediction;
+    return prediction[0];
+  }
+
+  /**
+   * Predict a tile of the grid with a single call to the SVM. Predictions are kept in a local
+   * array and not published to {@link #getOutput()}, so that grids can predict several tiles in
+   * parallel.
+   */
+  @Override
+  public void f(double[] x, double[] y, float[] z, int from, int to) {
+    Vector<svm_node[]> nodes = new Vector<svm_node[]>(to - from);
+    for (int i = from; i < to; i++)
+      nodes.add(Conversion.toVector(x[i], y[i]));
+
+    double[] predictions = svm.apply(nodes);
+    for (int i = from; i < to; i++)
+      z[i] = (float) predictions[i - from];
+  }
+
+  /**
+   * Predicting only reads the trained model, and the batch evaluation does not modify the state of
+   * this mapper.
+   */
+  @Override
+  public boolean isThreadSafe() {
+    return true;
   }
 
 
   public double[] f(Vector<svm_node[]> nodes) {
-    output = svm.apply(nodes);
-    return output;
+    double[] predictions = svm.apply(nodes);
+    output = predictions;
+    return predictions;
   }
 
+  /**
+   * Return the predictions of the last call to {@link #f(double, double)} or {@link #f(Vector)},
+   * which are not updated by the evaluation of a grid.
+   */
   public double[] getOutput() {
     return output;
   }
 
-  protected double[] output;
+  protected volatile double[] output;
   protected Parameters params;
   protected SVM svm;
 }
@@ -0,0 +1,41 @@
+package org.jzy3d.svm.tesselation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import org.instantsvm.regression.RegressionParameters;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jzy3d.maths.Coord3d;
+import org.jzy3d.maths.Range;
+
+public class TestSvmGrid {
+  @Test
+  public void whenEvaluatingGrid_ThenPredictionsAreNotReported() {
+    Coord3d[] input = new Coord3d[50];
+    for (int i = 0; i < input.length; i++) {
+      double x = (i % 10) / 10.0;
+      double y = (i / 10) / 5.0;
+      input[i] = new Coord3d(x, y, x * y);
+    }
+    SvmMapper mapper = new SvmMapper(input, new RegressionParameters());
+
+    // Given a grid split in several tiles
+    SvmGrid grid = new SvmGrid(new Range(0, 1), 60);
+
+    // When evaluating the grid
+    PrintStream out = System.out;
+    ByteArrayOutputStream captured = new ByteArrayOutputStream();
+    List<Coord3d> points;
+    try {
+      System.setOut(new PrintStream(captured));
+      points = grid.apply(mapper);
+    } finally {
+      System.setOut(out);
+    }
+
+    // Then nothing is printed
+    Assert.assertEquals(60 * 60, points.size());
+    Assert.assertEquals("", captured.toString());
+  }
+}
@@ -203,7 +203,8 @@ public class SVM {
       }
 
     }
-    if (true) {
+    // report statistics only when predictions can be compared to targets
+    if (targets != null) {
       if (svm_type == svm_parameter.EPSILON_SVR || svm_type == svm_parameter.NU_SVR) {
         System.out.print("Mean squared error = " + error / total + " (regression)\n");
         System.out.print("Squared correlation coefficient = "